@@ -0,0 +1,52 @@
+package sudoku.batch;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import sudoku.model.ApplicationSettings;
+
+/**
+ * This class is the entry point for rating a file of puzzles from the command
+ * line, without starting the user interface. The solver configuration saved in
+ * the application's settings is used.
+ *
+ * Usage: BatchRatingMain inputFile outputFile [csv|jsonl] [threads]
+ */
+public class BatchRatingMain {
+
+	private static final Logger LOG = LogManager.getLogger(BatchRatingMain.class);
+
+	private static final String USAGE = "Usage: BatchRatingMain inputFile outputFile [csv|jsonl] [threads]";
+
+	public static void main(final String[] args) {
+		if (args.length < 2) {
+			System.err.println(USAGE);
+			System.exit(1);
+		}
+		final RatingOutputFormat outputFormat = args.length > 2 ? RatingOutputFormat.fromName(args[2])
+				: RatingOutputFormat.CSV;
+		final int parallelism = args.length > 3 ? Integer.parseInt(args[3])
+				: Runtime.getRuntime().availableProcessors();
+		// Loading the settings applies the saved solver configuration.
+		ApplicationSettings.getInstance();
+		int exitCode = 0;
+		try {
+			final BatchRatingReport report = new BatchRatingService(parallelism, outputFormat)
+					.ratePuzzles(Paths.get(args[0]), Paths.get(args[1]));
+			System.out.println(report);
+		} catch (final IOException e) {
+			LOG.error("{}", e);
+			exitCode = 1;
+		}
+		// HoDoKu leaves some non-daemon threads running, so the JVM has to be stopped
+		// explicitly.
+		System.exit(exitCode);
+	}
+
+	private BatchRatingMain() {
+		// Private constructor to prevent instantiation.
+	}
+}
@@ -0,0 +1,52 @@
+package sudoku.batch;
+
+/**
+ * This class contains statistics about a finished batch rating run.
+ */
+public class BatchRatingReport {
+
+	private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+	private final long numPuzzles;
+
+	private final long numInvalidPuzzles;
+
+	private final long elapsedNanos;
+
+	private final int parallelism;
+
+	public BatchRatingReport(final long numPuzzles, final long numInvalidPuzzles, final long elapsedNanos,
+			final int parallelism) {
+		this.numPuzzles = numPuzzles;
+		this.numInvalidPuzzles = numInvalidPuzzles;
+		this.elapsedNanos = elapsedNanos;
+		this.parallelism = parallelism;
+	}
+
+	public long getNumPuzzles() {
+		return this.numPuzzles;
+	}
+
+	public long getNumInvalidPuzzles() {
+		return this.numInvalidPuzzles;
+	}
+
+	public long getElapsedNanos() {
+		return this.elapsedNanos;
+	}
+
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	public double getPuzzlesPerSecond() {
+		return this.elapsedNanos == 0 ? 0 : this.numPuzzles * NANOS_PER_SECOND / this.elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Rated %d puzzles (%d invalid) in %.2f s with %d threads: %.1f puzzles / s",
+				this.numPuzzles, this.numInvalidPuzzles, this.elapsedNanos / NANOS_PER_SECOND, this.parallelism,
+				this.getPuzzlesPerSecond());
+	}
+}
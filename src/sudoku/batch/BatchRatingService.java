@@ -0,0 +1,126 @@
+package sudoku.batch;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import sudoku.core.HodokuFacade;
+import sudoku.model.ApplicationSettings;
+import sudoku.model.PuzzleRating;
+import sudoku.model.SolverConfigSnapshot;
+
+/**
+ * This class rates every puzzle in a file, and writes the ratings to another
+ * file. Puzzles are read one line at a time and rated in parallel, but the
+ * ratings are always written in the same order as the input. Only a bounded
+ * number of puzzles are held in memory at once, so files of any size can be
+ * rated.
+ */
+public class BatchRatingService {
+
+	private static final Logger LOG = LogManager.getLogger(BatchRatingService.class);
+
+	private static final int TASKS_IN_FLIGHT_PER_THREAD = 4;
+
+	private static final String COMMENT_PREFIX = "#";
+
+	private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+
+	// Matches the puzzle at the start of a line (anything after it is ignored).
+	private static final Pattern SUDOKU_PUZZLE_PATTERN = Pattern.compile("[0-9.]{81}");
+
+	private static final int PUZZLE_LENGTH = 81;
+
+	private final int parallelism;
+
+	private final RatingOutputFormat outputFormat;
+
+	public BatchRatingService(final int parallelism, final RatingOutputFormat outputFormat) {
+		this.parallelism = parallelism;
+		this.outputFormat = outputFormat;
+	}
+
+	/**
+	 * Rates each puzzle in the input file, and writes one line per puzzle to the
+	 * output file. Empty lines and lines starting with # are skipped. Only the
+	 * first 81 characters of the first token on each line are used, so most puzzle
+	 * collection formats with trailing comments work as is.
+	 */
+	public BatchRatingReport ratePuzzles(final Path inputFile, final Path outputFile) throws IOException {
+		final ForkJoinPool ratingPool = new ForkJoinPool(this.parallelism);
+		final Deque<ForkJoinTask<String>> pendingLines = new ArrayDeque<>();
+		final int maxPendingLines = this.parallelism * TASKS_IN_FLIGHT_PER_THREAD;
+		final AtomicLong numInvalidPuzzles = new AtomicLong();
+		// Every puzzle in the file is rated with the same settings.
+		final SolverConfigSnapshot solverConfig = ApplicationSettings.getInstance().getSolverConfigSnapshot();
+		long numPuzzles = 0;
+		final long startTime = System.nanoTime();
+		try (BufferedReader reader = Files.newBufferedReader(inputFile);
+				BufferedWriter writer = Files.newBufferedWriter(outputFile)) {
+			final String header = this.outputFormat.getHeader();
+			if (header != null) {
+				this.writeLine(writer, header);
+			}
+			String line = reader.readLine();
+			while (line != null) {
+				final String trimmedLine = line.trim();
+				if (!trimmedLine.isEmpty() && !trimmedLine.startsWith(COMMENT_PREFIX)) {
+					final long index = numPuzzles++;
+					final String puzzleString = WHITESPACE_PATTERN.split(trimmedLine)[0];
+					pendingLines.add(ratingPool.submit(() -> this.rateAndFormat(index, puzzleString, solverConfig,
+							numInvalidPuzzles)));
+					// Waiting on the oldest puzzle keeps the output in order, and bounds memory.
+					if (pendingLines.size() >= maxPendingLines) {
+						this.writeLine(writer, pendingLines.poll().join());
+					}
+				}
+				line = reader.readLine();
+			}
+			while (!pendingLines.isEmpty()) {
+				this.writeLine(writer, pendingLines.poll().join());
+			}
+		} finally {
+			ratingPool.shutdownNow();
+		}
+		final BatchRatingReport report = new BatchRatingReport(numPuzzles, numInvalidPuzzles.get(),
+				System.nanoTime() - startTime, this.parallelism);
+		LOG.info("{}", report);
+		return report;
+	}
+
+	private String rateAndFormat(final long index, final String puzzleString, final SolverConfigSnapshot solverConfig,
+			final AtomicLong numInvalidPuzzles) {
+		PuzzleRating rating;
+		if (SUDOKU_PUZZLE_PATTERN.matcher(puzzleString).lookingAt()) {
+			try {
+				rating = HodokuFacade.getInstance().getRatingForPuzzle(puzzleString.substring(0, PUZZLE_LENGTH),
+						solverConfig);
+			} catch (final Exception e) {
+				LOG.error("Could not rate puzzle {}: {}", index, e);
+				rating = PuzzleRating.createInvalidRating();
+			}
+		} else {
+			rating = PuzzleRating.createInvalidRating();
+		}
+		if (!rating.isValid()) {
+			numInvalidPuzzles.incrementAndGet();
+		}
+		return this.outputFormat.formatRating(index, puzzleString, rating);
+	}
+
+	private void writeLine(final BufferedWriter writer, final String line) throws IOException {
+		writer.write(line);
+		writer.newLine();
+	}
+}
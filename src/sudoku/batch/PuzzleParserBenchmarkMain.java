@@ -0,0 +1,121 @@
+package sudoku.batch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import sudoku.model.ParsedSudokuPuzzle;
+import sudoku.model.SudokuPuzzleParser;
+
+/**
+ * This class is the entry point for benchmarking SudokuPuzzleParser from the
+ * command line. Each line of the given file (or a built-in sample of each
+ * format) is parsed over and over into the same result, and the number of
+ * puzzles parsed per second is printed. The first round only warms up the JIT,
+ * and is not measured.
+ *
+ * Usage: PuzzleParserBenchmarkMain [numPuzzles] [puzzleFile]
+ */
+public class PuzzleParserBenchmarkMain {
+
+	private static final Logger LOG = LogManager.getLogger(PuzzleParserBenchmarkMain.class);
+
+	private static final String USAGE = "Usage: PuzzleParserBenchmarkMain [numPuzzles] [puzzleFile]";
+
+	private static final int DEFAULT_NUM_PUZZLES = 5_000_000;
+
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	private static final String SAMPLE_LINE = "53..7....6..195....98....6.8...6...34..8.3..17...2...6.6....28....419..5....8..79";
+
+	private static final String SAMPLE_LINE_WITH_CANDIDATES = "530070000600195000098000060800060003400803001700020006"
+			+ "060000280000419005000080079[r0c2=124][r0c3=26][r0c5=2468][r8c0=123]";
+
+	private static final String SAMPLE_GRID = String.join("\n", "[Puzzle]", "53..7....", "6..195...", ".98....6.",
+			"8...6...3", "4..8.3..1", "7...2...6", ".6....28.", "...419..5", "....8..79");
+
+	private static final String SAMPLE_PENCIL_MARK_GRID = String.join("\n",
+			".---------------------.---------------------.---------------------.",
+			"| 5      3      124   | 26     7      2468  | 1489   1249   248   |",
+			"| 6      247    247   | 1      9      5     | 3478   234    2478  |",
+			"| 12     9      8     | 23     34     234   | 13457  6      247   |",
+			":---------------------+---------------------+---------------------:",
+			"| 8      1257   1259  | 579    6      147   | 4579   2459   3     |",
+			"| 4      25     2569  | 8      5      3     | 579    259    1     |",
+			"| 7      15     1359  | 59     2      149   | 4589   4589   6     |",
+			":---------------------+---------------------+---------------------:",
+			"| 139    6      13479 | 357    35     7     | 2      8      47    |",
+			"| 23     278    237   | 4      1      9     | 367    37     5     |",
+			"| 123    1245   12345 | 2356   8      26    | 1346   7      9     |",
+			"'---------------------'---------------------'---------------------'");
+
+	public static void main(final String[] args) {
+		if (args.length > 2) {
+			System.err.println(USAGE);
+			System.exit(1);
+		}
+		final int numPuzzles = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_NUM_PUZZLES;
+		int exitCode = 0;
+		try {
+			if (args.length > 1) {
+				final List<String> lines = Files.readAllLines(Paths.get(args[1]), StandardCharsets.UTF_8);
+				PuzzleParserBenchmarkMain.runBenchmark(args[1], lines, numPuzzles);
+			} else {
+				PuzzleParserBenchmarkMain.runBenchmark("line", Arrays.asList(SAMPLE_LINE), numPuzzles);
+				PuzzleParserBenchmarkMain.runBenchmark("line with candidates", Arrays.asList(SAMPLE_LINE_WITH_CANDIDATES),
+						numPuzzles);
+				PuzzleParserBenchmarkMain.runBenchmark("grid", Arrays.asList(SAMPLE_GRID), numPuzzles / 10);
+				PuzzleParserBenchmarkMain.runBenchmark("pencil mark grid", Arrays.asList(SAMPLE_PENCIL_MARK_GRID),
+						numPuzzles / 10);
+			}
+		} catch (final IOException e) {
+			LOG.error("{}", e);
+			exitCode = 1;
+		}
+		System.exit(exitCode);
+	}
+
+	private static void runBenchmark(final String name, final List<String> puzzles, final int numPuzzles) {
+		final List<String> nonEmptyPuzzles = new ArrayList<>(puzzles.size());
+		for (final String puzzle : puzzles) {
+			if (!puzzle.trim().isEmpty()) {
+				nonEmptyPuzzles.add(puzzle);
+			}
+		}
+		if (nonEmptyPuzzles.isEmpty()) {
+			System.out.println(name + ": no puzzles");
+			return;
+		}
+		final ParsedSudokuPuzzle result = new ParsedSudokuPuzzle();
+		// The first round warms up the JIT.
+		PuzzleParserBenchmarkMain.parsePuzzles(nonEmptyPuzzles, numPuzzles, result);
+		final long startNanos = System.nanoTime();
+		final int numParsed = PuzzleParserBenchmarkMain.parsePuzzles(nonEmptyPuzzles, numPuzzles, result);
+		final long durationNanos = Math.max(1, System.nanoTime() - startNanos);
+		System.out.println(String.format("%s (%s): %,d of %,d parsed in %d ms (%,.0f puzzles / s)", name,
+				result.getFormat(), numParsed, numPuzzles, durationNanos / 1_000_000L,
+				numPuzzles * (double) NANOS_PER_SECOND / durationNanos));
+	}
+
+	private static int parsePuzzles(final List<String> puzzles, final int numPuzzles,
+			final ParsedSudokuPuzzle result) {
+		int numParsed = 0;
+		for (int index = 0; index < numPuzzles; index++) {
+			if (SudokuPuzzleParser.parse(puzzles.get(index % puzzles.size()), result)) {
+				numParsed++;
+			}
+		}
+		return numParsed;
+	}
+
+	private PuzzleParserBenchmarkMain() {
+		// Private constructor to prevent instantiation.
+	}
+}
@@ -0,0 +1,86 @@
+package sudoku.batch;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import sudoku.model.PuzzleRating;
+
+/**
+ * This enum contains the formats the batch rating service can write. Each
+ * rated puzzle is written as a single line, so the output can be streamed.
+ */
+public enum RatingOutputFormat {
+
+	CSV {
+		@Override
+		public String getHeader() {
+			return "index,puzzle,score,difficulty,hardestStep,steps";
+		}
+
+		@Override
+		public String formatRating(final long index, final String puzzleString, final PuzzleRating rating) {
+			final String steps = rating.getStepHistogram().entrySet().stream()
+					.map(entry -> entry.getKey() + COLON + entry.getValue()).collect(Collectors.joining(SEMICOLON));
+			return index + COMMA + RatingOutputFormat.escapeCsv(puzzleString) + COMMA + rating.getScore() + COMMA
+					+ rating.getDifficulty().name() + COMMA + RatingOutputFormat.escapeCsv(rating.getHardestStepName())
+					+ COMMA + RatingOutputFormat.escapeCsv(steps);
+		}
+	},
+
+	JSONL {
+		@Override
+		public String getHeader() {
+			// JSON lines has no header.
+			return null;
+		}
+
+		@Override
+		public String formatRating(final long index, final String puzzleString, final PuzzleRating rating) {
+			final StringBuilder result = new StringBuilder("{\"index\":").append(index);
+			result.append(",\"puzzle\":").append(RatingOutputFormat.quoteJson(puzzleString));
+			result.append(",\"score\":").append(rating.getScore());
+			result.append(",\"difficulty\":").append(RatingOutputFormat.quoteJson(rating.getDifficulty().name()));
+			result.append(",\"hardestStep\":").append(RatingOutputFormat.quoteJson(rating.getHardestStepName()));
+			result.append(",\"steps\":{");
+			boolean isFirst = true;
+			for (final Map.Entry<String, Integer> entry : rating.getStepHistogram().entrySet()) {
+				if (!isFirst) {
+					result.append(COMMA);
+				}
+				result.append(RatingOutputFormat.quoteJson(entry.getKey())).append(COLON).append(entry.getValue());
+				isFirst = false;
+			}
+			return result.append("}}").toString();
+		}
+	};
+
+	private static final String COMMA = ",";
+
+	private static final String COLON = ":";
+
+	private static final String SEMICOLON = ";";
+
+	private static final String QUOTE = "\"";
+
+	/** Returns the first line of the output, or null if there is none. */
+	public abstract String getHeader();
+
+	/** Returns the line to write for the given rating. */
+	public abstract String formatRating(long index, String puzzleString, PuzzleRating rating);
+
+	/** Gets the format for the given name (i.e. "csv"), ignoring case. */
+	public static RatingOutputFormat fromName(final String name) {
+		return RatingOutputFormat.valueOf(name.toUpperCase());
+	}
+
+	private static String escapeCsv(final String value) {
+		if (value.contains(COMMA) || value.contains(QUOTE)) {
+			return QUOTE + value.replace(QUOTE, QUOTE + QUOTE) + QUOTE;
+		}
+		return value;
+	}
+
+	private static String quoteJson(final String value) {
+		return QUOTE + value.replace("\\", "\\\\").replace(QUOTE, "\\\"") + QUOTE;
+	}
+}
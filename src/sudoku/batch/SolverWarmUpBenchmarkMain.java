@@ -0,0 +1,62 @@
+package sudoku.batch;
+
+import java.util.concurrent.TimeUnit;
+
+import sudoku.core.HodokuFacade;
+import sudoku.core.SolverWarmUp;
+import sudoku.model.ApplicationSettings;
+import sudoku.model.SudokuPuzzleValues;
+
+/**
+ * This class is the entry point for measuring what SolverWarmUp saves from the
+ * command line. It loads the solver the same way the application does at
+ * startup, runs the warm-up or not, then times the first hint, rating and
+ * validity check of a puzzle which is not in the warm-up corpus. Since the JIT
+ * only warms up once per JVM, each mode needs its own run.
+ *
+ * Usage: SolverWarmUpBenchmarkMain [warmUp (true / false)] [puzzle]
+ */
+public class SolverWarmUpBenchmarkMain {
+
+	private static final String USAGE = "Usage: SolverWarmUpBenchmarkMain [warmUp (true / false)] [puzzle]";
+
+	private static final String DEFAULT_PUZZLE = "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+
+	private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	public static void main(final String[] args) throws InterruptedException {
+		if (args.length > 2) {
+			System.err.println(USAGE);
+			System.exit(1);
+		}
+		final boolean isWarmUp = args.length == 0 || Boolean.parseBoolean(args[0]);
+		final String puzzle = args.length > 1 ? args[1] : DEFAULT_PUZZLE;
+		// Loading the settings applies the saved solver configuration.
+		ApplicationSettings.getInstance();
+		HodokuFacade.getInstance().loadSolver();
+		if (isWarmUp) {
+			final long startNanos = System.nanoTime();
+			final int numSolverCalls = SolverWarmUp.getInstance().run();
+			System.out.println(String.format("Warm-up: %d solver calls in %.1f ms", numSolverCalls,
+					(System.nanoTime() - startNanos) / NANOS_PER_MILLI));
+		}
+		final SudokuPuzzleValues sudokuPuzzleValues = new SudokuPuzzleValues(puzzle);
+		long startNanos = System.nanoTime();
+		HodokuFacade.getInstance().getHint(sudokuPuzzleValues);
+		System.out.println(String.format("First hint: %.1f ms", (System.nanoTime() - startNanos) / NANOS_PER_MILLI));
+		startNanos = System.nanoTime();
+		HodokuFacade.getInstance().getScoreForPuzzle(sudokuPuzzleValues, true);
+		System.out.println(String.format("First rating: %.1f ms", (System.nanoTime() - startNanos) / NANOS_PER_MILLI));
+		startNanos = System.nanoTime();
+		HodokuFacade.getInstance().isPuzzleValid(sudokuPuzzleValues);
+		System.out.println(
+				String.format("First validity check: %.1f ms", (System.nanoTime() - startNanos) / NANOS_PER_MILLI));
+		// HoDoKu leaves some non-daemon threads running, so the JVM has to be stopped
+		// explicitly.
+		System.exit(0);
+	}
+
+	private SolverWarmUpBenchmarkMain() {
+		// Private constructor to prevent instantiation.
+	}
+}
@@ -0,0 +1,77 @@
+package sudoku.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javafx.scene.input.KeyCode;
+import sudoku.core.KeyboardInputQueue;
+import sudoku.core.ModelController;
+import sudoku.model.ApplicationSettings;
+import sudoku.session.SessionEvent;
+import sudoku.session.SessionRecorder;
+import sudoku.session.SessionTransition;
+import sudoku.view.port.HeadlessPuzzleViewPort;
+
+/**
+ * This class is the entry point for checking, without a window, that inputs are
+ * recorded in the order the application applies them. An arrow key is queued
+ * (as if it was still waiting for the next pulse), then a digit is set; the
+ * recorded session must have the arrow key first, or replaying it (and
+ * recovering the autosave) would put the digit in another cell. Exits with 1 if
+ * the check fails.
+ *
+ * Usage: InputOrderCheckMain
+ */
+public class InputOrderCheckMain {
+
+	private static final Logger LOG = LogManager.getLogger(InputOrderCheckMain.class);
+
+	private static final String PUZZLE = "530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+
+	private static final String COMMENT_PREFIX = "#";
+
+	private static final List<SessionTransition> EXPECTED_TRANSITIONS = Arrays.asList(
+			SessionTransition.NEW_RANDOM_PUZZLE, SessionTransition.ARROW_KEYBOARD_INPUT, SessionTransition.SET_DIGIT);
+
+	public static void main(final String[] args) {
+		// Loading the settings applies the saved solver configuration.
+		ApplicationSettings.getInstance();
+		final ModelController modelController = ModelController.createHeadlessInstance(new HeadlessPuzzleViewPort());
+		KeyboardInputQueue.getInstance().setHoldingKeys(true);
+		SessionRecorder.getInstance().start();
+		modelController.transitionToNewRandomPuzzleState(PUZZLE);
+		KeyboardInputQueue.getInstance().offerArrowKey(KeyCode.RIGHT);
+		modelController.transitionToSetDigitState(KeyCode.DIGIT4);
+		final Path sessionPath = SessionRecorder.getInstance().stop();
+		int exitCode = 1;
+		try {
+			final List<SessionTransition> transitions = Files.readAllLines(sessionPath, StandardCharsets.UTF_8).stream()
+					.filter(line -> !line.isEmpty() && !line.startsWith(COMMENT_PREFIX)).map(SessionEvent::fromLine)
+					.map(SessionEvent::getTransition).collect(Collectors.toList());
+			Files.delete(sessionPath);
+			if (EXPECTED_TRANSITIONS.equals(transitions)) {
+				System.out.println("OK: " + transitions);
+				exitCode = 0;
+			} else {
+				System.out.println("FAILED: expected " + EXPECTED_TRANSITIONS + ", recorded " + transitions);
+			}
+		} catch (final IOException | RuntimeException e) {
+			LOG.error("{}", e);
+		}
+		// HoDoKu leaves some non-daemon threads running, so the JVM has to be stopped
+		// explicitly.
+		System.exit(exitCode);
+	}
+
+	private InputOrderCheckMain() {
+		// Private constructor to prevent instantiation.
+	}
+}
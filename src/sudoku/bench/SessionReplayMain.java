@@ -0,0 +1,74 @@
+package sudoku.bench;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import sudoku.core.ModelController;
+import sudoku.metrics.StateTransitionMetrics;
+import sudoku.model.ApplicationSettings;
+import sudoku.session.SessionReplayer;
+import sudoku.view.port.HeadlessPuzzleViewPort;
+
+/**
+ * This class is the entry point for replaying a recorded session (see
+ * SessionRecorder) from the command line, without starting the user interface
+ * (see HeadlessPuzzleViewPort). Every transition is replayed as fast as
+ * possible, and the state transition metrics of the replay are printed at the
+ * end, so a session from a bug report can be profiled on its own.
+ *
+ * Usage: SessionReplayMain sessionFile
+ */
+public class SessionReplayMain {
+
+	private static final Logger LOG = LogManager.getLogger(SessionReplayMain.class);
+
+	private static final String USAGE = "Usage: SessionReplayMain sessionFile";
+
+	private static final long NANOS_PER_MILLI = 1_000_000L;
+
+	public static void main(final String[] args) {
+		if (args.length != 1) {
+			System.err.println(USAGE);
+			System.exit(1);
+		}
+		// Loading the settings applies the saved solver configuration.
+		ApplicationSettings.getInstance();
+		int exitCode = 0;
+		try {
+			final SessionReplayer sessionReplayer = SessionReplayer.load(Paths.get(args[0]));
+			final HeadlessPuzzleViewPort viewPort = new HeadlessPuzzleViewPort();
+			ModelController.createHeadlessInstance(viewPort);
+			StateTransitionMetrics.getInstance().reset();
+			final long startNanos = System.nanoTime();
+			// Results of background work (like solutions) are entered once they are ready,
+			// after the transition which is being replayed at the time.
+			sessionReplayer.replayAll(viewPort::runPendingTasks);
+			SessionReplayMain.printReport(sessionReplayer, viewPort, System.nanoTime() - startNanos);
+		} catch (final IOException | IllegalArgumentException e) {
+			LOG.error("{}", e);
+			exitCode = 1;
+		}
+		// HoDoKu leaves some non-daemon threads running, so the JVM has to be stopped
+		// explicitly.
+		System.exit(exitCode);
+	}
+
+	private static void printReport(final SessionReplayer sessionReplayer, final HeadlessPuzzleViewPort viewPort,
+			final long durationNanos) {
+		final StateTransitionMetrics metrics = StateTransitionMetrics.getInstance();
+		System.out.println(String.format(
+				"Replayed %d recorded transitions (%d state transitions) in %d ms, %d view port calls",
+				sessionReplayer.getNumTransitions(), metrics.getTotalTransitions(), durationNanos / NANOS_PER_MILLI,
+				viewPort.getNumViewCalls()));
+		for (final String summary : metrics.getSummaries()) {
+			System.out.println(summary);
+		}
+	}
+
+	private SessionReplayMain() {
+		// Private constructor to prevent instantiation.
+	}
+}
@@ -0,0 +1,147 @@
+package sudoku.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javafx.scene.input.KeyCode;
+import sudoku.core.HodokuFacade;
+import sudoku.core.ModelController;
+import sudoku.metrics.StateTransitionMetrics;
+import sudoku.model.ApplicationSettings;
+import sudoku.model.SudokuPuzzleValues;
+import sudoku.view.port.HeadlessPuzzleViewPort;
+import sudoku.view.util.LabelConstants;
+
+/**
+ * This class is the entry point for benchmarking the model state transitions
+ * from the command line, without starting the user interface (see
+ * HeadlessPuzzleViewPort). For each puzzle, every cell is visited with the
+ * arrow keys and has a digit set and removed, then the puzzle is solved with
+ * specific hints. The first puzzle only warms up the JIT, and is not measured.
+ *
+ * Usage: TransitionBenchmarkMain [numPuzzles] [puzzleFile]
+ */
+public class TransitionBenchmarkMain {
+
+	private static final Logger LOG = LogManager.getLogger(TransitionBenchmarkMain.class);
+
+	private static final String USAGE = "Usage: TransitionBenchmarkMain [numPuzzles] [puzzleFile]";
+
+	private static final int DEFAULT_NUM_PUZZLES = 20;
+
+	private static final int MAX_HINTS_PER_PUZZLE = 200;
+
+	private static final long NANOS_PER_MILLI = 1_000_000L;
+
+	private static final KeyCode[] DIGIT_KEY_CODES = { KeyCode.DIGIT1, KeyCode.DIGIT2, KeyCode.DIGIT3, KeyCode.DIGIT4,
+			KeyCode.DIGIT5, KeyCode.DIGIT6, KeyCode.DIGIT7, KeyCode.DIGIT8, KeyCode.DIGIT9 };
+
+	public static void main(final String[] args) {
+		if (args.length > 2) {
+			System.err.println(USAGE);
+			System.exit(1);
+		}
+		final int numPuzzles = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_NUM_PUZZLES;
+		// Loading the settings applies the saved solver configuration.
+		ApplicationSettings.getInstance();
+		int exitCode = 0;
+		try {
+			final List<String> puzzles = args.length > 1 ? TransitionBenchmarkMain.readPuzzles(args[1], numPuzzles)
+					: TransitionBenchmarkMain.generatePuzzles(numPuzzles);
+			final HeadlessPuzzleViewPort viewPort = new HeadlessPuzzleViewPort();
+			final ModelController modelController = ModelController.createHeadlessInstance(viewPort);
+			long startNanos = System.nanoTime();
+			for (int index = 0; index < puzzles.size(); index++) {
+				TransitionBenchmarkMain.runPuzzle(modelController, viewPort, puzzles.get(index));
+				if (index == 0) {
+					StateTransitionMetrics.getInstance().reset();
+					startNanos = System.nanoTime();
+				}
+			}
+			TransitionBenchmarkMain.printReport(viewPort, System.nanoTime() - startNanos);
+		} catch (final IOException e) {
+			LOG.error("{}", e);
+			exitCode = 1;
+		}
+		// HoDoKu leaves some non-daemon threads running, so the JVM has to be stopped
+		// explicitly.
+		System.exit(exitCode);
+	}
+
+	private static List<String> readPuzzles(final String puzzleFile, final int numPuzzles) throws IOException {
+		return Files.readAllLines(Paths.get(puzzleFile), StandardCharsets.UTF_8).stream().map(String::trim)
+				.filter(line -> line.length() == SudokuPuzzleValues.CELLS_PER_HOUSE * SudokuPuzzleValues.CELLS_PER_HOUSE)
+				.limit(numPuzzles).collect(Collectors.toList());
+	}
+
+	private static List<String> generatePuzzles(final int numPuzzles) {
+		final List<String> puzzles = new ArrayList<>(numPuzzles);
+		for (int index = 0; index < numPuzzles; index++) {
+			puzzles.add(HodokuFacade.getInstance().generateSudokuString());
+		}
+		return puzzles;
+	}
+
+	private static void runPuzzle(final ModelController modelController, final HeadlessPuzzleViewPort viewPort,
+			final String puzzle) {
+		modelController.transitionToNewRandomPuzzleState(puzzle);
+		TransitionBenchmarkMain.visitEveryCell(modelController);
+		modelController.transitionToRestartPuzzleState();
+		for (int index = 0; index < MAX_HINTS_PER_PUZZLE; index++) {
+			modelController.transitionToShowSpecificHintState();
+			final String hintText = viewPort.getHintText();
+			if (LabelConstants.PUZZLE_SOLVED.equals(hintText) || LabelConstants.NO_MOVES.equals(hintText)) {
+				break;
+			}
+			modelController.transitionToApplyHintState();
+			// Picks up the solution, once it has been computed.
+			viewPort.runPendingTasks();
+		}
+	}
+
+	/**
+	 * Moves the selection over every cell (row by row, in a snake pattern), and
+	 * sets + removes a digit in each one. Given cells ignore both.
+	 */
+	private static void visitEveryCell(final ModelController modelController) {
+		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
+			final KeyCode direction = row % 2 == 0 ? KeyCode.RIGHT : KeyCode.LEFT;
+			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
+				modelController.transitionToSetDigitState(DIGIT_KEY_CODES[(row + col) % DIGIT_KEY_CODES.length]);
+				modelController.transitionToRemoveDigitState(KeyCode.BACK_SPACE);
+				if (col < SudokuPuzzleValues.CELLS_PER_HOUSE - 1) {
+					modelController.transitionToArrowKeyboardInputState(direction);
+				}
+			}
+			modelController.transitionToArrowKeyboardInputState(KeyCode.DOWN);
+		}
+		// Back to the top left cell, for the next puzzle.
+		for (int index = 0; index < SudokuPuzzleValues.CELLS_PER_HOUSE; index++) {
+			modelController.transitionToArrowKeyboardInputState(KeyCode.UP);
+			modelController.transitionToArrowKeyboardInputState(KeyCode.LEFT);
+		}
+	}
+
+	private static void printReport(final HeadlessPuzzleViewPort viewPort, final long durationNanos) {
+		final StateTransitionMetrics metrics = StateTransitionMetrics.getInstance();
+		final long totalTransitions = metrics.getTotalTransitions();
+		System.out.println(String.format("%d transitions in %d ms (%.0f transitions / s), %d view port calls",
+				totalTransitions, durationNanos / NANOS_PER_MILLI,
+				totalTransitions * 1_000_000_000.0 / Math.max(1, durationNanos), viewPort.getNumViewCalls()));
+		for (final String summary : metrics.getSummaries()) {
+			System.out.println(summary);
+		}
+	}
+
+	private TransitionBenchmarkMain() {
+		// Private constructor to prevent instantiation.
+	}
+}
@@ -0,0 +1,97 @@
+package sudoku.core;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import sudoku.model.ApplicationSettings;
+
+/**
+ * This class loads what the application needs besides the window on a
+ * background thread, while JavaFX starts up: Log4j, the saved settings (which
+ * also configure the HoDoKu solver), and the solver's classes. The JavaFX
+ * thread only waits for the settings, right before it builds the views which
+ * read them.
+ *
+ * This class deliberately has no static logger, since initializing Log4j is one
+ * of the slow steps it moves off the launcher thread.
+ */
+public class ApplicationLoader {
+
+	private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private static ApplicationLoader instance;
+
+	public static synchronized ApplicationLoader getInstance() {
+		if (ApplicationLoader.instance == null) {
+			ApplicationLoader.instance = new ApplicationLoader();
+		}
+		return ApplicationLoader.instance;
+	}
+
+	private final long launchNanos;
+
+	private final CompletableFuture<Void> settingsLoaded;
+
+	private volatile long settingsLoadedNanos;
+
+	private long settingsWaitNanos;
+
+	private ApplicationLoader() {
+		this.launchNanos = System.nanoTime();
+		this.settingsLoaded = new CompletableFuture<>();
+		this.settingsLoadedNanos = 0L;
+		this.settingsWaitNanos = 0L;
+	}
+
+	/** Starts loading in the background. Should be called once, at launch. */
+	public void start() {
+		final Thread loaderThread = new Thread(this::load, "ApplicationLoader");
+		loaderThread.setDaemon(true);
+		loaderThread.start();
+	}
+
+	/**
+	 * Blocks until the settings have been loaded. After this returns, they can be
+	 * used from the calling thread.
+	 */
+	public void awaitSettings() {
+		final long startNanos = System.nanoTime();
+		this.settingsLoaded.join();
+		this.settingsWaitNanos = System.nanoTime() - startNanos;
+	}
+
+	/** Logs how long the application took to become interactive. */
+	public void logFirstInteractiveFrame() {
+		final long firstFrameMillis = (System.nanoTime() - this.launchNanos) / NANOS_PER_MILLI;
+		final Logger log = LogManager.getLogger(ApplicationLoader.class);
+		// These messages are just to separate executions if a log file gets
+		// re-used.
+		log.info("==============================================");
+		log.info("Application started successfully.");
+		log.info(
+				"Time to first interactive frame: {} ms after launch ({} ms after the JVM started). "
+						+ "Settings loaded in {} ms in the background; the JavaFX thread waited {} ms for them.",
+				firstFrameMillis, ManagementFactory.getRuntimeMXBean().getUptime(),
+				(this.settingsLoadedNanos - this.launchNanos) / NANOS_PER_MILLI, this.settingsWaitNanos / NANOS_PER_MILLI);
+	}
+
+	private void load() {
+		try {
+			// Log4j reads its configuration when the first logger is created.
+			LogManager.getLogger(ApplicationLoader.class);
+			// Reading the settings also creates the HoDoKu options.
+			ApplicationSettings.getInstance();
+			this.settingsLoadedNanos = System.nanoTime();
+			this.settingsLoaded.complete(null);
+		} catch (final RuntimeException | Error e) {
+			// The JavaFX thread rethrows this from awaitSettings().
+			this.settingsLoaded.completeExceptionally(e);
+			return;
+		}
+		HodokuFacade.getInstance().loadSolver();
+	}
+}
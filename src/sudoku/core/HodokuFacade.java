@@ -2,7 +2,9 @@ package sudoku.core;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
@@ -14,15 +16,17 @@ import generator.BackgroundGenerator;
 import generator.SudokuGenerator;
 import generator.SudokuGeneratorFactory;
 import solver.SudokuSolver;
-import solver.SudokuSolverFactory;
 import sudoku.ClipboardMode;
 import sudoku.DifficultyLevel;
 import sudoku.GameMode;
 import sudoku.Options;
 import sudoku.SolutionStep;
+import sudoku.SolutionType;
 import sudoku.StepConfig;
 import sudoku.Sudoku2;
 import sudoku.model.ApplicationSettings;
+import sudoku.model.PuzzleRating;
+import sudoku.model.SolverConfigSnapshot;
 import sudoku.model.SudokuPuzzleValues;
 import sudoku.view.util.Difficulty;
 
@@ -42,17 +46,33 @@ import sudoku.view.util.Difficulty;
  */
 public class HodokuFacade {
 
-	private static final Logger LOG = LogManager.getLogger(SudokuMain.class);
+	private static final Logger LOG = LogManager.getLogger(HodokuFacade.class);
 
 	private static HodokuFacade instance;
 
-	public static HodokuFacade getInstance() {
+	public static synchronized HodokuFacade getInstance() {
 		if (HodokuFacade.instance == null) {
 			HodokuFacade.instance = new HodokuFacade();
 		}
 		return HodokuFacade.instance;
 	}
 
+	/**
+	 * Each thread which rates puzzles gets its own solver, so many puzzles can be
+	 * rated in parallel without sharing solver state.
+	 */
+	private final ThreadLocal<SudokuSolver> ratingSolvers = ThreadLocal.withInitial(SudokuSolver::new);
+
+	/**
+	 * Loads the solver's classes and lookup tables, so the first hint or rating
+	 * does not have to. Called in the background at startup.
+	 */
+	public void loadSolver() {
+		new Sudoku2();
+		new SudokuSolver();
+		SudokuGeneratorFactory.giveBack(SudokuGeneratorFactory.getInstance());
+	}
+
 	/**
 	 * Tries to generate a string which represents a sudoku puzzle with exactly 1
 	 * solution. If the created puzzle does not meet current requirements of
@@ -62,86 +82,131 @@ public class HodokuFacade {
 	 * This was implemented as such to simplify thread management.
 	 */
 	public String generateSudokuString() {
+		return this.generateSudokuString(ApplicationSettings.getInstance().getSolverConfigSnapshot());
+	}
+
+	/**
+	 * Same as {@link #generateSudokuString()}, but checks the puzzle with the given
+	 * solver settings, so a generation job can keep using the settings it started
+	 * with.
+	 */
+	public String generateSudokuString(final SolverConfigSnapshot solverConfig) {
 		final BackgroundGenerator generator = new BackgroundGenerator();
-		final int ordinal = ApplicationSettings.getInstance().getDifficulty().ordinal();
-		String generatedSudokuString = generator.generate(Options.getInstance().getDifficultyLevel(ordinal + 1),
+		final Difficulty difficulty = ApplicationSettings.getInstance().getDifficulty();
+		String generatedSudokuString = generator.generate(solverConfig.getDifficultyLevel(difficulty),
 				GameMode.PLAYING);
 		final String mustContainStepWithName = ApplicationSettings.getInstance().getMustContainStepWithName();
 		if (!mustContainStepWithName.isEmpty()) {
-			generatedSudokuString = this.validatePuzzleForSettings(generatedSudokuString, mustContainStepWithName);
+			generatedSudokuString = this.validatePuzzleForSettings(generatedSudokuString, mustContainStepWithName,
+					solverConfig);
 		}
 		return generatedSudokuString;
 	}
 
-	/**
-	 * Solves all singles which can be solved at the current state, or as a result
-	 * of placing singles from this step. Returns the updated sudoku string.
-	 */
-	public String solveAllSingles(final SudokuPuzzleValues sudokuPuzzleValues) {
-		final Sudoku2 tempSudoku = this.convertSudokuPuzzleValuesToSudoku2(sudokuPuzzleValues, false);
-		final SudokuSolver solver = new SudokuSolver();
-		solver.solve(Options.getInstance().getDifficultyLevel(5), tempSudoku, false, true,
-				Options.getInstance().solverSteps, Options.getInstance().getGameMode());
-		return tempSudoku.getSudoku(ClipboardMode.VALUES_ONLY);
-	}
-
 	/**
 	 * Returns an order list of steps which can be used to solve the given puzzle.
 	 * Note that this is not the only solution. Also note that this method assumes
 	 * no candidate eliminations have been made by the user.
 	 */
 	public List<SolutionStep> getSolutionForSudoku(final String sudokuString) {
-		final List<SolutionStep> solutionSteps = new ArrayList<>();
+		return this.getSolutionForSudoku(sudokuString, ApplicationSettings.getInstance().getSolverConfigSnapshot());
+	}
+
+	public List<SolutionStep> getSolutionForSudoku(final String sudokuString,
+			final SolverConfigSnapshot solverConfig) {
 		final Sudoku2 tempSudoku = new Sudoku2();
 		tempSudoku.setSudoku(sudokuString, true);
-		final Sudoku2 solvedSudoku = tempSudoku.clone();
 		final SudokuSolver solver = new SudokuSolver();
-		solver.solve(Options.getInstance().getDifficultyLevel(5), solvedSudoku, false, false,
-				Options.getInstance().solverSteps, Options.getInstance().getGameMode());
-		tempSudoku.setLevel(solvedSudoku.getLevel());
-		tempSudoku.setScore(solvedSudoku.getScore());
-
-		final SudokuSolver sudokuSolver = new SudokuSolver();
-		while (!tempSudoku.isSolved()) {
-			final SolutionStep solutionStep = sudokuSolver.getHint(tempSudoku, false);
-			solutionSteps.add(solutionStep);
-			sudokuSolver.doStep(tempSudoku, solutionStep);
-		}
-		return solutionSteps;
+		this.solve(solver, tempSudoku, solverConfig.getMaxDifficultyLevel(), solverConfig);
+		return new ArrayList<>(solver.getSteps());
 	}
 
 	public boolean isPuzzleValid(final SudokuPuzzleValues sudoku) {
+		return this.isPuzzleValid(sudoku, SudokuGeneratorFactory.getDefaultGeneratorInstance());
+	}
+
+	/** Same as {@link #isPuzzleValid(SudokuPuzzleValues)}, but with the given generator. */
+	boolean isPuzzleValid(final SudokuPuzzleValues sudoku, final SudokuGenerator generator) {
 		final Sudoku2 tempSudoku = this.convertSudokuPuzzleValuesToSudoku2(sudoku, false);
-		final SudokuGenerator generator = SudokuGeneratorFactory.getDefaultGeneratorInstance();
 		return generator.getNumberOfSolutions(tempSudoku) == 1;
 	}
 
+	/**
+	 * Returns the digits of the unique solution for the given puzzle string, in
+	 * row major order. Returns null if the puzzle does not have exactly 1 solution.
+	 */
+	public int[] getSolutionDigits(final String sudokuString) {
+		final Sudoku2 tempSudoku = new Sudoku2();
+		tempSudoku.setSudoku(sudokuString, true);
+		// The default generator instance is used by isPuzzleValid() on the FX thread,
+		// so this takes its own instance to be safe to call from other threads.
+		final SudokuGenerator generator = SudokuGeneratorFactory.getInstance();
+		try {
+			if (generator.getNumberOfSolutions(tempSudoku) == 1) {
+				return generator.getSolution().clone();
+			}
+			return null;
+		} finally {
+			SudokuGeneratorFactory.giveBack(generator);
+		}
+	}
+
 	/** Returns the rating to finish solving the given puzzle. */
 	public int getScoreForPuzzle(final SudokuPuzzleValues sudoku, final boolean onlyGivens) {
-		final Sudoku2 tempSudoku = this.convertSudokuPuzzleValuesToSudoku2(sudoku, onlyGivens);
-		final Sudoku2 solvedSudoku = tempSudoku.clone();
-		final SudokuSolver solver = new SudokuSolver();
-		solver.solve(Options.getInstance().getDifficultyLevel(5), solvedSudoku, false, false,
-				Options.getInstance().solverSteps, Options.getInstance().getGameMode());
+		final SolverConfigSnapshot solverConfig = ApplicationSettings.getInstance().getSolverConfigSnapshot();
+		final Sudoku2 solvedSudoku = this.convertSudokuPuzzleValuesToSudoku2(sudoku, onlyGivens);
+		this.solve(new SudokuSolver(), solvedSudoku, solverConfig.getMaxDifficultyLevel(), solverConfig);
 		return solvedSudoku.getScore();
 
 	}
 
 	/** Returns the rating to finish solving the given puzzle. */
 	public Difficulty getDifficultyForPuzzle(final SudokuPuzzleValues sudoku, final boolean onlyGivens) {
-		final Sudoku2 tempSudoku = this.convertSudokuPuzzleValuesToSudoku2(sudoku, onlyGivens);
-		final Sudoku2 solvedSudoku = tempSudoku.clone();
-		final SudokuSolver solver = new SudokuSolver();
-		solver.solve(Options.getInstance().getDifficultyLevel(5), solvedSudoku, false, false,
-				Options.getInstance().solverSteps, Options.getInstance().getGameMode());
-		try {
-			return Difficulty.getValidDifficulties().stream()
-					.filter(difficulty -> difficulty.getInternalDifficulty().equals(solvedSudoku.getLevel().getType()))
-					.findFirst().orElseThrow(NoSuchElementException::new);
-		} catch (final Exception e) {
-			LOG.error(e);
-			return Difficulty.INVALID;
+		final SolverConfigSnapshot solverConfig = ApplicationSettings.getInstance().getSolverConfigSnapshot();
+		final Sudoku2 solvedSudoku = this.convertSudokuPuzzleValuesToSudoku2(sudoku, onlyGivens);
+		this.solve(new SudokuSolver(), solvedSudoku, solverConfig.getMaxDifficultyLevel(), solverConfig);
+		return this.getDifficultyForLevel(solvedSudoku.getLevel());
+	}
+
+	/**
+	 * Rates the given puzzle string with a solver which belongs to the calling
+	 * thread, so it is safe to call from many threads at once. Puzzles without
+	 * exactly 1 solution get an invalid rating.
+	 */
+	public PuzzleRating getRatingForPuzzle(final String sudokuString) {
+		return this.getRatingForPuzzle(sudokuString, ApplicationSettings.getInstance().getSolverConfigSnapshot());
+	}
+
+	/**
+	 * Same as {@link #getRatingForPuzzle(String)}, but rates the puzzle with the
+	 * given solver settings, so a batch of puzzles is rated consistently.
+	 */
+	public PuzzleRating getRatingForPuzzle(final String sudokuString, final SolverConfigSnapshot solverConfig) {
+		// HoDoKu counts a grid with contradicting givens (like a full grid with a
+		// duplicate) as having 1 solution, so those are checked first.
+		if (new SudokuPuzzleValues(sudokuString).containsContradictingCells()
+				|| this.getSolutionDigits(sudokuString) == null) {
+			return PuzzleRating.createInvalidRating();
+		}
+		final Sudoku2 tempSudoku = new Sudoku2();
+		tempSudoku.setSudoku(sudokuString, true);
+		final SudokuSolver solver = this.ratingSolvers.get();
+		final boolean isSolved = this.solve(solver, tempSudoku, solverConfig.getMaxDifficultyLevel(), solverConfig);
+		if (!isSolved) {
+			return PuzzleRating.createInvalidRating();
 		}
+		final Map<String, Integer> stepHistogram = new LinkedHashMap<>();
+		SolutionType hardestStepType = null;
+		for (final SolutionStep solutionStep : solver.getSteps()) {
+			final SolutionType type = solutionStep.getType();
+			stepHistogram.merge(type.getStepName(), 1, Integer::sum);
+			if (hardestStepType == null || solverConfig.getBaseScore(type) > solverConfig.getBaseScore(hardestStepType)) {
+				hardestStepType = type;
+			}
+		}
+		final String hardestStepName = hardestStepType == null ? Strings.EMPTY : hardestStepType.getStepName();
+		return new PuzzleRating(tempSudoku.getScore(), this.getDifficultyForLevel(tempSudoku.getLevel()), hardestStepName,
+				stepHistogram);
 	}
 
 	/**
@@ -150,20 +215,20 @@ public class HodokuFacade {
 	 * a solved puzzle will be returned.
 	 */
 	public String solveSudokuUpToFirstInstanceOfStep(final String sudokuString, final String stepName) {
+		return this.solveSudokuUpToFirstInstanceOfStep(sudokuString, stepName,
+				ApplicationSettings.getInstance().getSolverConfigSnapshot());
+	}
+
+	public String solveSudokuUpToFirstInstanceOfStep(final String sudokuString, final String stepName,
+			final SolverConfigSnapshot solverConfig) {
 		final Sudoku2 tempSudoku = new Sudoku2();
 		tempSudoku.setSudoku(sudokuString, true);
-		final Sudoku2 solvedSudoku = tempSudoku.clone();
-		final SudokuSolver solver = SudokuSolverFactory.getDefaultSolverInstance();
-		solver.solve(Options.getInstance().getDifficultyLevel(5), solvedSudoku, false, false,
-				Options.getInstance().solverSteps, Options.getInstance().getGameMode());
-		tempSudoku.setLevel(solvedSudoku.getLevel());
-		tempSudoku.setScore(solvedSudoku.getScore());
+		final List<SolutionStep> solutionSteps = this.getSolutionForSudoku(sudokuString, solverConfig);
 
 		final SudokuSolver sudokuSolver = new SudokuSolver();
-		while (!tempSudoku.isSolved()) {
-			final SolutionStep solutionStep = sudokuSolver.getHint(tempSudoku, false);
-			if (solutionStep.getType().getStepName().equals(stepName)) {
-				return this.buildStringRepresentation(tempSudoku);
+		for (final SolutionStep solutionStep : solutionSteps) {
+			if (tempSudoku.isSolved() || solutionStep.getType().getStepName().equals(stepName)) {
+				break;
 			}
 			sudokuSolver.doStep(tempSudoku, solutionStep);
 		}
@@ -199,34 +264,80 @@ public class HodokuFacade {
 	 * Returns the next solution step for the given puzzle.
 	 */
 	public SolutionStep getHint(final SudokuPuzzleValues sudoku) {
+		final SolverConfigSnapshot solverConfig = ApplicationSettings.getInstance().getSolverConfigSnapshot();
 		final Sudoku2 tempSudoku = this.convertSudokuPuzzleValuesToSudoku2(sudoku, false);
 		final Sudoku2 solvedSudoku = tempSudoku.clone();
-		final SudokuSolver solver = SudokuSolverFactory.getDefaultSolverInstance();
-		final int ordinal = ApplicationSettings.getInstance().getDifficulty().ordinal();
-		final DifficultyLevel difficultyLevel = Options.getInstance().getDifficultyLevel(ordinal + 1);
-		solver.solve(difficultyLevel, solvedSudoku, false, false, Options.getInstance().solverSteps, GameMode.PLAYING);
-		tempSudoku.setLevel(solvedSudoku.getLevel());
-		tempSudoku.setScore(solvedSudoku.getScore());
-		final SudokuSolver sudokuSolver = new SudokuSolver();
-		return sudokuSolver.getHint(tempSudoku, false);
+		final SudokuSolver solver = new SudokuSolver();
+		final DifficultyLevel difficultyLevel = solverConfig
+				.getDifficultyLevel(ApplicationSettings.getInstance().getDifficulty());
+		this.solve(solver, solvedSudoku, difficultyLevel, solverConfig);
+		// The first step of the full solution is the hint. The solver skips puzzles
+		// with very few givens, so those look for the first step directly.
+		if (!solver.getSteps().isEmpty()) {
+			return solver.getSteps().get(0);
+		}
+		return this.findFirstStep(tempSudoku, solverConfig);
 	}
 
-	public void updateMaxScoreForDifficulty(final Difficulty difficultyToChange, final int maxScore) {
-		final DifficultyLevel difficultyLevelToChange = Options.getInstance()
-				.getDifficultyLevel(difficultyToChange.ordinal() + 1);
-		difficultyLevelToChange.setMaxScore(maxScore);
+	/**
+	 * Returns the first step found in the given puzzle, trying the enabled steps of
+	 * the given snapshot in order (like SudokuSolver::getHint does with the shared
+	 * steps). Returns null if no step is found.
+	 */
+	private SolutionStep findFirstStep(final Sudoku2 sudoku, final SolverConfigSnapshot solverConfig) {
+		if (sudoku.isSolved()) {
+			return null;
+		}
+		final SudokuSolver solver = new SudokuSolver();
+		solver.setSudoku(sudoku);
+		for (final StepConfig stepConfig : solverConfig.getStepConfigs()) {
+			if (stepConfig.isEnabled()) {
+				final SolutionStep step = solver.getStepFinder().getStep(stepConfig.getType());
+				if (step != null) {
+					return step;
+				}
+			}
+		}
+		return null;
 	}
 
-	public void setSolverConfig(final List<StepConfig> stepConfigs) {
-		final StepConfig[] newStepConfigs = (StepConfig[]) stepConfigs.toArray();
-		Options.getInstance().solverSteps = Options.getInstance().copyStepConfigs(newStepConfigs, false, true);
-		Options.getInstance().adjustOrgSolverSteps();
+	/**
+	 * Changes the max score of the given difficulty. The difficulty levels are
+	 * copied rather than changed in place, so solvers which are running keep the
+	 * levels they started with.
+	 */
+	public void updateMaxScoreForDifficulty(final Difficulty difficultyToChange, final int maxScore) {
+		final DifficultyLevel[] difficultyLevels = Options.getInstance()
+				.copyDifficultyLevels(Options.getInstance().getDifficultyLevels());
+		difficultyLevels[difficultyToChange.getInternalDifficulty().ordinal()].setMaxScore(maxScore);
+		Options.getInstance().setDifficultyLevels(difficultyLevels);
 	}
 
 	public List<StepConfig> getSolverConfig() {
 		return Arrays.asList(Options.getInstance().copyStepConfigs(Options.getInstance().solverSteps, true, false));
 	}
 
+	/**
+	 * Solves the given puzzle in place with the step configs of the given
+	 * snapshot. Returns true if the puzzle was solved.
+	 */
+	private boolean solve(final SudokuSolver solver, final Sudoku2 sudoku, final DifficultyLevel maxLevel,
+			final SolverConfigSnapshot solverConfig) {
+		return solver.solve(maxLevel, sudoku, false, false, solverConfig.getStepConfigs(),
+				Options.getInstance().getGameMode());
+	}
+
+	private Difficulty getDifficultyForLevel(final DifficultyLevel difficultyLevel) {
+		try {
+			return Difficulty.getValidDifficulties().stream()
+					.filter(difficulty -> difficulty.getInternalDifficulty().equals(difficultyLevel.getType())).findFirst()
+					.orElseThrow(NoSuchElementException::new);
+		} catch (final Exception e) {
+			LOG.error(e);
+			return Difficulty.INVALID;
+		}
+	}
+
 	private Sudoku2 convertSudokuPuzzleValuesToSudoku2(final SudokuPuzzleValues sudoku, final boolean onlyGivens) {
 		final Sudoku2 tempSudoku = new Sudoku2();
 		final String sudokuString = sudoku.toString(onlyGivens);
@@ -245,8 +356,9 @@ public class HodokuFacade {
 	 * the puzzle string which should be used (this would only change if the solve
 	 * up to setting is checked).
 	 */
-	private String validatePuzzleForSettings(final String generatedSudokuString, final String mustContainStepWithName) {
-		final List<SolutionStep> solutionForSudoku = this.getSolutionForSudoku(generatedSudokuString);
+	private String validatePuzzleForSettings(final String generatedSudokuString, final String mustContainStepWithName,
+			final SolverConfigSnapshot solverConfig) {
+		final List<SolutionStep> solutionForSudoku = this.getSolutionForSudoku(generatedSudokuString, solverConfig);
 		final long matchingSteps = solutionForSudoku.stream()
 				.filter(solutionStep -> solutionStep.getType().getStepName().equals(mustContainStepWithName)).count();
 		if (matchingSteps == 0) {
@@ -254,7 +366,8 @@ public class HodokuFacade {
 			return Strings.EMPTY;
 		}
 		if (ApplicationSettings.getInstance().isSolveToRequiredStep()) {
-			return this.solveSudokuUpToFirstInstanceOfStep(generatedSudokuString, mustContainStepWithName);
+			return this.solveSudokuUpToFirstInstanceOfStep(generatedSudokuString, mustContainStepWithName,
+					solverConfig);
 		}
 		return generatedSudokuString;
 
@@ -0,0 +1,133 @@
+package sudoku.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import sudoku.view.puzzle.SudokuPuzzleStyleBatcher;
+
+/**
+ * This class sits between the keyboard and the ModelController, for keys which
+ * are usually held down (arrow keys, = and -). Key repeat can fire several
+ * times per pulse, so consecutive keys of the same kind are collected and
+ * entered as a single transition right before the next pulse is drawn (the net
+ * cursor movement, or the net change of the active candidate). Only the last
+ * position is ever shown, so nothing is lost, and each repeat does not pay for
+ * its own transition.
+ *
+ * Any other transition flushes the queue first (before it is recorded), so the
+ * order of inputs is kept. If no scene was registered, keys are entered
+ * immediately, unless keys are being held (see setHoldingKeys).
+ */
+public class KeyboardInputQueue {
+
+	private enum InputKind {
+		NONE, ARROW, ACTIVE_CANDIDATE
+	}
+
+	private static KeyboardInputQueue instance;
+
+	public static KeyboardInputQueue getInstance() {
+		if (KeyboardInputQueue.instance == null) {
+			KeyboardInputQueue.instance = new KeyboardInputQueue();
+		}
+		return KeyboardInputQueue.instance;
+	}
+
+	private final Runnable flushListener;
+
+	private List<KeyCode> pendingKeyCodes;
+
+	private InputKind pendingInputKind;
+
+	private Scene scene;
+
+	private boolean isFlushRequested;
+
+	private boolean isHoldingKeys;
+
+	private KeyboardInputQueue() {
+		this.flushListener = this::onPulse;
+		this.pendingKeyCodes = new ArrayList<>();
+		this.pendingInputKind = InputKind.NONE;
+		this.scene = null;
+		this.isFlushRequested = false;
+		this.isHoldingKeys = false;
+	}
+
+	/** Flushes the pending keys on each pulse of the given scene. */
+	public void registerScene(final Scene scene) {
+		if (this.scene != null) {
+			this.scene.removePreLayoutPulseListener(this.flushListener);
+		}
+		this.scene = scene;
+		this.scene.addPreLayoutPulseListener(this.flushListener);
+	}
+
+	/**
+	 * If true, keys stay queued until the next flush even without a scene, the
+	 * way they wait for the next pulse with one. Used to check the order of inputs
+	 * without a window.
+	 */
+	public void setHoldingKeys(final boolean isHoldingKeys) {
+		this.isHoldingKeys = isHoldingKeys;
+	}
+
+	/** Queues a key which moves the selected cell. */
+	public void offerArrowKey(final KeyCode keyCode) {
+		this.offer(InputKind.ARROW, keyCode);
+	}
+
+	/** Queues a key which changes the active candidate (= or -). */
+	public void offerActiveCandidateKey(final KeyCode keyCode) {
+		this.offer(InputKind.ACTIVE_CANDIDATE, keyCode);
+	}
+
+	/**
+	 * Enters the pending keys as a single transition. Returns true iff there were
+	 * any.
+	 */
+	public boolean flush() {
+		this.isFlushRequested = false;
+		if (this.pendingKeyCodes.isEmpty()) {
+			return false;
+		}
+		// The queue is emptied first, since entering a state flushes it again.
+		final List<KeyCode> keyCodes = this.pendingKeyCodes;
+		final InputKind inputKind = this.pendingInputKind;
+		this.pendingKeyCodes = new ArrayList<>();
+		this.pendingInputKind = InputKind.NONE;
+		if (InputKind.ARROW == inputKind) {
+			ModelController.getInstance().transitionToArrowKeyboardInputState(keyCodes);
+		} else {
+			ModelController.getInstance().transitionToActiveCandidateChangedState(keyCodes);
+		}
+		return true;
+	}
+
+	private void offer(final InputKind inputKind, final KeyCode keyCode) {
+		if (this.pendingInputKind != inputKind) {
+			this.flush();
+		}
+		this.pendingInputKind = inputKind;
+		this.pendingKeyCodes.add(keyCode);
+		if (this.scene == null) {
+			if (!this.isHoldingKeys) {
+				this.flush();
+			}
+		} else if (!this.isFlushRequested) {
+			this.isFlushRequested = true;
+			Platform.requestNextPulse();
+		}
+	}
+
+	private void onPulse() {
+		// The style batcher may already have run for this pulse, so the new state is
+		// applied here to be shown in this frame.
+		if (this.flush()) {
+			SudokuPuzzleStyleBatcher.getInstance().flush();
+		}
+	}
+}
@@ -1,11 +1,24 @@
 package sudoku.core;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.MouseEvent;
 import sudoku.StepConfig;
+import sudoku.metrics.StateTransitionMetrics;
+import sudoku.model.PuzzleCollection;
+import sudoku.model.PuzzleRating;
+import sudoku.model.SudokuPuzzleFile;
+import sudoku.model.SudokuPuzzleSolution;
+import sudoku.session.AutosaveJournal;
+import sudoku.session.SessionRecorder;
+import sudoku.session.SessionTransition;
 import sudoku.state.model.ApplicationModelState;
 import sudoku.state.model.DefaultApplicationModelState;
 import sudoku.state.model.MouseModeChangedState;
@@ -32,13 +45,17 @@ import sudoku.state.model.hint.HideHintState;
 import sudoku.state.model.hint.ShowPartialHintState;
 import sudoku.state.model.hint.ShowSpecificHintState;
 import sudoku.state.model.hint.ShowVagueHintState;
+import sudoku.state.model.puzzle.CollectionPuzzleState;
+import sudoku.state.model.puzzle.CollectionRatingComputedState;
 import sudoku.state.model.puzzle.CopyPuzzleState;
 import sudoku.state.model.puzzle.FillInSinglesPuzzleState;
 import sudoku.state.model.puzzle.NewEmptyPuzzleState;
 import sudoku.state.model.puzzle.NewRandomPuzzleState;
 import sudoku.state.model.puzzle.OpenedFileState;
 import sudoku.state.model.puzzle.PastePuzzleState;
+import sudoku.state.model.puzzle.PuzzleStatsComputedState;
 import sudoku.state.model.puzzle.SavedFileState;
+import sudoku.state.model.puzzle.SolutionComputedState;
 import sudoku.state.model.settings.SaveColorSettingsState;
 import sudoku.state.model.settings.SaveDifficultySettingsState;
 import sudoku.state.model.settings.SaveMiscellaneousSettingsState;
@@ -50,19 +67,37 @@ import sudoku.state.window.MaximizedState;
 import sudoku.state.window.MinimizedState;
 import sudoku.state.window.RestoredState;
 import sudoku.state.window.SoftRestoredState;
+import sudoku.view.port.JavaFxPuzzleViewPort;
+import sudoku.view.port.PuzzleViewPort;
+import sudoku.view.util.ViewMutationCounter;
 
 /** A controller class to facilitate state (model) changes. */
 public class ModelController {
 
+	private static final Logger LOG = LogManager.getLogger(ModelController.class);
+
 	private static ModelController instance;
 
 	public static ModelController getInstance() {
 		if (ModelController.instance == null) {
-			ModelController.instance = new ModelController();
+			ModelController.instance = new ModelController(new JavaFxPuzzleViewPort(), true);
 		}
 		return ModelController.instance;
 	}
 
+	/**
+	 * Creates the instance on the given view port, without a window, so the model
+	 * states can run in a plain JVM (e.g. for benchmarks). This must be called
+	 * before getInstance(). The window state transitions are not supported after.
+	 */
+	public static ModelController createHeadlessInstance(final PuzzleViewPort viewPort) {
+		if (ModelController.instance != null) {
+			throw new IllegalStateException("The model controller was already created.");
+		}
+		ModelController.instance = new ModelController(viewPort, false);
+		return ModelController.instance;
+	}
+
 	/**
 	 * Contains info about the state of the model (i.e. the data behind the result
 	 * view and the input elements).
@@ -75,11 +110,17 @@ public class ModelController {
 	 */
 	private ApplicationWindowState applicationWindowState;
 
-	private ModelController() {
-		this.applicationModelState = new DefaultApplicationModelState();
-		this.applicationWindowState = new RestoredState();
+	private final PuzzleViewPort viewPort;
+
+	private ModelController(final PuzzleViewPort viewPort, final boolean hasWindow) {
+		this.viewPort = viewPort;
+		this.applicationModelState = new DefaultApplicationModelState(viewPort);
+		this.applicationWindowState = hasWindow ? new RestoredState() : null;
 		this.applicationModelState.onEnter();
-		this.applicationWindowState.onEnter();
+		this.applicationModelState.updatePuzzleCanvas();
+		if (hasWindow) {
+			this.applicationWindowState.onEnter();
+		}
 	}
 
 	public void transitionToMinimizedState() {
@@ -108,186 +149,247 @@ public class ModelController {
 	}
 
 	public void transitionToApplyFilterState(final String filter) {
-		this.applicationModelState = new ApplyFilterState(this.applicationModelState, filter);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.APPLY_FILTER, filter);
+		this.enterModelState(() -> new ApplyFilterState(this.applicationModelState, filter));
 	}
 
 	public void transitionToCycleActiveFilterState(final String filter) {
-		this.applicationModelState = new CycleActiveFilterState(this.applicationModelState, filter);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.CYCLE_ACTIVE_FILTER, filter);
+		this.enterModelState(() -> new CycleActiveFilterState(this.applicationModelState, filter));
 	}
 
 	public void transitionToClickedCellState(final int row, final int col, final MouseEvent event) {
-		this.applicationModelState = new ClickedCellState(row, col, event, this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.CLICKED_CELL, String.valueOf(row), String.valueOf(col),
+				String.valueOf(event.getSceneX()), String.valueOf(event.getSceneY()), String.valueOf(event.isShiftDown()));
+		this.enterModelState(() -> new ClickedCellState(row, col, event, this.applicationModelState));
 	}
 
 	public void transitionToArrowKeyboardInputState(final KeyCode keyCode) {
-		this.applicationModelState = new ArrowKeyboardInputState(keyCode, this.applicationModelState);
-		this.applicationModelState.onEnter();
+		this.transitionToArrowKeyboardInputState(Collections.singletonList(keyCode));
+	}
+
+	/** Moves the selection once for each key, in a single transition. */
+	public void transitionToArrowKeyboardInputState(final List<KeyCode> keyCodes) {
+		SessionRecorder.getInstance().record(SessionTransition.ARROW_KEYBOARD_INPUT, ModelController.getNames(keyCodes));
+		this.enterModelState(() -> new ArrowKeyboardInputState(keyCodes, this.applicationModelState));
 	}
 
 	public void transitionToSetDigitState(final KeyCode keyCode) {
-		this.applicationModelState = new SetDigitState(keyCode, this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.SET_DIGIT, keyCode.name());
+		this.enterModelState(() -> new SetDigitState(keyCode, this.applicationModelState));
 	}
 
 	public void transitionToRemoveDigitState(final KeyCode keyCode) {
-		this.applicationModelState = new RemoveDigitState(keyCode, this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.REMOVE_DIGIT, keyCode.name());
+		this.enterModelState(() -> new RemoveDigitState(keyCode, this.applicationModelState));
 	}
 
 	public void transitionToToggleCandidateVisibleState(final KeyCode keyCode) {
-		this.applicationModelState = new ToggleCandidateVisibleState(keyCode, this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.TOGGLE_CANDIDATE_VISIBLE, keyCode.name());
+		this.enterModelState(() -> new ToggleCandidateVisibleState(keyCode, this.applicationModelState));
 
 	}
 
 	public void transitionToToggleCellColorState(final KeyCode keyCode, final boolean isShiftDown) {
-		this.applicationModelState = new ToggleCellColorState(keyCode, isShiftDown, this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.TOGGLE_CELL_COLOR, keyCode.name(),
+				String.valueOf(isShiftDown));
+		this.enterModelState(() -> new ToggleCellColorState(keyCode, isShiftDown, this.applicationModelState));
 	}
 
 	public void transitionToToggleCandidateColorState(final KeyCode keyCode, final boolean isShiftDown) {
-		this.applicationModelState = new ToggleCandidateColorState(keyCode, isShiftDown, this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.TOGGLE_CANDIDATE_COLOR, keyCode.name(),
+				String.valueOf(isShiftDown));
+		this.enterModelState(() -> new ToggleCandidateColorState(keyCode, isShiftDown, this.applicationModelState));
 	}
 
 	public void transitionToActiveCandidateChangedState(final KeyCode keyCode) {
-		this.applicationModelState = new ActiveCandidateChangedState(keyCode, this.applicationModelState);
-		this.applicationModelState.onEnter();
+		this.transitionToActiveCandidateChangedState(Collections.singletonList(keyCode));
+	}
+
+	/** Changes the active candidate once for each key, in a single transition. */
+	public void transitionToActiveCandidateChangedState(final List<KeyCode> keyCodes) {
+		SessionRecorder.getInstance().record(SessionTransition.ACTIVE_CANDIDATE_CHANGED,
+				ModelController.getNames(keyCodes));
+		this.enterModelState(() -> new ActiveCandidateChangedState(keyCodes, this.applicationModelState));
 	}
 
 	public void transitionToResetAllColorsState() {
-		this.applicationModelState = new ResetAllColorsState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.RESET_ALL_COLORS);
+		this.enterModelState(() -> new ResetAllColorsState(this.applicationModelState));
 	}
 
 	public void transitionToUndoActionState() {
-		this.applicationModelState = new UndoActionState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.UNDO_ACTION);
+		this.enterModelState(() -> new UndoActionState(this.applicationModelState));
 	}
 
 	public void transitionToRedoActionState() {
-		this.applicationModelState = new RedoActionState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.REDO_ACTION);
+		this.enterModelState(() -> new RedoActionState(this.applicationModelState));
 	}
 
 	public void transitionToMouseModeChangedState(final String newMouseMode) {
-		this.applicationModelState = new MouseModeChangedState(newMouseMode, this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.MOUSE_MODE_CHANGED, newMouseMode);
+		this.enterModelState(() -> new MouseModeChangedState(newMouseMode, this.applicationModelState));
 	}
 
 	public void transitionToActiveColorChangedState(final int colorIndex) {
-		this.applicationModelState = new ActiveColorChangedState(colorIndex, this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.ACTIVE_COLOR_CHANGED, String.valueOf(colorIndex));
+		this.enterModelState(() -> new ActiveColorChangedState(colorIndex, this.applicationModelState));
 	}
 
 	public void transitionToNewRandomPuzzleState(final String generateSudokuString) {
-		this.applicationModelState = new NewRandomPuzzleState(generateSudokuString, this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.NEW_RANDOM_PUZZLE, generateSudokuString);
+		this.enterModelState(() -> new NewRandomPuzzleState(generateSudokuString, this.applicationModelState));
 	}
 
-	public void transitionToNewEmptyPuzzleState() {
-		this.applicationModelState = new NewEmptyPuzzleState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+	/** Shows a puzzle from a collection. This is recorded like a new random puzzle. */
+	public void transitionToCollectionPuzzleState(final PuzzleCollection puzzleCollection, final int puzzleIndex) {
+		final String puzzleString = puzzleCollection.getPuzzleString(puzzleIndex);
+		SessionRecorder.getInstance().record(SessionTransition.NEW_RANDOM_PUZZLE, puzzleString);
+		this.enterModelState(() -> new CollectionPuzzleState(puzzleCollection, puzzleIndex, puzzleString,
+				this.applicationModelState));
 	}
 
-	public void transitionToOpenedFileState(final File selectedFile) {
-		this.applicationModelState = new OpenedFileState(selectedFile, this.applicationModelState);
-		this.applicationModelState.onEnter();
+	public void transitionToCollectionRatingComputedState(final String givens, final String puzzleString,
+			final PuzzleRating rating) {
+		this.enterModelState(
+				() -> new CollectionRatingComputedState(givens, puzzleString, rating, this.applicationModelState));
+	}
+
+	public void transitionToNewEmptyPuzzleState() {
+		SessionRecorder.getInstance().record(SessionTransition.NEW_EMPTY_PUZZLE);
+		this.enterModelState(() -> new NewEmptyPuzzleState(this.applicationModelState));
+	}
 
+	/** Opens a file which was already read (see PuzzleFileService). */
+	public void transitionToOpenedFileState(final SudokuPuzzleFile puzzleFile) {
+		SessionRecorder.getInstance().recordOpenedFile(puzzleFile);
+		this.enterModelState(() -> new OpenedFileState(puzzleFile, this.applicationModelState));
 	}
 
 	public void transitionToSavedFileState(final File selectedFile) {
-		this.applicationModelState = new SavedFileState(selectedFile, this.applicationModelState);
-		this.applicationModelState.onEnter();
+		this.enterModelState(() -> new SavedFileState(selectedFile, this.applicationModelState));
 	}
 
 	public void transitionToRestartPuzzleState() {
-		this.applicationModelState = new RestartPuzzleState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.RESTART_PUZZLE);
+		this.enterModelState(() -> new RestartPuzzleState(this.applicationModelState));
 	}
 
 	public void transitionToShowVagueHintState() {
-		this.applicationModelState = new ShowVagueHintState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.SHOW_VAGUE_HINT);
+		this.enterModelState(() -> new ShowVagueHintState(this.applicationModelState));
 	}
 
 	public void transitionToShowPartialHintState() {
-		this.applicationModelState = new ShowPartialHintState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.SHOW_PARTIAL_HINT);
+		this.enterModelState(() -> new ShowPartialHintState(this.applicationModelState));
 	}
 
 	public void transitionToShowSpecificHintState() {
-		this.applicationModelState = new ShowSpecificHintState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.SHOW_SPECIFIC_HINT);
+		this.enterModelState(() -> new ShowSpecificHintState(this.applicationModelState));
 	}
 
 	public void transitionToFillInSinglesPuzzleState() {
-		this.applicationModelState = new FillInSinglesPuzzleState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.FILL_IN_SINGLES);
+		this.enterModelState(() -> new FillInSinglesPuzzleState(this.applicationModelState));
 	}
 
 	public void transitionToSetGivenCellsState() {
-		this.applicationModelState = new SetGivenCellsState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.SET_GIVEN_CELLS);
+		this.enterModelState(() -> new SetGivenCellsState(this.applicationModelState));
 	}
 
 	public void transitionToApplyHintState() {
-		this.applicationModelState = new ApplyHintState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.APPLY_HINT);
+		this.enterModelState(() -> new ApplyHintState(this.applicationModelState));
 	}
 
 	public void transitionToHideHintState() {
-		this.applicationModelState = new HideHintState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.HIDE_HINT);
+		this.enterModelState(() -> new HideHintState(this.applicationModelState));
 	}
 
 	public void transitionToShowContextMenuState() {
-		this.applicationModelState = new ShowContextMenuState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		this.enterModelState(() -> new ShowContextMenuState(this.applicationModelState));
 
 	}
 
 	public void transitionToSaveMiscellaneousSettingsState() {
-		this.applicationModelState = new SaveMiscellaneousSettingsState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		this.enterModelState(() -> new SaveMiscellaneousSettingsState(this.applicationModelState));
 	}
 
 	public void transitionToSaveColorSettingsState() {
-		this.applicationModelState = new SaveColorSettingsState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		this.enterModelState(() -> new SaveColorSettingsState(this.applicationModelState));
 	}
 
 	public void transitionToSaveDifficultySettingsState() {
-		this.applicationModelState = new SaveDifficultySettingsState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		this.enterModelState(() -> new SaveDifficultySettingsState(this.applicationModelState));
 	}
 
 	public void transitionToSavePuzzleGenerationSettingsState() {
-		this.applicationModelState = new SavePuzzleGenerationSettingsState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		this.enterModelState(() -> new SavePuzzleGenerationSettingsState(this.applicationModelState));
 	}
 
 	public void transitionToSaveSolverSettingsState(final List<StepConfig> stepConfigs) {
-		this.applicationModelState = new SaveSolverSettingsState(stepConfigs, this.applicationModelState);
-		this.applicationModelState.onEnter();
+		this.enterModelState(() -> new SaveSolverSettingsState(stepConfigs, this.applicationModelState));
 	}
 
 	public void transitionToCopyPuzzleState(final boolean isGivensOnly) {
-		this.applicationModelState = new CopyPuzzleState(isGivensOnly, this.applicationModelState);
-		this.applicationModelState.onEnter();
+		this.enterModelState(() -> new CopyPuzzleState(isGivensOnly, this.applicationModelState));
 	}
 
 	public void transitionToPastePuzzleState() {
-		this.applicationModelState = new PastePuzzleState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		this.transitionToPastePuzzleState(PastePuzzleState.getClipboardText());
+	}
+
+	public void transitionToPastePuzzleState(final String pastedText) {
+		SessionRecorder.getInstance().record(SessionTransition.PASTE_PUZZLE, pastedText);
+		this.enterModelState(() -> new PastePuzzleState(pastedText, this.applicationModelState));
 	}
 
 	public void transitionToUnlockGivenCellsState() {
-		this.applicationModelState = new UnlockGivenCellsState(this.applicationModelState);
-		this.applicationModelState.onEnter();
+		SessionRecorder.getInstance().record(SessionTransition.UNLOCK_GIVEN_CELLS);
+		this.enterModelState(() -> new UnlockGivenCellsState(this.applicationModelState));
+	}
+
+	public void transitionToSolutionComputedState(final SudokuPuzzleSolution solution) {
+		this.enterModelState(() -> new SolutionComputedState(solution, this.applicationModelState));
+	}
+
+	public void transitionToPuzzleStatsComputedState(final SudokuPuzzleSolution solution, final String puzzleString,
+			final int scoreForPuzzle, final int remainingScoreForPuzzle) {
+		this.enterModelState(() -> new PuzzleStatsComputedState(solution, puzzleString, scoreForPuzzle,
+				remainingScoreForPuzzle, this.applicationModelState));
+	}
+
+	/**
+	 * Creates and enters a model state. Every model state transition goes through
+	 * this method, so it is also where transitions are timed (including the
+	 * constructor of the state, which saves the undo history).
+	 */
+	private void enterModelState(final Supplier<ApplicationModelState> applicationModelStateSupplier) {
+		// Keys still waiting for the next pulse happened before this transition.
+		KeyboardInputQueue.getInstance().flush();
+		ViewMutationCounter.getInstance().reset();
+		final long startNanos = System.nanoTime();
+		final ApplicationModelState applicationModelState = applicationModelStateSupplier.get();
+		this.applicationModelState = applicationModelState;
+		this.applicationModelState.onEnter();
+		this.applicationModelState.updatePuzzleCanvas();
+		final long durationNanos = System.nanoTime() - startNanos;
+		final String stateName = applicationModelState.getClass().getSimpleName();
+		final int numMutations = ViewMutationCounter.getInstance().getNumMutations();
+		StateTransitionMetrics.getInstance().record(stateName, durationNanos, numMutations);
+		this.viewPort.recordStateEntered(stateName, durationNanos, numMutations);
+		LOG.debug("Entered {}, view mutations: {}", stateName, numMutations);
+		AutosaveJournal.getInstance().onStateEntered(applicationModelState);
+	}
+
+	private static String[] getNames(final List<KeyCode> keyCodes) {
+		return keyCodes.stream().map(KeyCode::name).toArray(String[]::new);
 	}
 
 }
@@ -0,0 +1,119 @@
+package sudoku.core;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javafx.application.Platform;
+import sudoku.factories.LayoutFactory;
+import sudoku.model.PuzzleCollection;
+import sudoku.view.util.LabelConstants;
+
+/**
+ * This class keeps track of the opened puzzle collection (see
+ * PuzzleCollection), and which of its puzzles is shown. The collection is
+ * indexed on a background thread; the first puzzle is shown as soon as it is
+ * found, and the others can be paged through as the index grows. All other
+ * methods are called on the JavaFX thread.
+ */
+public class PuzzleCollectionService {
+
+	private static final Logger LOG = LogManager.getLogger(PuzzleCollectionService.class);
+
+	private static PuzzleCollectionService instance;
+
+	public static PuzzleCollectionService getInstance() {
+		if (PuzzleCollectionService.instance == null) {
+			PuzzleCollectionService.instance = new PuzzleCollectionService();
+		}
+		return PuzzleCollectionService.instance;
+	}
+
+	private PuzzleCollection puzzleCollection;
+
+	private int puzzleIndex;
+
+	private PuzzleCollectionService() {
+		this.puzzleCollection = null;
+		this.puzzleIndex = 0;
+	}
+
+	/** Opens the given file, in place of the last collection. */
+	public void open(final File selectedFile) {
+		this.close();
+		final Thread indexThread = new Thread(() -> this.openAndIndex(selectedFile), "PuzzleCollectionIndex");
+		indexThread.setDaemon(true);
+		indexThread.setPriority(Thread.MIN_PRIORITY);
+		indexThread.start();
+	}
+
+	public boolean hasCollection() {
+		return this.puzzleCollection != null;
+	}
+
+	public void showNextPuzzle() {
+		this.showPuzzle(this.puzzleIndex + 1);
+	}
+
+	public void showPreviousPuzzle() {
+		this.showPuzzle(this.puzzleIndex - 1);
+	}
+
+	/**
+	 * Shows the puzzle with the given index (from 0), if the collection has it.
+	 * Returns true iff it was shown.
+	 */
+	public boolean showPuzzle(final int puzzleIndex) {
+		if (this.puzzleCollection == null || puzzleIndex < 0
+				|| puzzleIndex >= this.puzzleCollection.getNumPuzzles()) {
+			return false;
+		}
+		this.puzzleIndex = puzzleIndex;
+		ModelController.getInstance().transitionToCollectionPuzzleState(this.puzzleCollection, puzzleIndex);
+		return true;
+	}
+
+	/** Closes the opened collection, if there is one. */
+	public void close() {
+		if (this.puzzleCollection != null) {
+			try {
+				this.puzzleCollection.close();
+			} catch (final IOException e) {
+				LOG.error("{}", e);
+			}
+			this.puzzleCollection = null;
+		}
+	}
+
+	private void openAndIndex(final File selectedFile) {
+		final PuzzleCollection newPuzzleCollection;
+		try {
+			newPuzzleCollection = PuzzleCollection.open(selectedFile.toPath());
+		} catch (final IOException e) {
+			LOG.error("Could not open {}: {}", selectedFile, e);
+			Platform.runLater(() -> LayoutFactory.getInstance().showMessageDialog(LabelConstants.OPEN_COLLECTION_FILE,
+					LabelConstants.COULD_NOT_OPEN_FILE));
+			return;
+		}
+		// Tasks run in order, so the collection is set before its first puzzle is shown.
+		Platform.runLater(() -> {
+			this.close();
+			this.puzzleCollection = newPuzzleCollection;
+			this.puzzleIndex = 0;
+		});
+		final long startTime = System.nanoTime();
+		newPuzzleCollection.buildIndex(() -> Platform.runLater(() -> {
+			if (this.puzzleCollection == newPuzzleCollection) {
+				this.showPuzzle(0);
+			}
+		}));
+		LOG.info("Indexed {} puzzles in {} in {} ms.", newPuzzleCollection.getNumPuzzles(), selectedFile,
+				(System.nanoTime() - startTime) / 1_000_000L);
+		if (newPuzzleCollection.isIndexComplete() && newPuzzleCollection.getNumPuzzles() == 0) {
+			Platform.runLater(() -> LayoutFactory.getInstance().showMessageDialog(LabelConstants.OPEN_COLLECTION_FILE,
+					LabelConstants.NO_PUZZLES_IN_COLLECTION));
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package sudoku.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javafx.application.Platform;
+import sudoku.factories.LayoutFactory;
+import sudoku.model.SudokuPuzzleFile;
+import sudoku.view.util.LabelConstants;
+
+/**
+ * This class reads and writes puzzle files on a background thread, so a slow
+ * disk never freezes the window. Files are read and parsed in the background,
+ * and the parsed file is then opened on the JavaFX thread (see
+ * OpenedFileState). Writes are atomic (see AtomicFiles). There is a single
+ * thread, so saves to the same file happen in the order they were requested.
+ */
+public class PuzzleFileService {
+
+	private static final Logger LOG = LogManager.getLogger(PuzzleFileService.class);
+
+	private static final long CLOSE_TIMEOUT_MILLIS = 2000;
+
+	private static PuzzleFileService instance;
+
+	public static PuzzleFileService getInstance() {
+		if (PuzzleFileService.instance == null) {
+			PuzzleFileService.instance = new PuzzleFileService();
+		}
+		return PuzzleFileService.instance;
+	}
+
+	private final ExecutorService executor;
+
+	private PuzzleFileService() {
+		this.executor = Executors.newSingleThreadExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "PuzzleFileIo");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/** Reads the given file, then opens it. Shows a message if it can not be read. */
+	public void open(final File selectedFile) {
+		this.executor.execute(() -> {
+			try {
+				final SudokuPuzzleFile puzzleFile = SudokuPuzzleFile.read(selectedFile.toPath());
+				Platform.runLater(() -> ModelController.getInstance().transitionToOpenedFileState(puzzleFile));
+			} catch (final IOException e) {
+				LOG.error("Could not open {}: {}", selectedFile, e);
+				Platform.runLater(() -> LayoutFactory.getInstance().showMessageDialog(LabelConstants.OPEN_FILE,
+						LabelConstants.COULD_NOT_OPEN_FILE));
+			}
+		});
+	}
+
+	/**
+	 * Writes the given puzzle to the given file. Shows a message if it can not be
+	 * written.
+	 */
+	public void save(final SudokuPuzzleFile puzzleFile, final File selectedFile) {
+		this.executor.execute(() -> {
+			try {
+				puzzleFile.write(selectedFile.toPath());
+			} catch (final IOException e) {
+				LOG.error("Could not save {}: {}", selectedFile, e);
+				Platform.runLater(() -> LayoutFactory.getInstance().showMessageDialog(LabelConstants.SAVE_FILE,
+						LabelConstants.COULD_NOT_SAVE_FILE));
+			}
+		});
+	}
+
+	/**
+	 * Lets the queued reads and writes finish, and waits (for a short time) until
+	 * they are done, so a save is never cut off. Called when the application
+	 * closes.
+	 */
+	public void close() {
+		this.executor.shutdown();
+		try {
+			if (!this.executor.awaitTermination(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+				LOG.warn("The puzzle files were not written before closing.");
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
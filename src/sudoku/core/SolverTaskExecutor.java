@@ -0,0 +1,38 @@
+package sudoku.core;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class runs the solver work of the states (solutions, ratings and puzzle
+ * stats) on a single background thread. Quick successive actions, like pasting
+ * several puzzles or paging through a collection, queue their work here
+ * instead of each starting a thread, so they never run the solver side by side.
+ */
+public class SolverTaskExecutor {
+
+	private static SolverTaskExecutor instance;
+
+	public static SolverTaskExecutor getInstance() {
+		if (SolverTaskExecutor.instance == null) {
+			SolverTaskExecutor.instance = new SolverTaskExecutor();
+		}
+		return SolverTaskExecutor.instance;
+	}
+
+	private final ExecutorService executor;
+
+	private SolverTaskExecutor() {
+		this.executor = Executors.newSingleThreadExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "SolverTasks");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/** Queues the given task, which runs after the ones queued before it. */
+	public Future<?> submit(final Runnable task) {
+		return this.executor.submit(task);
+	}
+}
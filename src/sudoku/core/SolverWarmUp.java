@@ -0,0 +1,152 @@
+package sudoku.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import generator.SudokuGenerator;
+import generator.SudokuGeneratorFactory;
+import sudoku.SolutionStep;
+import sudoku.model.SudokuPuzzleValues;
+
+/**
+ * This class runs a few embedded puzzles through the same solver calls as the
+ * user interface (hints, ratings and validity checks), so the JIT has compiled
+ * the solver before the user's first hint or new puzzle. It runs on a low
+ * priority thread, with its own puzzle values and generator, and pauses as soon
+ * as the user presses a key or clicks (see SudokuMain), until they have been
+ * idle for a while. It does not depend on JavaFX, so it can be benchmarked from
+ * the command line (see SolverWarmUpBenchmarkMain).
+ */
+public class SolverWarmUp {
+
+	private static final Logger LOG = LogManager.getLogger(SolverWarmUp.class);
+
+	/** Puzzles which need different kinds of steps, and solve in a few ms. */
+	private static final String[] CORPUS = {
+			"530070000600195000098000060800060003400803001700020006060000280000419005000080079",
+			"400000805030000000000700000020000060000080400000010000000603070500200000104000000",
+			"020000000000600003074080000000003002080040010600500000000010780500009000000000040",
+			"300000000970010000600583000200000900500621003008000005000435002000090056000000001" };
+
+	private static final int MAX_ROUNDS = 10;
+
+	private static final int MAX_HINTS_PER_PUZZLE = 10;
+
+	/** The solver time after which the warm-up stops, not counting pauses. */
+	private static final long BUDGET_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+	private static final long IDLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private static SolverWarmUp instance;
+
+	public static synchronized SolverWarmUp getInstance() {
+		if (SolverWarmUp.instance == null) {
+			SolverWarmUp.instance = new SolverWarmUp();
+		}
+		return SolverWarmUp.instance;
+	}
+
+	private volatile long lastInteractionNanos;
+
+	private Thread warmUpThread;
+
+	// Only used by the thread running the warm-up.
+	private long solverNanos;
+
+	private SolverWarmUp() {
+		this.lastInteractionNanos = System.nanoTime() - IDLE_NANOS;
+		this.warmUpThread = null;
+		this.solverNanos = 0L;
+	}
+
+	/** Pauses the warm-up until the user has been idle for a while. */
+	public void onUserInteraction() {
+		this.lastInteractionNanos = System.nanoTime();
+	}
+
+	/** Starts the warm-up on a background thread, unless it was already started. */
+	public synchronized void start() {
+		if (this.warmUpThread != null) {
+			return;
+		}
+		this.warmUpThread = new Thread(this::runInBackground, "SolverWarmUp");
+		this.warmUpThread.setDaemon(true);
+		this.warmUpThread.setPriority(Thread.MIN_PRIORITY);
+		this.warmUpThread.start();
+	}
+
+	/**
+	 * Runs the whole warm-up on the calling thread, until the corpus has been run
+	 * MAX_ROUNDS times or the budget is used up. Returns the number of solver
+	 * calls made.
+	 */
+	public int run() throws InterruptedException {
+		final HodokuFacade hodokuFacade = HodokuFacade.getInstance();
+		// The default generator belongs to the FX thread, so this uses its own.
+		final SudokuGenerator generator = SudokuGeneratorFactory.getInstance();
+		this.solverNanos = 0L;
+		int numSolverCalls = 0;
+		try {
+			for (int round = 0; round < MAX_ROUNDS && this.solverNanos < BUDGET_NANOS; round++) {
+				for (final String puzzle : CORPUS) {
+					final SudokuPuzzleValues sudokuPuzzleValues = new SudokuPuzzleValues(puzzle);
+					this.waitUntilIdle();
+					final long startNanos = System.nanoTime();
+					hodokuFacade.isPuzzleValid(sudokuPuzzleValues, generator);
+					hodokuFacade.getScoreForPuzzle(sudokuPuzzleValues, true);
+					this.solverNanos += System.nanoTime() - startNanos;
+					numSolverCalls += 2;
+					numSolverCalls += this.solveWithHints(hodokuFacade, sudokuPuzzleValues);
+				}
+			}
+		} finally {
+			SudokuGeneratorFactory.giveBack(generator);
+		}
+		return numSolverCalls;
+	}
+
+	private int solveWithHints(final HodokuFacade hodokuFacade, final SudokuPuzzleValues sudokuPuzzleValues)
+			throws InterruptedException {
+		int numHints = 0;
+		while (numHints < MAX_HINTS_PER_PUZZLE && this.solverNanos < BUDGET_NANOS) {
+			this.waitUntilIdle();
+			final long startNanos = System.nanoTime();
+			final SolutionStep hint = hodokuFacade.getHint(sudokuPuzzleValues);
+			numHints++;
+			if (hint == null) {
+				this.solverNanos += System.nanoTime() - startNanos;
+				break;
+			}
+			sudokuPuzzleValues.updateCellAndCandidateValues(hodokuFacade.doSingleStep(sudokuPuzzleValues, hint),
+					false);
+			this.solverNanos += System.nanoTime() - startNanos;
+		}
+		return numHints;
+	}
+
+	private void runInBackground() {
+		final long startNanos = System.nanoTime();
+		try {
+			final int numSolverCalls = this.run();
+			LOG.info("Solver warm-up made {} solver calls in {} ms ({} ms in the solver).", numSolverCalls,
+					(System.nanoTime() - startNanos) / NANOS_PER_MILLI, this.solverNanos / NANOS_PER_MILLI);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (final RuntimeException e) {
+			// The warm-up is only an optimization, so it never takes the application down.
+			LOG.error("{}", e);
+		}
+	}
+
+	private void waitUntilIdle() throws InterruptedException {
+		long idleNanos = System.nanoTime() - this.lastInteractionNanos;
+		while (idleNanos < IDLE_NANOS) {
+			TimeUnit.NANOSECONDS.sleep(IDLE_NANOS - idleNanos);
+			idleNanos = System.nanoTime() - this.lastInteractionNanos;
+		}
+	}
+}
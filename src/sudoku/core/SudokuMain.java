@@ -2,12 +2,14 @@ package sudoku.core;
 
 import java.io.IOException;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Group;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Region;
 import javafx.scene.paint.Color;
@@ -16,10 +18,12 @@ import javafx.stage.StageStyle;
 import sudoku.factories.LayoutFactory;
 import sudoku.factories.MenuFactory;
 import sudoku.model.PuzzleGenerationCache;
+import sudoku.session.AutosaveJournal;
 import sudoku.view.ApplicationRootPane;
 import sudoku.view.MainApplicationView;
 import sudoku.view.RootStackPane;
 import sudoku.view.menu.ApplicationTitleBar;
+import sudoku.view.puzzle.SudokuPuzzleStyleBatcher;
 import sudoku.view.util.ResourceConstants;
 import sudoku.view.util.WindowHelper;
 
@@ -30,38 +34,74 @@ public class SudokuMain extends Application {
 
 	private static final int DEFAULT_STAGE_HEIGHT = 690;
 
-	private static final Logger LOG = LogManager.getLogger(SudokuMain.class);
-
 	@Override
 	public void start(final Stage stage) throws IOException {
 		final BorderPane root = this.createRootPane(stage);
 		final RootStackPane rootStackPane = LayoutFactory.getInstance().createRootStackPane(root);
 		final Scene scene = this.createScene(rootStackPane);
 		this.configureStage(stage, scene, root);
-		// These messages are just to separate executions if a log file gets
-		// re-used.
-		LOG.info("==============================================");
-		LOG.info("Application started successfully.");
+		this.addFirstFrameListener(scene);
+	}
+
+	/**
+	 * Once the first frame has been laid out, logs the startup time and starts
+	 * everything that was not needed to show it.
+	 */
+	private void addFirstFrameListener(final Scene scene) {
+		final Runnable firstFrameListener = new Runnable() {
+			@Override
+			public void run() {
+				scene.removePostLayoutPulseListener(this);
+				ApplicationLoader.getInstance().logFirstInteractiveFrame();
+				Platform.runLater(SudokuMain.this::startDeferredTasks);
+			}
+		};
+		scene.addPostLayoutPulseListener(firstFrameListener);
+	}
+
+	private void startDeferredTasks() {
+		// Initializes the puzzle generation thread.
+		PuzzleGenerationCache.getInstance();
+		// Brings back the puzzle from the last time the application ran.
+		AutosaveJournal.getInstance().start();
+		// Compiles the solver before the first hint.
+		SolverWarmUp.getInstance().start();
 	}
 
 	/**
 	 * Creates and returns a Scene, using the given Parent object as a root element.
 	 */
 	private Scene createScene(final Region root) {
-		final Scene scene = new Scene(root);
+		// The root is set after the performance overlay registers, since setting it
+		// registers the pulse listener of the canvas, which the overlay has to time.
+		final Scene scene = new Scene(new Group());
+		ViewController.getInstance().getPerformanceOverlay().registerScene(scene);
+		scene.setRoot(root);
 
 		scene.getStylesheets().add(ResourceConstants.APPLICATION_CSS);
 		scene.setFill(Color.TRANSPARENT);
+		SudokuPuzzleStyleBatcher.getInstance().registerScene(scene);
+		KeyboardInputQueue.getInstance().registerScene(scene);
+		this.addSolverWarmUpFilters(scene);
 		return scene;
 	}
 
+	/** Pauses the solver warm-up whenever the user presses a key, clicks or scrolls. */
+	private void addSolverWarmUpFilters(final Scene scene) {
+		scene.addEventFilter(KeyEvent.KEY_PRESSED, event -> SolverWarmUp.getInstance().onUserInteraction());
+		scene.addEventFilter(MouseEvent.MOUSE_PRESSED, event -> SolverWarmUp.getInstance().onUserInteraction());
+		scene.addEventFilter(ScrollEvent.SCROLL, event -> SolverWarmUp.getInstance().onUserInteraction());
+	}
+
 	/**
 	 * Creates and returns a BorderPane which acts as the root element for the
 	 * scene.
 	 */
 	private BorderPane createRootPane(final Stage stage) {
-		final ApplicationRootPane root = LayoutFactory.getInstance().createApplicationRootPane();
+		// The title bar does not use the settings, so it is built while they load.
 		final ApplicationTitleBar menuContainer = MenuFactory.getInstance().createApplicationTitleBar(stage);
+		ApplicationLoader.getInstance().awaitSettings();
+		final ApplicationRootPane root = LayoutFactory.getInstance().createApplicationRootPane();
 		root.setTop(menuContainer);
 		final MainApplicationView topLevelSplitPane = LayoutFactory.getInstance().createMainApplicationView();
 		root.setCenter(topLevelSplitPane);
@@ -82,12 +122,11 @@ public class SudokuMain extends Application {
 		WindowHelper.addResizeAndDragListener(stage, root);
 		// Initializes the model controller with default states + behaviors.
 		ModelController.getInstance();
-		// Initializes the puzzle generation thread.
-		PuzzleGenerationCache.getInstance();
-
 	}
 
 	public static void main(final String[] args) {
+		// Loads the settings and the solver while JavaFX starts.
+		ApplicationLoader.getInstance().start();
 		Application.launch(args);
 	}
 
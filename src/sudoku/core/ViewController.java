@@ -1,15 +1,13 @@
 package sudoku.core;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import javafx.scene.control.Button;
 import javafx.scene.control.MenuItem;
 import javafx.stage.Stage;
 import sudoku.model.SudokuPuzzleValues;
 import sudoku.view.ApplicationRootPane;
 import sudoku.view.MainApplicationView;
-import sudoku.view.hint.HintAnnotation;
+import sudoku.view.PerformanceOverlay;
+import sudoku.view.hint.HintAnnotationPane;
 import sudoku.view.hint.HintButtonPane;
 import sudoku.view.hint.HintTextArea;
 import sudoku.view.menu.button.ContextMenuButton;
@@ -79,7 +77,9 @@ public class ViewController {
 
 	private PuzzleStatsPane puzzleStatsPane;
 
-	private final List<HintAnnotation> hintAnnotations;
+	private HintAnnotationPane hintAnnotationPane;
+
+	private PerformanceOverlay performanceOverlay;
 
 	private ViewController() {
 		this.stage = null;
@@ -101,7 +101,8 @@ public class ViewController {
 		this.difficultySettingsView = null;
 		this.puzzleGenerationSettingsView = null;
 		this.solverSettingsView = null;
-		this.hintAnnotations = new ArrayList<>();
+		this.hintAnnotationPane = null;
+		this.performanceOverlay = null;
 	}
 
 	public Stage getStage() {
@@ -248,12 +249,20 @@ public class ViewController {
 		this.puzzleStatsPane = puzzleStatsPane;
 	}
 
-	public List<HintAnnotation> getHintAnnotations() {
-		return this.hintAnnotations;
+	public HintAnnotationPane getHintAnnotationPane() {
+		return this.hintAnnotationPane;
+	}
+
+	public void setHintAnnotationPane(final HintAnnotationPane hintAnnotationPane) {
+		this.hintAnnotationPane = hintAnnotationPane;
+	}
+
+	public PerformanceOverlay getPerformanceOverlay() {
+		return this.performanceOverlay;
 	}
 
-	public void registerHintAnnotation(final HintAnnotation newAnnotation) {
-		this.hintAnnotations.add(newAnnotation);
+	public void setPerformanceOverlay(final PerformanceOverlay performanceOverlay) {
+		this.performanceOverlay = performanceOverlay;
 	}
 
 	public MainApplicationView getMainApplicationView() {
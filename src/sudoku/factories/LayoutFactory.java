@@ -10,18 +10,22 @@ import sudoku.view.ApplicationSideBar;
 import sudoku.view.HelpView;
 import sudoku.view.HotkeyView;
 import sudoku.view.MainApplicationView;
+import sudoku.view.PerformanceOverlay;
 import sudoku.view.RootStackPane;
 import sudoku.view.control.LabeledComboBox;
 import sudoku.view.control.ToggleButton;
+import sudoku.view.dialog.GoToPuzzleDialog;
 import sudoku.view.dialog.MessageDialog;
 import sudoku.view.dialog.ModalDialog;
 import sudoku.view.dialog.ModalStage;
 import sudoku.view.dialog.WaitingDialog;
 import sudoku.view.hint.CurvedHintAnnotation;
+import sudoku.view.hint.HintAnnotationPane;
 import sudoku.view.hint.HintButtonPane;
 import sudoku.view.hint.HintPane;
 import sudoku.view.hint.HintTextArea;
 import sudoku.view.hint.LinearHintAnnotation;
+import sudoku.view.puzzle.SudokuPuzzleCanvas;
 import sudoku.view.puzzle.SudokuPuzzleCell;
 import sudoku.view.puzzle.SudokuPuzzleView;
 import sudoku.view.settings.ColorSettingsView;
@@ -94,6 +98,10 @@ public class LayoutFactory {
 		return sudokuPuzzleView;
 	}
 
+	public SudokuPuzzleCanvas createSudokuPuzzleCanvas() {
+		return new SudokuPuzzleCanvas();
+	}
+
 	public SudokuPuzzleCell createSudokuPuzzleCell(final int col, final int row) {
 		final SudokuPuzzleCell sudokuPuzzleCell = new SudokuPuzzleCell(row, col);
 		ViewController.getInstance().registerSudokuPuzzleCell(sudokuPuzzleCell, col, row);
@@ -207,6 +215,14 @@ public class LayoutFactory {
 		this.showNewStageWithRootElement(stage, messageDialog, MESSAGE_DIALOG_WIDTH, MESSAGE_DIALOG_HEIGHT);
 	}
 
+	public void showGoToPuzzleDialog(final String title, final String message) {
+		final Stage stage = new ModalStage();
+		final GoToPuzzleDialog goToPuzzleDialog = new GoToPuzzleDialog(stage);
+		goToPuzzleDialog.setTitle(title);
+		goToPuzzleDialog.setMessage(message);
+		this.showNewStageWithRootElement(stage, goToPuzzleDialog, MESSAGE_DIALOG_WIDTH, MESSAGE_DIALOG_HEIGHT);
+	}
+
 	public WaitingDialog createWaitingDialog(final String title, final String message) {
 		final Stage stage = new ModalStage();
 		final WaitingDialog waitingDialog = new WaitingDialog(stage);
@@ -229,16 +245,24 @@ public class LayoutFactory {
 		WindowHelper.addResizeAndDragListener(stage, modalDialog);
 	}
 
+	public HintAnnotationPane createHintAnnotationPane() {
+		final HintAnnotationPane hintAnnotationPane = new HintAnnotationPane();
+		ViewController.getInstance().setHintAnnotationPane(hintAnnotationPane);
+		return hintAnnotationPane;
+	}
+
+	public PerformanceOverlay createPerformanceOverlay() {
+		final PerformanceOverlay performanceOverlay = new PerformanceOverlay();
+		ViewController.getInstance().setPerformanceOverlay(performanceOverlay);
+		return performanceOverlay;
+	}
+
 	public LinearHintAnnotation createLinearHintAnnotation(final int startNodeData, final int endNodeData) {
-		final LinearHintAnnotation hintAnnotation = new LinearHintAnnotation(startNodeData, endNodeData);
-		ViewController.getInstance().registerHintAnnotation(hintAnnotation);
-		return hintAnnotation;
+		return new LinearHintAnnotation(startNodeData, endNodeData);
 	}
 
 	public CurvedHintAnnotation createCurvedHintAnnotation(final int startNodeData, final int endNodeData) {
-		final CurvedHintAnnotation hintAnnotation = new CurvedHintAnnotation(startNodeData, endNodeData);
-		ViewController.getInstance().registerHintAnnotation(hintAnnotation);
-		return hintAnnotation;
+		return new CurvedHintAnnotation(startNodeData, endNodeData);
 	}
 
 	/** Offers some standard configuration of a scene for the project. */
@@ -1,6 +1,7 @@
 package sudoku.factories;
 
 import sudoku.model.ApplicationStateHistory;
+import sudoku.model.SudokuPuzzleSolution;
 import sudoku.model.SudokuPuzzleStyle;
 import sudoku.model.SudokuPuzzleValues;
 
@@ -27,6 +28,10 @@ public class ModelFactory {
 		return new SudokuPuzzleValues();
 	}
 
+	public SudokuPuzzleSolution createSudokuPuzzleSolution() {
+		return new SudokuPuzzleSolution();
+	}
+
 	public SudokuPuzzleStyle createSudokuPuzzleStyle() {
 		return new SudokuPuzzleStyle();
 	}
@@ -0,0 +1,125 @@
+package sudoku.metrics;
+
+import java.util.Arrays;
+
+/**
+ * This class records durations (in nanoseconds), such as the time of a pulse or
+ * a state transition. Percentiles and the histogram are computed from the most
+ * recent samples only (a rolling window), while the count, total and max cover
+ * every sample recorded. Instances are not thread safe; they are only used from
+ * the JavaFX thread.
+ */
+public class LatencyHistogram {
+
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+	// Upper bounds of each bucket of the histogram, in milliseconds. The last
+	// bucket holds everything slower (33 ms is 2 frames at 60 Hz).
+	private static final double[] BUCKET_UPPER_BOUNDS = { 1, 2, 4, 8, 16, 33, 66, 133, 266, 533 };
+
+	private static final int HISTOGRAM_BAR_WIDTH = 40;
+
+	private final long[] samples;
+
+	private int numSamples;
+
+	private int nextSampleIndex;
+
+	private long count;
+
+	private long totalNanos;
+
+	private long maxNanos;
+
+	public LatencyHistogram(final int windowSize) {
+		this.samples = new long[windowSize];
+		this.numSamples = 0;
+		this.nextSampleIndex = 0;
+		this.count = 0;
+		this.totalNanos = 0;
+		this.maxNanos = 0;
+	}
+
+	public void record(final long nanos) {
+		this.samples[this.nextSampleIndex] = nanos;
+		this.nextSampleIndex = (this.nextSampleIndex + 1) % this.samples.length;
+		this.numSamples = Math.min(this.numSamples + 1, this.samples.length);
+		this.count++;
+		this.totalNanos += nanos;
+		this.maxNanos = Math.max(this.maxNanos, nanos);
+	}
+
+	/** Returns the number of samples ever recorded. */
+	public long getCount() {
+		return this.count;
+	}
+
+	public double getMeanMillis() {
+		return this.count == 0 ? 0 : this.totalNanos / NANOS_PER_MILLI / this.count;
+	}
+
+	/** Returns the longest sample ever recorded. */
+	public double getMaxMillis() {
+		return this.maxNanos / NANOS_PER_MILLI;
+	}
+
+	/** Returns the last sample recorded, or 0 if there is none. */
+	public double getLastMillis() {
+		if (this.numSamples == 0) {
+			return 0;
+		}
+		return this.samples[(this.nextSampleIndex + this.samples.length - 1) % this.samples.length] / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * Returns the given percentile (0 - 100) of the samples in the window, or 0 if
+	 * there are none.
+	 */
+	public double getPercentileMillis(final double percentile) {
+		if (this.numSamples == 0) {
+			return 0;
+		}
+		final long[] sortedSamples = Arrays.copyOf(this.samples, this.numSamples);
+		Arrays.sort(sortedSamples);
+		final int index = (int) Math.ceil(percentile / 100.0 * this.numSamples) - 1;
+		return sortedSamples[Math.max(0, Math.min(index, this.numSamples - 1))] / NANOS_PER_MILLI;
+	}
+
+	/** Returns a one line summary, e.g. for logs or the performance overlay. */
+	public String getSummary() {
+		return String.format("n=%d p50=%.2fms p99=%.2fms max=%.2fms", this.count, this.getPercentileMillis(50),
+				this.getPercentileMillis(99), this.getMaxMillis());
+	}
+
+	/**
+	 * Returns the samples in the window as a text histogram, with one line per
+	 * bucket.
+	 */
+	public String toHistogramString() {
+		final int[] bucketCounts = new int[BUCKET_UPPER_BOUNDS.length + 1];
+		for (int index = 0; index < this.numSamples; index++) {
+			final double millis = this.samples[index] / NANOS_PER_MILLI;
+			int bucket = 0;
+			while (bucket < BUCKET_UPPER_BOUNDS.length && millis >= BUCKET_UPPER_BOUNDS[bucket]) {
+				bucket++;
+			}
+			bucketCounts[bucket]++;
+		}
+		final int maxBucketCount = Arrays.stream(bucketCounts).max().orElse(0);
+		final StringBuilder histogram = new StringBuilder();
+		for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+			final String label = bucket < BUCKET_UPPER_BOUNDS.length
+					? String.format("< %5.0f ms", BUCKET_UPPER_BOUNDS[bucket])
+					: String.format(">= %4.0f ms", BUCKET_UPPER_BOUNDS[bucket - 1]);
+			final int barWidth = maxBucketCount == 0 ? 0 : bucketCounts[bucket] * HISTOGRAM_BAR_WIDTH / maxBucketCount;
+			histogram.append(String.format("%s | %6d | %s%n", label, bucketCounts[bucket], repeat('#', barWidth)));
+		}
+		return histogram.toString();
+	}
+
+	private static String repeat(final char character, final int times) {
+		final char[] characters = new char[times];
+		Arrays.fill(characters, character);
+		return new String(characters);
+	}
+}
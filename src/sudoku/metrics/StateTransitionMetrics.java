@@ -0,0 +1,123 @@
+package sudoku.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import sudoku.model.ApplicationSettings;
+
+/**
+ * This class records the time of every model state transition, by state class
+ * (e.g. ApplyHintState, PastePuzzleState), so it is possible to find which
+ * actions are slow under real use. Transitions slower than the threshold are
+ * logged as they happen, and every state is logged when the application
+ * closes. The data is also published over JMX.
+ *
+ * Transitions are recorded on the JavaFX thread, while JMX reads on its own
+ * threads, so every method is synchronized.
+ */
+public class StateTransitionMetrics implements StateTransitionMetricsMXBean {
+
+	private static final Logger LOG = LogManager.getLogger(StateTransitionMetrics.class);
+
+	private static final String OBJECT_NAME = "sudoku:type=StateTransitionMetrics";
+
+	private static final int WINDOW_SIZE = 1000;
+
+	private static final long NANOS_PER_MILLI = 1_000_000L;
+
+	private static StateTransitionMetrics instance;
+
+	public static synchronized StateTransitionMetrics getInstance() {
+		if (StateTransitionMetrics.instance == null) {
+			StateTransitionMetrics.instance = new StateTransitionMetrics();
+		}
+		return StateTransitionMetrics.instance;
+	}
+
+	private final Map<String, LatencyHistogram> histogramsByState;
+
+	private long totalTransitions;
+
+	private long numSlowTransitions;
+
+	private int slowTransitionThresholdMillis;
+
+	private StateTransitionMetrics() {
+		this.histogramsByState = new TreeMap<>();
+		this.totalTransitions = 0;
+		this.numSlowTransitions = 0;
+		this.slowTransitionThresholdMillis = ApplicationSettings.getInstance().getSlowStateTransitionMillis();
+		this.register();
+	}
+
+	/**
+	 * Records a transition into a state. numMutations is the number of view nodes
+	 * the transition restyled, which is only used for logging.
+	 */
+	public synchronized void record(final String stateName, final long durationNanos, final int numMutations) {
+		this.histogramsByState.computeIfAbsent(stateName, key -> new LatencyHistogram(WINDOW_SIZE)).record(durationNanos);
+		this.totalTransitions++;
+		if (durationNanos >= this.slowTransitionThresholdMillis * NANOS_PER_MILLI) {
+			this.numSlowTransitions++;
+			LOG.warn("Slow state transition: {} took {} ms, view mutations: {}", stateName, durationNanos / NANOS_PER_MILLI,
+					numMutations);
+		}
+	}
+
+	/** Logs the summary of every state. Called when the application closes. */
+	public synchronized void logSummaries() {
+		LOG.info("State transitions: {}, slow transitions: {}", this.totalTransitions, this.numSlowTransitions);
+		for (final String summary : this.getSummaries()) {
+			LOG.info(summary);
+		}
+	}
+
+	@Override
+	public synchronized String[] getSummaries() {
+		return this.histogramsByState.entrySet().stream()
+				.map(entry -> entry.getKey() + ": " + entry.getValue().getSummary()).toArray(String[]::new);
+	}
+
+	@Override
+	public synchronized long getTotalTransitions() {
+		return this.totalTransitions;
+	}
+
+	@Override
+	public synchronized long getNumSlowTransitions() {
+		return this.numSlowTransitions;
+	}
+
+	@Override
+	public synchronized int getSlowTransitionThresholdMillis() {
+		return this.slowTransitionThresholdMillis;
+	}
+
+	@Override
+	public synchronized void setSlowTransitionThresholdMillis(final int slowTransitionThresholdMillis) {
+		this.slowTransitionThresholdMillis = slowTransitionThresholdMillis;
+	}
+
+	@Override
+	public synchronized void reset() {
+		this.histogramsByState.clear();
+		this.totalTransitions = 0;
+		this.numSlowTransitions = 0;
+	}
+
+	private void register() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+		} catch (final JMException e) {
+			// The metrics are still logged, so this is not fatal.
+			LOG.warn("Could not register {}: {}", OBJECT_NAME, e);
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package sudoku.metrics;
+
+/**
+ * The management interface of StateTransitionMetrics, which can be viewed in
+ * JConsole / VisualVM under sudoku:type=StateTransitionMetrics.
+ */
+public interface StateTransitionMetricsMXBean {
+
+	/** Returns one line per state class, with the count, p50, p99 and max. */
+	String[] getSummaries();
+
+	long getTotalTransitions();
+
+	long getNumSlowTransitions();
+
+	int getSlowTransitionThresholdMillis();
+
+	void setSlowTransitionThresholdMillis(int slowTransitionThresholdMillis);
+
+	/** Clears all recorded transitions. */
+	void reset();
+}
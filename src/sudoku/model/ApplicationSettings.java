@@ -1,8 +1,6 @@
 package sudoku.model;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -40,10 +38,9 @@ public class ApplicationSettings {
 
 	private static ApplicationSettings instance;
 
-	public static ApplicationSettings getInstance() {
+	public static synchronized ApplicationSettings getInstance() {
 		if (ApplicationSettings.instance == null) {
-			ApplicationSettings.instance = new ApplicationSettings(
-					ApplicationSettings.readSettingsFromFile(ResourceConstants.SAVED_SETTINGS));
+			ApplicationSettings.instance = new ApplicationSettings(ApplicationSettings.readSavedSettings());
 		}
 		return ApplicationSettings.instance;
 	}
@@ -68,6 +65,14 @@ public class ApplicationSettings {
 
 	private static final String USE_DIGIT_BUTTONS_FOR_MOUSE_KEY = "useDigitButtonsForMouseActions";
 
+	private static final String HIGHLIGHT_MISTAKES_KEY = "highlightMistakes";
+
+	private static final String USE_CANVAS_RENDERER_KEY = "useCanvasRenderer";
+
+	private static final String MAX_CURVED_HINT_LINKS_KEY = "maxCurvedHintLinks";
+
+	private static final String SLOW_STATE_TRANSITION_MILLIS_KEY = "slowStateTransitionMillis";
+
 	private static final String COLOR_FOR_FILTERING_KEY = "colorForFiltering";
 
 	private static final String COLOR_FOR_COLORING_KEY = "colorsUsedInColoring";
@@ -99,9 +104,25 @@ public class ApplicationSettings {
 
 	private boolean useDigitButtonsForMouseActions;
 
+	private boolean highlightMistakes;
+
+	private boolean useCanvasRenderer;
+
+	// Hints with more links than this are drawn with straight links only. Only
+	// set from the settings file.
+	private int maxCurvedHintLinks;
+
+	// State transitions slower than this are logged. Only set from the settings
+	// file.
+	private int slowStateTransitionMillis;
+
 	// Solver settings.
 	private List<StepConfig> stepConfigs;
 
+	// Replaced (never changed) whenever the solver or difficulty settings change,
+	// so other threads always see a complete configuration.
+	private volatile SolverConfigSnapshot solverConfigSnapshot;
+
 	// Color settings.
 	private String colorForFiltering;
 
@@ -113,83 +134,115 @@ public class ApplicationSettings {
 
 	private String hintDeleteColor;
 
+	/**
+	 * Creates settings from the given keys and values. Settings which are missing
+	 * or can not be parsed get their default value (see DefaultApplicationSettings)
+	 * instead.
+	 */
 	public ApplicationSettings(final Map<String, String> settingsToLoad) {
-		this.difficulty = Difficulty.valueOf(settingsToLoad.get(DIFFICULTY_KEY));
-		this.solveToRequiredStep = settingsToLoad.get(SOLVE_TO_REQUIRED_STEP_KEY).equals(TRUE);
-		this.mustContainStepWithName = settingsToLoad.get(MUST_CONTAIN_STEP_WITH_NAME_KEY);
+		final DefaultApplicationSettings defaults = DefaultApplicationSettings.getInstance();
+		this.difficulty = ApplicationSettings.getDifficultySetting(settingsToLoad, DIFFICULTY_KEY,
+				defaults.getDifficulty());
+		this.solveToRequiredStep = ApplicationSettings.getBooleanSetting(settingsToLoad, SOLVE_TO_REQUIRED_STEP_KEY,
+				defaults.isSolveToRequiredStep());
+		this.mustContainStepWithName = ApplicationSettings.getSetting(settingsToLoad, MUST_CONTAIN_STEP_WITH_NAME_KEY,
+				defaults.getMustContainStepWithName());
 		this.maxScoreForDifficulty = new EnumMap<>(Difficulty.class);
 		for (final Difficulty tmpDifficulty : Difficulty.getValidDifficulties()) {
-			this.maxScoreForDifficulty.put(tmpDifficulty,
-					Integer.parseInt(settingsToLoad.get(MAX_SCORE_FOR_KEY + tmpDifficulty.name())));
+			final int maxScore = ApplicationSettings.getIntSetting(settingsToLoad,
+					MAX_SCORE_FOR_KEY + tmpDifficulty.name(), defaults.getMaxScoreForDifficulty(tmpDifficulty.name()));
+			this.maxScoreForDifficulty.put(tmpDifficulty, maxScore);
+			HodokuFacade.getInstance().updateMaxScoreForDifficulty(tmpDifficulty, maxScore);
 		}
-		this.autoManageCandidates = settingsToLoad.get(AUTO_MANAGE_CANDIDATES_KEY).equals(TRUE);
-		this.showPuzzleProgress = settingsToLoad.get(SHOW_PUZZLE_PROGRESS_KEY).equals(TRUE);
-		this.useDigitButtonsForMouseActions = settingsToLoad.get(USE_DIGIT_BUTTONS_FOR_MOUSE_KEY).equals(TRUE);
-		this.colorForFiltering = settingsToLoad.get(COLOR_FOR_FILTERING_KEY);
+		this.autoManageCandidates = ApplicationSettings.getBooleanSetting(settingsToLoad, AUTO_MANAGE_CANDIDATES_KEY,
+				defaults.isAutoManageCandidates());
+		this.showPuzzleProgress = ApplicationSettings.getBooleanSetting(settingsToLoad, SHOW_PUZZLE_PROGRESS_KEY,
+				defaults.isShowPuzzleProgress());
+		this.useDigitButtonsForMouseActions = ApplicationSettings.getBooleanSetting(settingsToLoad,
+				USE_DIGIT_BUTTONS_FOR_MOUSE_KEY, defaults.isUseDigitButtonsForMouseActions());
+		this.highlightMistakes = ApplicationSettings.getBooleanSetting(settingsToLoad, HIGHLIGHT_MISTAKES_KEY,
+				defaults.isHighlightMistakes());
+		this.useCanvasRenderer = ApplicationSettings.getBooleanSetting(settingsToLoad, USE_CANVAS_RENDERER_KEY,
+				defaults.isUseCanvasRenderer());
+		this.maxCurvedHintLinks = ApplicationSettings.getIntSetting(settingsToLoad, MAX_CURVED_HINT_LINKS_KEY,
+				defaults.getMaxCurvedHintLinks());
+		this.slowStateTransitionMillis = ApplicationSettings.getIntSetting(settingsToLoad,
+				SLOW_STATE_TRANSITION_MILLIS_KEY, defaults.getSlowStateTransitionMillis());
+		this.colorForFiltering = ApplicationSettings.getSetting(settingsToLoad, COLOR_FOR_FILTERING_KEY,
+				defaults.getColorForFiltering());
 		this.colorsUsedInColoring = new String[NUM_COLORS_USED_IN_COLORING];
 		for (int index = 0; index < this.colorsUsedInColoring.length; index++) {
-			this.colorsUsedInColoring[index] = settingsToLoad.get(COLOR_FOR_COLORING_KEY + index);
+			this.colorsUsedInColoring[index] = ApplicationSettings.getSetting(settingsToLoad,
+					COLOR_FOR_COLORING_KEY + index, defaults.getColorsUsedInColoring()[index]);
 		}
 		this.hintColors = new String[NUM_COLORS_USED_IN_HINTS];
 		for (int index = 0; index < this.hintColors.length; index++) {
-			this.hintColors[index] = settingsToLoad.get(COLOR_FOR_HINTS_KEY + index);
+			this.hintColors[index] = ApplicationSettings.getSetting(settingsToLoad, COLOR_FOR_HINTS_KEY + index,
+					defaults.getHintColors()[index]);
 		}
 		this.alsHintColors = new String[NUM_COLORS_USED_IN_ALSES];
 		for (int index = 0; index < this.alsHintColors.length; index++) {
-			this.alsHintColors[index] = settingsToLoad.get(COLOR_FOR_ALSES_KEY + index);
+			this.alsHintColors[index] = ApplicationSettings.getSetting(settingsToLoad, COLOR_FOR_ALSES_KEY + index,
+					defaults.getAlsColors()[index]);
 		}
-		this.hintDeleteColor = settingsToLoad.get(HINT_DELETE_COLOR_KEY);
+		this.hintDeleteColor = ApplicationSettings.getSetting(settingsToLoad, HINT_DELETE_COLOR_KEY,
+				defaults.getHintDeleteColor());
 		this.stepConfigs = new ArrayList<>();
 		// Use some other copy of the step configs to get access to the different names
-		// we need to search for (instead of hard-coding all 30+).
+		// we need to search for (instead of hard-coding all 30+). Steps which are
+		// missing from the settings keep HoDoKu's defaults.
 		final List<StepConfig> allStepConfigs = HodokuFacade.getInstance().getSolverConfig();
 		allStepConfigs.forEach(tempStepConfig -> {
-			final String storedStepConfigData = settingsToLoad.get(STEP_CONFIG_KEY + tempStepConfig.getType().getStepName());
-			final String[] stepConfigParameters = storedStepConfigData.split("\\" + PIPE);
-			tempStepConfig.setIndex(Integer.parseInt(stepConfigParameters[0]));
-			tempStepConfig.setEnabled(Boolean.parseBoolean(stepConfigParameters[1]));
-			tempStepConfig.setBaseScore(Integer.parseInt(stepConfigParameters[2]));
-			tempStepConfig.setLevel(Integer.parseInt(stepConfigParameters[3]));
+			final String stepConfigKey = STEP_CONFIG_KEY + tempStepConfig.getType().getStepName();
+			final String storedStepConfigData = settingsToLoad.get(stepConfigKey);
+			if (storedStepConfigData == null) {
+				LOG.warn("The setting {} is missing, so the default is used.", stepConfigKey);
+			} else {
+				ApplicationSettings.loadStepConfig(tempStepConfig, stepConfigKey, storedStepConfigData);
+			}
 			this.stepConfigs.add(tempStepConfig);
 		});
 		// A little redundant, but saves some code duplication.
 		this.setSolverConfig(this.stepConfigs);
 	}
 
-	/** Writes the current state of this to the saved settings file. */
+	/**
+	 * Saves the current state of this to the saved settings file. The file is
+	 * written in the background (see SettingsWriter).
+	 */
 	public void writeSettingsToFile() {
-		try (BufferedWriter bufferedWriter = new BufferedWriter(
-				new FileWriter(new File(ResourceConstants.SAVED_SETTINGS)))) {
-			bufferedWriter.write(DIFFICULTY_KEY + EQUALS + this.difficulty.name() + NEW_LINE);
-			bufferedWriter.write(MUST_CONTAIN_STEP_WITH_NAME_KEY + EQUALS + this.mustContainStepWithName + NEW_LINE);
-			for (final Difficulty tmpDifficulty : Difficulty.getValidDifficulties()) {
-				bufferedWriter.write(MAX_SCORE_FOR_KEY + tmpDifficulty.name() + EQUALS
-						+ this.maxScoreForDifficulty.get(tmpDifficulty) + NEW_LINE);
-			}
-			bufferedWriter.write(SOLVE_TO_REQUIRED_STEP_KEY + EQUALS + this.solveToRequiredStep + NEW_LINE);
-			bufferedWriter.write(AUTO_MANAGE_CANDIDATES_KEY + EQUALS + this.autoManageCandidates + NEW_LINE);
-			bufferedWriter.write(SHOW_PUZZLE_PROGRESS_KEY + EQUALS + this.showPuzzleProgress + NEW_LINE);
-			bufferedWriter.write(USE_DIGIT_BUTTONS_FOR_MOUSE_KEY + EQUALS + this.useDigitButtonsForMouseActions + NEW_LINE);
-			bufferedWriter.write(COLOR_FOR_FILTERING_KEY + EQUALS + this.colorForFiltering + NEW_LINE);
-			for (int index = 0; index < this.colorsUsedInColoring.length; index++) {
-				bufferedWriter.write(COLOR_FOR_COLORING_KEY + index + EQUALS + this.colorsUsedInColoring[index] + NEW_LINE);
-			}
-			for (int index = 0; index < this.hintColors.length; index++) {
-				bufferedWriter.write(COLOR_FOR_HINTS_KEY + index + EQUALS + this.hintColors[index] + NEW_LINE);
-			}
-			for (int index = 0; index < this.alsHintColors.length; index++) {
-				bufferedWriter.write(COLOR_FOR_ALSES_KEY + index + EQUALS + this.alsHintColors[index] + NEW_LINE);
-			}
-			bufferedWriter.write(HINT_DELETE_COLOR_KEY + EQUALS + this.hintDeleteColor + NEW_LINE);
-			for (int index = 0; index < this.stepConfigs.size(); index++) {
-				final StepConfig stepConfig = this.stepConfigs.get(index);
-				bufferedWriter.write(STEP_CONFIG_KEY + stepConfig.getType().getStepName() + EQUALS + index + PIPE
-						+ stepConfig.isEnabled() + PIPE + stepConfig.getBaseScore() + PIPE + stepConfig.getLevel() + NEW_LINE);
-			}
-		} catch (final IOException e) {
-			LOG.error("{}", e);
-			e.printStackTrace();
+		final StringBuilder settings = new StringBuilder();
+		settings.append(DIFFICULTY_KEY + EQUALS + this.difficulty.name() + NEW_LINE);
+		settings.append(MUST_CONTAIN_STEP_WITH_NAME_KEY + EQUALS + this.mustContainStepWithName + NEW_LINE);
+		for (final Difficulty tmpDifficulty : Difficulty.getValidDifficulties()) {
+			settings.append(MAX_SCORE_FOR_KEY + tmpDifficulty.name() + EQUALS
+					+ this.maxScoreForDifficulty.get(tmpDifficulty) + NEW_LINE);
+		}
+		settings.append(SOLVE_TO_REQUIRED_STEP_KEY + EQUALS + this.solveToRequiredStep + NEW_LINE);
+		settings.append(AUTO_MANAGE_CANDIDATES_KEY + EQUALS + this.autoManageCandidates + NEW_LINE);
+		settings.append(SHOW_PUZZLE_PROGRESS_KEY + EQUALS + this.showPuzzleProgress + NEW_LINE);
+		settings.append(USE_DIGIT_BUTTONS_FOR_MOUSE_KEY + EQUALS + this.useDigitButtonsForMouseActions + NEW_LINE);
+		settings.append(HIGHLIGHT_MISTAKES_KEY + EQUALS + this.highlightMistakes + NEW_LINE);
+		settings.append(USE_CANVAS_RENDERER_KEY + EQUALS + this.useCanvasRenderer + NEW_LINE);
+		settings.append(MAX_CURVED_HINT_LINKS_KEY + EQUALS + this.maxCurvedHintLinks + NEW_LINE);
+		settings.append(SLOW_STATE_TRANSITION_MILLIS_KEY + EQUALS + this.slowStateTransitionMillis + NEW_LINE);
+		settings.append(COLOR_FOR_FILTERING_KEY + EQUALS + this.colorForFiltering + NEW_LINE);
+		for (int index = 0; index < this.colorsUsedInColoring.length; index++) {
+			settings.append(COLOR_FOR_COLORING_KEY + index + EQUALS + this.colorsUsedInColoring[index] + NEW_LINE);
+		}
+		for (int index = 0; index < this.hintColors.length; index++) {
+			settings.append(COLOR_FOR_HINTS_KEY + index + EQUALS + this.hintColors[index] + NEW_LINE);
 		}
+		for (int index = 0; index < this.alsHintColors.length; index++) {
+			settings.append(COLOR_FOR_ALSES_KEY + index + EQUALS + this.alsHintColors[index] + NEW_LINE);
+		}
+		settings.append(HINT_DELETE_COLOR_KEY + EQUALS + this.hintDeleteColor + NEW_LINE);
+		for (int index = 0; index < this.stepConfigs.size(); index++) {
+			final StepConfig stepConfig = this.stepConfigs.get(index);
+			settings.append(STEP_CONFIG_KEY + stepConfig.getType().getStepName() + EQUALS + index + PIPE
+					+ stepConfig.isEnabled() + PIPE + stepConfig.getBaseScore() + PIPE + stepConfig.getLevel() + NEW_LINE);
+		}
+		SettingsWriter.getInstance().save(settings.toString());
 	}
 
 	public Difficulty getDifficulty() {
@@ -216,6 +269,22 @@ public class ApplicationSettings {
 		return this.useDigitButtonsForMouseActions;
 	}
 
+	public boolean isHighlightMistakes() {
+		return this.highlightMistakes;
+	}
+
+	public boolean isUseCanvasRenderer() {
+		return this.useCanvasRenderer;
+	}
+
+	public int getMaxCurvedHintLinks() {
+		return this.maxCurvedHintLinks;
+	}
+
+	public int getSlowStateTransitionMillis() {
+		return this.slowStateTransitionMillis;
+	}
+
 	public String getColorForFiltering() {
 		return this.colorForFiltering;
 	}
@@ -264,6 +333,22 @@ public class ApplicationSettings {
 		this.useDigitButtonsForMouseActions = useDigitButtonsForMouseActions;
 	}
 
+	public void setHighlightMistakes(final boolean highlightMistakes) {
+		this.highlightMistakes = highlightMistakes;
+	}
+
+	public void setUseCanvasRenderer(final boolean useCanvasRenderer) {
+		this.useCanvasRenderer = useCanvasRenderer;
+	}
+
+	public void setMaxCurvedHintLinks(final int maxCurvedHintLinks) {
+		this.maxCurvedHintLinks = maxCurvedHintLinks;
+	}
+
+	public void setSlowStateTransitionMillis(final int slowStateTransitionMillis) {
+		this.slowStateTransitionMillis = slowStateTransitionMillis;
+	}
+
 	public void setColorForFiltering(final String colorForFiltering) {
 		this.colorForFiltering = colorForFiltering;
 	}
@@ -288,6 +373,7 @@ public class ApplicationSettings {
 		final Difficulty difficultyToChange = Difficulty.valueOf(difficultyName.toUpperCase());
 		this.maxScoreForDifficulty.put(difficultyToChange, maxScore);
 		HodokuFacade.getInstance().updateMaxScoreForDifficulty(difficultyToChange, maxScore);
+		this.updateSolverConfigSnapshot();
 	}
 
 	public void setSolverConfig(final List<StepConfig> stepConfigs) {
@@ -295,6 +381,7 @@ public class ApplicationSettings {
 		final StepConfig[] newSolverSteps = stepConfigs.stream().toArray(element -> new StepConfig[element]);
 		Options.getInstance().solverSteps = Options.getInstance().copyStepConfigs(newSolverSteps, false, true);
 		Options.getInstance().adjustOrgSolverSteps();
+		this.updateSolverConfigSnapshot();
 	}
 
 	public List<StepConfig> getSolverConfig() {
@@ -307,15 +394,43 @@ public class ApplicationSettings {
 		return stepConfigs;
 	}
 
+	/**
+	 * Returns the solver settings as they are right now. The snapshot never
+	 * changes, so it is safe to use from other threads for as long as needed.
+	 */
+	public SolverConfigSnapshot getSolverConfigSnapshot() {
+		return this.solverConfigSnapshot;
+	}
+
+	private void updateSolverConfigSnapshot() {
+		this.solverConfigSnapshot = new SolverConfigSnapshot(Options.getInstance().solverSteps,
+				this.maxScoreForDifficulty);
+	}
+
+	/**
+	 * Reads the saved settings. Keys missing from the settings file (if it was
+	 * damaged or edited by hand) are read from the backup written with it.
+	 */
+	private static Map<String, String> readSavedSettings() {
+		final Map<String, String> settings = new HashMap<>();
+		if (new File(ResourceConstants.SAVED_SETTINGS_BACKUP).exists()) {
+			settings.putAll(ApplicationSettings.readSettingsFromFile(ResourceConstants.SAVED_SETTINGS_BACKUP));
+		}
+		settings.putAll(ApplicationSettings.readSettingsFromFile(ResourceConstants.SAVED_SETTINGS));
+		return settings;
+	}
+
 	private static Map<String, String> readSettingsFromFile(final String filePath) {
 		final Map<String, String> settings = new HashMap<>();
 		final Path settingsFilePath = Paths.get(new File(filePath).toURI());
 		try {
 			final List<String> allLines = Files.readAllLines(settingsFilePath);
 			// Just so we don't need multiple returns, this is read into a variable
-			// then each entry is added to the main mapping.
-			final Map<String, String> tempMapping = allLines.stream().filter(line -> !line.isEmpty()).collect(Collectors
-					.toMap(line -> line.substring(0, line.indexOf('=')), line -> line.substring(line.indexOf('=') + 1)));
+			// then each entry is added to the main mapping. Lines without a key (like a
+			// torn last line) are skipped, and the last of any repeated key is used.
+			final Map<String, String> tempMapping = allLines.stream().filter(line -> line.indexOf('=') > 0)
+					.collect(Collectors.toMap(line -> line.substring(0, line.indexOf('=')),
+							line -> line.substring(line.indexOf('=') + 1), (first, second) -> second));
 			settings.putAll(tempMapping);
 		} catch (final IOException e) {
 			LOG.error("{}", e);
@@ -323,4 +438,65 @@ public class ApplicationSettings {
 		return settings;
 	}
 
+	private static String getSetting(final Map<String, String> settingsToLoad, final String key,
+			final String defaultValue) {
+		final String value = settingsToLoad.get(key);
+		if (value == null) {
+			LOG.warn("The setting {} is missing, so the default is used.", key);
+			return defaultValue;
+		}
+		return value;
+	}
+
+	private static boolean getBooleanSetting(final Map<String, String> settingsToLoad, final String key,
+			final boolean defaultValue) {
+		return TRUE.equals(ApplicationSettings.getSetting(settingsToLoad, key, String.valueOf(defaultValue)));
+	}
+
+	/**
+	 * Returns the int setting with the given key, or the given default (with a
+	 * warning) if it is missing or not a number.
+	 */
+	static int getIntSetting(final Map<String, String> settingsToLoad, final String key, final int defaultValue) {
+		final String value = ApplicationSettings.getSetting(settingsToLoad, key, String.valueOf(defaultValue));
+		try {
+			return Integer.parseInt(value);
+		} catch (final NumberFormatException e) {
+			LOG.warn("The setting {} is not a number ({}), so the default is used.", key, value);
+			return defaultValue;
+		}
+	}
+
+	private static Difficulty getDifficultySetting(final Map<String, String> settingsToLoad, final String key,
+			final Difficulty defaultValue) {
+		final String value = ApplicationSettings.getSetting(settingsToLoad, key, defaultValue.name());
+		try {
+			return Difficulty.valueOf(value);
+		} catch (final IllegalArgumentException e) {
+			LOG.warn("The setting {} is not a difficulty ({}), so the default is used.", key, value);
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Sets the given step config from its saved form (index|enabled|score|level).
+	 * If that can not be parsed, the step config is left as it is.
+	 */
+	private static void loadStepConfig(final StepConfig stepConfig, final String key,
+			final String storedStepConfigData) {
+		final String[] stepConfigParameters = storedStepConfigData.split("\\" + PIPE);
+		try {
+			final int index = Integer.parseInt(stepConfigParameters[0]);
+			final boolean isEnabled = Boolean.parseBoolean(stepConfigParameters[1]);
+			final int baseScore = Integer.parseInt(stepConfigParameters[2]);
+			final int level = Integer.parseInt(stepConfigParameters[3]);
+			stepConfig.setIndex(index);
+			stepConfig.setEnabled(isEnabled);
+			stepConfig.setBaseScore(baseScore);
+			stepConfig.setLevel(level);
+		} catch (final NumberFormatException | ArrayIndexOutOfBoundsException e) {
+			LOG.warn("The setting {} is not a step config ({}), so the default is used.", key, storedStepConfigData);
+		}
+	}
+
 }
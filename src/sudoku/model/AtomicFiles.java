@@ -0,0 +1,44 @@
+package sudoku.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class writes files so that a crash (or a full disk) never leaves a file
+ * half written: the contents are written to a temporary file next to it, forced
+ * to disk, then renamed over the file. Readers see either the old or the new
+ * contents.
+ */
+public class AtomicFiles {
+
+	private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+	/** Replaces the contents of the file at the given path. */
+	public static void write(final Path path, final byte[] contents) throws IOException {
+		final Path tempPath = path.resolveSibling(path.getFileName() + TEMP_FILE_SUFFIX);
+		try (final FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			final ByteBuffer buffer = ByteBuffer.wrap(contents);
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(true);
+		}
+		try {
+			Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (final AtomicMoveNotSupportedException e) {
+			// Some file systems can not rename atomically; this is the best they allow.
+			Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private AtomicFiles() {
+		// Private constructor to prevent instantiation.
+	}
+}
@@ -0,0 +1,224 @@
+package sudoku.model;
+
+import java.util.BitSet;
+
+import sudoku.view.util.LabelConstants;
+
+/**
+ * This class is a compiled cell filter. A query is parsed once into a tree of
+ * operations on the candidate bitboards of SudokuPuzzleValues (one 81 bit set
+ * of cells per digit), so evaluating it never looks at the candidates of
+ * individual cells. Only unfixed cells ever match. The syntax is:
+ *
+ * <pre>
+ * 1 - 9     cells with the candidate
+ * {137}     cells whose candidates are all in the set
+ * #2        cells with exactly that many candidates (X|Y is the same as #2)
+ * h5        cells where the candidate is the only one left in a row, column or box
+ * !a        cells which do not match a
+ * a &amp; b     cells which match both
+ * a | b     cells which match either
+ * (a)       grouping
+ * </pre>
+ *
+ * ! binds tighter than &amp;, which binds tighter than |. Whitespace is ignored.
+ */
+public class CellFilterQuery {
+
+	private static final BitSet[] HOUSE_MASKS = new BitSet[SudokuPeers.NUM_HOUSES];
+
+	static {
+		for (int house = 0; house < SudokuPeers.NUM_HOUSES; house++) {
+			HOUSE_MASKS[house] = new BitSet(SudokuPeers.NUM_CELLS);
+			for (final int cellIndex : SudokuPeers.getHouse(house)) {
+				HOUSE_MASKS[house].set(cellIndex);
+			}
+		}
+	}
+
+	/** One node of a compiled query. */
+	private interface Expression {
+		BitSet evaluate(SudokuPuzzleValues sudokuPuzzleValues);
+	}
+
+	private final String query;
+
+	private final Expression expression;
+
+	/**
+	 * Compiles the given query. Throws an IllegalArgumentException if the query is
+	 * not valid.
+	 */
+	public static CellFilterQuery compile(final String query) {
+		return new CellFilterQuery(query, new Parser(query).parse());
+	}
+
+	private CellFilterQuery(final String query, final Expression expression) {
+		this.query = query;
+		this.expression = expression;
+	}
+
+	public String getQuery() {
+		return this.query;
+	}
+
+	/** Returns the linear indices of the cells which match this query. */
+	public BitSet evaluate(final SudokuPuzzleValues sudokuPuzzleValues) {
+		final BitSet result = this.expression.evaluate(sudokuPuzzleValues);
+		result.and(sudokuPuzzleValues.getUnfixedCells());
+		return result;
+	}
+
+	/** Returns the cells which are the only place left for the digit in a house. */
+	private static BitSet getOnlyCellsInHouse(final SudokuPuzzleValues sudokuPuzzleValues, final int digit) {
+		final BitSet cellsWithDigit = sudokuPuzzleValues.getCellsWithCandidate(digit);
+		final BitSet result = new BitSet(SudokuPeers.NUM_CELLS);
+		for (final BitSet houseMask : HOUSE_MASKS) {
+			final BitSet cellsInHouse = (BitSet) cellsWithDigit.clone();
+			cellsInHouse.and(houseMask);
+			if (cellsInHouse.cardinality() == 1) {
+				result.or(cellsInHouse);
+			}
+		}
+		return result;
+	}
+
+	/** A recursive descent parser for one query, which is thrown away after. */
+	private static class Parser {
+
+		private final String query;
+
+		private final String source;
+
+		private int position;
+
+		private Parser(final String query) {
+			this.query = query;
+			this.source = LabelConstants.BIVALUE_CELL.equals(query) ? "#2" : query.replaceAll("\\s", "");
+			this.position = 0;
+		}
+
+		private Expression parse() {
+			if (this.source.isEmpty()) {
+				throw new IllegalArgumentException("Empty filter query.");
+			}
+			final Expression expression = this.parseOr();
+			if (this.position != this.source.length()) {
+				throw this.createParseException("Unexpected character");
+			}
+			return expression;
+		}
+
+		private Expression parseOr() {
+			Expression result = this.parseAnd();
+			while (this.consume('|')) {
+				final Expression left = result;
+				final Expression right = this.parseAnd();
+				result = sudokuPuzzleValues -> {
+					final BitSet cells = left.evaluate(sudokuPuzzleValues);
+					cells.or(right.evaluate(sudokuPuzzleValues));
+					return cells;
+				};
+			}
+			return result;
+		}
+
+		private Expression parseAnd() {
+			Expression result = this.parseNot();
+			while (this.consume('&')) {
+				final Expression left = result;
+				final Expression right = this.parseNot();
+				result = sudokuPuzzleValues -> {
+					final BitSet cells = left.evaluate(sudokuPuzzleValues);
+					cells.and(right.evaluate(sudokuPuzzleValues));
+					return cells;
+				};
+			}
+			return result;
+		}
+
+		private Expression parseNot() {
+			if (this.consume('!')) {
+				final Expression operand = this.parseNot();
+				return sudokuPuzzleValues -> {
+					final BitSet cells = operand.evaluate(sudokuPuzzleValues);
+					cells.flip(0, SudokuPeers.NUM_CELLS);
+					return cells;
+				};
+			}
+			if (this.consume('(')) {
+				final Expression result = this.parseOr();
+				if (!this.consume(')')) {
+					throw this.createParseException("Expected )");
+				}
+				return result;
+			}
+			return this.parseAtom();
+		}
+
+		private Expression parseAtom() {
+			if (this.consume('{')) {
+				return this.parseDigitSet();
+			}
+			if (this.consume('#')) {
+				final int candidateCount = this.parseDigit(0);
+				return sudokuPuzzleValues -> sudokuPuzzleValues.getCellsWithCandidateCount(candidateCount);
+			}
+			if (this.consume('h') || this.consume('H')) {
+				final int digit = this.parseDigit(1);
+				return sudokuPuzzleValues -> CellFilterQuery.getOnlyCellsInHouse(sudokuPuzzleValues, digit);
+			}
+			final int digit = this.parseDigit(1);
+			return sudokuPuzzleValues -> sudokuPuzzleValues.getCellsWithCandidate(digit);
+		}
+
+		/**
+		 * Parses the rest of a digit set (after the {). A cell matches if it has no
+		 * candidates outside of the set, and at least one candidate.
+		 */
+		private Expression parseDigitSet() {
+			final BitSet digits = new BitSet(SudokuPuzzleValues.CELLS_PER_HOUSE + 1);
+			while (!this.consume('}')) {
+				digits.set(this.parseDigit(1));
+			}
+			if (digits.isEmpty()) {
+				throw this.createParseException("Empty digit set");
+			}
+			return sudokuPuzzleValues -> {
+				final BitSet cells = new BitSet(SudokuPeers.NUM_CELLS);
+				cells.set(0, SudokuPeers.NUM_CELLS);
+				for (int digit = 1; digit <= SudokuPuzzleValues.CELLS_PER_HOUSE; digit++) {
+					if (!digits.get(digit)) {
+						cells.andNot(sudokuPuzzleValues.getCellsWithCandidate(digit));
+					}
+				}
+				cells.andNot(sudokuPuzzleValues.getCellsWithCandidateCount(0));
+				return cells;
+			};
+		}
+
+		private int parseDigit(final int minDigit) {
+			if (this.position < this.source.length()) {
+				final int digit = this.source.charAt(this.position) - '0';
+				if (digit >= minDigit && digit <= SudokuPuzzleValues.CELLS_PER_HOUSE) {
+					this.position++;
+					return digit;
+				}
+			}
+			throw this.createParseException("Expected a digit");
+		}
+
+		private boolean consume(final char character) {
+			if (this.position < this.source.length() && this.source.charAt(this.position) == character) {
+				this.position++;
+				return true;
+			}
+			return false;
+		}
+
+		private IllegalArgumentException createParseException(final String message) {
+			return new IllegalArgumentException(
+					message + " at position " + this.position + " of filter query \"" + this.query + "\".");
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package sudoku.model;
+
+/**
+ * This class represents a digit placed in a cell by some automatic process
+ * (i.e. filling in singles).
+ */
+public class CellPlacement {
+
+	private final int row;
+
+	private final int col;
+
+	private final int digit;
+
+	public CellPlacement(final int row, final int col, final int digit) {
+		this.row = row;
+		this.col = col;
+		this.digit = digit;
+	}
+
+	public int getRow() {
+		return this.row;
+	}
+
+	public int getCol() {
+		return this.col;
+	}
+
+	public int getDigit() {
+		return this.digit;
+	}
+
+	@Override
+	public String toString() {
+		return "r" + (this.row + 1) + "c" + (this.col + 1) + "=" + this.digit;
+	}
+}
@@ -0,0 +1,94 @@
+package sudoku.model;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import org.apache.logging.log4j.util.Strings;
+
+/**
+ * This enum contains the colors a cell or candidate can have: the colors the
+ * user applies for coloring (each with an alternate color, applied with shift
+ * down), and the colors of hints. The keys, pseudo classes and colors for each
+ * state are looked up in the view (see ColorUtils).
+ */
+public enum ColorState {
+	COLORSTATE1A(0, false, "sudoku-puzzle-color1a-entity"), COLORSTATE1B(0, true, "sudoku-puzzle-color1b-entity"),
+	COLORSTATE2A(1, false, "sudoku-puzzle-color2a-entity"), COLORSTATE2B(1, true, "sudoku-puzzle-color2b-entity"),
+	COLORSTATE3A(2, false, "sudoku-puzzle-color3a-entity"), COLORSTATE3B(2, true, "sudoku-puzzle-color3b-entity"),
+	COLORSTATE4A(3, false, "sudoku-puzzle-color4a-entity"), COLORSTATE4B(3, true, "sudoku-puzzle-color4b-entity"),
+	COLORSTATE5A(4, false, "sudoku-puzzle-color5a-entity"), COLORSTATE5B(4, true, "sudoku-puzzle-color5b-entity"),
+	PRIMARY_HINT_CANDIDATE(-1, false, "sudoku-puzzle-color-hint1"),
+	SECONDARY_HINT_CANDIDATE(-1, false, "sudoku-puzzle-color-hint2"),
+	TERTIARY_HINT_CANDIDATE(-1, false, "sudoku-puzzle-color-hint3"),
+	QUATERNARY_HINT_CANDIDATE(-1, false, "sudoku-puzzle-color-hint4"),
+	QUINARY_HINT_CANDIDATE(-1, false, "sudoku-puzzle-color-hint5"),
+	DELETABLE_HINT_CANDIDATE(-1, false, "sudoku-puzzle-color-deletable-hint-candidate"),
+	ALS1_HINT_CANDIDATE(-1, false, "-sudoku-puzzle-color-hint-als1"),
+	ALS2_HINT_CANDIDATE(-1, false, "-sudoku-puzzle-color-hint-als2"),
+	ALS3_HINT_CANDIDATE(-1, false, "-sudoku-puzzle-color-hint-als3"),
+	ALS4_HINT_CANDIDATE(-1, false, "-sudoku-puzzle-color-hint-als4"), NONE;
+
+	private final int keyIndex;
+
+	private final boolean withShift;
+
+	private final String cssClass;
+
+	private ColorState() {
+		this.keyIndex = -2;
+		this.withShift = false;
+		this.cssClass = Strings.EMPTY;
+	}
+
+	private ColorState(final int keyIndex, final boolean withShift, final String cssClass) {
+		this.keyIndex = keyIndex;
+		this.withShift = withShift;
+		this.cssClass = cssClass;
+	}
+
+	/**
+	 * Gets the index of the base color (and key) of a coloring color state, -1
+	 * for a hint color state, or -2 for NONE.
+	 */
+	public int getKeyIndex() {
+		return this.keyIndex;
+	}
+
+	public boolean isWithShift() {
+		return this.withShift;
+	}
+
+	public String getCssClass() {
+		return this.cssClass;
+	}
+
+	public boolean isColoringColor() {
+		return this.keyIndex > -1;
+	}
+
+	public boolean isHintColor() {
+		return this.keyIndex == -1;
+	}
+
+	/**
+	 * Returns the index of this state among the coloring color states (in the
+	 * order of ColorState.values()), or SudokuPuzzleFile.NO_COLOR if it is a hint
+	 * color or NONE.
+	 */
+	public int getColoringIndex() {
+		// Each coloring color is followed by its alternate color.
+		return this.isColoringColor() ? 2 * this.keyIndex + (this.withShift ? 1 : 0) : SudokuPuzzleFile.NO_COLOR;
+	}
+
+	/**
+	 * Gets the coloring color state with the given key index (the index of its
+	 * base color), with or without shift down.
+	 */
+	public static ColorState getStateForKeyIndex(final int keyIndex, final boolean isWithShift) {
+		return Arrays.asList(ColorState.values()).stream()
+				// The keys + color array list are in the same order, so we can use
+				// their indices interchangeably.
+				.filter(colorState -> keyIndex == colorState.keyIndex && colorState.withShift == isWithShift)
+				.findFirst().orElseThrow(NoSuchElementException::new);
+	}
+}
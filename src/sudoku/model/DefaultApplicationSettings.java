@@ -32,7 +32,7 @@ public class DefaultApplicationSettings {
 
 	private static DefaultApplicationSettings instance;
 
-	public static DefaultApplicationSettings getInstance() {
+	public static synchronized DefaultApplicationSettings getInstance() {
 		if (DefaultApplicationSettings.instance == null) {
 			DefaultApplicationSettings.instance = new DefaultApplicationSettings(
 					DefaultApplicationSettings.readSettingsFromFile(ResourceConstants.DEFAULT_SETTINGS));
@@ -60,6 +60,17 @@ public class DefaultApplicationSettings {
 
 	private static final String USE_DIGIT_BUTTONS_FOR_MOUSE_KEY = "useDigitButtonsForMouseActions";
 
+	private static final String HIGHLIGHT_MISTAKES_KEY = "highlightMistakes";
+
+	private static final String USE_CANVAS_RENDERER_KEY = "useCanvasRenderer";
+
+	private static final String MAX_CURVED_HINT_LINKS_KEY = "maxCurvedHintLinks";
+
+	// Used if defaults.txt does not have maxCurvedHintLinks (e.g. an older copy).
+	private static final int DEFAULT_MAX_CURVED_HINT_LINKS = 40;
+
+	private static final String SLOW_STATE_TRANSITION_MILLIS_KEY = "slowStateTransitionMillis";
+
 	private static final String COLOR_FOR_FILTERING_KEY = "colorForFiltering";
 
 	private static final String COLOR_FOR_COLORING_KEY = "colorsUsedInColoring";
@@ -88,6 +99,14 @@ public class DefaultApplicationSettings {
 
 	private final boolean useDigitButtonsForMouseActions;
 
+	private final boolean highlightMistakes;
+
+	private final boolean useCanvasRenderer;
+
+	private final int maxCurvedHintLinks;
+
+	private final int slowStateTransitionMillis;
+
 	// Solver settings not stored in here because I hand typed all the defaults, and
 	// it would be way too tedious to type all those.
 
@@ -106,6 +125,11 @@ public class DefaultApplicationSettings {
 		this.autoManageCandidates = settingsToLoad.get(AUTO_MANAGE_CANDIDATES_KEY).equals(TRUE);
 		this.showPuzzleProgress = settingsToLoad.get(SHOW_PUZZLE_PROGRESS_KEY).equals(TRUE);
 		this.useDigitButtonsForMouseActions = settingsToLoad.get(USE_DIGIT_BUTTONS_FOR_MOUSE_KEY).equals(TRUE);
+		this.highlightMistakes = settingsToLoad.get(HIGHLIGHT_MISTAKES_KEY).equals(TRUE);
+		this.useCanvasRenderer = settingsToLoad.get(USE_CANVAS_RENDERER_KEY).equals(TRUE);
+		this.maxCurvedHintLinks = ApplicationSettings.getIntSetting(settingsToLoad, MAX_CURVED_HINT_LINKS_KEY,
+				DEFAULT_MAX_CURVED_HINT_LINKS);
+		this.slowStateTransitionMillis = Integer.parseInt(settingsToLoad.get(SLOW_STATE_TRANSITION_MILLIS_KEY));
 		this.difficulty = Difficulty.valueOf(settingsToLoad.get(DIFFICULTY_KEY));
 		this.solveToRequiredStep = settingsToLoad.get(SOLVE_TO_REQUIRED_STEP_KEY).equals(TRUE);
 		this.maxScoreForDifficulty = new EnumMap<>(Difficulty.class);
@@ -154,6 +178,22 @@ public class DefaultApplicationSettings {
 		return this.useDigitButtonsForMouseActions;
 	}
 
+	public boolean isHighlightMistakes() {
+		return this.highlightMistakes;
+	}
+
+	public boolean isUseCanvasRenderer() {
+		return this.useCanvasRenderer;
+	}
+
+	public int getMaxCurvedHintLinks() {
+		return this.maxCurvedHintLinks;
+	}
+
+	public int getSlowStateTransitionMillis() {
+		return this.slowStateTransitionMillis;
+	}
+
 	public String getColorForFiltering() {
 		return this.colorForFiltering;
 	}
@@ -0,0 +1,215 @@
+package sudoku.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import sudoku.Chain;
+import sudoku.SolutionStep;
+
+/**
+ * This class decodes the chains of a hint once, so the hint can be shown in
+ * time linear to the length of its chains. It holds which candidates are part
+ * of a strong or weak link, and the links which should be drawn between them.
+ *
+ * Candidates are identified by cellIndex * 9 + digit - 1. Positions in the
+ * candidate grid (27 x 27, 3 x 3 candidates per cell) are identified by
+ * candidateRow * 27 + candidateCol.
+ */
+public class HintChainIndex {
+
+	private static final int NUM_CANDIDATES = SudokuPeers.NUM_CELLS * SudokuPuzzleValues.CELLS_PER_HOUSE;
+
+	private static final int CANDIDATE_GRID_SIZE = 3 * SudokuPuzzleValues.CELLS_PER_HOUSE;
+
+	private final BitSet strongLinkCandidates;
+
+	private final BitSet weakLinkCandidates;
+
+	// Each entry is the start and end node data of a link, in drawing order.
+	private final List<int[]> links;
+
+	// Links which pass over another node of the hint, and should be curved.
+	private final BitSet obstructedLinks;
+
+	public HintChainIndex(final SolutionStep hint) {
+		this.strongLinkCandidates = new BitSet(NUM_CANDIDATES);
+		this.weakLinkCandidates = new BitSet(NUM_CANDIDATES);
+		this.links = new ArrayList<>();
+		this.obstructedLinks = new BitSet();
+		final List<Chain> chains = hint.getChains();
+		// Only the first chain is shown (HoDoKu lets the user step through the chains
+		// of kraken fish and forcing nets).
+		final int activeChainIndex = chains.isEmpty() ? -1 : 0;
+		for (int chainIndex = 0; chainIndex < chains.size(); chainIndex++) {
+			if ((activeChainIndex == -1 || activeChainIndex == chainIndex)
+					&& (!hint.getType().isKrakenFish() || activeChainIndex != -1)) {
+				this.indexChainEntries(chains.get(chainIndex));
+				this.indexLinks(chains.get(chainIndex));
+			}
+		}
+		this.indexObstructedLinks();
+	}
+
+	/** Returns the candidates which are the end of a strong link. */
+	public BitSet getStrongLinkCandidates() {
+		return (BitSet) this.strongLinkCandidates.clone();
+	}
+
+	/** Returns the candidates which are the end of a weak link. */
+	public BitSet getWeakLinkCandidates() {
+		return (BitSet) this.weakLinkCandidates.clone();
+	}
+
+	public int getNumLinks() {
+		return this.links.size();
+	}
+
+	public int getLinkStartNodeData(final int linkIndex) {
+		return this.links.get(linkIndex)[0];
+	}
+
+	public int getLinkEndNodeData(final int linkIndex) {
+		return this.links.get(linkIndex)[1];
+	}
+
+	/**
+	 * Returns true iff the given link passes over another node of the hint. These
+	 * links are drawn with a slight curve to clean up possible confusion.
+	 */
+	public boolean isLinkObstructed(final int linkIndex) {
+		return this.obstructedLinks.get(linkIndex);
+	}
+
+	/**
+	 * Records the candidates of each entry in the chain. If a candidate is in the
+	 * chain more than once, the last entry wins.
+	 */
+	private void indexChainEntries(final Chain chain) {
+		for (int index = chain.getStart(); index <= chain.getEnd(); index++) {
+			if (chain.getChain()[index] != Integer.MIN_VALUE) {
+				final int chainEntry = Math.abs(chain.getChain()[index]);
+				final int nodeType = Chain.getSNodeType(chainEntry);
+				if (nodeType == Chain.NORMAL_NODE) {
+					this.indexChainEntry(chainEntry, Chain.getSCellIndex(chainEntry));
+				} else if (nodeType == Chain.GROUP_NODE) {
+					this.indexChainEntry(chainEntry, Chain.getSCellIndex(chainEntry));
+					this.indexChainEntry(chainEntry, Chain.getSCellIndex2(chainEntry));
+					this.indexChainEntry(chainEntry, Chain.getSCellIndex3(chainEntry));
+				}
+			}
+		}
+	}
+
+	private void indexChainEntry(final int chainEntry, final int cellIndex) {
+		if (cellIndex < 0) {
+			return;
+		}
+		final int candidateIndex = cellIndex * SudokuPuzzleValues.CELLS_PER_HOUSE + Chain.getSCandidate(chainEntry) - 1;
+		final boolean isStrong = Chain.isSStrong(chainEntry);
+		this.strongLinkCandidates.set(candidateIndex, isStrong);
+		this.weakLinkCandidates.set(candidateIndex, !isStrong);
+	}
+
+	/**
+	 * Records the links of the chain. As with a few other methods, this code has
+	 * been ported from HoDoKu.
+	 */
+	private void indexLinks(final Chain chain) {
+		final int[] nodeData = chain.getChain();
+		int oldNodeData = 0;
+		for (int index = chain.getStart(); index < chain.getEnd(); index++) {
+			int startNodeData = Math.abs(nodeData[index]);
+			final int endNodeData = Math.abs(nodeData[index + 1]);
+			// Forcing chains / nets branch off of an earlier node, so the link must
+			// start from that node instead.
+			if (nodeData[index] > 0 && nodeData[index + 1] < 0) {
+				oldNodeData = startNodeData;
+			}
+			if (nodeData[index] == Integer.MIN_VALUE && nodeData[index + 1] < 0) {
+				startNodeData = oldNodeData;
+			}
+			if (nodeData[index] < 0 && nodeData[index + 1] > 0) {
+				startNodeData = oldNodeData;
+			}
+			// Links which start and end in the same cell are not shown.
+			if (endNodeData != Integer.MIN_VALUE
+					&& Chain.getSCellIndex(startNodeData) != Chain.getSCellIndex(endNodeData)) {
+				this.links.add(new int[] { startNodeData, endNodeData });
+			}
+		}
+	}
+
+	/**
+	 * Marks the links which pass over a node of another link. Each link only walks
+	 * the candidate positions between its ends, rather than comparing against
+	 * every node of the hint.
+	 */
+	private void indexObstructedLinks() {
+		final BitSet nodePositions = new BitSet(CANDIDATE_GRID_SIZE * CANDIDATE_GRID_SIZE);
+		this.links.forEach(link -> {
+			for (final int nodeData : link) {
+				this.markNodePosition(nodePositions, Chain.getSCellIndex(nodeData), nodeData);
+				// The additional cells of a group node must be considered for possible
+				// collisions as well.
+				if (Chain.GROUP_NODE == Chain.getSNodeType(nodeData)) {
+					this.markNodePosition(nodePositions, Chain.getSCellIndex2(nodeData), nodeData);
+					this.markNodePosition(nodePositions, Chain.getSCellIndex3(nodeData), nodeData);
+				}
+			}
+		});
+		for (int linkIndex = 0; linkIndex < this.links.size(); linkIndex++) {
+			if (this.passesOverNode(this.links.get(linkIndex), nodePositions)) {
+				this.obstructedLinks.set(linkIndex);
+			}
+		}
+	}
+
+	private void markNodePosition(final BitSet nodePositions, final int cellIndex, final int nodeData) {
+		if (cellIndex >= 0) {
+			final int candidate = Chain.getSCandidate(nodeData) - 1;
+			nodePositions.set(this.getCandidateRow(cellIndex, candidate) * CANDIDATE_GRID_SIZE
+					+ this.getCandidateCol(cellIndex, candidate));
+		}
+	}
+
+	/**
+	 * Returns true iff a node lies strictly between the ends of the link. Only
+	 * links within a row or column are checked; diagonal links never pass over a
+	 * candidate's center.
+	 */
+	private boolean passesOverNode(final int[] link, final BitSet nodePositions) {
+		final int startCellIndex = Chain.getSCellIndex(link[0]);
+		final int endCellIndex = Chain.getSCellIndex(link[1]);
+		// The link is drawn along the row / column of the start candidate.
+		final int candidate = Chain.getSCandidate(link[0]) - 1;
+		final int startCandidateRow = this.getCandidateRow(startCellIndex, candidate);
+		final int startCandidateCol = this.getCandidateCol(startCellIndex, candidate);
+		if (SudokuPeers.getRow(startCellIndex) == SudokuPeers.getRow(endCellIndex)) {
+			final int endCandidateCol = this.getCandidateCol(endCellIndex, candidate);
+			for (int col = Math.min(startCandidateCol, endCandidateCol) + 1; col < Math.max(startCandidateCol,
+					endCandidateCol); col++) {
+				if (nodePositions.get(startCandidateRow * CANDIDATE_GRID_SIZE + col)) {
+					return true;
+				}
+			}
+		} else if (SudokuPeers.getCol(startCellIndex) == SudokuPeers.getCol(endCellIndex)) {
+			final int endCandidateRow = this.getCandidateRow(endCellIndex, candidate);
+			for (int row = Math.min(startCandidateRow, endCandidateRow) + 1; row < Math.max(startCandidateRow,
+					endCandidateRow); row++) {
+				if (nodePositions.get(row * CANDIDATE_GRID_SIZE + startCandidateCol)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private int getCandidateRow(final int cellIndex, final int candidate) {
+		return 3 * SudokuPeers.getRow(cellIndex) + candidate / 3;
+	}
+
+	private int getCandidateCol(final int cellIndex, final int candidate) {
+		return 3 * SudokuPeers.getCol(cellIndex) + candidate % 3;
+	}
+}
@@ -0,0 +1,100 @@
+package sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * This class is the result of parsing a puzzle from text (see
+ * SudokuPuzzleParser): the digit of each cell, and the candidates of each cell
+ * as a 9-bit mask (bit d - 1 for digit d). A mask of 0 means the text did not
+ * list candidates for that cell, and NO_CANDIDATES that it listed none. Cells
+ * are in row major order, like SudokuPeers.
+ *
+ * An instance can be reused for many parses, so bulk imports do not allocate
+ * per puzzle.
+ */
+public class ParsedSudokuPuzzle {
+
+	/** The kinds of text the parser understands. */
+	public enum Format {
+		/** 81 characters on a line, 1-9 for digits, and 0 or . for empty cells. */
+		LINE,
+		/** A LINE followed by [rXcY=Z] candidates, as used by this application. */
+		LINE_WITH_CANDIDATES,
+		/** 9 rows of 9 characters, with optional separators (SadMan, SimpleSudoku). */
+		GRID,
+		/**
+		 * 81 groups of digits, each the candidates of a cell, with optional borders
+		 * (HoDoKu, SimpleSudoku). A single digit is a set cell.
+		 */
+		PENCIL_MARK_GRID
+	}
+
+	/** The mask of a cell which was listed without any candidates. */
+	public static final int NO_CANDIDATES = 1 << SudokuPuzzleValues.CELLS_PER_HOUSE;
+
+	private final int[] digits;
+
+	private final int[] candidateMasks;
+
+	private Format format;
+
+	public ParsedSudokuPuzzle() {
+		this.digits = new int[SudokuPeers.NUM_CELLS];
+		this.candidateMasks = new int[SudokuPeers.NUM_CELLS];
+		this.format = null;
+	}
+
+	/** Returns the digit of the given cell, or 0 if it is empty. */
+	public int getDigit(final int row, final int col) {
+		return this.digits[row * SudokuPuzzleValues.CELLS_PER_HOUSE + col];
+	}
+
+	/** Returns the candidates of the given cell as a mask, or 0 if none were listed. */
+	public int getCandidateMask(final int row, final int col) {
+		return this.candidateMasks[row * SudokuPuzzleValues.CELLS_PER_HOUSE + col];
+	}
+
+	/** Returns the format of the last text parsed, or null if it could not be parsed. */
+	public Format getFormat() {
+		return this.format;
+	}
+
+	/**
+	 * Returns true iff the text lists every candidate of the cells it has
+	 * candidates for. Otherwise, the candidates only show what was eliminated.
+	 */
+	public boolean hasAllCandidates() {
+		return Format.PENCIL_MARK_GRID == this.format;
+	}
+
+	/** Returns the digits as 81 characters, with 0 for empty cells. */
+	public String toPuzzleString() {
+		final char[] puzzle = new char[SudokuPeers.NUM_CELLS];
+		for (int cell = 0; cell < SudokuPeers.NUM_CELLS; cell++) {
+			puzzle[cell] = (char) ('0' + this.digits[cell]);
+		}
+		return new String(puzzle);
+	}
+
+	void reset() {
+		Arrays.fill(this.digits, 0);
+		Arrays.fill(this.candidateMasks, 0);
+		this.format = null;
+	}
+
+	void setDigit(final int cell, final int digit) {
+		this.digits[cell] = digit;
+	}
+
+	void setCandidateMask(final int cell, final int candidateMask) {
+		this.candidateMasks[cell] = candidateMask;
+	}
+
+	int getCandidateMask(final int cell) {
+		return this.candidateMasks[cell];
+	}
+
+	void setFormat(final Format format) {
+		this.format = format;
+	}
+}
@@ -0,0 +1,248 @@
+package sudoku.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class is a read only view of a file with many puzzles, one per line (a
+ * plain list, or a HoDoKu library file, where the puzzle is one of the fields).
+ * A line is a puzzle if it has 81 digits or dots in a row, and does not start
+ * with #. The file is memory mapped, so files larger than memory can be opened,
+ * and only the pages which are read are loaded.
+ *
+ * buildIndex scans the file once, and records where each puzzle starts. It is
+ * meant to run on a background thread; the puzzles indexed so far can be read
+ * while it runs, and reading any of them is a single seek.
+ */
+public class PuzzleCollection implements Closeable {
+
+	private static final int PUZZLE_LENGTH = SudokuPuzzleValues.CELLS_PER_HOUSE * SudokuPuzzleValues.CELLS_PER_HOUSE;
+
+	// The file is mapped in segments, since a single mapping is limited to 2 GB.
+	private static final int SEGMENT_SHIFT = 30;
+
+	private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+	// Offsets are kept in pages, so the index never has to be copied to grow.
+	private static final int OFFSET_PAGE_SHIFT = 16;
+
+	private static final int OFFSET_PAGE_MASK = (1 << OFFSET_PAGE_SHIFT) - 1;
+
+	// Divides the segment size, so a chunk never spans 2 segments.
+	private static final int INDEX_CHUNK_SIZE = 1 << 16;
+
+	private static final byte COMMENT_PREFIX = '#';
+
+	private final Path path;
+
+	private final FileChannel channel;
+
+	private final long size;
+
+	private final MappedByteBuffer[] segments;
+
+	private final long[][] offsetPages;
+
+	private final Map<Integer, PuzzleRating> ratings;
+
+	// The puzzles which are queued or being rated. Guarded by this.
+	private final Set<Integer> ratingIndexes;
+
+	// The puzzle which is shown. Guarded by this.
+	private int shownIndex;
+
+	// Written only by the indexing thread, after the offset it counts.
+	private volatile int numPuzzles;
+
+	private volatile boolean isIndexComplete;
+
+	private volatile boolean isClosed;
+
+	private PuzzleCollection(final Path path, final FileChannel channel) throws IOException {
+		this.path = path;
+		this.channel = channel;
+		this.size = channel.size();
+		final int numSegments = (int) ((this.size + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+		this.segments = new MappedByteBuffer[numSegments];
+		for (int index = 0; index < numSegments; index++) {
+			final long position = (long) index << SEGMENT_SHIFT;
+			this.segments[index] = channel.map(MapMode.READ_ONLY, position,
+					Math.min(SEGMENT_MASK + 1, this.size - position));
+		}
+		// Each puzzle line has at least 81 characters and a line break.
+		final long maxPuzzles = Math.min(Integer.MAX_VALUE, this.size / PUZZLE_LENGTH + 1);
+		this.offsetPages = new long[(int) ((maxPuzzles >>> OFFSET_PAGE_SHIFT) + 1)][];
+		this.ratings = new ConcurrentHashMap<>();
+		this.ratingIndexes = new HashSet<>();
+		this.shownIndex = 0;
+		this.numPuzzles = 0;
+		this.isIndexComplete = false;
+		this.isClosed = false;
+	}
+
+	/** Maps the file at the given path. No puzzles are available until indexed. */
+	public static PuzzleCollection open(final Path path) throws IOException {
+		final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			return new PuzzleCollection(path, channel);
+		} catch (final IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Finds every puzzle in the file, or stops early if this is closed. The given
+	 * listener is run (on this thread) once the first puzzle has been found.
+	 */
+	public void buildIndex(final Runnable onFirstPuzzle) {
+		long lineStart = 0;
+		int runLength = 0;
+		boolean isPuzzleLine = false;
+		// The file is copied out in chunks, which is much faster to scan than a byte at
+		// a time from the mapping.
+		final byte[] chunk = new byte[INDEX_CHUNK_SIZE];
+		for (long chunkStart = 0; chunkStart < this.size; chunkStart += INDEX_CHUNK_SIZE) {
+			final int chunkSize = (int) Math.min(INDEX_CHUNK_SIZE, this.size - chunkStart);
+			final MappedByteBuffer segment = this.segments[(int) (chunkStart >>> SEGMENT_SHIFT)];
+			this.readChunk(segment, (int) (chunkStart & SEGMENT_MASK), chunk, chunkSize);
+			for (int offset = 0; offset < chunkSize; offset++) {
+				final byte character = chunk[offset];
+				if (character == '\n' || character == '\r') {
+					lineStart = chunkStart + offset + 1;
+					runLength = 0;
+					isPuzzleLine = false;
+				} else if (!isPuzzleLine) {
+					runLength = isPuzzleCharacter(character) ? runLength + 1 : 0;
+					if (runLength == PUZZLE_LENGTH && this.getByte(lineStart) != COMMENT_PREFIX) {
+						isPuzzleLine = true;
+						this.addOffset(lineStart);
+						if (this.numPuzzles == 1) {
+							onFirstPuzzle.run();
+						}
+					}
+				}
+			}
+			if (this.isClosed) {
+				return;
+			}
+		}
+		this.isIndexComplete = true;
+	}
+
+	/** Returns the puzzle with the given index, in the same format as a pasted puzzle. */
+	public String getPuzzleString(final int index) {
+		if (index < 0 || index >= this.numPuzzles) {
+			throw new IndexOutOfBoundsException("No puzzle " + index + " in " + this.path);
+		}
+		final long lineStart = this.offsetPages[index >>> OFFSET_PAGE_SHIFT][index & OFFSET_PAGE_MASK];
+		int runLength = 0;
+		long position = lineStart;
+		while (runLength < PUZZLE_LENGTH) {
+			runLength = isPuzzleCharacter(this.getByte(position)) ? runLength + 1 : 0;
+			position++;
+		}
+		final byte[] puzzle = new byte[PUZZLE_LENGTH];
+		for (int offset = 0; offset < PUZZLE_LENGTH; offset++) {
+			final byte character = this.getByte(position - PUZZLE_LENGTH + offset);
+			puzzle[offset] = character == '.' ? (byte) '0' : character;
+		}
+		return new String(puzzle, StandardCharsets.US_ASCII);
+	}
+
+	/** Returns the rating found for the given puzzle so far, or null. */
+	public PuzzleRating getRating(final int index) {
+		return this.ratings.get(index);
+	}
+
+	/**
+	 * Sets the rating for the given puzzle, and marks it as no longer being rated
+	 * (see startRating).
+	 */
+	public synchronized void setRating(final int index, final PuzzleRating rating) {
+		this.ratings.put(index, rating);
+		this.ratingIndexes.remove(index);
+	}
+
+	/**
+	 * Marks the given puzzle as being rated. Returns false if it already is, in
+	 * which case it should not be rated again.
+	 */
+	public synchronized boolean startRating(final int index) {
+		return this.ratingIndexes.add(index);
+	}
+
+	/**
+	 * Returns true iff the rating of the given puzzle is still wanted, since it is
+	 * shown. Otherwise, it is marked as no longer being rated, so it is rated again
+	 * if it is shown later.
+	 */
+	public synchronized boolean continueRating(final int index) {
+		if (index == this.shownIndex) {
+			return true;
+		}
+		this.ratingIndexes.remove(index);
+		return false;
+	}
+
+	public synchronized void setShownIndex(final int index) {
+		this.shownIndex = index;
+	}
+
+	/** Returns the number of puzzles indexed so far. */
+	public int getNumPuzzles() {
+		return this.numPuzzles;
+	}
+
+	public boolean isIndexComplete() {
+		return this.isIndexComplete;
+	}
+
+	public Path getPath() {
+		return this.path;
+	}
+
+	@Override
+	public void close() throws IOException {
+		// The mappings stay valid until they are garbage collected.
+		this.isClosed = true;
+		this.channel.close();
+	}
+
+	private void addOffset(final long lineStart) {
+		final int index = this.numPuzzles;
+		final int pageIndex = index >>> OFFSET_PAGE_SHIFT;
+		if (this.offsetPages[pageIndex] == null) {
+			this.offsetPages[pageIndex] = new long[OFFSET_PAGE_MASK + 1];
+		}
+		this.offsetPages[pageIndex][index & OFFSET_PAGE_MASK] = lineStart;
+		this.numPuzzles = index + 1;
+	}
+
+	private void readChunk(final MappedByteBuffer segment, final int position, final byte[] chunk,
+			final int chunkSize) {
+		// A duplicate has its own position, so other threads can read the segment.
+		final ByteBuffer buffer = segment.duplicate();
+		buffer.position(position);
+		buffer.get(chunk, 0, chunkSize);
+	}
+
+	private byte getByte(final long position) {
+		return this.segments[(int) (position >>> SEGMENT_SHIFT)].get((int) (position & SEGMENT_MASK));
+	}
+
+	private static boolean isPuzzleCharacter(final byte character) {
+		return (character >= '0' && character <= '9') || character == '.';
+	}
+}
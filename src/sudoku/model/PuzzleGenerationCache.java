@@ -62,7 +62,10 @@ public class PuzzleGenerationCache {
 	private void startThread() {
 		if (this.stopped) {
 			this.stopped = false;
-			this.puzzleGenerationThread = new Thread(this::generatePuzzles);
+			// Each generation job keeps the solver settings it started with. Saving the
+			// settings restarts the job with the new ones.
+			final SolverConfigSnapshot solverConfig = ApplicationSettings.getInstance().getSolverConfigSnapshot();
+			this.puzzleGenerationThread = new Thread(() -> this.generatePuzzles(solverConfig));
 			this.puzzleGenerationThread.start();
 		}
 	}
@@ -78,10 +81,10 @@ public class PuzzleGenerationCache {
 		}
 	}
 
-	private void generatePuzzles() {
+	private void generatePuzzles(final SolverConfigSnapshot solverConfig) {
 		LOG.info("Puzzle generation thread started, initial size = {}", this.cachedPuzzles.size());
 		while (!this.stopped && this.cachedPuzzles.size() < MAX_CACHE_SIZE) {
-			final String sudokuString = HodokuFacade.getInstance().generateSudokuString();
+			final String sudokuString = HodokuFacade.getInstance().generateSudokuString(solverConfig);
 			if (!sudokuString.isEmpty()) {
 				synchronized (this.cachedPuzzles) {
 					this.cachedPuzzles.add(sudokuString);
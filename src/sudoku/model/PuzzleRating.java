@@ -0,0 +1,62 @@
+package sudoku.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.util.Strings;
+
+import sudoku.view.util.Difficulty;
+
+/**
+ * This class contains the result of rating a puzzle with the solver: the total
+ * score, the difficulty, the hardest step used, and how many times each step
+ * was used.
+ */
+public class PuzzleRating {
+
+	private final int score;
+
+	private final Difficulty difficulty;
+
+	private final String hardestStepName;
+
+	private final Map<String, Integer> stepHistogram;
+
+	public PuzzleRating(final int score, final Difficulty difficulty, final String hardestStepName,
+			final Map<String, Integer> stepHistogram) {
+		this.score = score;
+		this.difficulty = difficulty;
+		this.hardestStepName = hardestStepName;
+		this.stepHistogram = Collections.unmodifiableMap(new LinkedHashMap<>(stepHistogram));
+	}
+
+	/** Creates a rating for a puzzle which does not have exactly 1 solution. */
+	public static PuzzleRating createInvalidRating() {
+		return new PuzzleRating(0, Difficulty.INVALID, Strings.EMPTY, Collections.emptyMap());
+	}
+
+	public int getScore() {
+		return this.score;
+	}
+
+	public Difficulty getDifficulty() {
+		return this.difficulty;
+	}
+
+	public String getHardestStepName() {
+		return this.hardestStepName;
+	}
+
+	/**
+	 * Gets the number of times each step was used, keyed by step name, in the
+	 * order the steps were first used.
+	 */
+	public Map<String, Integer> getStepHistogram() {
+		return this.stepHistogram;
+	}
+
+	public boolean isValid() {
+		return this.difficulty != Difficulty.INVALID;
+	}
+}
@@ -0,0 +1,103 @@
+package sudoku.model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import sudoku.view.util.ResourceConstants;
+
+/**
+ * This class writes the settings file on a background thread. Saves which come
+ * in quick succession are coalesced into a single write of the latest
+ * settings. The file is replaced atomically (see AtomicFiles), and each
+ * successful write is copied to a backup, which ApplicationSettings reads from
+ * if the settings file is ever missing keys.
+ */
+public class SettingsWriter {
+
+	private static final Logger LOG = LogManager.getLogger(SettingsWriter.class);
+
+	private static final long DEBOUNCE_MILLIS = 500;
+
+	private static final long CLOSE_TIMEOUT_MILLIS = 2000;
+
+	private static SettingsWriter instance;
+
+	public static synchronized SettingsWriter getInstance() {
+		if (SettingsWriter.instance == null) {
+			SettingsWriter.instance = new SettingsWriter();
+		}
+		return SettingsWriter.instance;
+	}
+
+	private final Path settingsPath;
+
+	private final Path backupPath;
+
+	private final ScheduledExecutorService executor;
+
+	// The latest settings which are not on disk yet, or null.
+	private final AtomicReference<String> pendingSettings;
+
+	private SettingsWriter() {
+		this.settingsPath = Paths.get(ResourceConstants.SAVED_SETTINGS);
+		this.backupPath = Paths.get(ResourceConstants.SAVED_SETTINGS_BACKUP);
+		this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "SettingsWriter");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.pendingSettings = new AtomicReference<>();
+	}
+
+	/**
+	 * Queues the given settings file contents to be written. Only the latest
+	 * contents queued within a short time are written.
+	 */
+	public void save(final String settings) {
+		if (this.pendingSettings.getAndSet(settings) == null) {
+			this.executor.schedule(this::writePendingSettings, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Writes any queued settings right away, and waits (for a short time) until
+	 * they are on disk. Called when the application closes.
+	 */
+	public void close() {
+		final Future<?> written = this.executor.submit(this::writePendingSettings);
+		try {
+			written.get(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (final ExecutionException | TimeoutException e) {
+			LOG.warn("The settings were not written before closing: {}", e);
+		}
+	}
+
+	// Only runs on the writer thread.
+	private void writePendingSettings() {
+		final String settings = this.pendingSettings.getAndSet(null);
+		if (settings == null) {
+			return;
+		}
+		final byte[] contents = settings.getBytes(StandardCharsets.UTF_8);
+		try {
+			AtomicFiles.write(this.settingsPath, contents);
+			AtomicFiles.write(this.backupPath, contents);
+		} catch (final IOException e) {
+			LOG.error("Could not save the settings: {}", e);
+		}
+	}
+}
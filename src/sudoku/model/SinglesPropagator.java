@@ -0,0 +1,142 @@
+package sudoku.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class finds every naked and hidden single in a puzzle, including the
+ * ones which only appear after placing other singles. The candidates of each
+ * cell are stored as a 9 bit mask (bit 0 = digit 1), so this is much faster
+ * than running the full HoDoKu solver.
+ */
+public class SinglesPropagator {
+
+	private static final int ALL_CANDIDATES = (1 << SudokuPuzzleValues.CELLS_PER_HOUSE) - 1;
+
+	/**
+	 * Returns the placements of all singles in the given puzzle, in the order they
+	 * were found. The puzzle itself is not modified. If a contradiction is found
+	 * (a cell with no candidates, or a digit with no place in a house), an empty
+	 * list is returned.
+	 *
+	 * @param useCandidates - true if the candidates of the puzzle should be used,
+	 *                      false if they should be computed from the fixed digits
+	 *                      only.
+	 */
+	public static List<CellPlacement> findAllSingles(final SudokuPuzzleValues sudokuPuzzleValues,
+			final boolean useCandidates) {
+		final int[] digits = new int[SudokuPeers.NUM_CELLS];
+		final int[] candidateMasks = new int[SudokuPeers.NUM_CELLS];
+		SinglesPropagator.initialize(sudokuPuzzleValues, useCandidates, digits, candidateMasks);
+		final List<CellPlacement> placements = new ArrayList<>();
+		boolean placedDigit = true;
+		while (placedDigit) {
+			placedDigit = false;
+			for (int cellIndex = 0; cellIndex < SudokuPeers.NUM_CELLS; cellIndex++) {
+				if (digits[cellIndex] == 0) {
+					final int candidateMask = candidateMasks[cellIndex];
+					if (candidateMask == 0) {
+						return Collections.emptyList();
+					}
+					if (Integer.bitCount(candidateMask) == 1) {
+						SinglesPropagator.place(cellIndex, Integer.numberOfTrailingZeros(candidateMask) + 1, digits,
+								candidateMasks, placements);
+						placedDigit = true;
+					}
+				}
+			}
+			for (int house = 0; house < SudokuPeers.NUM_HOUSES; house++) {
+				final int result = SinglesPropagator.placeHiddenSingles(SudokuPeers.getHouse(house), digits,
+						candidateMasks, placements);
+				if (result < 0) {
+					return Collections.emptyList();
+				}
+				placedDigit |= result > 0;
+			}
+		}
+		return placements;
+	}
+
+	/** Fills the digit and candidate arrays from the given puzzle. */
+	private static void initialize(final SudokuPuzzleValues sudokuPuzzleValues, final boolean useCandidates,
+			final int[] digits, final int[] candidateMasks) {
+		for (int cellIndex = 0; cellIndex < SudokuPeers.NUM_CELLS; cellIndex++) {
+			final int row = SudokuPeers.getRow(cellIndex);
+			final int col = SudokuPeers.getCol(cellIndex);
+			digits[cellIndex] = sudokuPuzzleValues.getFixedCellDigit(row, col);
+			if (digits[cellIndex] == 0) {
+				if (useCandidates) {
+					int candidateMask = 0;
+					for (final int candidate : sudokuPuzzleValues.getCandidateDigitsForCell(row, col)) {
+						candidateMask |= 1 << (candidate - 1);
+					}
+					candidateMasks[cellIndex] = candidateMask;
+				} else {
+					candidateMasks[cellIndex] = ALL_CANDIDATES;
+				}
+			}
+		}
+		// Candidates which see a fixed digit are never valid, even if the user has not
+		// removed them yet.
+		for (int cellIndex = 0; cellIndex < SudokuPeers.NUM_CELLS; cellIndex++) {
+			if (digits[cellIndex] != 0) {
+				SinglesPropagator.removeFromPeers(cellIndex, digits[cellIndex], candidateMasks);
+			}
+		}
+	}
+
+	/**
+	 * Places every digit which has exactly 1 possible cell in the given house.
+	 * Returns the number of digits placed, or -1 if a digit has no possible cell.
+	 */
+	private static int placeHiddenSingles(final int[] house, final int[] digits, final int[] candidateMasks,
+			final List<CellPlacement> placements) {
+		int placedMask = 0;
+		int seenOnceMask = 0;
+		int seenTwiceMask = 0;
+		for (final int cellIndex : house) {
+			if (digits[cellIndex] != 0) {
+				placedMask |= 1 << (digits[cellIndex] - 1);
+			} else {
+				seenTwiceMask |= seenOnceMask & candidateMasks[cellIndex];
+				seenOnceMask |= candidateMasks[cellIndex];
+			}
+		}
+		if ((placedMask | seenOnceMask) != ALL_CANDIDATES) {
+			return -1;
+		}
+		final int hiddenSingleMask = seenOnceMask & ~seenTwiceMask & ~placedMask;
+		int numPlaced = 0;
+		for (final int cellIndex : house) {
+			final int singleInCell = candidateMasks[cellIndex] & hiddenSingleMask;
+			// A cell which is the only place for 2 digits is a contradiction, which is
+			// found the next time its peers are checked.
+			if (digits[cellIndex] == 0 && singleInCell != 0) {
+				SinglesPropagator.place(cellIndex, Integer.numberOfTrailingZeros(singleInCell) + 1, digits,
+						candidateMasks, placements);
+				numPlaced++;
+			}
+		}
+		return numPlaced;
+	}
+
+	private static void place(final int cellIndex, final int digit, final int[] digits, final int[] candidateMasks,
+			final List<CellPlacement> placements) {
+		digits[cellIndex] = digit;
+		candidateMasks[cellIndex] = 0;
+		SinglesPropagator.removeFromPeers(cellIndex, digit, candidateMasks);
+		placements.add(new CellPlacement(SudokuPeers.getRow(cellIndex), SudokuPeers.getCol(cellIndex), digit));
+	}
+
+	private static void removeFromPeers(final int cellIndex, final int digit, final int[] candidateMasks) {
+		final int digitMask = ~(1 << (digit - 1));
+		for (final int peerIndex : SudokuPeers.getPeers(cellIndex)) {
+			candidateMasks[peerIndex] &= digitMask;
+		}
+	}
+
+	private SinglesPropagator() {
+		// Private constructor to prevent instantiation.
+	}
+}
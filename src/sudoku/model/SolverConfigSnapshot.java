@@ -0,0 +1,77 @@
+package sudoku.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import sudoku.DifficultyLevel;
+import sudoku.DifficultyType;
+import sudoku.Options;
+import sudoku.SolutionType;
+import sudoku.StepConfig;
+import sudoku.view.util.Difficulty;
+
+/**
+ * This class contains an immutable copy of the solver settings (the order,
+ * enabled flags and scores of each step, and the max score for each
+ * difficulty). A snapshot is taken when a solver call or puzzle generation job
+ * starts, so saving the settings never changes the configuration of work which
+ * is already in progress.
+ */
+public final class SolverConfigSnapshot {
+
+	private final StepConfig[] stepConfigs;
+
+	private final DifficultyLevel[] difficultyLevels;
+
+	private final Map<SolutionType, StepConfig> stepConfigsByType;
+
+	public SolverConfigSnapshot(final StepConfig[] solverSteps, final Map<Difficulty, Integer> maxScoreForDifficulty) {
+		this.stepConfigs = Options.getInstance().copyStepConfigs(solverSteps, false, false);
+		this.difficultyLevels = Options.getInstance().copyDifficultyLevels(Options.getInstance().getDifficultyLevels());
+		maxScoreForDifficulty.forEach((difficulty, maxScore) -> this.difficultyLevels[difficulty
+				.getInternalDifficulty().ordinal()].setMaxScore(maxScore));
+		final Map<SolutionType, StepConfig> stepConfigsForOwnType = new EnumMap<>(SolutionType.class);
+		for (final StepConfig stepConfig : this.stepConfigs) {
+			stepConfigsForOwnType.putIfAbsent(stepConfig.getType(), stepConfig);
+		}
+		// Some configs find steps of more than one type (e.g. the nice loop config
+		// also finds continuous and discontinuous nice loops), so HoDoKu's mapping is
+		// used to find the config for each type of step.
+		this.stepConfigsByType = new EnumMap<>(SolutionType.class);
+		for (final SolutionType solutionType : SolutionType.values()) {
+			final StepConfig sharedStepConfig = SolutionType.getStepConfig(solutionType);
+			final SolutionType configType = sharedStepConfig == null ? solutionType : sharedStepConfig.getType();
+			final StepConfig stepConfig = stepConfigsForOwnType.get(configType);
+			if (stepConfig != null) {
+				this.stepConfigsByType.put(solutionType, stepConfig);
+			}
+		}
+	}
+
+	/**
+	 * Gets the step configs, in the order the solver should try them. The returned
+	 * array is shared, so it must not be modified.
+	 */
+	public StepConfig[] getStepConfigs() {
+		return this.stepConfigs;
+	}
+
+	/** Returns the config used for the given step type, or null if there is none. */
+	public StepConfig getStepConfig(final SolutionType solutionType) {
+		return this.stepConfigsByType.get(solutionType);
+	}
+
+	public int getBaseScore(final SolutionType solutionType) {
+		final StepConfig stepConfig = this.getStepConfig(solutionType);
+		return stepConfig == null ? 0 : stepConfig.getBaseScore();
+	}
+
+	public DifficultyLevel getDifficultyLevel(final Difficulty difficulty) {
+		return this.difficultyLevels[difficulty.getInternalDifficulty().ordinal()];
+	}
+
+	/** Returns the highest difficulty level, which any puzzle can be solved at. */
+	public DifficultyLevel getMaxDifficultyLevel() {
+		return this.difficultyLevels[DifficultyType.EXTREME.ordinal()];
+	}
+}
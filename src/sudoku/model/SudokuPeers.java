@@ -0,0 +1,87 @@
+package sudoku.model;
+
+/**
+ * This class contains precomputed tables of the houses and peers of each cell.
+ * Cells are identified by their linear index, row * 9 + col. The tables are
+ * built once, and only depend on the size of the puzzle, so they are safe to
+ * share between threads.
+ */
+public class SudokuPeers {
+
+	public static final int NUM_CELLS = SudokuPuzzleValues.CELLS_PER_HOUSE * SudokuPuzzleValues.CELLS_PER_HOUSE;
+
+	public static final int NUM_HOUSES = 3 * SudokuPuzzleValues.CELLS_PER_HOUSE;
+
+	private static final int NUM_PEERS = 20;
+
+	private static final int BOX_SIZE = 3;
+
+	// Rows first, then columns, then boxes.
+	private static final int[][] HOUSES = new int[NUM_HOUSES][SudokuPuzzleValues.CELLS_PER_HOUSE];
+
+	private static final int[][] PEERS = new int[NUM_CELLS][NUM_PEERS];
+
+	static {
+		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
+			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
+				final int cellIndex = SudokuPeers.getCellIndex(row, col);
+				final int box = SudokuPeers.getBox(row, col);
+				final int indexInBox = (row % BOX_SIZE) * BOX_SIZE + col % BOX_SIZE;
+				HOUSES[row][col] = cellIndex;
+				HOUSES[SudokuPuzzleValues.CELLS_PER_HOUSE + col][row] = cellIndex;
+				HOUSES[2 * SudokuPuzzleValues.CELLS_PER_HOUSE + box][indexInBox] = cellIndex;
+			}
+		}
+		for (int cellIndex = 0; cellIndex < NUM_CELLS; cellIndex++) {
+			final int row = SudokuPeers.getRow(cellIndex);
+			final int col = SudokuPeers.getCol(cellIndex);
+			int peerCount = 0;
+			for (int otherCellIndex = 0; otherCellIndex < NUM_CELLS; otherCellIndex++) {
+				final int otherRow = SudokuPeers.getRow(otherCellIndex);
+				final int otherCol = SudokuPeers.getCol(otherCellIndex);
+				if (otherCellIndex != cellIndex && (otherRow == row || otherCol == col
+						|| SudokuPeers.getBox(otherRow, otherCol) == SudokuPeers.getBox(row, col))) {
+					PEERS[cellIndex][peerCount++] = otherCellIndex;
+				}
+			}
+		}
+	}
+
+	public static int getCellIndex(final int row, final int col) {
+		return row * SudokuPuzzleValues.CELLS_PER_HOUSE + col;
+	}
+
+	public static int getRow(final int cellIndex) {
+		return cellIndex / SudokuPuzzleValues.CELLS_PER_HOUSE;
+	}
+
+	public static int getCol(final int cellIndex) {
+		return cellIndex % SudokuPuzzleValues.CELLS_PER_HOUSE;
+	}
+
+	/** Gets the box (0 - 8) of the cell at the given indices. */
+	public static int getBox(final int row, final int col) {
+		return (row / BOX_SIZE) * BOX_SIZE + col / BOX_SIZE;
+	}
+
+	/**
+	 * Gets the indices of the 20 cells which see the given cell. The returned
+	 * array is shared, so it must not be modified.
+	 */
+	public static int[] getPeers(final int cellIndex) {
+		return PEERS[cellIndex];
+	}
+
+	/**
+	 * Gets the indices of the cells in the given house. Houses 0 - 8 are the rows,
+	 * 9 - 17 are the columns, and 18 - 26 are the boxes. The returned array is
+	 * shared, so it must not be modified.
+	 */
+	public static int[] getHouse(final int house) {
+		return HOUSES[house];
+	}
+
+	private SudokuPeers() {
+		// Private constructor to prevent instantiation.
+	}
+}
@@ -0,0 +1,313 @@
+package sudoku.model;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * This class is the contents of a .spf file: the givens, fixed digits,
+ * candidates and coloring colors of a puzzle, plus its rating and solution if
+ * they were known when it was saved. Cells are identified by their linear index
+ * (see SudokuPeers), and candidates by the cell's linear index * 9 + the digit -
+ * 1, like in SudokuPuzzleStyle.
+ *
+ * Files are written in a versioned binary format (see toBytes), which is read
+ * with a single read. Files in the older text format (1 line of givens, 1 line
+ * of fixed digits, then 1 line of candidates for each cell) can still be read.
+ */
+public class SudokuPuzzleFile {
+
+	/** The color index of cells and candidates without a coloring color. */
+	public static final int NO_COLOR = -1;
+
+	private static final byte[] MAGIC = { 'S', 'P', 'F', 'B' };
+
+	private static final int VERSION = 1;
+
+	private static final int HAS_SCORE_FLAG = 1;
+
+	private static final int HAS_SOLUTION_FLAG = 2;
+
+	private static final int NUM_CANDIDATES = SudokuPeers.NUM_CELLS * SudokuPuzzleValues.CELLS_PER_HOUSE;
+
+	private static final int CANDIDATE_BYTES = (NUM_CANDIDATES + Byte.SIZE - 1) / Byte.SIZE;
+
+	private static final int SOLUTION_BYTES = (SudokuPeers.NUM_CELLS + 1) / 2;
+
+	private static final int NIBBLE_BITS = 4;
+
+	private static final int NIBBLE_MASK = 0xF;
+
+	private static final int MAX_FILE_SIZE = MAGIC.length + 2 + SudokuPeers.NUM_CELLS + CANDIDATE_BYTES + 1
+			+ 2 * SudokuPeers.NUM_CELLS + Short.BYTES + 3 * NUM_CANDIDATES + Integer.BYTES + SOLUTION_BYTES;
+
+	private static final int NUM_TEXT_LINES = 2 + SudokuPeers.NUM_CELLS;
+
+	private final int[] givenDigits;
+
+	private final int[] fixedDigits;
+
+	private final BitSet candidates;
+
+	// Indexes of coloring colors (see SudokuPuzzleStyle.getCellColoringIndex), or
+	// NO_COLOR.
+	private final int[] cellColorIndexes;
+
+	private final int[] candidateColorIndexes;
+
+	// The rating of the puzzle from its givens, or 0 if it is not known.
+	private int difficultyScore;
+
+	// The solution in row major order, or null if it is not known.
+	private int[] solutionDigits;
+
+	private SudokuPuzzleFile() {
+		this.givenDigits = new int[SudokuPeers.NUM_CELLS];
+		this.fixedDigits = new int[SudokuPeers.NUM_CELLS];
+		this.candidates = new BitSet(NUM_CANDIDATES);
+		this.cellColorIndexes = new int[SudokuPeers.NUM_CELLS];
+		this.candidateColorIndexes = new int[NUM_CANDIDATES];
+		Arrays.fill(this.cellColorIndexes, NO_COLOR);
+		Arrays.fill(this.candidateColorIndexes, NO_COLOR);
+		this.difficultyScore = 0;
+		this.solutionDigits = null;
+	}
+
+	/**
+	 * Creates the file contents for the given puzzle. Only coloring colors are
+	 * kept, since hint colors belong to the hint which is shown.
+	 */
+	public static SudokuPuzzleFile fromPuzzle(final SudokuPuzzleValues sudokuPuzzleValues,
+			final SudokuPuzzleStyle sudokuPuzzleStyle) {
+		final SudokuPuzzleFile puzzleFile = new SudokuPuzzleFile();
+		for (int cellIndex = 0; cellIndex < SudokuPeers.NUM_CELLS; cellIndex++) {
+			final int row = SudokuPeers.getRow(cellIndex);
+			final int col = SudokuPeers.getCol(cellIndex);
+			puzzleFile.givenDigits[cellIndex] = sudokuPuzzleValues.getGivenCellDigit(row, col);
+			puzzleFile.fixedDigits[cellIndex] = sudokuPuzzleValues.getFixedCellDigit(row, col);
+			for (final int candidate : sudokuPuzzleValues.getCandidateDigitsForCell(row, col)) {
+				puzzleFile.candidates.set(SudokuPuzzleFile.getCandidateIndex(cellIndex, candidate));
+			}
+			puzzleFile.cellColorIndexes[cellIndex] = sudokuPuzzleStyle.getCellColoringIndex(row, col);
+			for (int candidate = 1; candidate <= SudokuPuzzleValues.CELLS_PER_HOUSE; candidate++) {
+				puzzleFile.candidateColorIndexes[SudokuPuzzleFile.getCandidateIndex(cellIndex,
+						candidate)] = sudokuPuzzleStyle.getCandidateColoringIndex(row, col, candidate);
+			}
+		}
+		puzzleFile.difficultyScore = sudokuPuzzleValues.getDifficultyScore();
+		final SudokuPuzzleSolution solution = sudokuPuzzleValues.getSolution();
+		if (solution.isAvailable()) {
+			puzzleFile.solutionDigits = new int[SudokuPeers.NUM_CELLS];
+			for (int cellIndex = 0; cellIndex < SudokuPeers.NUM_CELLS; cellIndex++) {
+				puzzleFile.solutionDigits[cellIndex] = solution.getDigit(SudokuPeers.getRow(cellIndex),
+						SudokuPeers.getCol(cellIndex));
+			}
+		}
+		return puzzleFile;
+	}
+
+	/**
+	 * Reads a file in either format. Throws an IOException if it can not be read,
+	 * or is not a puzzle file.
+	 */
+	public static SudokuPuzzleFile read(final Path path) throws IOException {
+		return SudokuPuzzleFile.fromBytes(Files.readAllBytes(path));
+	}
+
+	/** Same as read, for the contents of a file. */
+	public static SudokuPuzzleFile fromBytes(final byte[] bytes) throws IOException {
+		if (bytes.length >= MAGIC.length && Arrays.equals(MAGIC, Arrays.copyOf(bytes, MAGIC.length))) {
+			try {
+				return SudokuPuzzleFile.fromBinary(ByteBuffer.wrap(bytes, MAGIC.length, bytes.length - MAGIC.length));
+			} catch (final BufferUnderflowException | IndexOutOfBoundsException e) {
+				throw new IOException("Truncated or invalid puzzle file", e);
+			}
+		}
+		return SudokuPuzzleFile.fromText(new String(bytes, StandardCharsets.UTF_8).split("\r?\n", -1));
+	}
+
+	/** Writes this in the binary format, replacing the file atomically. */
+	public void write(final Path path) throws IOException {
+		AtomicFiles.write(path, this.toBytes());
+	}
+
+	/**
+	 * Returns this in the binary format. All numbers are big endian.
+	 *
+	 * <pre>
+	 * magic "SPFB", version (1 byte), flags (1 byte: 1 = has score, 2 = has solution)
+	 * 81 bytes: given digit (high nibble) and fixed digit (low nibble) of each cell
+	 * 92 bytes: the candidates, as 81 9-bit masks (see BitSet::toByteArray)
+	 * cell colors: count (1 byte), then (cell index, coloring color index) bytes
+	 * candidate colors: count (2 bytes), then (candidate index (2 bytes), coloring color index (1 byte))
+	 * if has score: the score (4 bytes)
+	 * if has solution: 41 bytes, 2 digits per byte (high nibble first)
+	 * </pre>
+	 */
+	public byte[] toBytes() {
+		final ByteBuffer buffer = ByteBuffer.allocate(MAX_FILE_SIZE);
+		buffer.put(MAGIC);
+		buffer.put((byte) VERSION);
+		buffer.put((byte) ((this.difficultyScore > 0 ? HAS_SCORE_FLAG : 0)
+				| (this.solutionDigits != null ? HAS_SOLUTION_FLAG : 0)));
+		for (int cellIndex = 0; cellIndex < SudokuPeers.NUM_CELLS; cellIndex++) {
+			buffer.put((byte) (this.givenDigits[cellIndex] << NIBBLE_BITS | this.fixedDigits[cellIndex]));
+		}
+		buffer.put(Arrays.copyOf(this.candidates.toByteArray(), CANDIDATE_BYTES));
+		this.putColorStates(buffer);
+		if (this.difficultyScore > 0) {
+			buffer.putInt(this.difficultyScore);
+		}
+		if (this.solutionDigits != null) {
+			for (int cellIndex = 0; cellIndex < SudokuPeers.NUM_CELLS; cellIndex += 2) {
+				final int nextDigit = cellIndex + 1 < SudokuPeers.NUM_CELLS ? this.solutionDigits[cellIndex + 1] : 0;
+				buffer.put((byte) (this.solutionDigits[cellIndex] << NIBBLE_BITS | nextDigit));
+			}
+		}
+		return Arrays.copyOf(buffer.array(), buffer.position());
+	}
+
+	/** Returns the givens as a puzzle string, with 0 for empty cells. */
+	public String getGivens() {
+		final StringBuilder givens = new StringBuilder(SudokuPeers.NUM_CELLS);
+		for (final int givenDigit : this.givenDigits) {
+			givens.append(givenDigit);
+		}
+		return givens.toString();
+	}
+
+	public int getGivenDigit(final int row, final int col) {
+		return this.givenDigits[SudokuPeers.getCellIndex(row, col)];
+	}
+
+	public int getFixedDigit(final int row, final int col) {
+		return this.fixedDigits[SudokuPeers.getCellIndex(row, col)];
+	}
+
+	public boolean hasCandidate(final int row, final int col, final int candidate) {
+		return this.candidates.get(SudokuPuzzleFile.getCandidateIndex(SudokuPeers.getCellIndex(row, col), candidate));
+	}
+
+	/** Returns the index of the cell's coloring color, or NO_COLOR. */
+	public int getCellColorIndex(final int row, final int col) {
+		return this.cellColorIndexes[SudokuPeers.getCellIndex(row, col)];
+	}
+
+	/** Returns the index of the candidate's coloring color, or NO_COLOR. */
+	public int getCandidateColorIndex(final int row, final int col, final int candidate) {
+		return this.candidateColorIndexes[SudokuPuzzleFile.getCandidateIndex(SudokuPeers.getCellIndex(row, col),
+				candidate)];
+	}
+
+	/** Returns the rating of the puzzle when it was saved, or 0 if not known. */
+	public int getDifficultyScore() {
+		return this.difficultyScore;
+	}
+
+	/** Returns the solution in row major order, or null if it was not saved. */
+	public int[] getSolutionDigits() {
+		return this.solutionDigits == null ? null : this.solutionDigits.clone();
+	}
+
+	private static SudokuPuzzleFile fromBinary(final ByteBuffer buffer) throws IOException {
+		final int version = buffer.get();
+		if (version != VERSION) {
+			throw new IOException("Unsupported puzzle file version: " + version);
+		}
+		final int flags = buffer.get();
+		final SudokuPuzzleFile puzzleFile = new SudokuPuzzleFile();
+		for (int cellIndex = 0; cellIndex < SudokuPeers.NUM_CELLS; cellIndex++) {
+			final int digits = buffer.get();
+			puzzleFile.givenDigits[cellIndex] = SudokuPuzzleFile.checkDigit(digits >> NIBBLE_BITS & NIBBLE_MASK);
+			puzzleFile.fixedDigits[cellIndex] = SudokuPuzzleFile.checkDigit(digits & NIBBLE_MASK);
+		}
+		final byte[] candidateBytes = new byte[CANDIDATE_BYTES];
+		buffer.get(candidateBytes);
+		puzzleFile.candidates.or(BitSet.valueOf(candidateBytes));
+		final int numCellColors = Byte.toUnsignedInt(buffer.get());
+		for (int index = 0; index < numCellColors; index++) {
+			final int cellIndex = Byte.toUnsignedInt(buffer.get());
+			puzzleFile.cellColorIndexes[cellIndex] = Byte.toUnsignedInt(buffer.get());
+		}
+		final int numCandidateColors = Short.toUnsignedInt(buffer.getShort());
+		for (int index = 0; index < numCandidateColors; index++) {
+			final int candidateIndex = Short.toUnsignedInt(buffer.getShort());
+			puzzleFile.candidateColorIndexes[candidateIndex] = Byte.toUnsignedInt(buffer.get());
+		}
+		if ((flags & HAS_SCORE_FLAG) != 0) {
+			puzzleFile.difficultyScore = buffer.getInt();
+		}
+		if ((flags & HAS_SOLUTION_FLAG) != 0) {
+			puzzleFile.solutionDigits = new int[SudokuPeers.NUM_CELLS];
+			for (int cellIndex = 0; cellIndex < SudokuPeers.NUM_CELLS; cellIndex += 2) {
+				final int digits = buffer.get();
+				puzzleFile.solutionDigits[cellIndex] = SudokuPuzzleFile.checkDigit(digits >> NIBBLE_BITS & NIBBLE_MASK);
+				if (cellIndex + 1 < SudokuPeers.NUM_CELLS) {
+					puzzleFile.solutionDigits[cellIndex + 1] = SudokuPuzzleFile.checkDigit(digits & NIBBLE_MASK);
+				}
+			}
+		}
+		return puzzleFile;
+	}
+
+	/** Parses the older text format. */
+	private static SudokuPuzzleFile fromText(final String[] lines) throws IOException {
+		if (lines.length < NUM_TEXT_LINES || lines[0].length() != SudokuPeers.NUM_CELLS
+				|| lines[1].length() != SudokuPeers.NUM_CELLS) {
+			throw new IOException("Not a sudoku puzzle file");
+		}
+		final SudokuPuzzleFile puzzleFile = new SudokuPuzzleFile();
+		for (int cellIndex = 0; cellIndex < SudokuPeers.NUM_CELLS; cellIndex++) {
+			puzzleFile.givenDigits[cellIndex] = SudokuPuzzleFile.checkDigit(lines[0].charAt(cellIndex) - '0');
+			puzzleFile.fixedDigits[cellIndex] = SudokuPuzzleFile.checkDigit(lines[1].charAt(cellIndex) - '0');
+			for (final char candidate : lines[2 + cellIndex].toCharArray()) {
+				if (candidate < '1' || candidate > '9') {
+					throw new IOException("Invalid candidate in puzzle file: " + candidate);
+				}
+				puzzleFile.candidates.set(SudokuPuzzleFile.getCandidateIndex(cellIndex, candidate - '0'));
+			}
+		}
+		return puzzleFile;
+	}
+
+	private void putColorStates(final ByteBuffer buffer) {
+		final int numCellColorsPosition = buffer.position();
+		buffer.put((byte) 0);
+		int numCellColors = 0;
+		for (int cellIndex = 0; cellIndex < SudokuPeers.NUM_CELLS; cellIndex++) {
+			if (this.cellColorIndexes[cellIndex] != NO_COLOR) {
+				buffer.put((byte) cellIndex);
+				buffer.put((byte) this.cellColorIndexes[cellIndex]);
+				numCellColors++;
+			}
+		}
+		buffer.put(numCellColorsPosition, (byte) numCellColors);
+		final int numCandidateColorsPosition = buffer.position();
+		buffer.putShort((short) 0);
+		int numCandidateColors = 0;
+		for (int candidateIndex = 0; candidateIndex < NUM_CANDIDATES; candidateIndex++) {
+			if (this.candidateColorIndexes[candidateIndex] != NO_COLOR) {
+				buffer.putShort((short) candidateIndex);
+				buffer.put((byte) this.candidateColorIndexes[candidateIndex]);
+				numCandidateColors++;
+			}
+		}
+		buffer.putShort(numCandidateColorsPosition, (short) numCandidateColors);
+	}
+
+	private static int getCandidateIndex(final int cellIndex, final int candidate) {
+		return cellIndex * SudokuPuzzleValues.CELLS_PER_HOUSE + candidate - 1;
+	}
+
+	private static int checkDigit(final int digit) throws IOException {
+		if (digit < 0 || digit > SudokuPuzzleValues.CELLS_PER_HOUSE) {
+			throw new IOException("Invalid digit in puzzle file: " + digit);
+		}
+		return digit;
+	}
+}
@@ -0,0 +1,232 @@
+package sudoku.model;
+
+/**
+ * This class reads a puzzle from text in any of the formats in
+ * ParsedSudokuPuzzle.Format, and works out which format it is from the text.
+ * The text is read once, a character at a time, without regular expressions or
+ * substrings, so it is fast enough for bulk imports (see
+ * PuzzleParserBenchmarkMain).
+ *
+ * A line format is used if the first line which is not blank has 81 digits or
+ * dots in a row (so text before or after them, such as the fields of a HoDoKu
+ * library line, is ignored). Otherwise, the text is read as a grid: lines with
+ * - or = are borders, lines starting with # or [ are comments or section
+ * headers, and any other character which is not part of a cell separates
+ * cells.
+ */
+public class SudokuPuzzleParser {
+
+	private static final int PUZZLE_LENGTH = SudokuPeers.NUM_CELLS;
+
+	/**
+	 * Parses the given text into the given result. Returns false (and leaves the
+	 * result without a format) if the text is not a puzzle.
+	 */
+	public static boolean parse(final CharSequence text, final ParsedSudokuPuzzle result) {
+		result.reset();
+		if (parseLine(text, result)) {
+			return true;
+		}
+		result.reset();
+		return parseGrid(text, result);
+	}
+
+	/** Parses the given text into a new result, or returns null if it is not a puzzle. */
+	public static ParsedSudokuPuzzle parse(final CharSequence text) {
+		final ParsedSudokuPuzzle result = new ParsedSudokuPuzzle();
+		return parse(text, result) ? result : null;
+	}
+
+	private static boolean parseLine(final CharSequence text, final ParsedSudokuPuzzle result) {
+		final int length = text.length();
+		int runLength = 0;
+		boolean isLineBlank = true;
+		for (int position = 0; position <= length; position++) {
+			final char character = position < length ? text.charAt(position) : '\n';
+			if (isLineCharacter(character)) {
+				runLength++;
+				isLineBlank = false;
+				continue;
+			}
+			if (runLength == PUZZLE_LENGTH) {
+				final int puzzleStart = position - PUZZLE_LENGTH;
+				for (int cell = 0; cell < PUZZLE_LENGTH; cell++) {
+					final char cellCharacter = text.charAt(puzzleStart + cell);
+					result.setDigit(cell, cellCharacter == '.' ? 0 : cellCharacter - '0');
+				}
+				result.setFormat(parseCandidates(text, position, result) ? ParsedSudokuPuzzle.Format.LINE_WITH_CANDIDATES
+						: ParsedSudokuPuzzle.Format.LINE);
+				return true;
+			}
+			runLength = 0;
+			if (character == '\n' || character == '\r') {
+				// Only the first line with any text is checked.
+				if (!isLineBlank) {
+					return false;
+				}
+			} else if (!Character.isWhitespace(character)) {
+				isLineBlank = false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Reads [rXcY=Z] candidates (with 0 based rows and columns) from the given
+	 * position. Anything which does not match ends the candidates. Returns true iff
+	 * there were any.
+	 */
+	private static boolean parseCandidates(final CharSequence text, final int start, final ParsedSudokuPuzzle result) {
+		final int length = text.length();
+		boolean hasCandidates = false;
+		int position = start;
+		while (position + 6 <= length && text.charAt(position) == '[' && text.charAt(position + 1) == 'r'
+				&& text.charAt(position + 3) == 'c' && text.charAt(position + 5) == '=') {
+			final int row = text.charAt(position + 2) - '0';
+			final int col = text.charAt(position + 4) - '0';
+			if (!isIndex(row) || !isIndex(col)) {
+				break;
+			}
+			position += 6;
+			int candidateMask = 0;
+			while (position < length && isDigit(text.charAt(position))) {
+				candidateMask |= 1 << (text.charAt(position) - '1');
+				position++;
+			}
+			if (position >= length || text.charAt(position) != ']') {
+				break;
+			}
+			position++;
+			result.setCandidateMask(row * SudokuPuzzleValues.CELLS_PER_HOUSE + col,
+					candidateMask == 0 ? ParsedSudokuPuzzle.NO_CANDIDATES : candidateMask);
+			hasCandidates = true;
+		}
+		return hasCandidates;
+	}
+
+	/**
+	 * Reads the text as a grid. Both interpretations are collected in the same
+	 * pass: each cell character in order (digits of a GRID), and each group of
+	 * digits (candidates of a PENCIL_MARK_GRID).
+	 */
+	private static boolean parseGrid(final CharSequence text, final ParsedSudokuPuzzle result) {
+		final int length = text.length();
+		int numCells = 0;
+		int numGroups = 0;
+		boolean isPencilMarkGrid = true;
+		boolean hasCandidateGroup = false;
+		int position = 0;
+		while (position < length) {
+			final int lineNumCells = numCells;
+			final int lineNumGroups = numGroups;
+			boolean isLineSkipped = false;
+			boolean isLineBlank = true;
+			boolean lineIsPencilMarkRow = true;
+			boolean lineHasCandidateGroup = false;
+			int groupMask = 0;
+			int groupSize = 0;
+			for (; position < length; position++) {
+				final char character = text.charAt(position);
+				if (character == '\n' || character == '\r') {
+					break;
+				}
+				if (isLineSkipped) {
+					continue;
+				}
+				if (isLineBlank && (character == '#' || character == '[')) {
+					isLineSkipped = true;
+					continue;
+				}
+				if (character == '-' || character == '=') {
+					// Border lines can contain cell characters (like . in HoDoKu borders).
+					isLineSkipped = true;
+					numCells = lineNumCells;
+					numGroups = lineNumGroups;
+					continue;
+				}
+				if (!Character.isWhitespace(character)) {
+					isLineBlank = false;
+				}
+				if (isDigit(character)) {
+					numCells = addCell(result, numCells, character - '0');
+					final int candidateBit = 1 << (character - '1');
+					lineIsPencilMarkRow &= (groupMask & candidateBit) == 0;
+					groupMask |= candidateBit;
+					groupSize++;
+					continue;
+				}
+				if (isEmptyCellCharacter(character)) {
+					numCells = addCell(result, numCells, 0);
+					lineIsPencilMarkRow = false;
+				}
+				if (groupSize > 0) {
+					numGroups = addGroup(result, numGroups, groupMask);
+					lineHasCandidateGroup |= groupSize > 1;
+					groupMask = 0;
+					groupSize = 0;
+				}
+			}
+			if (groupSize > 0 && !isLineSkipped) {
+				numGroups = addGroup(result, numGroups, groupMask);
+				lineHasCandidateGroup |= groupSize > 1;
+			}
+			if (!isLineSkipped) {
+				isPencilMarkGrid &= lineIsPencilMarkRow;
+				hasCandidateGroup |= lineHasCandidateGroup;
+			}
+			position++;
+		}
+		if (isPencilMarkGrid && hasCandidateGroup && numGroups == PUZZLE_LENGTH) {
+			for (int cell = 0; cell < PUZZLE_LENGTH; cell++) {
+				final int candidateMask = result.getCandidateMask(cell);
+				final boolean isSet = Integer.bitCount(candidateMask) == 1;
+				result.setDigit(cell, isSet ? Integer.numberOfTrailingZeros(candidateMask) + 1 : 0);
+				result.setCandidateMask(cell, isSet ? 0 : candidateMask);
+			}
+			result.setFormat(ParsedSudokuPuzzle.Format.PENCIL_MARK_GRID);
+			return true;
+		}
+		if (numCells == PUZZLE_LENGTH) {
+			for (int cell = 0; cell < PUZZLE_LENGTH; cell++) {
+				result.setCandidateMask(cell, 0);
+			}
+			result.setFormat(ParsedSudokuPuzzle.Format.GRID);
+			return true;
+		}
+		return false;
+	}
+
+	private static int addCell(final ParsedSudokuPuzzle result, final int numCells, final int digit) {
+		if (numCells < PUZZLE_LENGTH) {
+			result.setDigit(numCells, digit);
+		}
+		return numCells + 1;
+	}
+
+	private static int addGroup(final ParsedSudokuPuzzle result, final int numGroups, final int groupMask) {
+		if (numGroups < PUZZLE_LENGTH) {
+			result.setCandidateMask(numGroups, groupMask);
+		}
+		return numGroups + 1;
+	}
+
+	private static boolean isLineCharacter(final char character) {
+		return (character >= '0' && character <= '9') || character == '.';
+	}
+
+	private static boolean isDigit(final char character) {
+		return character >= '1' && character <= '9';
+	}
+
+	private static boolean isEmptyCellCharacter(final char character) {
+		return character == '0' || character == '.' || character == 'x' || character == 'X' || character == '_';
+	}
+
+	private static boolean isIndex(final int index) {
+		return index >= 0 && index < SudokuPuzzleValues.CELLS_PER_HOUSE;
+	}
+
+	private SudokuPuzzleParser() {
+		// Private constructor to prevent instantiation.
+	}
+}
@@ -0,0 +1,40 @@
+package sudoku.model;
+
+/**
+ * This class holds the unique solution of a sudoku puzzle, once it is known.
+ * The solution is computed in the background when a puzzle is loaded, so it may
+ * not be available right away. One instance is shared between a puzzle and all
+ * of its copies in the undo / redo history, since they all have the same
+ * givens.
+ */
+public class SudokuPuzzleSolution {
+
+	private volatile int[] solutionDigits;
+
+	public SudokuPuzzleSolution() {
+		this.solutionDigits = null;
+	}
+
+	/**
+	 * Sets the solution digits, in row major order (the same order as
+	 * Sudoku2::getSolution). Passing null means the puzzle does not have a unique
+	 * solution.
+	 */
+	public void setSolutionDigits(final int[] solutionDigits) {
+		this.solutionDigits = solutionDigits == null ? null : solutionDigits.clone();
+	}
+
+	/** Returns true iff the solution has been computed, and is unique. */
+	public boolean isAvailable() {
+		return this.solutionDigits != null;
+	}
+
+	/**
+	 * Gets the digit in the solution at the given indices, or 0 if the solution is
+	 * not available.
+	 */
+	public int getDigit(final int row, final int col) {
+		final int[] digits = this.solutionDigits;
+		return digits == null ? 0 : digits[row * SudokuPuzzleValues.CELLS_PER_HOUSE + col];
+	}
+}
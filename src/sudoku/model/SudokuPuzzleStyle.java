@@ -1,10 +1,12 @@
 package sudoku.model;
 
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
 import org.apache.logging.log4j.util.Strings;
 
-import javafx.scene.paint.Color;
-import sudoku.view.util.ColorUtils;
-import sudoku.view.util.ColorUtils.ColorState;
 
 /**
  * This class represents all the underlying settings and style data for a sudoku
@@ -22,6 +24,12 @@ public class SudokuPuzzleStyle {
 	// The active cell filter, or empty string for none.
 	protected String activeCellFilter;
 
+	// The compiled form of the active cell filter, or null for none.
+	private CellFilterQuery activeCellFilterQuery;
+
+	// The linear indices of the cells shaded by the active filter.
+	private final BitSet filteredCells;
+
 	// True if a filter should show the permitted cells for the active filter (if
 	// any), false it should show the disallowed cells. Current unused...
 	protected boolean filterAllowedCells;
@@ -38,22 +46,42 @@ public class SudokuPuzzleStyle {
 	// 3 dimensions are columns, rows, and digits 1-9 in that order.
 	protected ColorState[][][] candidateColorStates;
 
+	// The linear indices of the cells with each color state (except NONE), so
+	// colors can be reset without visiting every cell.
+	private final Map<ColorState, BitSet> cellsByColorState;
+
+	// Same as above, for candidates. The index of a candidate is its cell's linear
+	// index * 9 + the digit - 1.
+	private final Map<ColorState, BitSet> candidatesByColorState;
+
 	// This is the candidate digit whose color should be toggled when the event
 	// occurs. It is very difficult to allow the user to do any digit at once, so
 	// a separate control changes this value.
 	protected int activeCandidateDigit;
 
-	private Color activeColor;
+	// The index of the base color used for coloring, in the order of
+	// ColorUtils.getColors() (see ColorState.getKeyIndex).
+	private int activeColorIndex;
 
 	public SudokuPuzzleStyle() {
 		this.activeCandidateDigit = 1;
 		this.activeCellFilter = Strings.EMPTY;
-		this.activeColor = ColorUtils.getColors().get(0);
+		this.activeCellFilterQuery = null;
+		this.filteredCells = new BitSet(SudokuPeers.NUM_CELLS);
+		this.activeColorIndex = 0;
 		this.filterAllowedCells = false;
 		this.selectedCellRow = MIDDLE_CELL_INDEX;
 		this.selectedCellCol = MIDDLE_CELL_INDEX;
 		this.cellColorStates = new ColorState[SudokuPuzzleValues.CELLS_PER_HOUSE][SudokuPuzzleValues.CELLS_PER_HOUSE];
 		this.candidateColorStates = new ColorState[SudokuPuzzleValues.CELLS_PER_HOUSE][SudokuPuzzleValues.CELLS_PER_HOUSE][SudokuPuzzleValues.CELLS_PER_HOUSE];
+		this.cellsByColorState = new EnumMap<>(ColorState.class);
+		this.candidatesByColorState = new EnumMap<>(ColorState.class);
+		for (final ColorState colorState : ColorState.values()) {
+			this.cellsByColorState.put(colorState, new BitSet(SudokuPeers.NUM_CELLS));
+			this.candidatesByColorState.put(colorState,
+					new BitSet(SudokuPeers.NUM_CELLS * SudokuPuzzleValues.CELLS_PER_HOUSE));
+		}
+		this.resetColorStates();
 	}
 
 	/**
@@ -69,6 +97,49 @@ public class SudokuPuzzleStyle {
 				}
 			}
 		}
+		this.cellsByColorState.values().forEach(BitSet::clear);
+		this.candidatesByColorState.values().forEach(BitSet::clear);
+	}
+
+	/**
+	 * Resets the cells and / or candidates with any of the given color states to
+	 * no color. Only the colored entries are visited.
+	 */
+	public void resetColorStates(final boolean resetCells, final boolean resetCandidates,
+			final Collection<ColorState> colorStates) {
+		for (final ColorState colorState : colorStates) {
+			if (resetCells) {
+				final BitSet cells = this.cellsByColorState.get(colorState);
+				cells.stream().forEach(cellIndex -> this.cellColorStates[SudokuPeers.getCol(cellIndex)][SudokuPeers
+						.getRow(cellIndex)] = ColorState.NONE);
+				cells.clear();
+			}
+			if (resetCandidates) {
+				final BitSet candidates = this.candidatesByColorState.get(colorState);
+				candidates.stream().forEach(candidateIndex -> {
+					final int cellIndex = candidateIndex / SudokuPuzzleValues.CELLS_PER_HOUSE;
+					this.candidateColorStates[SudokuPeers.getCol(cellIndex)][SudokuPeers
+							.getRow(cellIndex)][candidateIndex % SudokuPuzzleValues.CELLS_PER_HOUSE] = ColorState.NONE;
+				});
+				candidates.clear();
+			}
+		}
+	}
+
+	/**
+	 * Returns the linear indices of the cells with the given color state. The
+	 * returned set is a copy.
+	 */
+	public BitSet getCellsWithColorState(final ColorState colorState) {
+		return (BitSet) this.cellsByColorState.get(colorState).clone();
+	}
+
+	/**
+	 * Returns the indices (cell's linear index * 9 + digit - 1) of the candidates
+	 * with the given color state. The returned set is a copy.
+	 */
+	public BitSet getCandidatesWithColorState(final ColorState colorState) {
+		return (BitSet) this.candidatesByColorState.get(colorState).clone();
 	}
 
 	public void resetSelectedCellIndices() {
@@ -80,6 +151,19 @@ public class SudokuPuzzleStyle {
 		return this.activeCellFilter;
 	}
 
+	public CellFilterQuery getActiveCellFilterQuery() {
+		return this.activeCellFilterQuery;
+	}
+
+	/** Returns the linear indices of the cells shaded by the active filter. */
+	public BitSet getFilteredCells() {
+		return (BitSet) this.filteredCells.clone();
+	}
+
+	public boolean isCellFiltered(final int row, final int col) {
+		return this.filteredCells.get(SudokuPeers.getCellIndex(row, col));
+	}
+
 	public boolean isFilterAllowedCells() {
 		return this.filterAllowedCells;
 	}
@@ -92,8 +176,8 @@ public class SudokuPuzzleStyle {
 		return this.selectedCellCol;
 	}
 
-	public Color getActiveColor() {
-		return this.activeColor;
+	public int getActiveColorIndex() {
+		return this.activeColorIndex;
 	}
 
 	public ColorState getCellColorState(final int row, final int col) {
@@ -104,14 +188,44 @@ public class SudokuPuzzleStyle {
 		return this.candidateColorStates[col][row][candidate - 1];
 	}
 
+	/**
+	 * Returns the coloring index of the cell's color (see
+	 * ColorState.getColoringIndex), or SudokuPuzzleFile.NO_COLOR if it has none
+	 * (or a hint color).
+	 */
+	public int getCellColoringIndex(final int row, final int col) {
+		return this.getCellColorState(row, col).getColoringIndex();
+	}
+
+	/** Like getCellColoringIndex, for a candidate of the cell. */
+	public int getCandidateColoringIndex(final int row, final int col, final int candidate) {
+		return this.getCandidateColorState(row, col, candidate).getColoringIndex();
+	}
+
 	public int getActiveCandidateDigit() {
 		return this.activeCandidateDigit;
 	}
 
+	/**
+	 * Sets and compiles the active cell filter (see CellFilterQuery). Throws an
+	 * IllegalArgumentException, and keeps the current filter, if it is not valid.
+	 */
 	public void setActiveCellFilter(final String activeCellFilter) {
+		this.activeCellFilterQuery = activeCellFilter.isEmpty() ? null : CellFilterQuery.compile(activeCellFilter);
 		this.activeCellFilter = activeCellFilter;
 	}
 
+	/** Sets the active cell filter to the given query, which is already compiled. */
+	public void setActiveCellFilterQuery(final CellFilterQuery activeCellFilterQuery) {
+		this.activeCellFilterQuery = activeCellFilterQuery;
+		this.activeCellFilter = activeCellFilterQuery.getQuery();
+	}
+
+	public void setFilteredCells(final BitSet filteredCells) {
+		this.filteredCells.clear();
+		this.filteredCells.or(filteredCells);
+	}
+
 	public void setFilterAllowedCells(final boolean filterAllowedCells) {
 		this.filterAllowedCells = filterAllowedCells;
 	}
@@ -124,17 +238,34 @@ public class SudokuPuzzleStyle {
 		this.selectedCellCol = selectedCellCol;
 	}
 
-	public void setActiveColor(final Color newColor) {
-		this.activeColor = newColor;
+	public void setActiveColorIndex(final int activeColorIndex) {
+		this.activeColorIndex = activeColorIndex;
 	}
 
 	public void setCellColorState(final int row, final int col, final ColorState cellColorState) {
+		final int cellIndex = SudokuPeers.getCellIndex(row, col);
+		final ColorState oldCellColorState = this.cellColorStates[col][row];
+		if (oldCellColorState != null) {
+			this.cellsByColorState.get(oldCellColorState).clear(cellIndex);
+		}
 		this.cellColorStates[col][row] = cellColorState;
+		if (cellColorState != ColorState.NONE) {
+			this.cellsByColorState.get(cellColorState).set(cellIndex);
+		}
 	}
 
 	public void setCandidateColorState(final int row, final int col, final int candidate,
 			final ColorState candidateColorState) {
+		final int candidateIndex = SudokuPeers.getCellIndex(row, col) * SudokuPuzzleValues.CELLS_PER_HOUSE + candidate
+				- 1;
+		final ColorState oldCandidateColorState = this.candidateColorStates[col][row][candidate - 1];
+		if (oldCandidateColorState != null) {
+			this.candidatesByColorState.get(oldCandidateColorState).clear(candidateIndex);
+		}
 		this.candidateColorStates[col][row][candidate - 1] = candidateColorState;
+		if (candidateColorState != ColorState.NONE) {
+			this.candidatesByColorState.get(candidateColorState).set(candidateIndex);
+		}
 	}
 
 	public void setActiveCandidateDigit(final int activeCandidateDigit) {
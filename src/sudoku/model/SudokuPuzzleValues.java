@@ -1,16 +1,14 @@
 package sudoku.model;
 
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.apache.logging.log4j.util.Strings;
 
 import sudoku.factories.ModelFactory;
-import sudoku.view.puzzle.SudokuPuzzleCell;
-import sudoku.view.puzzle.SudokuPuzzleCellUtils;
 
 /**
  * This class represents all the underlying data for a sudoku puzzle. This
@@ -34,14 +32,42 @@ public class SudokuPuzzleValues {
 
 	private final Set<Integer>[][] candidatesForCells;
 
+	// The rating of the puzzle from its givens, or 0 if it has not been rated.
 	private int difficultyScore;
 
+	private SudokuPuzzleSolution solution;
+
+	// Linear indices of the cells changed since the view last took them. This is
+	// not copied by clone(), since a copy has not been shown anywhere yet.
+	private final BitSet dirtyCells;
+
+	// Bitboards of the linear indices of the cells with each candidate (digit - 1),
+	// with each number of candidates (0 - 9), and without a fixed digit. These are
+	// kept up to date by the setters, so candidates must never be changed through
+	// the set returned by getCandidateDigitsForCell.
+	private final BitSet[] cellsWithCandidate;
+
+	private final BitSet[] cellsWithCandidateCount;
+
+	private final BitSet unfixedCells;
+
 	@SuppressWarnings("unchecked")
 	public SudokuPuzzleValues() {
 		this.hasGivens = false;
+		this.dirtyCells = new BitSet(SudokuPeers.NUM_CELLS);
+		this.cellsWithCandidate = new BitSet[CELLS_PER_HOUSE];
+		for (int digit = 1; digit <= CELLS_PER_HOUSE; digit++) {
+			this.cellsWithCandidate[digit - 1] = new BitSet(SudokuPeers.NUM_CELLS);
+		}
+		this.cellsWithCandidateCount = new BitSet[CELLS_PER_HOUSE + 1];
+		for (int candidateCount = 0; candidateCount <= CELLS_PER_HOUSE; candidateCount++) {
+			this.cellsWithCandidateCount[candidateCount] = new BitSet(SudokuPeers.NUM_CELLS);
+		}
+		this.unfixedCells = new BitSet(SudokuPeers.NUM_CELLS);
 		this.givenCells = new Integer[CELLS_PER_HOUSE][CELLS_PER_HOUSE];
 		this.fixedCells = new Integer[CELLS_PER_HOUSE][CELLS_PER_HOUSE];
 		this.candidatesForCells = new HashSet[CELLS_PER_HOUSE][CELLS_PER_HOUSE];
+		this.solution = ModelFactory.getInstance().createSudokuPuzzleSolution();
 		for (int row = 0; row < CELLS_PER_HOUSE; row++) {
 			for (int col = 0; col < CELLS_PER_HOUSE; col++) {
 				this.givenCells[col][row] = 0;
@@ -52,6 +78,7 @@ public class SudokuPuzzleValues {
 						this.candidatesForCells[col][row].add(candidate + 1);
 					}
 				}
+				this.updateBitboards(row, col);
 			}
 		}
 	}
@@ -76,8 +103,30 @@ public class SudokuPuzzleValues {
 		return this.fixedCells[col][row];
 	}
 
+	/**
+	 * Returns the candidates of the cell at the given indices. The set can not be
+	 * changed; use the setters of this class instead.
+	 */
 	public Set<Integer> getCandidateDigitsForCell(final int row, final int col) {
-		return this.candidatesForCells[col][row];
+		return Collections.unmodifiableSet(this.candidatesForCells[col][row]);
+	}
+
+	/** Returns the linear indices of the cells with the given candidate (1 - 9). */
+	public BitSet getCellsWithCandidate(final int candidate) {
+		return (BitSet) this.cellsWithCandidate[candidate - 1].clone();
+	}
+
+	/**
+	 * Returns the linear indices of the cells with exactly the given number of
+	 * candidates (0 - 9).
+	 */
+	public BitSet getCellsWithCandidateCount(final int candidateCount) {
+		return (BitSet) this.cellsWithCandidateCount[candidateCount].clone();
+	}
+
+	/** Returns the linear indices of the cells without a fixed digit. */
+	public BitSet getUnfixedCells() {
+		return (BitSet) this.unfixedCells.clone();
 	}
 
 	public void setGivenCellDigit(final int row, final int col, final int given) {
@@ -88,25 +137,135 @@ public class SudokuPuzzleValues {
 		}
 		this.candidatesForCells[col][row].clear();
 		this.givenCells[col][row] = given;
+		this.markCellDirty(row, col);
 	}
 
 	public void setCellFixedDigit(final int row, final int col, final int fixedDigit) {
-		if (fixedDigit != 0) {
+		if (fixedDigit != 0 && !this.candidatesForCells[col][row].isEmpty()) {
 			this.candidatesForCells[col][row].clear();
+			this.markCellDirty(row, col);
+		}
+		if (this.fixedCells[col][row] != fixedDigit) {
+			this.fixedCells[col][row] = fixedDigit;
+			this.markCellDirty(row, col);
 		}
-		this.fixedCells[col][row] = fixedDigit;
 	}
 
 	public void setCellCandidateDigits(final int row, final int col, final Set<Integer> candidates) {
-		this.candidatesForCells[col][row] = candidates;
+		this.candidatesForCells[col][row] = new HashSet<>(candidates);
+		this.markCellDirty(row, col);
 	}
 
 	public void addCellCandidateDigit(final int row, final int col, final int candidate) {
-		this.candidatesForCells[col][row].add(candidate);
+		if (this.candidatesForCells[col][row].add(candidate)) {
+			this.markCellDirty(row, col);
+		}
 	}
 
 	public void removeCellCandidateDigit(final int row, final int col, final int candidate) {
-		this.candidatesForCells[col][row].remove(candidate);
+		if (this.candidatesForCells[col][row].remove(candidate)) {
+			this.markCellDirty(row, col);
+		}
+	}
+
+	/**
+	 * Marks the cell at the given indices as changed, and updates its bits in the
+	 * bitboards. Every setter must call this when it changes a cell.
+	 */
+	private void markCellDirty(final int row, final int col) {
+		this.dirtyCells.set(SudokuPeers.getCellIndex(row, col));
+		this.updateBitboards(row, col);
+	}
+
+	private void updateBitboards(final int row, final int col) {
+		final int cellIndex = SudokuPeers.getCellIndex(row, col);
+		final Set<Integer> candidates = this.candidatesForCells[col][row];
+		for (int digit = 1; digit <= CELLS_PER_HOUSE; digit++) {
+			this.cellsWithCandidate[digit - 1].set(cellIndex, candidates.contains(digit));
+		}
+		for (int candidateCount = 0; candidateCount <= CELLS_PER_HOUSE; candidateCount++) {
+			this.cellsWithCandidateCount[candidateCount].set(cellIndex, candidates.size() == candidateCount);
+		}
+		this.unfixedCells.set(cellIndex, this.fixedCells[col][row] == 0);
+	}
+
+	/**
+	 * Returns the linear indices of the cells changed since the last call, and
+	 * clears them.
+	 */
+	public BitSet takeDirtyCells() {
+		final BitSet result = (BitSet) this.dirtyCells.clone();
+		this.dirtyCells.clear();
+		return result;
+	}
+
+	/**
+	 * Returns the linear indices of the cells whose given digit, fixed digit or
+	 * candidates are not the same in the other puzzle.
+	 */
+	public BitSet getCellsDifferentFrom(final SudokuPuzzleValues other) {
+		final BitSet result = new BitSet(SudokuPeers.NUM_CELLS);
+		for (int row = 0; row < CELLS_PER_HOUSE; row++) {
+			for (int col = 0; col < CELLS_PER_HOUSE; col++) {
+				if (!this.givenCells[col][row].equals(other.givenCells[col][row])
+						|| !this.fixedCells[col][row].equals(other.fixedCells[col][row])
+						|| !this.candidatesForCells[col][row].equals(other.candidatesForCells[col][row])) {
+					result.set(SudokuPeers.getCellIndex(row, col));
+				}
+			}
+		}
+		return result;
+	}
+
+	public int getDifficultyScore() {
+		return this.difficultyScore;
+	}
+
+	public void setDifficultyScore(final int difficultyScore) {
+		this.difficultyScore = difficultyScore;
+	}
+
+	public SudokuPuzzleSolution getSolution() {
+		return this.solution;
+	}
+
+	public void setSolution(final SudokuPuzzleSolution solution) {
+		this.solution = solution;
+	}
+
+	/**
+	 * Returns true iff the cell at the given indices has a fixed digit which does
+	 * not match the solution. Always false if the solution is not known yet.
+	 */
+	public boolean isFixedDigitMistake(final int row, final int col) {
+		final int fixedDigit = this.fixedCells[col][row];
+		return fixedDigit != 0 && this.solution.isAvailable() && fixedDigit != this.solution.getDigit(row, col);
+	}
+
+	/**
+	 * Returns true iff the given candidate is the solution for the unfixed cell at
+	 * the given indices, but it has been eliminated. Always false if the solution
+	 * is not known yet.
+	 */
+	public boolean isCandidateMistake(final int row, final int col, final int candidate) {
+		return this.fixedCells[col][row] == 0 && this.solution.isAvailable()
+				&& candidate == this.solution.getDigit(row, col) && !this.candidatesForCells[col][row].contains(candidate);
+	}
+
+	/**
+	 * Returns true iff any fixed digit or eliminated candidate conflicts with the
+	 * solution. Candidates are only checked if checkCandidates is true.
+	 */
+	public boolean containsMistakes(final boolean checkCandidates) {
+		for (int row = 0; row < CELLS_PER_HOUSE; row++) {
+			for (int col = 0; col < CELLS_PER_HOUSE; col++) {
+				if (this.isFixedDigitMistake(row, col) || checkCandidates
+						&& this.isCandidateMistake(row, col, this.solution.getDigit(row, col))) {
+					return true;
+				}
+			}
+		}
+		return false;
 	}
 
 	/** Creates and returns a deep copy of this. */
@@ -123,6 +282,18 @@ public class SudokuPuzzleValues {
 				clone.hasGivens = this.hasGivens;
 			}
 		}
+		for (int digit = 1; digit <= CELLS_PER_HOUSE; digit++) {
+			clone.cellsWithCandidate[digit - 1].clear();
+			clone.cellsWithCandidate[digit - 1].or(this.cellsWithCandidate[digit - 1]);
+		}
+		for (int candidateCount = 0; candidateCount <= CELLS_PER_HOUSE; candidateCount++) {
+			clone.cellsWithCandidateCount[candidateCount].clear();
+			clone.cellsWithCandidateCount[candidateCount].or(this.cellsWithCandidateCount[candidateCount]);
+		}
+		clone.unfixedCells.clear();
+		clone.unfixedCells.or(this.unfixedCells);
+		// The solution only depends on the givens, so it is safe to share.
+		clone.solution = this.solution;
 		return clone;
 	}
 
@@ -160,17 +331,42 @@ public class SudokuPuzzleValues {
 	 *                     false otherwise.
 	 */
 	public void updateCellAndCandidateValues(final String puzzleString, final boolean setGivens) {
-		this.updateCellValues(puzzleString, setGivens);
-		final String[] candidateStrings = puzzleString.split("\\[");
-		// Skip 0th index since it is just the regular cell givens.
-		for (int index = 1; index < candidateStrings.length; index++) {
-			final String candidatesStringForIndex = candidateStrings[index];
-			final int row = Integer.valueOf(candidatesStringForIndex.charAt(1) - '0');
-			final int col = Integer.valueOf(candidatesStringForIndex.charAt(3) - '0');
-			final String candidates = candidatesStringForIndex.substring(5);
-			for (int candidate = 1; candidate <= CELLS_PER_HOUSE; candidate++) {
-				if (!candidates.contains(String.valueOf(candidate))) {
-					this.candidatesForCells[col][row].remove(candidate);
+		final ParsedSudokuPuzzle parsedSudokuPuzzle = SudokuPuzzleParser.parse(puzzleString);
+		if (parsedSudokuPuzzle != null) {
+			this.updateCellAndCandidateValues(parsedSudokuPuzzle, setGivens);
+		}
+	}
+
+	/**
+	 * Updates cell and candidate values to match the given parsed puzzle (see
+	 * SudokuPuzzleParser). Empty cells are left as they are. Candidates which are
+	 * not listed for a cell are removed; if the format lists every candidate, the
+	 * listed ones are also added.
+	 */
+	public void updateCellAndCandidateValues(final ParsedSudokuPuzzle parsedSudokuPuzzle, final boolean setGivens) {
+		if (setGivens) {
+			this.hasGivens = true;
+		}
+		final boolean hasAllCandidates = parsedSudokuPuzzle.hasAllCandidates();
+		for (int row = 0; row < CELLS_PER_HOUSE; row++) {
+			for (int col = 0; col < CELLS_PER_HOUSE; col++) {
+				final int digit = parsedSudokuPuzzle.getDigit(row, col);
+				if (digit != 0) {
+					if (setGivens && this.givenCells[col][row] != digit) {
+						this.givenCells[col][row] = digit;
+						this.markCellDirty(row, col);
+					}
+					this.setCellFixedDigit(row, col, digit);
+				}
+				final int candidateMask = parsedSudokuPuzzle.getCandidateMask(row, col);
+				if (candidateMask != 0) {
+					for (int candidate = 1; candidate <= CELLS_PER_HOUSE; candidate++) {
+						if ((candidateMask & 1 << (candidate - 1)) == 0) {
+							this.removeCellCandidateDigit(row, col, candidate);
+						} else if (hasAllCandidates) {
+							this.addCellCandidateDigit(row, col, candidate);
+						}
+					}
 				}
 			}
 		}
@@ -194,13 +390,11 @@ public class SudokuPuzzleValues {
 				final char charAtPosition = puzzleString.charAt(position);
 				if (Character.isDigit(charAtPosition)) {
 					final int digit = Integer.valueOf(charAtPosition) - '0';
-					if (setGivens) {
+					if (setGivens && this.givenCells[col][row] != digit) {
 						this.givenCells[col][row] = digit;
+						this.markCellDirty(row, col);
 					}
-					this.fixedCells[col][row] = digit;
-					if (digit != 0) {
-						this.candidatesForCells[col][row].clear();
-					}
+					this.setCellFixedDigit(row, col, digit);
 				}
 			}
 		}
@@ -258,13 +452,27 @@ public class SudokuPuzzleValues {
 	}
 
 	private boolean blocksContainContradiction(final int digit) {
-		for (int block = 1; block <= SudokuPuzzleValues.CELLS_PER_HOUSE; block++) {
-			final List<SudokuPuzzleCell> cellsInBox = SudokuPuzzleCellUtils.getCellsInBox(block);
-			final List<Integer> fixedDigits = cellsInBox.stream().map(cell -> this.fixedCells[cell.getCol()][cell.getRow()])
-					.filter(fixedDigit -> fixedDigit != 0).collect(Collectors.toList());
-			final List<Integer> uniqueDigits = fixedDigits.stream().distinct().collect(Collectors.toList());
-			if (fixedDigits.size() != uniqueDigits.size()) {
-				// This means a digit appeared more than once in the block
+		for (int box = 0; box < SudokuPuzzleValues.CELLS_PER_HOUSE; box++) {
+			int instancesOfDigitInHouse = 0;
+			for (final int cellIndex : SudokuPeers.getHouse(2 * SudokuPuzzleValues.CELLS_PER_HOUSE + box)) {
+				if (digit == this.fixedCells[SudokuPeers.getCol(cellIndex)][SudokuPeers.getRow(cellIndex)]) {
+					instancesOfDigitInHouse++;
+				}
+				if (instancesOfDigitInHouse > 1) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true iff the cell at the given row and column sees a fixed cell with
+	 * the given digit.
+	 */
+	public boolean doesCellSeeFixedDigit(final int row, final int col, final int fixedDigit) {
+		for (final int peerIndex : SudokuPeers.getPeers(SudokuPeers.getCellIndex(row, col))) {
+			if (fixedDigit == this.fixedCells[SudokuPeers.getCol(peerIndex)][SudokuPeers.getRow(peerIndex)]) {
 				return true;
 			}
 		}
@@ -0,0 +1,397 @@
+package sudoku.session;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javafx.scene.input.KeyCode;
+import sudoku.core.ModelController;
+import sudoku.model.AtomicFiles;
+import sudoku.model.SudokuPuzzleFile;
+import sudoku.model.SudokuPuzzleStyle;
+import sudoku.model.SudokuPuzzleValues;
+import sudoku.state.model.ApplicationModelState;
+import sudoku.view.util.ResourceConstants;
+
+/**
+ * This class keeps the current puzzle safe from crashes, without the user
+ * saving it. It is made of a snapshot of the puzzle (a puzzle file, see
+ * SudokuPuzzleFile), and a journal of the transitions caused by the user since
+ * the snapshot (in the same format as a session, see SessionRecorder).
+ *
+ * Transitions are only queued on the JavaFX thread. A background thread writes
+ * everything queued so far, then forces it to disk once (group commit), so
+ * journaling does not slow down key presses. Every so often (and after each new
+ * puzzle, undo or redo), a snapshot is written to a temporary file which is
+ * renamed over the last one, and a new journal is started. The journal starts
+ * with the checksum of its snapshot, so a journal left from before a snapshot
+ * (i.e. a crash in between) is never replayed on top of it.
+ *
+ * When the application starts, the snapshot is opened, and the journal is
+ * replayed. Undo / redo history is not recovered.
+ */
+public class AutosaveJournal {
+
+	private static final Logger LOG = LogManager.getLogger(AutosaveJournal.class);
+
+	private static final String SNAPSHOT_FILE = "Autosave.spf";
+
+	private static final String JOURNAL_FILE = "Journal.txt";
+
+	private static final String JOURNAL_HEADER_PREFIX = "# Autosave journal, snapshot checksum: ";
+
+	private static final int EVENTS_PER_SNAPSHOT = 100;
+
+	private static final long CLOSE_TIMEOUT_MILLIS = 2000;
+
+	private static final long NANOS_PER_MILLI = 1_000_000L;
+
+	// The first four start a new puzzle, so everything before them is not needed
+	// anymore. Undo and redo need the history, which opening the snapshot clears,
+	// so they cannot be replayed and their result is kept in a snapshot instead.
+	private static final List<SessionTransition> SNAPSHOT_TRANSITIONS = Arrays.asList(
+			SessionTransition.NEW_RANDOM_PUZZLE, SessionTransition.NEW_EMPTY_PUZZLE, SessionTransition.OPENED_FILE,
+			SessionTransition.PASTE_PUZZLE, SessionTransition.UNDO_ACTION, SessionTransition.REDO_ACTION);
+
+	private static AutosaveJournal instance;
+
+	public static AutosaveJournal getInstance() {
+		if (AutosaveJournal.instance == null) {
+			AutosaveJournal.instance = new AutosaveJournal();
+		}
+		return AutosaveJournal.instance;
+	}
+
+	private final Path snapshotPath;
+
+	private final Path journalPath;
+
+	private final BlockingQueue<Runnable> pendingTasks;
+
+	// Only used on the writer thread.
+	private FileChannel journalChannel;
+
+	private BufferedWriter journalWriter;
+
+	private ApplicationModelState lastState;
+
+	private boolean isEnabled;
+
+	private boolean isSnapshotDue;
+
+	private int numEventsSinceSnapshot;
+
+	private long startNanos;
+
+	private AutosaveJournal() {
+		this.snapshotPath = Paths.get(ResourceConstants.AUTOSAVE_FOLDER, SNAPSHOT_FILE);
+		this.journalPath = Paths.get(ResourceConstants.AUTOSAVE_FOLDER, JOURNAL_FILE);
+		this.pendingTasks = new LinkedBlockingQueue<>();
+		this.journalChannel = null;
+		this.journalWriter = null;
+		this.lastState = null;
+		this.isEnabled = false;
+		this.isSnapshotDue = false;
+		this.numEventsSinceSnapshot = 0;
+		this.startNanos = 0;
+	}
+
+	/**
+	 * Recovers the last session, if any, then starts journaling. Nothing is
+	 * journaled before this is called, so tools without a window do not touch the
+	 * autosave.
+	 */
+	public void start() {
+		if (this.isEnabled) {
+			return;
+		}
+		this.recover();
+		try {
+			Files.createDirectories(this.snapshotPath.getParent());
+		} catch (final IOException e) {
+			LOG.error("Could not create the autosave folder: {}", e);
+			return;
+		}
+		final Thread writerThread = new Thread(this::runWriter, "AutosaveJournalWriter");
+		writerThread.setDaemon(true);
+		writerThread.start();
+		this.isEnabled = true;
+		if (this.lastState != null) {
+			this.writeSnapshot(this.lastState);
+		} else {
+			// Nothing was recovered, so the next journal starts from an empty puzzle.
+			this.pendingTasks.add(() -> {
+				this.deleteSnapshot();
+				this.openJournal(AutosaveJournal.getChecksum(new byte[0]), Collections.emptyList());
+			});
+		}
+	}
+
+	public boolean isEnabled() {
+		return this.isEnabled;
+	}
+
+	/** Queues a transition caused by the user. */
+	public void append(final SessionTransition transition, final String... arguments) {
+		if (!this.isEnabled) {
+			return;
+		}
+		final long elapsedMillis = (System.nanoTime() - this.startNanos) / NANOS_PER_MILLI;
+		final String line = new SessionEvent(elapsedMillis, transition, arguments).toLine();
+		this.pendingTasks.add(() -> this.writeLine(line));
+		this.numEventsSinceSnapshot++;
+		if (this.numEventsSinceSnapshot >= EVENTS_PER_SNAPSHOT || SNAPSHOT_TRANSITIONS.contains(transition)) {
+			this.isSnapshotDue = true;
+		}
+	}
+
+	/**
+	 * Called after every model state transition, with the new state. Writes a
+	 * snapshot if one is due.
+	 */
+	public void onStateEntered(final ApplicationModelState applicationModelState) {
+		this.lastState = applicationModelState;
+		if (this.isEnabled && this.isSnapshotDue) {
+			this.writeSnapshot(applicationModelState);
+		}
+	}
+
+	/**
+	 * Writes a last snapshot, and waits (for a short time) until everything
+	 * queued is on disk. Called when the application closes.
+	 */
+	public void close() {
+		if (!this.isEnabled) {
+			return;
+		}
+		if (this.lastState != null && this.numEventsSinceSnapshot > 0) {
+			this.writeSnapshot(this.lastState);
+		}
+		this.isEnabled = false;
+		final CountDownLatch writtenLatch = new CountDownLatch(1);
+		this.pendingTasks.add(writtenLatch::countDown);
+		try {
+			if (!writtenLatch.await(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+				LOG.warn("The autosave journal was not written before closing.");
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Opens the snapshot, and replays the journal on top of it, if the journal
+	 * belongs to the snapshot. Recovered transitions are not journaled again.
+	 */
+	private void recover() {
+		try {
+			final byte[] snapshot = Files.exists(this.snapshotPath) ? Files.readAllBytes(this.snapshotPath)
+					: new byte[0];
+			final List<SessionEvent> sessionEvents = this.readJournal(AutosaveJournal.getChecksum(snapshot));
+			if (snapshot.length == 0 && sessionEvents.isEmpty()) {
+				return;
+			}
+			LOG.info("Recovering the last session from {} journaled transitions.", sessionEvents.size());
+			if (snapshot.length > 0) {
+				ModelController.getInstance().transitionToOpenedFileState(SudokuPuzzleFile.fromBytes(snapshot));
+			}
+			new SessionReplayer(sessionEvents).replayAll();
+		} catch (final IOException | RuntimeException e) {
+			LOG.error("Could not recover the last session: {}", e);
+		}
+	}
+
+	/**
+	 * Returns the transitions of the journal, or none if it does not belong to the
+	 * snapshot with the given checksum. A torn last line (from a crash while it was
+	 * written) is skipped.
+	 */
+	private List<SessionEvent> readJournal(final long snapshotChecksum) throws IOException {
+		final List<SessionEvent> sessionEvents = new ArrayList<>();
+		if (!Files.exists(this.journalPath)) {
+			return sessionEvents;
+		}
+		final List<String> lines = Files.readAllLines(this.journalPath, StandardCharsets.UTF_8);
+		if (lines.isEmpty() || !(JOURNAL_HEADER_PREFIX + Long.toHexString(snapshotChecksum)).equals(lines.get(0))) {
+			LOG.info("The autosave journal does not belong to the snapshot, and is skipped.");
+			return sessionEvents;
+		}
+		for (final String line : lines.subList(1, lines.size())) {
+			try {
+				sessionEvents.add(SessionEvent.fromLine(line));
+			} catch (final IllegalArgumentException e) {
+				LOG.warn("Stopped reading the autosave journal at an invalid line: {}", line);
+				break;
+			}
+		}
+		return sessionEvents;
+	}
+
+	/**
+	 * Captures the puzzle on the JavaFX thread, and queues writing it. The journal
+	 * after it starts with the transitions which bring back the selected cell,
+	 * active candidate, active color and mouse mode, since those are not part of a
+	 * puzzle file.
+	 */
+	private void writeSnapshot(final ApplicationModelState applicationModelState) {
+		this.isSnapshotDue = false;
+		this.numEventsSinceSnapshot = 0;
+		this.startNanos = System.nanoTime();
+		final SudokuPuzzleStyle sudokuPuzzleStyle = applicationModelState.getSudokuPuzzleStyle();
+		final byte[] snapshot = SudokuPuzzleFile
+				.fromPuzzle(applicationModelState.getSudokuPuzzleValues(), sudokuPuzzleStyle).toBytes();
+		final List<String> contextLines = new ArrayList<>();
+		if (sudokuPuzzleStyle.getSelectedCellRow() != -1 && sudokuPuzzleStyle.getSelectedCellCol() != -1) {
+			contextLines.add(new SessionEvent(0, SessionTransition.ARROW_KEYBOARD_INPUT, AutosaveJournal
+					.getKeysToSelect(sudokuPuzzleStyle.getSelectedCellRow(), sudokuPuzzleStyle.getSelectedCellCol()))
+							.toLine());
+		}
+		contextLines.add(new SessionEvent(0, SessionTransition.ACTIVE_CANDIDATE_CHANGED,
+				KeyCode.valueOf("DIGIT" + sudokuPuzzleStyle.getActiveCandidateDigit()).name()).toLine());
+		contextLines.add(new SessionEvent(0, SessionTransition.ACTIVE_COLOR_CHANGED,
+				String.valueOf(sudokuPuzzleStyle.getActiveColorIndex())).toLine());
+		contextLines.add(new SessionEvent(0, SessionTransition.MOUSE_MODE_CHANGED,
+				applicationModelState.getMouseMode().name()).toLine());
+		this.pendingTasks.add(() -> {
+			if (this.writeSnapshotFile(snapshot)) {
+				this.openJournal(AutosaveJournal.getChecksum(snapshot), contextLines);
+			}
+		});
+	}
+
+	/**
+	 * Returns the arrow keys which select the given cell from anywhere, since
+	 * movement stops at the edges of the grid.
+	 */
+	private static String[] getKeysToSelect(final int row, final int col) {
+		final List<String> keys = new ArrayList<>();
+		for (int index = 0; index < SudokuPuzzleValues.CELLS_PER_HOUSE - 1; index++) {
+			keys.add(KeyCode.UP.name());
+			keys.add(KeyCode.LEFT.name());
+		}
+		for (int index = 0; index < row; index++) {
+			keys.add(KeyCode.DOWN.name());
+		}
+		for (int index = 0; index < col; index++) {
+			keys.add(KeyCode.RIGHT.name());
+		}
+		return keys.toArray(new String[keys.size()]);
+	}
+
+	// The methods below only run on the writer thread.
+
+	private void runWriter() {
+		final List<Runnable> tasks = new ArrayList<>();
+		while (true) {
+			try {
+				tasks.add(this.pendingTasks.take());
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			this.pendingTasks.drainTo(tasks);
+			tasks.forEach(Runnable::run);
+			tasks.clear();
+			this.syncJournal();
+		}
+	}
+
+	/**
+	 * Writes the snapshot over the last one, atomically. Returns false if it could
+	 * not be written, in which case the current journal (which belongs to the last
+	 * snapshot) is kept.
+	 */
+	private boolean writeSnapshotFile(final byte[] snapshot) {
+		try {
+			AtomicFiles.write(this.snapshotPath, snapshot);
+			return true;
+		} catch (final IOException e) {
+			LOG.error("Could not write the autosave snapshot: {}", e);
+			return false;
+		}
+	}
+
+	private void deleteSnapshot() {
+		try {
+			Files.deleteIfExists(this.snapshotPath);
+		} catch (final IOException e) {
+			LOG.error("Could not delete the autosave snapshot: {}", e);
+		}
+	}
+
+	/** Starts a new journal for the snapshot with the given checksum. */
+	private void openJournal(final long snapshotChecksum, final List<String> contextLines) {
+		this.closeJournal();
+		try {
+			this.journalChannel = FileChannel.open(this.journalPath, StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+			this.journalWriter = new BufferedWriter(
+					Channels.newWriter(this.journalChannel, StandardCharsets.UTF_8.newEncoder(), -1));
+			this.writeLine(JOURNAL_HEADER_PREFIX + Long.toHexString(snapshotChecksum));
+			contextLines.forEach(this::writeLine);
+		} catch (final IOException e) {
+			LOG.error("Could not start the autosave journal: {}", e);
+			this.closeJournal();
+		}
+	}
+
+	private void writeLine(final String line) {
+		if (this.journalWriter == null) {
+			return;
+		}
+		try {
+			this.journalWriter.write(line);
+			this.journalWriter.newLine();
+		} catch (final IOException e) {
+			LOG.error("Could not write to the autosave journal: {}", e);
+		}
+	}
+
+	private void syncJournal() {
+		if (this.journalWriter == null) {
+			return;
+		}
+		try {
+			this.journalWriter.flush();
+			this.journalChannel.force(false);
+		} catch (final IOException e) {
+			LOG.error("Could not write to the autosave journal: {}", e);
+		}
+	}
+
+	private void closeJournal() {
+		if (this.journalWriter != null) {
+			try {
+				this.journalWriter.close();
+			} catch (final IOException e) {
+				LOG.error("Could not close the autosave journal: {}", e);
+			}
+		}
+		this.journalWriter = null;
+		this.journalChannel = null;
+	}
+
+	private static long getChecksum(final byte[] bytes) {
+		final CRC32 checksum = new CRC32();
+		checksum.update(bytes, 0, bytes.length);
+		return checksum.getValue();
+	}
+}
@@ -0,0 +1,96 @@
+package sudoku.session;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is one line of a session file: a transition, the time it happened
+ * (in milliseconds since recording started) and its arguments. A line is the
+ * time, the transition and the arguments, separated by tabs. Tabs, new lines
+ * and backslashes in arguments are escaped, so each event stays on one line.
+ */
+public class SessionEvent {
+
+	private static final char SEPARATOR = '\t';
+
+	private static final char ESCAPE = '\\';
+
+	private final long elapsedMillis;
+
+	private final SessionTransition transition;
+
+	private final String[] arguments;
+
+	public SessionEvent(final long elapsedMillis, final SessionTransition transition, final String... arguments) {
+		this.elapsedMillis = elapsedMillis;
+		this.transition = transition;
+		this.arguments = arguments;
+	}
+
+	/**
+	 * Parses a line written by toLine. Throws an IllegalArgumentException if the
+	 * line is not valid.
+	 */
+	public static SessionEvent fromLine(final String line) {
+		final List<String> fields = new ArrayList<>();
+		final StringBuilder field = new StringBuilder();
+		for (int index = 0; index < line.length(); index++) {
+			final char character = line.charAt(index);
+			if (character == SEPARATOR) {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else if (character == ESCAPE && index + 1 < line.length()) {
+				index++;
+				final char escapedCharacter = line.charAt(index);
+				field.append(escapedCharacter == 't' ? SEPARATOR : escapedCharacter == 'n' ? '\n' : escapedCharacter);
+			} else {
+				field.append(character);
+			}
+		}
+		fields.add(field.toString());
+		if (fields.size() < 2) {
+			throw new IllegalArgumentException("Invalid session event: " + line);
+		}
+		final long elapsedMillis = Long.parseLong(fields.get(0));
+		final SessionTransition transition = SessionTransition.valueOf(fields.get(1));
+		return new SessionEvent(elapsedMillis, transition,
+				fields.subList(2, fields.size()).toArray(new String[fields.size() - 2]));
+	}
+
+	public long getElapsedMillis() {
+		return this.elapsedMillis;
+	}
+
+	public SessionTransition getTransition() {
+		return this.transition;
+	}
+
+	public int getNumArguments() {
+		return this.arguments.length;
+	}
+
+	public String getArgument(final int index) {
+		return this.arguments[index];
+	}
+
+	public String toLine() {
+		final StringBuilder line = new StringBuilder();
+		line.append(this.elapsedMillis).append(SEPARATOR).append(this.transition.name());
+		for (final String argument : this.arguments) {
+			line.append(SEPARATOR);
+			for (int index = 0; index < argument.length(); index++) {
+				final char character = argument.charAt(index);
+				if (character == SEPARATOR) {
+					line.append(ESCAPE).append('t');
+				} else if (character == '\n') {
+					line.append(ESCAPE).append('n');
+				} else if (character == ESCAPE) {
+					line.append(ESCAPE).append(ESCAPE);
+				} else if (character != '\r') {
+					line.append(character);
+				}
+			}
+		}
+		return line.toString();
+	}
+}
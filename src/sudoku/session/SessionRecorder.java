@@ -0,0 +1,119 @@
+package sudoku.session;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import sudoku.core.KeyboardInputQueue;
+import sudoku.model.SudokuPuzzleFile;
+import sudoku.view.util.ResourceConstants;
+
+/**
+ * This class records the model state transitions caused by the user into a
+ * session file, which SessionReplayer can run again (e.g. as a benchmark, or to
+ * reproduce a problem from a bug report). Every argument needed to replay a
+ * transition is recorded, including the contents of opened files and pasted
+ * puzzles, so the file does not depend on anything else on disk.
+ */
+public class SessionRecorder {
+
+	private static final Logger LOG = LogManager.getLogger(SessionRecorder.class);
+
+	private static final String SESSION_FILE_HEADER = "# Sudoku session: time (ms), transition, arguments";
+
+	private static final long NANOS_PER_MILLI = 1_000_000L;
+
+	private static SessionRecorder instance;
+
+	public static SessionRecorder getInstance() {
+		if (SessionRecorder.instance == null) {
+			SessionRecorder.instance = new SessionRecorder();
+		}
+		return SessionRecorder.instance;
+	}
+
+	private final List<SessionEvent> sessionEvents;
+
+	private long startNanos;
+
+	private boolean isRecording;
+
+	private SessionRecorder() {
+		this.sessionEvents = new ArrayList<>();
+		this.startNanos = 0;
+		this.isRecording = false;
+	}
+
+	public boolean isRecording() {
+		return this.isRecording;
+	}
+
+	/** Starts recording a new session, discarding any unsaved events. */
+	public void start() {
+		this.sessionEvents.clear();
+		this.startNanos = System.nanoTime();
+		this.isRecording = true;
+		LOG.info("Started recording a session.");
+	}
+
+	/**
+	 * Stops recording, and writes the session to a new file in the log folder.
+	 * Returns the path of the file, or null if it could not be written.
+	 */
+	public Path stop() {
+		this.isRecording = false;
+		final String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+		final Path sessionPath = Paths.get(ResourceConstants.LOG_FOLDER, "Session" + timestamp + ".txt");
+		final List<String> lines = new ArrayList<>(this.sessionEvents.size() + 1);
+		lines.add(SESSION_FILE_HEADER);
+		this.sessionEvents.forEach(sessionEvent -> lines.add(sessionEvent.toLine()));
+		try {
+			Files.createDirectories(sessionPath.getParent());
+			Files.write(sessionPath, lines, StandardCharsets.UTF_8);
+			LOG.info("Recorded {} transitions to {}", this.sessionEvents.size(), sessionPath);
+			return sessionPath;
+		} catch (final IOException e) {
+			LOG.error("Could not write session to {}: {}", sessionPath, e);
+			return null;
+		} finally {
+			this.sessionEvents.clear();
+		}
+	}
+
+	/**
+	 * Records a transition, if a session is being recorded. It is also passed on
+	 * to the autosave journal.
+	 */
+	public void record(final SessionTransition transition, final String... arguments) {
+		// Queued keys were pressed before this transition, so they are entered (and
+		// recorded) first, in the order the live application applies them.
+		KeyboardInputQueue.getInstance().flush();
+		AutosaveJournal.getInstance().append(transition, arguments);
+		if (this.isRecording) {
+			final long elapsedMillis = (System.nanoTime() - this.startNanos) / NANOS_PER_MILLI;
+			this.sessionEvents.add(new SessionEvent(elapsedMillis, transition, arguments));
+		}
+	}
+
+	/**
+	 * Records opening the given file, if a session is being recorded (or the
+	 * autosave journal is enabled). The contents of the file are recorded, rather
+	 * than its path.
+	 */
+	public void recordOpenedFile(final SudokuPuzzleFile puzzleFile) {
+		if (this.isRecording || AutosaveJournal.getInstance().isEnabled()) {
+			// Puzzle files are binary, so they are stored as Base64.
+			this.record(SessionTransition.OPENED_FILE, Base64.getEncoder().encodeToString(puzzleFile.toBytes()));
+		}
+	}
+}
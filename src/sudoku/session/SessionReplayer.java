@@ -0,0 +1,273 @@
+package sudoku.session;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.util.Duration;
+import sudoku.core.ModelController;
+import sudoku.metrics.StateTransitionMetrics;
+import sudoku.model.SudokuPuzzleFile;
+
+/**
+ * This class runs the transitions of a recorded session (see SessionRecorder)
+ * through the ModelController again, either as fast as possible or with the
+ * recorded timing. Each transition is run as a separate event on the JavaFX
+ * thread, so pulses still happen in between, as they would for a user.
+ *
+ * The state transition metrics are reset when the replay starts, and logged
+ * when it ends, so the replay doubles as a benchmark of a real session.
+ */
+public class SessionReplayer {
+
+	private static final Logger LOG = LogManager.getLogger(SessionReplayer.class);
+
+	private static final String COMMENT_PREFIX = "#";
+
+	private static final long NANOS_PER_MILLI = 1_000_000L;
+
+	private final List<SessionEvent> sessionEvents;
+
+	private int nextEventIndex;
+
+	private boolean isRealTime;
+
+	private long startNanos;
+
+	public SessionReplayer(final List<SessionEvent> sessionEvents) {
+		this.sessionEvents = sessionEvents;
+		this.nextEventIndex = 0;
+		this.isRealTime = false;
+		this.startNanos = 0;
+	}
+
+	/**
+	 * Reads a session file. Throws an IllegalArgumentException if a line of the
+	 * file is not valid.
+	 */
+	public static SessionReplayer load(final Path sessionPath) throws IOException {
+		final List<SessionEvent> sessionEvents = Files.readAllLines(sessionPath, StandardCharsets.UTF_8).stream()
+				.filter(line -> !line.isEmpty() && !line.startsWith(COMMENT_PREFIX)).map(SessionEvent::fromLine)
+				.collect(Collectors.toList());
+		return new SessionReplayer(sessionEvents);
+	}
+
+	/**
+	 * Starts replaying the session. If isRealTime is true, each transition waits
+	 * until the time it was recorded at (relative to the start).
+	 */
+	public void replay(final boolean isRealTime) {
+		LOG.info("Replaying {} transitions{}.", this.sessionEvents.size(), isRealTime ? " in real time" : "");
+		this.isRealTime = isRealTime;
+		this.nextEventIndex = 0;
+		StateTransitionMetrics.getInstance().reset();
+		this.startNanos = System.nanoTime();
+		this.scheduleNextEvent();
+	}
+
+	/**
+	 * Replays every transition right away, on the calling thread, without
+	 * measuring anything (e.g. to recover the autosave).
+	 */
+	public void replayAll() {
+		this.replayAll(() -> {
+		});
+	}
+
+	/**
+	 * Same as {@link #replayAll()}, but runs the given task after each transition
+	 * (e.g. to run the tasks a headless view port has queued, as a pulse would).
+	 */
+	public void replayAll(final Runnable afterEachTransition) {
+		for (final SessionEvent sessionEvent : this.sessionEvents) {
+			this.replayEventSafely(sessionEvent);
+			afterEachTransition.run();
+		}
+	}
+
+	public int getNumTransitions() {
+		return this.sessionEvents.size();
+	}
+
+	private void scheduleNextEvent() {
+		if (this.nextEventIndex >= this.sessionEvents.size()) {
+			this.onFinished();
+		} else if (this.isRealTime) {
+			final long elapsedMillis = (System.nanoTime() - this.startNanos) / NANOS_PER_MILLI;
+			final long delayMillis = this.sessionEvents.get(this.nextEventIndex).getElapsedMillis() - elapsedMillis;
+			final PauseTransition pauseTransition = new PauseTransition(Duration.millis(Math.max(0, delayMillis)));
+			pauseTransition.setOnFinished(event -> this.replayNextEvent());
+			pauseTransition.play();
+		} else {
+			Platform.runLater(this::replayNextEvent);
+		}
+	}
+
+	private void replayNextEvent() {
+		final SessionEvent sessionEvent = this.sessionEvents.get(this.nextEventIndex);
+		this.nextEventIndex++;
+		this.replayEventSafely(sessionEvent);
+		this.scheduleNextEvent();
+	}
+
+	private void replayEventSafely(final SessionEvent sessionEvent) {
+		try {
+			this.replayEvent(sessionEvent);
+		} catch (final IOException | RuntimeException e) {
+			LOG.error("Could not replay {}: {}", sessionEvent.toLine(), e);
+		}
+	}
+
+	private void onFinished() {
+		LOG.info("Replayed {} transitions in {} ms.", this.sessionEvents.size(),
+				(System.nanoTime() - this.startNanos) / NANOS_PER_MILLI);
+		StateTransitionMetrics.getInstance().logSummaries();
+	}
+
+	private void replayEvent(final SessionEvent sessionEvent) throws IOException {
+		final ModelController modelController = ModelController.getInstance();
+		switch (sessionEvent.getTransition()) {
+		case APPLY_FILTER:
+			modelController.transitionToApplyFilterState(sessionEvent.getArgument(0));
+			break;
+		case CYCLE_ACTIVE_FILTER:
+			modelController.transitionToCycleActiveFilterState(sessionEvent.getArgument(0));
+			break;
+		case CLICKED_CELL:
+			modelController.transitionToClickedCellState(Integer.parseInt(sessionEvent.getArgument(0)),
+					Integer.parseInt(sessionEvent.getArgument(1)), this.createMouseEvent(sessionEvent));
+			break;
+		case ARROW_KEYBOARD_INPUT:
+			modelController.transitionToArrowKeyboardInputState(this.getKeyCodes(sessionEvent));
+			break;
+		case SET_DIGIT:
+			modelController.transitionToSetDigitState(KeyCode.valueOf(sessionEvent.getArgument(0)));
+			break;
+		case REMOVE_DIGIT:
+			modelController.transitionToRemoveDigitState(KeyCode.valueOf(sessionEvent.getArgument(0)));
+			break;
+		case TOGGLE_CANDIDATE_VISIBLE:
+			modelController.transitionToToggleCandidateVisibleState(KeyCode.valueOf(sessionEvent.getArgument(0)));
+			break;
+		case TOGGLE_CELL_COLOR:
+			modelController.transitionToToggleCellColorState(KeyCode.valueOf(sessionEvent.getArgument(0)),
+					Boolean.parseBoolean(sessionEvent.getArgument(1)));
+			break;
+		case TOGGLE_CANDIDATE_COLOR:
+			modelController.transitionToToggleCandidateColorState(KeyCode.valueOf(sessionEvent.getArgument(0)),
+					Boolean.parseBoolean(sessionEvent.getArgument(1)));
+			break;
+		case ACTIVE_CANDIDATE_CHANGED:
+			modelController.transitionToActiveCandidateChangedState(this.getKeyCodes(sessionEvent));
+			break;
+		case RESET_ALL_COLORS:
+			modelController.transitionToResetAllColorsState();
+			break;
+		case UNDO_ACTION:
+			modelController.transitionToUndoActionState();
+			break;
+		case REDO_ACTION:
+			modelController.transitionToRedoActionState();
+			break;
+		case MOUSE_MODE_CHANGED:
+			modelController.transitionToMouseModeChangedState(sessionEvent.getArgument(0));
+			break;
+		case ACTIVE_COLOR_CHANGED:
+			modelController.transitionToActiveColorChangedState(Integer.parseInt(sessionEvent.getArgument(0)));
+			break;
+		case NEW_RANDOM_PUZZLE:
+			modelController.transitionToNewRandomPuzzleState(sessionEvent.getArgument(0));
+			break;
+		case NEW_EMPTY_PUZZLE:
+			modelController.transitionToNewEmptyPuzzleState();
+			break;
+		case OPENED_FILE:
+			this.replayOpenedFile(sessionEvent.getArgument(0));
+			break;
+		case RESTART_PUZZLE:
+			modelController.transitionToRestartPuzzleState();
+			break;
+		case SHOW_VAGUE_HINT:
+			modelController.transitionToShowVagueHintState();
+			break;
+		case SHOW_PARTIAL_HINT:
+			modelController.transitionToShowPartialHintState();
+			break;
+		case SHOW_SPECIFIC_HINT:
+			modelController.transitionToShowSpecificHintState();
+			break;
+		case FILL_IN_SINGLES:
+			modelController.transitionToFillInSinglesPuzzleState();
+			break;
+		case SET_GIVEN_CELLS:
+			modelController.transitionToSetGivenCellsState();
+			break;
+		case APPLY_HINT:
+			modelController.transitionToApplyHintState();
+			break;
+		case HIDE_HINT:
+			modelController.transitionToHideHintState();
+			break;
+		case PASTE_PUZZLE:
+			modelController.transitionToPastePuzzleState(sessionEvent.getArgument(0));
+			break;
+		case UNLOCK_GIVEN_CELLS:
+			modelController.transitionToUnlockGivenCellsState();
+			break;
+		default:
+			LOG.warn("Unknown transition {}", sessionEvent.getTransition());
+		}
+	}
+
+	/** Opens the recorded contents of a file. */
+	private void replayOpenedFile(final String fileContents) throws IOException {
+		ModelController.getInstance()
+				.transitionToOpenedFileState(SudokuPuzzleFile.fromBytes(this.decodeFileContents(fileContents)));
+	}
+
+	/**
+	 * Opened files are recorded as Base64. Sessions recorded before puzzle files
+	 * were binary have the text of the file instead.
+	 */
+	private byte[] decodeFileContents(final String fileContents) {
+		try {
+			return Base64.getDecoder().decode(fileContents);
+		} catch (final IllegalArgumentException e) {
+			return fileContents.getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
+	/** Returns the keys of a transition which may have coalesced several keys. */
+	private List<KeyCode> getKeyCodes(final SessionEvent sessionEvent) {
+		final List<KeyCode> keyCodes = new ArrayList<>(sessionEvent.getNumArguments());
+		for (int index = 0; index < sessionEvent.getNumArguments(); index++) {
+			keyCodes.add(KeyCode.valueOf(sessionEvent.getArgument(index)));
+		}
+		return keyCodes;
+	}
+
+	/**
+	 * Creates a click at the recorded position. The position is relative to the
+	 * scene, so the window should have the same size as when it was recorded.
+	 */
+	private MouseEvent createMouseEvent(final SessionEvent sessionEvent) {
+		final double sceneX = Double.parseDouble(sessionEvent.getArgument(2));
+		final double sceneY = Double.parseDouble(sessionEvent.getArgument(3));
+		final boolean isShiftDown = Boolean.parseBoolean(sessionEvent.getArgument(4));
+		return new MouseEvent(MouseEvent.MOUSE_CLICKED, sceneX, sceneY, sceneX, sceneY, MouseButton.PRIMARY, 1,
+				isShiftDown, false, false, false, false, false, false, true, false, true, null);
+	}
+}
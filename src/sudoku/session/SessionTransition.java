@@ -0,0 +1,69 @@
+package sudoku.session;
+
+/**
+ * This enum contains the model state transitions which are recorded in a
+ * session file (see SessionRecorder). These are the transitions caused directly
+ * by user input. Transitions which are a side effect (e.g. the solution of a
+ * new puzzle being computed), only affect the settings, or have an effect
+ * outside of the application (saving files, copying to the clipboard, menus)
+ * are not recorded.
+ */
+public enum SessionTransition {
+
+	APPLY_FILTER,
+
+	CYCLE_ACTIVE_FILTER,
+
+	CLICKED_CELL,
+
+	ARROW_KEYBOARD_INPUT,
+
+	SET_DIGIT,
+
+	REMOVE_DIGIT,
+
+	TOGGLE_CANDIDATE_VISIBLE,
+
+	TOGGLE_CELL_COLOR,
+
+	TOGGLE_CANDIDATE_COLOR,
+
+	ACTIVE_CANDIDATE_CHANGED,
+
+	RESET_ALL_COLORS,
+
+	UNDO_ACTION,
+
+	REDO_ACTION,
+
+	MOUSE_MODE_CHANGED,
+
+	ACTIVE_COLOR_CHANGED,
+
+	NEW_RANDOM_PUZZLE,
+
+	NEW_EMPTY_PUZZLE,
+
+	OPENED_FILE,
+
+	RESTART_PUZZLE,
+
+	SHOW_VAGUE_HINT,
+
+	SHOW_PARTIAL_HINT,
+
+	SHOW_SPECIFIC_HINT,
+
+	FILL_IN_SINGLES,
+
+	SET_GIVEN_CELLS,
+
+	APPLY_HINT,
+
+	HIDE_HINT,
+
+	PASTE_PUZZLE,
+
+	UNLOCK_GIVEN_CELLS;
+
+}
@@ -1,59 +1,58 @@
 package sudoku.state.model;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.function.BiConsumer;
 
 import org.apache.logging.log4j.util.Strings;
 
-import javafx.collections.ObservableList;
-import javafx.scene.control.Button;
-import javafx.scene.control.Label;
-import javafx.scene.control.TextField;
+import javafx.css.PseudoClass;
 import javafx.scene.input.KeyCode;
 import sudoku.SolutionStep;
 import sudoku.core.HodokuFacade;
-import sudoku.core.ViewController;
+import sudoku.core.ModelController;
+import sudoku.core.SolverTaskExecutor;
 import sudoku.factories.ModelFactory;
 import sudoku.model.ApplicationSettings;
 import sudoku.model.ApplicationStateHistory;
+import sudoku.model.CellFilterQuery;
+import sudoku.model.ColorState;
+import sudoku.model.PuzzleRating;
+import sudoku.model.SudokuPeers;
+import sudoku.model.SudokuPuzzleSolution;
 import sudoku.model.SudokuPuzzleStyle;
 import sudoku.model.SudokuPuzzleValues;
-import sudoku.view.puzzle.SudokuPuzzleCell;
-import sudoku.view.puzzle.SudokuPuzzleCellUtils;
-import sudoku.view.sidebar.FilterButtonPane;
+import sudoku.view.port.PuzzleCellPort;
+import sudoku.view.port.PuzzleViewPort;
 import sudoku.view.util.ColorUtils;
-import sudoku.view.util.ColorUtils.ColorState;
 import sudoku.view.util.Difficulty;
 import sudoku.view.util.LabelConstants;
 import sudoku.view.util.MouseMode;
 
 /**
  * This class is a representation of the current state of the application model,
- * with methods to invoke when a state change occurs.
+ * with methods to invoke when a state change occurs. The view is only changed
+ * through this.viewPort (see PuzzleViewPort).
  *
  */
 public class ApplicationModelState {
 
-	protected static final String SELECTED_COLOR_BUTTON_CSS_CLASS = "sudoku-color-button-selected";
+	protected static final PseudoClass ACTIVE_FILTER_CELL_PSEUDO_CLASS = PseudoClass.getPseudoClass("active-filter");
 
-	protected static final String SUDOKU_COMBO_BUTTON_SELECTED_CSS_CLASS = "sudoku-combo-button-selected";
+	protected static final PseudoClass UNFIXED_CELL_PSEUDO_CLASS = PseudoClass.getPseudoClass("unfixed");
 
-	protected static final String SUDOKU_COMBO_BUTTON_UNSELECTED_CSS_CLASS = "sudoku-combo-button-unselected";
+	protected static final PseudoClass FIXED_CELL_PSEUDO_CLASS = PseudoClass.getPseudoClass("fixed");
 
-	protected static final String ACTIVE_FILTER_CELL_CSS_CLASS = "sudoku-active-filter-cell";
+	protected static final PseudoClass GIVEN_CELL_PSEUDO_CLASS = PseudoClass.getPseudoClass("given");
 
-	protected static final String UNFIXED_CELL_CSS_CLASS = "sudoku-unfixed-cell";
+	/** Used for both mistaken cells and mistaken candidates. */
+	protected static final PseudoClass MISTAKE_PSEUDO_CLASS = PseudoClass.getPseudoClass("mistake");
 
-	protected static final String FIXED_CELL_CSS_CLASS = "sudoku-fixed-cell";
-
-	protected static final String GIVEN_CELL_CSS_CLASS = "sudoku-given-cell";
-
-	private static final List<String> FIXED_CELL_TYPE_CSS_CLASSES = Arrays.asList(UNFIXED_CELL_CSS_CLASS,
-			FIXED_CELL_CSS_CLASS, GIVEN_CELL_CSS_CLASS);
+	private static final List<PseudoClass> FIXED_CELL_TYPE_PSEUDO_CLASSES = Arrays.asList(UNFIXED_CELL_PSEUDO_CLASS,
+			FIXED_CELL_PSEUDO_CLASS, GIVEN_CELL_PSEUDO_CLASS);
 
 	protected SudokuPuzzleValues sudokuPuzzleValues;
 
@@ -67,8 +66,11 @@ public class ApplicationModelState {
 
 	protected ApplicationStateHistory applicationStateHistory;
 
+	protected final PuzzleViewPort viewPort;
+
 	/** Constructor for the initialization of the application. */
-	protected ApplicationModelState() {
+	protected ApplicationModelState(final PuzzleViewPort viewPort) {
+		this.viewPort = viewPort;
 		this.sudokuPuzzleValues = ModelFactory.getInstance().createSudokuPuzzleValues();
 		this.sudokuPuzzleStyle = ModelFactory.getInstance().createSudokuPuzzleStyle();
 		this.lastKeyCode = null;
@@ -77,7 +79,7 @@ public class ApplicationModelState {
 		this.mouseMode = MouseMode.SELECT_CELLS;
 		this.resetColoringColorStates();
 		this.updateUndoRedoButtons();
-		ViewController.getInstance().getSudokuPuzzleView().requestFocus();
+		this.viewPort.requestFocus();
 	}
 
 	/**
@@ -91,42 +93,73 @@ public class ApplicationModelState {
 		this.displayedHint = lastState.displayedHint;
 		this.mouseMode = lastState.mouseMode;
 		this.applicationStateHistory = lastState.applicationStateHistory;
+		this.viewPort = lastState.viewPort;
 		if (addToHistory) {
 			this.addPuzzleStateToUndoStack();
 		}
 		// Some states are invoked by clicks. So, refocus grid is called to make
 		// keyboard actions always work (see SudokuPuzzleView for more notes on why
 		// this is done).
-		ViewController.getInstance().getSudokuPuzzleView().requestFocus();
+		this.viewPort.requestFocus();
 	}
 
 	public void onEnter() {
 		// Nothing to do.
 	}
 
+	public SudokuPuzzleValues getSudokuPuzzleValues() {
+		return this.sudokuPuzzleValues;
+	}
+
+	public SudokuPuzzleStyle getSudokuPuzzleStyle() {
+		return this.sudokuPuzzleStyle;
+	}
+
+	public MouseMode getMouseMode() {
+		return this.mouseMode;
+	}
+
+	/**
+	 * Redraws the puzzle canvas from this state's model, if the canvas renderer is
+	 * used. This is called after each state is entered.
+	 */
+	public void updatePuzzleCanvas() {
+		this.viewPort.updatePuzzleCanvas(this.sudokuPuzzleValues, this.sudokuPuzzleStyle);
+	}
+
 	// Methods concerning the cells of the puzzle.
 
-	protected SudokuPuzzleCell getSelectedCell() {
-		return ViewController.getInstance().getSudokuPuzzleCell(this.sudokuPuzzleStyle.getSelectedCellRow(),
+	protected PuzzleCellPort getSelectedCell() {
+		return this.viewPort.getCell(this.sudokuPuzzleStyle.getSelectedCellRow(),
 				this.sudokuPuzzleStyle.getSelectedCellCol());
 	}
 
+	/** Returns the cells seen from the given row and column. */
+	protected List<PuzzleCellPort> getCellsSeenFrom(final int row, final int col) {
+		final int[] peers = SudokuPeers.getPeers(SudokuPeers.getCellIndex(row, col));
+		final List<PuzzleCellPort> cells = new ArrayList<>(peers.length);
+		for (final int cellIndex : peers) {
+			cells.add(this.viewPort.getCell(SudokuPeers.getRow(cellIndex), SudokuPeers.getCol(cellIndex)));
+		}
+		return cells;
+	}
+
 	// Methods that update the candidate labels / view components.
 
 	/**
 	 * Toggles the visibility of the given candidate active for the given cell.
 	 */
-	protected void toggleCandidateActiveForCell(final int pressedDigit, final SudokuPuzzleCell cell) {
+	protected void toggleCandidateActiveForCell(final int pressedDigit, final PuzzleCellPort cell) {
 		if (this.sudokuPuzzleValues.getFixedCellDigit(cell.getRow(), cell.getCol()) == 0) {
-			final Set<Integer> candidatesForCell = this.sudokuPuzzleValues.getCandidateDigitsForCell(cell.getRow(),
-					cell.getCol());
-			final boolean isCandidateVisible = candidatesForCell.contains(pressedDigit);
+			final boolean isCandidateVisible = this.sudokuPuzzleValues
+					.getCandidateDigitsForCell(cell.getRow(), cell.getCol()).contains(pressedDigit);
 			cell.setCandidateVisible(pressedDigit, !isCandidateVisible);
 			if (isCandidateVisible) {
-				candidatesForCell.remove(pressedDigit);
+				this.sudokuPuzzleValues.removeCellCandidateDigit(cell.getRow(), cell.getCol(), pressedDigit);
 			} else {
-				candidatesForCell.add(pressedDigit);
+				this.sudokuPuzzleValues.addCellCandidateDigit(cell.getRow(), cell.getCol(), pressedDigit);
 			}
+			this.updateMistakeHighlights(cell.getRow(), cell.getCol());
 		}
 		this.reapplyActiveFilter();
 	}
@@ -135,17 +168,15 @@ public class ApplicationModelState {
 	 * Determines which candidates no longer are possible because of the number set
 	 * in the given cell, and removes them from the model / view.
 	 */
-	protected void removeImpermissibleCandidates(final SudokuPuzzleCell cell) {
+	protected void removeImpermissibleCandidates(final PuzzleCellPort cell) {
 		for (int candidate = 1; candidate <= SudokuPuzzleValues.CELLS_PER_HOUSE; candidate++) {
 			cell.setCandidateVisible(candidate, false);
 		}
 		final int fixedDigit = cell.getFixedDigit();
-		final List<SudokuPuzzleCell> visibleCells = SudokuPuzzleCellUtils.getCellsSeenFrom(cell.getRow(), cell.getCol());
+		final List<PuzzleCellPort> visibleCells = this.getCellsSeenFrom(cell.getRow(), cell.getCol());
 		visibleCells.forEach(otherCell -> {
 			otherCell.setCandidateVisible(fixedDigit, false);
-			// Cast to object forces the list to remove by object reference instead
-			// of index.
-			this.sudokuPuzzleValues.getCandidateDigitsForCell(otherCell.getRow(), otherCell.getCol()).remove(fixedDigit);
+			this.sudokuPuzzleValues.removeCellCandidateDigit(otherCell.getRow(), otherCell.getCol(), fixedDigit);
 		});
 	}
 
@@ -154,12 +185,12 @@ public class ApplicationModelState {
 	 * fixed instances of that digit see the cell.
 	 */
 	protected void addDigitAsCandidateToSeenCells(final int fixedDigit) {
-		final List<SudokuPuzzleCell> visibleCells = SudokuPuzzleCellUtils
-				.getCellsSeenFrom(this.sudokuPuzzleStyle.getSelectedCellRow(), this.sudokuPuzzleStyle.getSelectedCellCol());
+		final List<PuzzleCellPort> visibleCells = this.getCellsSeenFrom(this.sudokuPuzzleStyle.getSelectedCellRow(),
+				this.sudokuPuzzleStyle.getSelectedCellCol());
 		visibleCells.forEach(cell -> {
-			if (!SudokuPuzzleCellUtils.doesCellSeeFixedDigit(cell.getRow(), cell.getCol(), fixedDigit)) {
+			if (!this.sudokuPuzzleValues.doesCellSeeFixedDigit(cell.getRow(), cell.getCol(), fixedDigit)) {
 				cell.setCandidateVisible(fixedDigit, true);
-				this.sudokuPuzzleValues.getCandidateDigitsForCell(cell.getRow(), cell.getCol()).add(fixedDigit);
+				this.sudokuPuzzleValues.addCellCandidateDigit(cell.getRow(), cell.getCol(), fixedDigit);
 			}
 		});
 	}
@@ -168,35 +199,62 @@ public class ApplicationModelState {
 	 * Updates the candidates pane in the view to match the model. This should
 	 * pretty much always be called after updateCells(). The main exception would be
 	 * if you don't want all possible candidates to be shown (i.e. loading a saved
-	 * file). In this case, you should overwrite this::setCandidateVisibility.
+	 * file). In this case, you should overwrite this::setCandidateVisibility. This
+	 * only updates the view, so any model changes must be made before.
 	 *
 	 */
 	protected void updateCandidates() {
-		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
-			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
-				final SudokuPuzzleCell sudokuPuzzleCell = ViewController.getInstance().getSudokuPuzzleCell(row, col);
-				final int givenCellDigit = this.sudokuPuzzleValues.getGivenCellDigit(row, col);
-				final boolean isCellGiven = givenCellDigit != 0;
-				this.setCandidateVisibility(row, col, sudokuPuzzleCell, isCellGiven);
+		final BitSet allCells = new BitSet(SudokuPeers.NUM_CELLS);
+		allCells.set(0, SudokuPeers.NUM_CELLS);
+		this.updateCandidates(allCells);
+	}
+
+	/**
+	 * Same as updateCandidates(), but only for the cells with the given linear
+	 * indices.
+	 */
+	protected void updateCandidates(final BitSet cellIndices) {
+		cellIndices.stream().forEach(cellIndex -> {
+			final int row = SudokuPeers.getRow(cellIndex);
+			final int col = SudokuPeers.getCol(cellIndex);
+			final PuzzleCellPort sudokuPuzzleCell = this.viewPort.getCell(row, col);
+			final int givenCellDigit = this.sudokuPuzzleValues.getGivenCellDigit(row, col);
+			final boolean isCellGiven = givenCellDigit != 0;
+			this.setCandidateVisibility(row, col, sudokuPuzzleCell, isCellGiven);
+		});
+	}
+
+	/**
+	 * Removes the candidates which see a fixed digit from the model, for the
+	 * non-given cells with the given linear indices. Call this before
+	 * updateCandidates(), which only reads the model.
+	 */
+	protected void removeCandidatesSeeingFixedDigits(final BitSet cellIndices) {
+		cellIndices.stream().forEach(cellIndex -> {
+			final int row = SudokuPeers.getRow(cellIndex);
+			final int col = SudokuPeers.getCol(cellIndex);
+			if (this.sudokuPuzzleValues.getGivenCellDigit(row, col) == 0) {
+				for (int candidate = 1; candidate <= SudokuPuzzleValues.CELLS_PER_HOUSE; candidate++) {
+					if (this.sudokuPuzzleValues.doesCellSeeFixedDigit(row, col, candidate)) {
+						this.sudokuPuzzleValues.removeCellCandidateDigit(row, col, candidate);
+					}
+				}
 			}
-		}
+		});
 	}
 
 	/**
 	 * Sets the visibility for the given cell at the row / position based on the
-	 * currently fixed cell values. Note that you should not call this in the same
-	 * loops as updateCells(), since the values will be changing mid-iteration.
+	 * candidates in the model. This does not change the model. Note that you
+	 * should not call this in the same loops as updateCells(), since the values
+	 * will be changing mid-iteration.
 	 */
-	protected void setCandidateVisibility(final int row, final int col, final SudokuPuzzleCell sudokuPuzzleCell,
+	protected void setCandidateVisibility(final int row, final int col, final PuzzleCellPort sudokuPuzzleCell,
 			final boolean isCellGiven) {
 		if (!isCellGiven) {
 			final Set<Integer> candidateDigitsForCell = this.sudokuPuzzleValues.getCandidateDigitsForCell(row, col);
 			for (int candidate = 1; candidate <= SudokuPuzzleValues.CELLS_PER_HOUSE; candidate++) {
-				final boolean seesFixedDigit = SudokuPuzzleCellUtils.doesCellSeeFixedDigit(row, col, candidate);
-				if (seesFixedDigit) {
-					candidateDigitsForCell.remove(candidate);
-				}
-				sudokuPuzzleCell.setCandidateVisible(candidate, candidateDigitsForCell.contains(candidate) && !seesFixedDigit
+				sudokuPuzzleCell.setCandidateVisible(candidate, candidateDigitsForCell.contains(candidate)
 						&& ApplicationSettings.getInstance().isAutoManageCandidates());
 			}
 		}
@@ -211,82 +269,155 @@ public class ApplicationModelState {
 	protected void updateAllPuzzleStatsForNewPuzzle() {
 		final Difficulty difficultyForPuzzle = HodokuFacade.getInstance().getDifficultyForPuzzle(this.sudokuPuzzleValues,
 				false);
-		ViewController.getInstance().getPuzzleStatsPane().getDifficultyTextField().setText(difficultyForPuzzle.getLabel());
+		this.viewPort.setDifficultyText(difficultyForPuzzle.getLabel());
 
 		final boolean isPuzzleValid = HodokuFacade.getInstance().isPuzzleValid(this.sudokuPuzzleValues);
-		final TextField ratingTextField = ViewController.getInstance().getPuzzleStatsPane().getRatingTextField();
 		if (!isPuzzleValid) {
-			ratingTextField.setText(LabelConstants.INVALID_PUZZLE);
+			this.viewPort.setRatingText(LabelConstants.INVALID_PUZZLE);
 		} else {
 			final int scoreForPuzzle = HodokuFacade.getInstance().getScoreForPuzzle(this.sudokuPuzzleValues, true);
-			ratingTextField.setText(String.valueOf(scoreForPuzzle));
+			this.sudokuPuzzleValues.setDifficultyScore(scoreForPuzzle);
+			this.viewPort.setRatingText(String.valueOf(scoreForPuzzle));
 		}
 		this.updateRemainingScoreForPuzzle();
 	}
 
+	/**
+	 * Updates the stats for the puzzle from a rating computed elsewhere (see
+	 * PuzzleCollection), instead of running the solver. If no cells were set since
+	 * the puzzle was rated, the remaining rating is the same, so it can be updated
+	 * too.
+	 */
+	protected void updatePuzzleStatsFromRating(final PuzzleRating rating, final boolean updateRemainingRating) {
+		this.viewPort.setDifficultyText(rating.getDifficulty().getLabel());
+		final String ratingText = rating.isValid() ? String.valueOf(rating.getScore()) : LabelConstants.INVALID_PUZZLE;
+		this.sudokuPuzzleValues.setDifficultyScore(rating.getScore());
+		this.viewPort.setRatingText(ratingText);
+		if (updateRemainingRating) {
+			this.viewPort.setRemainingRatingText(
+					ApplicationSettings.getInstance().isShowPuzzleProgress() ? ratingText : Strings.EMPTY);
+		}
+	}
+
 	/** Updates only the remaining score for the puzzle in the view. */
 	protected void updateRemainingScoreForPuzzle() {
 		// If the puzzle has no givens, skip this step for performance reasons for now.
 		// the puzzle is trying to use brute force after each change, which makes things
 		// quite slow.
 		if (this.sudokuPuzzleValues.hasGivens()) {
-			final TextField remainingRatingTextField = ViewController.getInstance().getPuzzleStatsPane()
-					.getRemainingRatingTextField();
 			if (ApplicationSettings.getInstance().isShowPuzzleProgress()) {
-				final boolean isPuzzleValid = HodokuFacade.getInstance().isPuzzleValid(this.sudokuPuzzleValues);
+				final boolean isPuzzleValid = this.isPuzzleValid();
 				if (!isPuzzleValid || this.sudokuPuzzleValues.containsContradictingCells()) {
-					remainingRatingTextField.setText(LabelConstants.INVALID_PUZZLE);
+					this.viewPort.setRemainingRatingText(LabelConstants.INVALID_PUZZLE);
 				} else {
 					final int remainingScoreForPuzzle = HodokuFacade.getInstance().getScoreForPuzzle(this.sudokuPuzzleValues,
 							false);
-					remainingRatingTextField.setText(String.valueOf(remainingScoreForPuzzle));
+					this.viewPort.setRemainingRatingText(String.valueOf(remainingScoreForPuzzle));
 				}
 			} else {
-				remainingRatingTextField.setText(Strings.EMPTY);
+				this.viewPort.setRemainingRatingText(Strings.EMPTY);
 			}
 		}
 	}
 
 	/**
-	 * Clears the cell of CSS classes regarding the cell's fixed / unfixed / given
-	 * state, then adds the given CSS class.
+	 * Computes the solution for the current puzzle in the background (see
+	 * SolverTaskExecutor), so mistakes can be found by comparing against it instead
+	 * of running the solver. Once it is known, the mistake highlights and the
+	 * remaining rating are refreshed.
 	 */
-	protected void updateFixedCellTypeCssClass(final SudokuPuzzleCell cell, final String newFixedCellTypeCssClass) {
-		final ObservableList<String> styleClass = cell.getStyleClass();
-		FIXED_CELL_TYPE_CSS_CLASSES.forEach(styleClass::remove);
-		styleClass.add(newFixedCellTypeCssClass);
+	protected void computeSolutionForPuzzle() {
+		final SudokuPuzzleSolution solution = ModelFactory.getInstance().createSudokuPuzzleSolution();
+		this.sudokuPuzzleValues.setSolution(solution);
+		if (this.sudokuPuzzleValues.hasGivens()) {
+			final String givens = this.sudokuPuzzleValues.toString(true);
+			SolverTaskExecutor.getInstance().submit(() -> {
+				solution.setSolutionDigits(HodokuFacade.getInstance().getSolutionDigits(givens));
+				this.viewPort.runLater(() -> ModelController.getInstance().transitionToSolutionComputedState(solution));
+			});
+		}
 	}
 
-	// Filter state based methods.
+	// Mistake highlighting methods.
 
-	/** Clears the filter from every cell, if any. */
-	protected void resetAllFilters() {
+	/** Updates the mistake highlights of every cell to match the model. */
+	protected void updateAllMistakeHighlights() {
 		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
 			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
-				final SudokuPuzzleCell sudokuPuzzleCell = ViewController.getInstance().getSudokuPuzzleCell(row, col);
-				sudokuPuzzleCell.getStyleClass().remove(ACTIVE_FILTER_CELL_CSS_CLASS);
+				this.updateMistakeHighlights(row, col);
+			}
+		}
+	}
+
+	/**
+	 * Updates the mistake highlights of the given cell and each cell it sees. This
+	 * covers every cell which can change when a digit is set or removed.
+	 */
+	protected void updateMistakeHighlightsForSeenCells(final int row, final int col) {
+		this.updateMistakeHighlights(row, col);
+		this.getCellsSeenFrom(row, col).forEach(cell -> this.updateMistakeHighlights(cell.getRow(), cell.getCol()));
+	}
+
+	/**
+	 * Marks the fixed digit of the given cell if it does not match the solution,
+	 * and shows + marks the solution candidate if it was eliminated. Candidates are
+	 * only checked if they are auto managed, since otherwise the user may not have
+	 * entered them yet.
+	 */
+	protected void updateMistakeHighlights(final int row, final int col) {
+		final PuzzleCellPort sudokuPuzzleCell = this.viewPort.getCell(row, col);
+		final boolean isHighlightMistakes = ApplicationSettings.getInstance().isHighlightMistakes();
+		sudokuPuzzleCell.setCellPseudoClassState(MISTAKE_PSEUDO_CLASS,
+				isHighlightMistakes && this.sudokuPuzzleValues.isFixedDigitMistake(row, col));
+		final boolean checkCandidates = isHighlightMistakes && ApplicationSettings.getInstance().isAutoManageCandidates();
+		for (int candidate = 1; candidate <= SudokuPuzzleValues.CELLS_PER_HOUSE; candidate++) {
+			final boolean wasMistake = sudokuPuzzleCell.isCandidatePseudoClassActive(candidate, MISTAKE_PSEUDO_CLASS);
+			final boolean isMistake = checkCandidates
+					&& this.sudokuPuzzleValues.isCandidateMistake(row, col, candidate);
+			sudokuPuzzleCell.setCandidatePseudoClassState(candidate, MISTAKE_PSEUDO_CLASS, isMistake);
+			if (isMistake) {
+				// The eliminated candidate would be hidden otherwise.
+				sudokuPuzzleCell.setCandidateVisible(candidate, true);
+			} else if (wasMistake) {
+				sudokuPuzzleCell.setCandidateVisible(candidate,
+						this.sudokuPuzzleValues.getCandidateDigitsForCell(row, col).contains(candidate));
 			}
 		}
 	}
 
+	/**
+	 * Sets the given pseudo class on the cell, and clears the other pseudo classes
+	 * regarding the cell's fixed / unfixed / given state.
+	 */
+	protected void updateFixedCellTypePseudoClass(final PuzzleCellPort cell,
+			final PseudoClass newFixedCellTypePseudoClass) {
+		FIXED_CELL_TYPE_PSEUDO_CLASSES.forEach(
+				pseudoClass -> cell.setCellPseudoClassState(pseudoClass, pseudoClass == newFixedCellTypePseudoClass));
+	}
+
+	// Filter state based methods.
+
+	/** Clears the filter from every cell, if any. */
+	protected void resetAllFilters() {
+		this.updateFilteredCells(new BitSet(SudokuPeers.NUM_CELLS));
+	}
+
 	/**
 	 * Checks if the digit is solved (i.e. it is the 9th instance of that digit
 	 * placed), and disables the corresponding filter button if this is the case.
 	 */
 	protected void updateFilterButtonEnabled(final int digit) {
 		final int instancesOfDigitFound = this.getDigitCount(digit);
-		final List<Button> filterButtons = ViewController.getInstance().getFilterButtonPane().getFilterButtons();
-		filterButtons.get(digit - 1).setDisable(instancesOfDigitFound >= 9);
+		this.viewPort.setFilterButtonDisabled(digit - 1, instancesOfDigitFound >= 9);
 	}
 
 	/**
-	 * Refreshes the active filter by clearing it, and applying it again. This is
-	 * necessary when other model components change, which may cause the filter to
-	 * yield a different result.
+	 * Refreshes the active filter by evaluating it again. This is necessary when
+	 * other model components change, which may cause the filter to yield a
+	 * different result.
 	 */
 	protected void reapplyActiveFilter() {
 		if (!this.sudokuPuzzleStyle.getActiveCellFilter().isEmpty()) {
-			this.resetAllFilters();
 			this.applyActiveFilter();
 		}
 	}
@@ -299,36 +430,21 @@ public class ApplicationModelState {
 	 *                      button needs to be set as active.
 	 */
 	protected void updateFilterButtonStates(final String newCellFilter) {
-		final FilterButtonPane filterButtonPane = ViewController.getInstance().getFilterButtonPane();
-		final List<Button> filterButtons = filterButtonPane.getFilterButtons();
-		filterButtons.forEach(button -> this.updateFilterButton(newCellFilter, button));
+		for (int index = 0; index < this.viewPort.getNumFilterButtons(); index++) {
+			this.viewPort.setFilterButtonSelected(index,
+					this.shouldSetFilterButtonSelected(newCellFilter, this.viewPort.getFilterButtonText(index)));
+		}
 	}
 
 	/**
-	 * Adds a CSS class to every applicable cell that satisfies the
-	 * activeCellFilter. These cells get the CSS class
-	 * 'ACTIVE_FILTER_CELL_CSS_CLASS'.
+	 * Adds a pseudo class to every cell that satisfies the activeCellFilter, and
+	 * removes it from every other cell. These cells get the pseudo class
+	 * 'ACTIVE_FILTER_CELL_PSEUDO_CLASS'.
 	 */
 	protected void applyActiveFilter() {
-		// Define a predicate to use to determine if the cell should be shaded. If
-		// the activeFilter's length is 1, it is a single digit filter. Otherwise,
-		// it is a bivalue cell filter. This line initializes a function to filter
-		// the appropriate cells for either case. It is done in 1 line because it
-		// must be final to use in a lambda function below.
-		final Function<Set<Integer>, Boolean> predicate = this.sudokuPuzzleStyle.getActiveCellFilter().length() > 1
-				? candidates -> candidates.size() == 2
-				: candidates -> candidates.contains(Integer.parseInt(this.sudokuPuzzleStyle.getActiveCellFilter()));
-
-		IntStream.rangeClosed(0, SudokuPuzzleValues.CELLS_PER_HOUSE - 1)
-				.forEach(row -> IntStream.rangeClosed(0, SudokuPuzzleValues.CELLS_PER_HOUSE - 1).forEach(col -> {
-					final Set<Integer> candidates = this.sudokuPuzzleValues.getCandidateDigitsForCell(row, col);
-					final SudokuPuzzleCell sudokuPuzzleCell = ViewController.getInstance().getSudokuPuzzleCell(row, col);
-					if (this.sudokuPuzzleValues.getFixedCellDigit(row, col) == 0
-							&& this.candidatesMatchFilter(predicate, candidates)) {
-						final ObservableList<String> styleClass = sudokuPuzzleCell.getStyleClass();
-						styleClass.add(ACTIVE_FILTER_CELL_CSS_CLASS);
-					}
-				}));
+		final CellFilterQuery activeCellFilterQuery = this.sudokuPuzzleStyle.getActiveCellFilterQuery();
+		this.updateFilteredCells(activeCellFilterQuery == null ? new BitSet(SudokuPeers.NUM_CELLS)
+				: activeCellFilterQuery.evaluate(this.sudokuPuzzleValues));
 	}
 
 	// Color state based methods.
@@ -348,17 +464,15 @@ public class ApplicationModelState {
 		this.resetColorStates(true, true, ColorUtils.getColoringColorStates());
 	}
 
-	/** A more configurable way to reset states. */
+	/**
+	 * A more configurable way to reset states. Only the cells and candidates which
+	 * have one of the given states are visited.
+	 */
 	protected void resetColorStates(final boolean resetCells, final boolean resetCandidates,
 			final List<ColorState> statesToRemove) {
-		final List<String> cssClassesToRemove = statesToRemove.stream().map(ColorState::getCssClass)
-				.collect(Collectors.toList());
-		this.sudokuPuzzleStyle.resetColorStates();
-		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
-			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
-				this.resetColorStates(resetCells, resetCandidates, cssClassesToRemove, row, col);
-			}
-		}
+		statesToRemove.stream().filter(colorState -> colorState != ColorState.NONE)
+				.forEach(colorState -> this.resetColorState(resetCells, resetCandidates, colorState));
+		this.sudokuPuzzleStyle.resetColorStates(resetCells, resetCandidates, statesToRemove);
 	}
 
 	/**
@@ -368,20 +482,10 @@ public class ApplicationModelState {
 	protected void setCandidateColorForCell(final int row, final int col, final ColorState colorStateToApply,
 			final int candidate) {
 		final ColorState currentColorState = this.sudokuPuzzleStyle.getCandidateColorState(row, col, candidate);
-		final Label candidateLabelForDigit = ViewController.getInstance().getSudokuPuzzleCell(row, col)
-				.getCandidateLabelForDigit(candidate);
-
-		final ObservableList<String> styleClass = candidateLabelForDigit.getStyleClass();
-		if (colorStateToApply == currentColorState) {
-			styleClass.remove(currentColorState.getCssClass());
-			this.sudokuPuzzleStyle.setCandidateColorState(row, col, candidate, ColorState.NONE);
-		} else {
-			if (currentColorState != ColorState.NONE) {
-				styleClass.remove(currentColorState.getCssClass());
-			}
-			styleClass.add(colorStateToApply.getCssClass());
-			this.sudokuPuzzleStyle.setCandidateColorState(row, col, candidate, colorStateToApply);
-		}
+		final PuzzleCellPort sudokuPuzzleCell = this.viewPort.getCell(row, col);
+		final ColorState newColorState = this.applyColorState(currentColorState, colorStateToApply,
+				(pseudoClass, active) -> sudokuPuzzleCell.setCandidatePseudoClassState(candidate, pseudoClass, active));
+		this.sudokuPuzzleStyle.setCandidateColorState(row, col, candidate, newColorState);
 	}
 
 	/**
@@ -389,19 +493,28 @@ public class ApplicationModelState {
 	 * registered cell in the row and col.
 	 */
 	protected void setColorStateForCell(final int row, final int col, final ColorState colorStateToApply) {
-		final SudokuPuzzleCell sudokuPuzzleCell = ViewController.getInstance().getSudokuPuzzleCell(row, col);
+		final PuzzleCellPort sudokuPuzzleCell = this.viewPort.getCell(row, col);
 		final ColorState currentColorState = this.sudokuPuzzleStyle.getCellColorState(row, col);
-		final ObservableList<String> styleClass = sudokuPuzzleCell.getStyleClass();
+		final ColorState newColorState = this.applyColorState(currentColorState, colorStateToApply,
+				sudokuPuzzleCell::setCellPseudoClassState);
+		this.sudokuPuzzleStyle.setCellColorState(row, col, newColorState);
+	}
+
+	/**
+	 * Toggles the color state on a cell or candidate, through the given pseudo
+	 * class setter, and returns the resulting state. Applying the current state
+	 * again removes it.
+	 */
+	private ColorState applyColorState(final ColorState currentColorState, final ColorState colorStateToApply,
+			final BiConsumer<PseudoClass, Boolean> pseudoClassSetter) {
+		if (currentColorState != ColorState.NONE) {
+			pseudoClassSetter.accept(ColorUtils.getPseudoClass(currentColorState), false);
+		}
 		if (colorStateToApply == currentColorState) {
-			styleClass.remove(currentColorState.getCssClass());
-			this.sudokuPuzzleStyle.setCellColorState(row, col, ColorState.NONE);
-		} else {
-			if (currentColorState != ColorState.NONE) {
-				styleClass.remove(currentColorState.getCssClass());
-			}
-			styleClass.add(colorStateToApply.getCssClass());
-			this.sudokuPuzzleStyle.setCellColorState(row, col, colorStateToApply);
+			return ColorState.NONE;
 		}
+		pseudoClassSetter.accept(ColorUtils.getPseudoClass(colorStateToApply), true);
+		return colorStateToApply;
 	}
 
 	// Undo / redo based methods.
@@ -416,40 +529,56 @@ public class ApplicationModelState {
 	 * Updates the undo and redo buttons / menu items based on their current sizes.
 	 */
 	protected void updateUndoRedoButtons() {
-		final FilterButtonPane filterButtonPane = ViewController.getInstance().getFilterButtonPane();
-		filterButtonPane.getUndoButton().setDisable(this.applicationStateHistory.isUndoStackEmpty());
-		filterButtonPane.getRedoButton().setDisable(this.applicationStateHistory.isRedoStackEmpty());
-		ViewController.getInstance().getUndoMenuItem().setDisable(this.applicationStateHistory.isUndoStackEmpty());
-		ViewController.getInstance().getRedoMenuItem().setDisable(this.applicationStateHistory.isRedoStackEmpty());
+		this.viewPort.setUndoRedoDisabled(this.applicationStateHistory.isUndoStackEmpty(),
+				this.applicationStateHistory.isRedoStackEmpty());
 	}
 
 	/**
 	 * Does the real work of resetting color states (called from various methods
-	 * above).
+	 * above). This clears the state from the view of each cell / candidate which
+	 * the model says has it.
 	 */
-	private void resetColorStates(final boolean resetCells, final boolean resetCandidates,
-			final List<String> cssClassesToRemove, final int row, final int col) {
-		final SudokuPuzzleCell sudokuPuzzleCell = ViewController.getInstance().getSudokuPuzzleCell(row, col);
-		final ObservableList<String> styleClass = sudokuPuzzleCell.getStyleClass();
-		final List<String> colorCssClasses = Arrays.asList(ColorState.values()).stream().map(ColorState::getCssClass)
-				.collect(Collectors.toList());
-		// Don't remove classes not in the list of classes to remove.
-		colorCssClasses.removeIf(cssClass -> !cssClassesToRemove.contains(cssClass));
+	private void resetColorState(final boolean resetCells, final boolean resetCandidates,
+			final ColorState colorState) {
+		final PseudoClass pseudoClass = ColorUtils.getPseudoClass(colorState);
 		if (resetCells) {
-			colorCssClasses.forEach(styleClass::remove);
+			this.sudokuPuzzleStyle.getCellsWithColorState(colorState).stream()
+					.forEach(cellIndex -> this.viewPort.getCell(SudokuPeers.getRow(cellIndex), SudokuPeers.getCol(cellIndex))
+							.setCellPseudoClassState(pseudoClass, false));
 		}
 		if (resetCandidates) {
-			for (int candidate = 0; candidate < SudokuPuzzleValues.CELLS_PER_HOUSE; candidate++) {
-				final Label candidateLabelForDigit = sudokuPuzzleCell.getCandidateLabelForDigit(candidate + 1);
-				final ObservableList<String> candidateLabelStyleClass = candidateLabelForDigit.getStyleClass();
-				colorCssClasses.forEach(candidateLabelStyleClass::remove);
-			}
+			this.sudokuPuzzleStyle.getCandidatesWithColorState(colorState).stream().forEach(candidateIndex -> {
+				final int cellIndex = candidateIndex / SudokuPuzzleValues.CELLS_PER_HOUSE;
+				this.viewPort.getCell(SudokuPeers.getRow(cellIndex), SudokuPeers.getCol(cellIndex))
+						.setCandidatePseudoClassState(candidateIndex % SudokuPuzzleValues.CELLS_PER_HOUSE + 1, pseudoClass,
+								false);
+			});
+		}
+	}
+
+	/**
+	 * Returns true iff the puzzle still has exactly 1 solution. If the solution is
+	 * already known, this is just a comparison against it. Otherwise, the solver is
+	 * used.
+	 */
+	protected boolean isPuzzleValid() {
+		if (this.sudokuPuzzleValues.getSolution().isAvailable()) {
+			return !this.sudokuPuzzleValues.containsMistakes(ApplicationSettings.getInstance().isAutoManageCandidates());
 		}
+		return HodokuFacade.getInstance().isPuzzleValid(this.sudokuPuzzleValues);
 	}
 
-	private Boolean candidatesMatchFilter(final Function<Set<Integer>, Boolean> predicate,
-			final Set<Integer> candidates) {
-		return predicate.apply(candidates);
+	/**
+	 * Shades the given cells (by linear index), and no others. Only the cells whose
+	 * shading changes are visited.
+	 */
+	private void updateFilteredCells(final BitSet newFilteredCells) {
+		final BitSet changedCells = this.sudokuPuzzleStyle.getFilteredCells();
+		changedCells.xor(newFilteredCells);
+		changedCells.stream()
+				.forEach(cellIndex -> this.viewPort.getCell(SudokuPeers.getRow(cellIndex), SudokuPeers.getCol(cellIndex))
+						.setCellPseudoClassState(ACTIVE_FILTER_CELL_PSEUDO_CLASS, newFilteredCells.get(cellIndex)));
+		this.sudokuPuzzleStyle.setFilteredCells(newFilteredCells);
 	}
 
 	/** Returns the number of times the digit appears in the grid. */
@@ -465,30 +594,11 @@ public class ApplicationModelState {
 		return instancesOfDigitFound;
 	}
 
-	/**
-	 * Updates the CSS class of the given filter button based on the new active
-	 * filter.
-	 */
-	private void updateFilterButton(final String newCellFilter, final Button button) {
-		final ObservableList<String> styleClass = button.getStyleClass();
-		// Since we iterate over every button every time, the classes are fully
-		// cleared to avoid duplicate classes. This is easier than tracking when to
-		// remove each CSS class separately.
-		styleClass.remove(SUDOKU_COMBO_BUTTON_SELECTED_CSS_CLASS);
-		styleClass.remove(SUDOKU_COMBO_BUTTON_UNSELECTED_CSS_CLASS);
-		if (!this.shouldSetFilterButtonSelected(newCellFilter, button)) {
-			styleClass.add(SUDOKU_COMBO_BUTTON_UNSELECTED_CSS_CLASS);
-		} else {
-			styleClass.add(SUDOKU_COMBO_BUTTON_SELECTED_CSS_CLASS);
-		}
-	}
-
 	/**
 	 * Returns true if the new filter should result in the given button being marked
 	 * as selected.
 	 */
-	private boolean shouldSetFilterButtonSelected(final String newCellFilter, final Button button) {
-		final String buttonText = button.getText();
+	private boolean shouldSetFilterButtonSelected(final String newCellFilter, final String buttonText) {
 		return buttonText.equals(newCellFilter) && !buttonText.equals(this.sudokuPuzzleStyle.getActiveCellFilter());
 	}
 
@@ -1,5 +1,7 @@
 package sudoku.state.model;
 
+import sudoku.view.port.PuzzleViewPort;
+
 /**
  * This class updates the state of the application on startup. It is the default
  * value for the model state. Some initial values are set here that would not be
@@ -7,8 +9,8 @@ package sudoku.state.model;
  */
 public class DefaultApplicationModelState extends ApplicationModelState {
 
-	public DefaultApplicationModelState() {
-		super();
+	public DefaultApplicationModelState(final PuzzleViewPort viewPort) {
+		super(viewPort);
 		this.getSelectedCell().setIsSelected(true);
 		this.onEnter();
 	}
@@ -1,13 +1,15 @@
 package sudoku.state.model;
 
+import java.util.BitSet;
 import java.util.Set;
 import java.util.stream.IntStream;
 
 import org.apache.logging.log4j.util.Strings;
 
-import sudoku.core.ViewController;
+import sudoku.model.ApplicationSettings;
+import sudoku.model.SudokuPeers;
 import sudoku.model.SudokuPuzzleValues;
-import sudoku.view.puzzle.SudokuPuzzleCell;
+import sudoku.view.port.PuzzleCellPort;
 
 /**
  * This class contains methods to reset the application according to the current
@@ -16,61 +18,92 @@ import sudoku.view.puzzle.SudokuPuzzleCell;
  */
 public abstract class ResetFromModelState extends ApplicationModelState {
 
+	// The puzzle shown in the view when this state was entered.
+	private final SudokuPuzzleValues shownSudokuPuzzleValues;
+
 	protected ResetFromModelState(final ApplicationModelState lastState, final boolean addToHistory) {
 		super(lastState, addToHistory);
+		this.shownSudokuPuzzleValues = lastState.sudokuPuzzleValues;
 	}
 
 	/**
 	 * Uses the value of SudokuPuzzleValues in this.sudokuPuzzleValues, and resets
 	 * the rest of the model + view to match it. This is used for redo, undo and
-	 * restart.
+	 * restart. Only the cells which changed (and the cells which see them, for
+	 * candidates) are updated.
 	 */
 	protected void resetApplicationFromPuzzleState() {
-		this.updateCells();
+		final BitSet changedCells = this.getChangedCells();
+		this.updateCells(changedCells);
 		// Must do candidate updates after because the cell values need to be finished
 		// before setting candidates. Otherwise the doesCellSeeFixedDigit checks will
-		// not be correct.
-		this.updateCandidates();
+		// not be correct. A changed digit can also change the candidates of each cell
+		// which sees it.
+		final BitSet cellsToUpdateCandidates = (BitSet) changedCells.clone();
+		changedCells.stream().forEach(
+				cellIndex -> IntStream.of(SudokuPeers.getPeers(cellIndex)).forEach(cellsToUpdateCandidates::set));
+		this.removeCandidatesSeeingFixedDigits(cellsToUpdateCandidates);
+		// The cells changed above are all updated below, so they are no longer dirty.
+		this.sudokuPuzzleValues.takeDirtyCells();
+		this.updateCandidates(cellsToUpdateCandidates);
 		IntStream.range(1, SudokuPuzzleValues.CELLS_PER_HOUSE + 1).forEach(this::updateFilterButtonEnabled);
 		this.reapplyActiveFilter();
+		this.updateAllMistakeHighlights();
 		this.updateRemainingScoreForPuzzle();
 	}
 
 	/**
-	 * Updates the cells (the view) to match the model.
+	 * Returns the linear indices of the cells which may not match the view. These
+	 * are the cells changed in place since the view was last reset, plus any cells
+	 * which differ from the puzzle shown before (i.e. for undo + redo, which
+	 * replace the puzzle). Without auto managed candidates, every cell is
+	 * returned, since candidate visibility does not only depend on the model then.
 	 */
-	protected void updateCells() {
-		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
-			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
-				final int fixedCellDigit = this.sudokuPuzzleValues.getFixedCellDigit(row, col);
-				final SudokuPuzzleCell sudokuPuzzleCell = ViewController.getInstance().getSudokuPuzzleCell(row, col);
-				if (fixedCellDigit != 0) {
-					this.updateFixedCell(row, col, fixedCellDigit, sudokuPuzzleCell);
-				} else {
-					this.updateUnfixedCell(row, col, sudokuPuzzleCell);
-				}
-				final Set<Integer> candidateDigitsForCell = this.sudokuPuzzleValues.getCandidateDigitsForCell(row, col);
-				IntStream.rangeClosed(1, SudokuPuzzleValues.CELLS_PER_HOUSE).forEach(digit -> {
-					sudokuPuzzleCell.setCandidateVisible(digit, candidateDigitsForCell.contains(digit));
-				});
+	private BitSet getChangedCells() {
+		final BitSet changedCells = this.sudokuPuzzleValues.takeDirtyCells();
+		if (!ApplicationSettings.getInstance().isAutoManageCandidates()) {
+			changedCells.set(0, SudokuPeers.NUM_CELLS);
+		} else if (this.shownSudokuPuzzleValues != this.sudokuPuzzleValues) {
+			changedCells.or(this.sudokuPuzzleValues.getCellsDifferentFrom(this.shownSudokuPuzzleValues));
+		}
+		return changedCells;
+	}
 
+	/**
+	 * Updates the cells (the view) with the given linear indices to match the
+	 * model.
+	 */
+	protected void updateCells(final BitSet cellIndices) {
+		cellIndices.stream().forEach(cellIndex -> {
+			final int row = SudokuPeers.getRow(cellIndex);
+			final int col = SudokuPeers.getCol(cellIndex);
+			final int fixedCellDigit = this.sudokuPuzzleValues.getFixedCellDigit(row, col);
+			final PuzzleCellPort sudokuPuzzleCell = this.viewPort.getCell(row, col);
+			if (fixedCellDigit != 0) {
+				this.updateFixedCell(row, col, fixedCellDigit, sudokuPuzzleCell);
+			} else {
+				this.updateUnfixedCell(row, col, sudokuPuzzleCell);
 			}
-		}
+			final Set<Integer> candidateDigitsForCell = this.sudokuPuzzleValues.getCandidateDigitsForCell(row, col);
+			IntStream.rangeClosed(1, SudokuPuzzleValues.CELLS_PER_HOUSE).forEach(digit -> {
+				sudokuPuzzleCell.setCandidateVisible(digit, candidateDigitsForCell.contains(digit));
+			});
+		});
 	}
 
 	private void updateFixedCell(final int row, final int col, final int fixedCellDigit,
-			final SudokuPuzzleCell sudokuPuzzleCell) {
+			final PuzzleCellPort sudokuPuzzleCell) {
 		sudokuPuzzleCell.setCandidatesVisible(false);
 		sudokuPuzzleCell.setFixedDigit(String.valueOf(fixedCellDigit));
 		final int givenCellDigit = this.sudokuPuzzleValues.getGivenCellDigit(row, col);
-		this.updateFixedCellTypeCssClass(sudokuPuzzleCell,
-				givenCellDigit == 0 ? FIXED_CELL_CSS_CLASS : GIVEN_CELL_CSS_CLASS);
+		this.updateFixedCellTypePseudoClass(sudokuPuzzleCell,
+				givenCellDigit == 0 ? FIXED_CELL_PSEUDO_CLASS : GIVEN_CELL_PSEUDO_CLASS);
 	}
 
-	private void updateUnfixedCell(final int row, final int col, final SudokuPuzzleCell sudokuPuzzleCell) {
+	private void updateUnfixedCell(final int row, final int col, final PuzzleCellPort sudokuPuzzleCell) {
 		this.sudokuPuzzleValues.setCellFixedDigit(row, col, 0);
 		sudokuPuzzleCell.setCandidatesVisible(true);
 		sudokuPuzzleCell.setFixedDigit(Strings.EMPTY);
-		this.updateFixedCellTypeCssClass(sudokuPuzzleCell, UNFIXED_CELL_CSS_CLASS);
+		this.updateFixedCellTypePseudoClass(sudokuPuzzleCell, UNFIXED_CELL_PSEUDO_CLASS);
 	}
 }
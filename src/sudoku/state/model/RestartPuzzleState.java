@@ -2,9 +2,7 @@ package sudoku.state.model;
 
 import org.apache.logging.log4j.util.Strings;
 
-import sudoku.core.ViewController;
 import sudoku.model.SudokuPuzzleValues;
-import sudoku.view.hint.HintTextArea;
 
 /**
  * This class resets the application to the initial state for the current
@@ -18,7 +16,7 @@ public class RestartPuzzleState extends ResetFromModelState {
 
 	@Override
 	public void onEnter() {
-		ViewController.getInstance().getRootPane().removeAllAnnotations();
+		this.viewPort.removeAllHintAnnotations();
 		this.applicationStateHistory.addToUndoStack(this.sudokuPuzzleValues);
 		SudokuPuzzleValues puzzleStateForUndo = this.applicationStateHistory.getPuzzleStateForUndo();
 		while (!this.applicationStateHistory.isUndoStackEmpty()) {
@@ -32,8 +30,7 @@ public class RestartPuzzleState extends ResetFromModelState {
 		this.applicationStateHistory.clearUndoStack();
 		this.updateUndoRedoButtons();
 
-		final HintTextArea hintTextArea = ViewController.getInstance().getHintTextArea();
-		hintTextArea.getHintTextArea().setText(Strings.EMPTY);
+		this.viewPort.setHintText(Strings.EMPTY);
 	}
 
 }
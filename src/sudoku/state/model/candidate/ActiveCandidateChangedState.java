@@ -1,18 +1,18 @@
 package sudoku.state.model.candidate;
 
+import java.util.List;
+
 import org.apache.logging.log4j.util.Strings;
 
-import javafx.scene.control.Button;
 import javafx.scene.input.KeyCode;
-import sudoku.core.ViewController;
 import sudoku.model.SudokuPuzzleValues;
 import sudoku.state.model.ApplicationModelState;
-import sudoku.view.sidebar.ControlHelperPane;
 
 /**
  * This class updates the state of the application contains methods to change
  * active candidate, which is used when applying colors to candidates, or
- * toggling candidate visibility with the mouse.
+ * toggling candidate visibility with the mouse. Repeated = / - keys can be
+ * applied at once (see KeyboardInputQueue).
  */
 public class ActiveCandidateChangedState extends ApplicationModelState {
 
@@ -20,9 +20,12 @@ public class ActiveCandidateChangedState extends ApplicationModelState {
 
 	private static final String NUMPAD_REPLACE_TEXT = "NUMPAD";
 
-	public ActiveCandidateChangedState(final KeyCode keyCode, final ApplicationModelState lastState) {
+	private final List<KeyCode> keyCodes;
+
+	public ActiveCandidateChangedState(final List<KeyCode> keyCodes, final ApplicationModelState lastState) {
 		super(lastState, false);
-		this.lastKeyCode = keyCode;
+		this.keyCodes = keyCodes;
+		this.lastKeyCode = keyCodes.get(keyCodes.size() - 1);
 	}
 
 	@Override
@@ -30,31 +33,36 @@ public class ActiveCandidateChangedState extends ApplicationModelState {
 		int activeColorCandidateDigit = this.sudokuPuzzleStyle.getActiveCandidateDigit();
 
 		// Remove selected CSS class from old selection.
-		final ControlHelperPane controlHelperPane = ViewController.getInstance().getControlHelperPane();
-		final Button oldActiveDigitButton = controlHelperPane.getDigitButton(activeColorCandidateDigit - 1);
-		oldActiveDigitButton.getStyleClass().remove(SUDOKU_COMBO_BUTTON_SELECTED_CSS_CLASS);
-
-		// Update to the new digit based on various possible inputs.
-		if (KeyCode.EQUALS == this.lastKeyCode) {
-			activeColorCandidateDigit++;
-		} else if (KeyCode.MINUS == this.lastKeyCode) {
-			activeColorCandidateDigit--;
-		} else {
-			activeColorCandidateDigit = Integer.parseInt(this.lastKeyCode.getName().replace(DIGIT_REPLACE_TEXT, Strings.EMPTY)
-					.replace(NUMPAD_REPLACE_TEXT, Strings.EMPTY));
-		}
+		this.viewPort.setDigitButtonSelected(activeColorCandidateDigit, false);
 
-		if (activeColorCandidateDigit < 1) {
-			activeColorCandidateDigit = SudokuPuzzleValues.CELLS_PER_HOUSE;
-		} else if (activeColorCandidateDigit > SudokuPuzzleValues.CELLS_PER_HOUSE) {
-			activeColorCandidateDigit = 1;
+		for (final KeyCode keyCode : this.keyCodes) {
+			activeColorCandidateDigit = this.getNextDigit(activeColorCandidateDigit, keyCode);
 		}
 		this.sudokuPuzzleStyle.setActiveCandidateDigit(activeColorCandidateDigit);
 		this.updateRemainingScoreForPuzzle();
 
 		// Add selected CSS class to new selection.
-		final Button newActiveDigitButton = controlHelperPane.getDigitButton(activeColorCandidateDigit - 1);
-		newActiveDigitButton.getStyleClass().add(SUDOKU_COMBO_BUTTON_SELECTED_CSS_CLASS);
+		this.viewPort.setDigitButtonSelected(activeColorCandidateDigit, true);
+	}
+
+	/** Returns the active digit after the given key, based on the various inputs. */
+	private int getNextDigit(final int activeColorCandidateDigit, final KeyCode keyCode) {
+		int nextDigit;
+		if (KeyCode.EQUALS == keyCode) {
+			nextDigit = activeColorCandidateDigit + 1;
+		} else if (KeyCode.MINUS == keyCode) {
+			nextDigit = activeColorCandidateDigit - 1;
+		} else {
+			nextDigit = Integer.parseInt(
+					keyCode.getName().replace(DIGIT_REPLACE_TEXT, Strings.EMPTY).replace(NUMPAD_REPLACE_TEXT, Strings.EMPTY));
+		}
+
+		if (nextDigit < 1) {
+			nextDigit = SudokuPuzzleValues.CELLS_PER_HOUSE;
+		} else if (nextDigit > SudokuPuzzleValues.CELLS_PER_HOUSE) {
+			nextDigit = 1;
+		}
+		return nextDigit;
 	}
 
 }
@@ -4,7 +4,7 @@ import org.apache.logging.log4j.util.Strings;
 
 import javafx.scene.input.KeyCode;
 import sudoku.state.model.ApplicationModelState;
-import sudoku.view.puzzle.SudokuPuzzleCell;
+import sudoku.view.port.PuzzleCellPort;
 
 /**
  * This class updates the state of the application to reply to toggle a
@@ -22,7 +22,7 @@ public class ToggleCandidateVisibleState extends ApplicationModelState {
 	@Override
 	public void onEnter() {
 		final int pressedDigit = Integer.parseInt(this.lastKeyCode.getName().replace(NUMPAD_REPLACE_TEXT, Strings.EMPTY));
-		final SudokuPuzzleCell selectedCell = this.getSelectedCell();
+		final PuzzleCellPort selectedCell = this.getSelectedCell();
 		this.toggleCandidateActiveForCell(pressedDigit, selectedCell);
 		this.updateRemainingScoreForPuzzle();
 	}
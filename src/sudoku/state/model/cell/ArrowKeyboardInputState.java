@@ -1,5 +1,7 @@
 package sudoku.state.model.cell;
 
+import java.util.List;
+
 import javafx.scene.input.KeyCode;
 import sudoku.model.SudokuPuzzleValues;
 import sudoku.state.model.ApplicationModelState;
@@ -7,13 +9,17 @@ import sudoku.state.model.ApplicationModelState;
 /**
  * This class updates the state of the application when the selection changes by
  * arrow key input. This should have the effect of moving the selected cell, if
- * there is one.
+ * there is one. Repeated keys can be applied at once (see KeyboardInputQueue),
+ * in which case the selection only moves to the final cell.
  */
 public class ArrowKeyboardInputState extends ApplicationModelState {
 
-	public ArrowKeyboardInputState(final KeyCode keyCode, final ApplicationModelState lastState) {
+	private final List<KeyCode> keyCodes;
+
+	public ArrowKeyboardInputState(final List<KeyCode> keyCodes, final ApplicationModelState lastState) {
 		super(lastState, false);
-		this.lastKeyCode = keyCode;
+		this.keyCodes = keyCodes;
+		this.lastKeyCode = keyCodes.get(keyCodes.size() - 1);
 	}
 
 	@Override
@@ -30,14 +36,16 @@ public class ArrowKeyboardInputState extends ApplicationModelState {
 		}
 
 		this.getSelectedCell().setIsSelected(false);
-		if (KeyCode.UP == this.lastKeyCode && selectedCellRow > 0) {
-			selectedCellRow--;
-		} else if (KeyCode.DOWN == this.lastKeyCode && selectedCellRow < SudokuPuzzleValues.CELLS_PER_HOUSE - 1) {
-			selectedCellRow++;
-		} else if (KeyCode.LEFT == this.lastKeyCode && selectedCellCol > 0) {
-			selectedCellCol--;
-		} else if (KeyCode.RIGHT == this.lastKeyCode && selectedCellCol < SudokuPuzzleValues.CELLS_PER_HOUSE - 1) {
-			selectedCellCol++;
+		for (final KeyCode keyCode : this.keyCodes) {
+			if (KeyCode.UP == keyCode && selectedCellRow > 0) {
+				selectedCellRow--;
+			} else if (KeyCode.DOWN == keyCode && selectedCellRow < SudokuPuzzleValues.CELLS_PER_HOUSE - 1) {
+				selectedCellRow++;
+			} else if (KeyCode.LEFT == keyCode && selectedCellCol > 0) {
+				selectedCellCol--;
+			} else if (KeyCode.RIGHT == keyCode && selectedCellCol < SudokuPuzzleValues.CELLS_PER_HOUSE - 1) {
+				selectedCellCol++;
+			}
 		}
 		this.sudokuPuzzleStyle.setSelectedCellRow(selectedCellRow);
 		this.sudokuPuzzleStyle.setSelectedCellCol(selectedCellCol);
@@ -1,14 +1,18 @@
 package sudoku.state.model.cell;
 
 import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
 import javafx.scene.control.Label;
 import javafx.scene.input.MouseEvent;
 import sudoku.core.ViewController;
 import sudoku.model.ApplicationSettings;
+import sudoku.model.ColorState;
 import sudoku.model.SudokuPuzzleValues;
 import sudoku.state.model.ApplicationModelState;
+import sudoku.view.port.PuzzleCellPort;
+import sudoku.view.puzzle.SudokuPuzzleCanvas;
 import sudoku.view.puzzle.SudokuPuzzleCell;
-import sudoku.view.util.ColorUtils.ColorState;
+import sudoku.view.puzzle.SudokuPuzzleView;
 import sudoku.view.util.MouseMode;
 
 /**
@@ -33,7 +37,7 @@ public class ClickedCellState extends ApplicationModelState {
 	@Override
 	public void onEnter() {
 		final boolean useDigitButtonsForMouseActions = ApplicationSettings.getInstance().isUseDigitButtonsForMouseActions();
-		final SudokuPuzzleCell clickedCell = ViewController.getInstance().getSudokuPuzzleCell(this.row, this.col);
+		final PuzzleCellPort clickedCell = this.viewPort.getCell(this.row, this.col);
 		if (MouseMode.SELECT_CELLS == this.mouseMode) {
 			this.handleSelectCellMouseMode();
 		} else if (MouseMode.TOGGLE_CANDIDATES == this.mouseMode) {
@@ -53,7 +57,7 @@ public class ClickedCellState extends ApplicationModelState {
 	}
 
 	private void handleToggleCandidateMouseMode(final boolean useDigitButtonsForMouseActions,
-			final SudokuPuzzleCell clickedCell) {
+			final PuzzleCellPort clickedCell) {
 		if (useDigitButtonsForMouseActions) {
 			this.toggleCandidateActiveForCell(this.sudokuPuzzleStyle.getActiveCandidateDigit(), clickedCell);
 		} else {
@@ -65,14 +69,14 @@ public class ClickedCellState extends ApplicationModelState {
 	}
 
 	private void handleColorCellMouseMode() {
-		final ColorState baseColorState = ColorState.getStateForBaseColor(this.sudokuPuzzleStyle.getActiveColor());
-		final ColorState colorStateToApply = ColorState.getFromKeyCode(baseColorState.getKey(), this.event.isShiftDown());
+		final int activeColorIndex = this.sudokuPuzzleStyle.getActiveColorIndex();
+		final ColorState colorStateToApply = ColorState.getStateForKeyIndex(activeColorIndex, this.event.isShiftDown());
 		this.setColorStateForCell(this.row, this.col, colorStateToApply);
 	}
 
 	private void handleColorCandidateMouseMode(final boolean useDigitButtonsForMouseActions) {
-		final ColorState baseColorState = ColorState.getStateForBaseColor(this.sudokuPuzzleStyle.getActiveColor());
-		final ColorState colorStateToApply = ColorState.getFromKeyCode(baseColorState.getKey(), this.event.isShiftDown());
+		final int activeColorIndex = this.sudokuPuzzleStyle.getActiveColorIndex();
+		final ColorState colorStateToApply = ColorState.getStateForKeyIndex(activeColorIndex, this.event.isShiftDown());
 		if (useDigitButtonsForMouseActions) {
 			this.setCandidateColorForCell(this.row, this.col, colorStateToApply,
 					this.sudokuPuzzleStyle.getActiveCandidateDigit());
@@ -96,8 +100,17 @@ public class ClickedCellState extends ApplicationModelState {
 		}
 	}
 
-	/** Determines and returns the clicked candidate. */
+	/**
+	 * Determines and returns the clicked candidate. This needs the real view (not
+	 * the view port), since it depends on where things are drawn.
+	 */
 	private int getClickedCandidate() {
+		final SudokuPuzzleView sudokuPuzzleView = ViewController.getInstance().getSudokuPuzzleView();
+		if (sudokuPuzzleView.isCanvasRendererEnabled()) {
+			final SudokuPuzzleCanvas sudokuPuzzleCanvas = sudokuPuzzleView.getSudokuPuzzleCanvas();
+			final Point2D point = sudokuPuzzleCanvas.sceneToLocal(this.event.getSceneX(), this.event.getSceneY());
+			return sudokuPuzzleCanvas.getCandidateAt(point.getX(), point.getY());
+		}
 		final SudokuPuzzleCell sudokuPuzzleCell = ViewController.getInstance().getSudokuPuzzleCell(this.row, this.col);
 		final double sceneX = this.event.getSceneX();
 		final double sceneY = this.event.getSceneY();
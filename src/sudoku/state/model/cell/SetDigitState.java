@@ -5,7 +5,7 @@ import org.apache.logging.log4j.util.Strings;
 import javafx.scene.input.KeyCode;
 import sudoku.model.ApplicationSettings;
 import sudoku.state.model.ApplicationModelState;
-import sudoku.view.puzzle.SudokuPuzzleCell;
+import sudoku.view.port.PuzzleCellPort;
 
 /**
  * This class updates the state of the application when a cell's digit is set.
@@ -26,18 +26,19 @@ public class SetDigitState extends ApplicationModelState {
 		final int selectedCellRow = this.sudokuPuzzleStyle.getSelectedCellRow();
 		final int selectedCellCol = this.sudokuPuzzleStyle.getSelectedCellCol();
 		if (selectedCellRow != -1 && selectedCellCol != -1) {
-			final SudokuPuzzleCell selectedCell = this.getSelectedCell();
+			final PuzzleCellPort selectedCell = this.getSelectedCell();
 			if (this.sudokuPuzzleValues.getGivenCellDigit(selectedCellRow, selectedCellCol) == 0) {
 				final int oldFixedDigit = selectedCell.getFixedDigit();
 
 				selectedCell.setCandidatesVisible(false);
 				selectedCell.setFixedDigit(this.lastKeyCode.toString());
-				this.updateFixedCellTypeCssClass(this.getSelectedCell(), FIXED_CELL_CSS_CLASS);
+				this.updateFixedCellTypePseudoClass(this.getSelectedCell(), FIXED_CELL_PSEUDO_CLASS);
 
 				final int digit = Integer.parseInt(this.lastKeyCode.toString().replace(DIGIT_REPLACE_TEXT, Strings.EMPTY)
 						.replace(NUMPAD_REPLACE_TEXT, Strings.EMPTY));
 				this.sudokuPuzzleValues.setCellFixedDigit(selectedCell.getRow(), selectedCell.getCol(), digit);
 				this.updateCandidates(selectedCell, oldFixedDigit);
+				this.updateMistakeHighlightsForSeenCells(selectedCellRow, selectedCellCol);
 				this.updateFilterButtonEnabled(digit);
 				this.reapplyActiveFilter();
 				this.updateRemainingScoreForPuzzle();
@@ -45,7 +46,7 @@ public class SetDigitState extends ApplicationModelState {
 		}
 	}
 
-	private void updateCandidates(final SudokuPuzzleCell selectedCell, final int oldFixedDigit) {
+	private void updateCandidates(final PuzzleCellPort selectedCell, final int oldFixedDigit) {
 		if (ApplicationSettings.getInstance().isAutoManageCandidates()) {
 			if (oldFixedDigit != -1) {
 				this.addDigitAsCandidateToSeenCells(oldFixedDigit);
@@ -1,9 +1,8 @@
 package sudoku.state.model.cell;
 
-import sudoku.core.ViewController;
 import sudoku.model.SudokuPuzzleValues;
 import sudoku.state.model.ApplicationModelState;
-import sudoku.view.puzzle.SudokuPuzzleCell;
+import sudoku.view.port.PuzzleCellPort;
 
 /**
  * This class updates the state of the application when cells are set as given.
@@ -17,12 +16,14 @@ public class SetGivenCellsState extends ApplicationModelState {
 
 	@Override
 	public void onEnter() {
-		ViewController.getInstance().getRootPane().removeAllAnnotations();
+		this.viewPort.removeAllHintAnnotations();
 		// Don't want the user to be able to undo back to another puzzle.
 		this.applicationStateHistory.clearUndoStack();
 		this.applicationStateHistory.clearRedoStack();
 		this.updateUndoRedoButtons();
 		this.setFilledCellsAsGiven();
+		this.computeSolutionForPuzzle();
+		this.updateAllMistakeHighlights();
 		this.reapplyActiveFilter();
 		this.updateAllPuzzleStatsForNewPuzzle();
 	}
@@ -32,12 +33,11 @@ public class SetGivenCellsState extends ApplicationModelState {
 			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
 				final int givenDigit = this.sudokuPuzzleValues.getFixedCellDigit(row, col);
 				if (givenDigit != 0) {
-					this.sudokuPuzzleValues.getCandidateDigitsForCell(row, col).clear();
 					this.sudokuPuzzleValues.setGivenCellDigit(row, col, givenDigit);
-					final SudokuPuzzleCell sudokuPuzzleCell = ViewController.getInstance().getSudokuPuzzleCell(row, col);
+					final PuzzleCellPort sudokuPuzzleCell = this.viewPort.getCell(row, col);
 					// They probably aren't visible already, but just in case.
 					sudokuPuzzleCell.setCandidatesVisible(false);
-					this.updateFixedCellTypeCssClass(sudokuPuzzleCell, GIVEN_CELL_CSS_CLASS);
+					this.updateFixedCellTypePseudoClass(sudokuPuzzleCell, GIVEN_CELL_PSEUDO_CLASS);
 				}
 			}
 		}
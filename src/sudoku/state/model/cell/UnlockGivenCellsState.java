@@ -2,11 +2,9 @@ package sudoku.state.model.cell;
 
 import org.apache.logging.log4j.util.Strings;
 
-import sudoku.core.ViewController;
 import sudoku.model.SudokuPuzzleValues;
 import sudoku.state.model.ApplicationModelState;
-import sudoku.view.puzzle.SudokuPuzzleCell;
-import sudoku.view.sidebar.PuzzleStatsPane;
+import sudoku.view.port.PuzzleCellPort;
 
 /**
  * This class updates the state of the application when cells are unlocked from
@@ -21,7 +19,7 @@ public class UnlockGivenCellsState extends ApplicationModelState {
 
 	@Override
 	public void onEnter() {
-		ViewController.getInstance().getRootPane().removeAllAnnotations();
+		this.viewPort.removeAllHintAnnotations();
 		// Not really sure if it makes sense to allow undo, so just clear the stacks to
 		// be safe.
 		this.applicationStateHistory.clearUndoStack();
@@ -29,11 +27,13 @@ public class UnlockGivenCellsState extends ApplicationModelState {
 		this.updateUndoRedoButtons();
 		this.sudokuPuzzleValues.setHasGivens(false);
 		this.setFilledCellsAsNotGiven();
+		// Without givens, there is no solution to compare against.
+		this.computeSolutionForPuzzle();
+		this.updateAllMistakeHighlights();
 
-		final PuzzleStatsPane puzzleStatsPane = ViewController.getInstance().getPuzzleStatsPane();
-		puzzleStatsPane.getDifficultyTextField().setText(Strings.EMPTY);
-		puzzleStatsPane.getRatingTextField().setText(Strings.EMPTY);
-		puzzleStatsPane.getRemainingRatingTextField().setText(Strings.EMPTY);
+		this.viewPort.setDifficultyText(Strings.EMPTY);
+		this.viewPort.setRatingText(Strings.EMPTY);
+		this.viewPort.setRemainingRatingText(Strings.EMPTY);
 	}
 
 	private void setFilledCellsAsNotGiven() {
@@ -42,10 +42,10 @@ public class UnlockGivenCellsState extends ApplicationModelState {
 				final int givenDigit = this.sudokuPuzzleValues.getFixedCellDigit(row, col);
 				if (givenDigit != 0) {
 					this.sudokuPuzzleValues.setGivenCellDigit(row, col, 0);
-					final SudokuPuzzleCell sudokuPuzzleCell = ViewController.getInstance().getSudokuPuzzleCell(row, col);
+					final PuzzleCellPort sudokuPuzzleCell = this.viewPort.getCell(row, col);
 					// They probably aren't visible already, but just in case.
 					sudokuPuzzleCell.setCandidatesVisible(false);
-					this.updateFixedCellTypeCssClass(sudokuPuzzleCell, FIXED_CELL_CSS_CLASS);
+					this.updateFixedCellTypePseudoClass(sudokuPuzzleCell, FIXED_CELL_PSEUDO_CLASS);
 				}
 			}
 		}
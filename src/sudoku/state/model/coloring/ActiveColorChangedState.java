@@ -1,12 +1,6 @@
 package sudoku.state.model.coloring;
 
-import java.util.List;
-
-import javafx.scene.paint.Color;
-import sudoku.core.ViewController;
 import sudoku.state.model.ApplicationModelState;
-import sudoku.view.sidebar.ControlHelperPane;
-import sudoku.view.util.ColorUtils;
 
 /**
  * This class updates the state of the application when the user changes the
@@ -24,14 +18,10 @@ public class ActiveColorChangedState extends ApplicationModelState {
 
 	@Override
 	public void onEnter() {
-		final List<Color> colorsUsedInColoring = ColorUtils.getColors();
-
-		final int oldColorIndex = colorsUsedInColoring.indexOf(this.sudokuPuzzleStyle.getActiveColor());
-		final Color newActiveColor = colorsUsedInColoring.get(this.colorIndex);
-		this.sudokuPuzzleStyle.setActiveColor(newActiveColor);
+		final int oldColorIndex = this.sudokuPuzzleStyle.getActiveColorIndex();
+		this.sudokuPuzzleStyle.setActiveColorIndex(this.colorIndex);
 
-		final ControlHelperPane controlHelperPane = ViewController.getInstance().getControlHelperPane();
-		controlHelperPane.getColorButton(oldColorIndex).getStyleClass().remove(SELECTED_COLOR_BUTTON_CSS_CLASS);
-		controlHelperPane.getColorButton(this.colorIndex).getStyleClass().add(SELECTED_COLOR_BUTTON_CSS_CLASS);
+		this.viewPort.setColorButtonSelected(oldColorIndex, false);
+		this.viewPort.setColorButtonSelected(this.colorIndex, true);
 	}
 }
@@ -3,9 +3,10 @@ package sudoku.state.model.coloring;
 import java.util.Set;
 
 import javafx.scene.input.KeyCode;
+import sudoku.model.ColorState;
 import sudoku.state.model.ApplicationModelState;
-import sudoku.view.puzzle.SudokuPuzzleCell;
-import sudoku.view.util.ColorUtils.ColorState;
+import sudoku.view.port.PuzzleCellPort;
+import sudoku.view.util.ColorUtils;
 
 /**
  * This class updates the state of the application to reply to set the active
@@ -24,7 +25,7 @@ public class ToggleCandidateColorState extends ApplicationModelState {
 
 	@Override
 	public void onEnter() {
-		final SudokuPuzzleCell selectedCell = this.getSelectedCell();
+		final PuzzleCellPort selectedCell = this.getSelectedCell();
 
 		if (this.sudokuPuzzleValues.getFixedCellDigit(selectedCell.getRow(), selectedCell.getCol()) == 0) {
 			final Set<Integer> candidatesForCell = this.sudokuPuzzleValues.getCandidateDigitsForCell(
@@ -32,7 +33,7 @@ public class ToggleCandidateColorState extends ApplicationModelState {
 			final boolean isCandidateVisible = candidatesForCell.contains(this.sudokuPuzzleStyle.getActiveCandidateDigit());
 			if (isCandidateVisible) {
 
-				final ColorState colorStateToApply = ColorState.getFromKeyCode(this.lastKeyCode, this.isShiftDown);
+				final ColorState colorStateToApply = ColorUtils.getColorStateForKey(this.lastKeyCode, this.isShiftDown);
 				this.setCandidateColorForCell(selectedCell.getRow(), selectedCell.getCol(), colorStateToApply,
 						this.sudokuPuzzleStyle.getActiveCandidateDigit());
 			}
@@ -1,9 +1,10 @@
 package sudoku.state.model.coloring;
 
 import javafx.scene.input.KeyCode;
+import sudoku.model.ColorState;
 import sudoku.state.model.ApplicationModelState;
-import sudoku.view.puzzle.SudokuPuzzleCell;
-import sudoku.view.util.ColorUtils.ColorState;
+import sudoku.view.port.PuzzleCellPort;
+import sudoku.view.util.ColorUtils;
 
 /**
  * This class updates the state of the application to reply to set the active
@@ -26,10 +27,10 @@ public class ToggleCellColorState extends ApplicationModelState {
 	}
 
 	private void updateSelectedCellColor() {
-		final SudokuPuzzleCell selectedCell = this.getSelectedCell();
+		final PuzzleCellPort selectedCell = this.getSelectedCell();
 		final int row = selectedCell.getRow();
 		final int col = selectedCell.getCol();
-		final ColorState colorStateToApply = ColorState.getFromKeyCode(this.lastKeyCode, this.isShiftDown);
+		final ColorState colorStateToApply = ColorUtils.getColorStateForKey(this.lastKeyCode, this.isShiftDown);
 		this.setColorStateForCell(row, col, colorStateToApply);
 	}
 
@@ -1,25 +1,21 @@
 package sudoku.state.model.filter;
 
-import java.util.List;
-
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.util.Strings;
 
-import javafx.scene.control.Button;
-import sudoku.core.ViewController;
+import sudoku.model.CellFilterQuery;
 import sudoku.state.model.ApplicationModelState;
-import sudoku.view.sidebar.FilterButtonPane;
-import sudoku.view.util.LabelConstants;
 
 /**
  * This class updates the state of the application when the user presses a
  * numbered button on the left side of the screen, or F1 - F10. This should
- * annotate the puzzle with green cells where the candidate can go.
+ * annotate the puzzle with green cells where the candidate can go. The filter
+ * can also be a query typed by the user (see CellFilterQuery).
  */
 public class ApplyFilterState extends ApplicationModelState {
 
-	// This is a string because the current filter is stored as a string. Thus, we
-	// can work this into the control flow more easily.
-	private static final String BIVALUE_CELL_FILTER_INDEX = "10";
+	private static final Logger LOG = LogManager.getLogger(ApplyFilterState.class);
 
 	protected final String newCellFilter;
 
@@ -30,23 +26,41 @@ public class ApplyFilterState extends ApplicationModelState {
 
 	@Override
 	public void onEnter() {
-		final int currentFilterIndex = Integer
-				.valueOf(this.newCellFilter.replace(LabelConstants.BIVALUE_CELL, BIVALUE_CELL_FILTER_INDEX));
-		final FilterButtonPane filterButtonPane = ViewController.getInstance().getFilterButtonPane();
-		final List<Button> filterButtons = filterButtonPane.getFilterButtons();
+		final int filterButtonIndex = this.viewPort.getFilterButtonIndex(this.newCellFilter);
 		// No effect if the button is disabled.
-		if (filterButtons.get(currentFilterIndex - 1).isDisabled()) {
+		if (filterButtonIndex != -1 && this.viewPort.isFilterButtonDisabled(filterButtonIndex)) {
+			return;
+		}
+		final CellFilterQuery newCellFilterQuery = this.compileFilter();
+		if (newCellFilterQuery == null) {
 			return;
 		}
 		this.updateFilterButtonStates(this.newCellFilter);
-		this.resetAllFilters();
+		// The old filter is not reset first; only cells which change are updated.
 		if (this.sudokuPuzzleStyle.getActiveCellFilter().equals(this.newCellFilter)) {
 			this.sudokuPuzzleStyle.setActiveCellFilter(Strings.EMPTY);
+			this.resetAllFilters();
 		} else {
-			this.sudokuPuzzleStyle.setActiveCellFilter(this.newCellFilter);
+			this.sudokuPuzzleStyle.setActiveCellFilterQuery(newCellFilterQuery);
 			this.applyActiveFilter();
 		}
 
 	}
 
+	/**
+	 * Compiles the new filter. If it is not valid, shows the error on the filter
+	 * query field and returns null.
+	 */
+	private CellFilterQuery compileFilter() {
+		try {
+			final CellFilterQuery cellFilterQuery = CellFilterQuery.compile(this.newCellFilter);
+			this.viewPort.setFilterQueryError(null);
+			return cellFilterQuery;
+		} catch (final IllegalArgumentException e) {
+			LOG.warn("Ignoring invalid filter: {}", e.getMessage());
+			this.viewPort.setFilterQueryError(e.getMessage());
+			return null;
+		}
+	}
+
 }
@@ -1,14 +1,8 @@
 package sudoku.state.model.filter;
 
-import java.util.List;
-
 import org.apache.logging.log4j.util.Strings;
 
-import javafx.scene.control.Button;
-import sudoku.core.ViewController;
 import sudoku.state.model.ApplicationModelState;
-import sudoku.view.sidebar.FilterButtonPane;
-import sudoku.view.util.LabelConstants;
 
 /**
  * This class updates the state of the application when the user presses the
@@ -18,10 +12,6 @@ import sudoku.view.util.LabelConstants;
 
 public class CycleActiveFilterState extends ApplicationModelState {
 
-	// This is a string because the current filter is stored as a string. Thus, we
-	// can work this into the control flow more easily.
-	private static final String BIVALUE_CELL_FILTER_INDEX = "10";
-
 	// KeyCode.PERIOD.getName()
 	private static final String PERIOD = "Period";
 
@@ -46,7 +36,6 @@ public class CycleActiveFilterState extends ApplicationModelState {
 		}
 
 		this.updateFilterButtonStates(this.newCellFilter);
-		this.resetAllFilters();
 
 		this.sudokuPuzzleStyle.setActiveCellFilter(this.newCellFilter);
 		this.applyActiveFilter();
@@ -60,14 +49,19 @@ public class CycleActiveFilterState extends ApplicationModelState {
 	 */
 	private String parseCycleFilterInput(final String filterInput) {
 		// Note that F10 is for bivalue cells, F1 - F9 are for the corresponding digit.
-		final int currentFilterIndex = Integer.valueOf(
-				this.sudokuPuzzleStyle.getActiveCellFilter().replace(LabelConstants.BIVALUE_CELL, BIVALUE_CELL_FILTER_INDEX));
+		// A query typed by the user has no button, so cycling starts from either end.
+		final int activeFilterButtonIndex = this.viewPort
+				.getFilterButtonIndex(this.sudokuPuzzleStyle.getActiveCellFilter());
+		final int currentFilterIndex;
+		if (activeFilterButtonIndex != -1) {
+			currentFilterIndex = activeFilterButtonIndex + 1;
+		} else {
+			currentFilterIndex = PERIOD.equals(filterInput) ? 0 : NUM_FILTERS + 1;
+		}
 		int newFilterDigit = currentFilterIndex;
 
-		final FilterButtonPane filterButtonPane = ViewController.getInstance().getFilterButtonPane();
-		final List<Button> filterButtons = filterButtonPane.getFilterButtons();
 		// Skip over a filter if a digit is entirely solved.
-		while (newFilterDigit == currentFilterIndex || filterButtons.get(newFilterDigit - 1).isDisabled()) {
+		while (newFilterDigit == currentFilterIndex || this.viewPort.isFilterButtonDisabled(newFilterDigit - 1)) {
 			if (PERIOD.equals(filterInput)) {
 				newFilterDigit = newFilterDigit + 1;
 			} else {
@@ -81,7 +75,7 @@ public class CycleActiveFilterState extends ApplicationModelState {
 				newFilterDigit = 1;
 			}
 		}
-		return String.valueOf(newFilterDigit).replace(BIVALUE_CELL_FILTER_INDEX, LabelConstants.BIVALUE_CELL);
+		return this.viewPort.getFilterButtonText(newFilterDigit - 1);
 	}
 
 }
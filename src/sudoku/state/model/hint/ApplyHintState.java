@@ -3,11 +3,8 @@ package sudoku.state.model.hint;
 import org.apache.logging.log4j.util.Strings;
 
 import sudoku.core.HodokuFacade;
-import sudoku.core.ViewController;
 import sudoku.state.model.ApplicationModelState;
 import sudoku.state.model.ResetFromModelState;
-import sudoku.view.hint.HintButtonPane;
-import sudoku.view.hint.HintTextArea;
 import sudoku.view.util.ColorUtils;
 
 /**
@@ -23,12 +20,9 @@ public class ApplyHintState extends ResetFromModelState {
 	@Override
 	public void onEnter() {
 		if (this.displayedHint != null) {
-			ViewController.getInstance().getRootPane().removeAllAnnotations();
-			final HintTextArea hintTextArea = ViewController.getInstance().getHintTextArea();
-			hintTextArea.getHintTextArea().setText(Strings.EMPTY);
-			final HintButtonPane hintButtonPane = ViewController.getInstance().getHintButtonPane();
-			hintButtonPane.getApplyHintButton().setDisable(true);
-			hintButtonPane.getHideHintButton().setDisable(true);
+			this.viewPort.removeAllHintAnnotations();
+			this.viewPort.setHintText(Strings.EMPTY);
+			this.viewPort.setHintButtonsDisabled(true);
 			this.resetColorStates(false, true, ColorUtils.getHintColorStates());
 			// TODO - apply the hint to the SudokuPuzzleValues model + view.
 
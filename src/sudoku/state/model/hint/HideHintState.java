@@ -2,10 +2,7 @@ package sudoku.state.model.hint;
 
 import org.apache.logging.log4j.util.Strings;
 
-import sudoku.core.ViewController;
 import sudoku.state.model.ApplicationModelState;
-import sudoku.view.hint.HintButtonPane;
-import sudoku.view.hint.HintTextArea;
 import sudoku.view.util.ColorUtils;
 
 /**
@@ -20,13 +17,10 @@ public class HideHintState extends ApplicationModelState {
 
 	@Override
 	public void onEnter() {
-		ViewController.getInstance().getRootPane().removeAllAnnotations();
+		this.viewPort.removeAllHintAnnotations();
 		this.displayedHint = null;
-		final HintTextArea hintTextArea = ViewController.getInstance().getHintTextArea();
-		hintTextArea.getHintTextArea().setText(Strings.EMPTY);
-		final HintButtonPane hintButtonPane = ViewController.getInstance().getHintButtonPane();
-		hintButtonPane.getApplyHintButton().setDisable(true);
-		hintButtonPane.getHideHintButton().setDisable(true);
+		this.viewPort.setHintText(Strings.EMPTY);
+		this.viewPort.setHintButtonsDisabled(true);
 		this.resetColorStates(false, true, ColorUtils.getHintColorStates());
 	}
 }
\ No newline at end of file
@@ -1,11 +1,8 @@
 package sudoku.state.model.hint;
 
-import javafx.scene.control.TextArea;
 import sudoku.SolutionType;
 import sudoku.core.HodokuFacade;
-import sudoku.core.ViewController;
 import sudoku.state.model.ApplicationModelState;
-import sudoku.view.hint.HintButtonPane;
 import sudoku.view.util.ColorUtils;
 import sudoku.view.util.LabelConstants;
 
@@ -23,12 +20,9 @@ public class ShowPartialHintState extends ApplicationModelState {
 	public void onEnter() {
 		this.resetColorStates(false, true, ColorUtils.getHintColorStates());
 		this.displayedHint = HodokuFacade.getInstance().getHint(this.sudokuPuzzleValues);
-		final TextArea hintTextArea = ViewController.getInstance().getHintTextArea().getHintTextArea();
 		final String newHintText = SolutionType.GIVE_UP == this.displayedHint.getType() ? LabelConstants.NO_MOVES
 				: LabelConstants.VAGUE_HINT_PREFIX + this.displayedHint.toString(1);
-		hintTextArea.setText(newHintText);
-		final HintButtonPane hintButtonPane = ViewController.getInstance().getHintButtonPane();
-		hintButtonPane.getApplyHintButton().setDisable(false);
-		hintButtonPane.getHideHintButton().setDisable(false);
+		this.viewPort.setHintText(newHintText);
+		this.viewPort.setHintButtonsDisabled(false);
 	}
 }
\ No newline at end of file
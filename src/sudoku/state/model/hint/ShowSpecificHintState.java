@@ -1,24 +1,16 @@
 package sudoku.state.model.hint;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
-import sudoku.Chain;
 import sudoku.SolutionType;
 import sudoku.core.HodokuFacade;
-import sudoku.core.ViewController;
-import sudoku.factories.LayoutFactory;
+import sudoku.model.ApplicationSettings;
+import sudoku.model.ColorState;
+import sudoku.model.HintChainIndex;
+import sudoku.model.SudokuPeers;
 import sudoku.model.SudokuPuzzleValues;
 import sudoku.state.model.ApplicationModelState;
-import sudoku.view.ApplicationRootPane;
-import sudoku.view.hint.CurvedHintAnnotation;
-import sudoku.view.hint.HintAnnotation;
-import sudoku.view.hint.HintButtonPane;
-import sudoku.view.hint.HintTextArea;
-import sudoku.view.puzzle.SudokuPuzzleCell;
 import sudoku.view.util.ColorUtils;
-import sudoku.view.util.ColorUtils.ColorState;
 import sudoku.view.util.LabelConstants;
 
 /**
@@ -33,31 +25,29 @@ public class ShowSpecificHintState extends ApplicationModelState {
 
 	@Override
 	public void onEnter() {
-		ViewController.getInstance().getRootPane().removeAllAnnotations();
+		this.viewPort.removeAllHintAnnotations();
 		this.resetColorStates(false, true, ColorUtils.getHintColorStates());
 		this.displayedHint = HodokuFacade.getInstance().getHint(this.sudokuPuzzleValues);
-		final HintTextArea hintTextArea = ViewController.getInstance().getHintTextArea();
 		if (this.displayedHint == null) {
-			hintTextArea.getHintTextArea().setText(LabelConstants.PUZZLE_SOLVED);
+			this.viewPort.setHintText(LabelConstants.PUZZLE_SOLVED);
 		} else {
 			final String newHintText = SolutionType.GIVE_UP == this.displayedHint.getType() ? LabelConstants.NO_MOVES
 					: this.displayedHint.toString();
-			hintTextArea.getHintTextArea().setText(newHintText);
-			final HintButtonPane hintButtonPane = ViewController.getInstance().getHintButtonPane();
+			this.viewPort.setHintText(newHintText);
 			if (SolutionType.GIVE_UP != this.displayedHint.getType()) {
-				hintButtonPane.getApplyHintButton().setDisable(false);
-				hintButtonPane.getHideHintButton().setDisable(false);
+				this.viewPort.setHintButtonsDisabled(false);
 			}
-			this.updateCandidateColorsForHint();
-			this.showLinksForHint();
+			final HintChainIndex hintChainIndex = new HintChainIndex(this.displayedHint);
+			this.updateCandidateColorsForHint(hintChainIndex);
+			this.showLinksForHint(hintChainIndex);
 		}
 	}
 
-	private void updateCandidateColorsForHint() {
+	private void updateCandidateColorsForHint(final HintChainIndex hintChainIndex) {
 		// The order of these cannot change! Otherwise the ALS candidate colors
 		// overwrite the other candidates.
 		this.updateColorForAlmostLockedSetCandidates();
-		this.updateChainHintCandidates();
+		this.updateChainHintCandidates(hintChainIndex);
 		this.updateColorForColorHintCandidates();
 		this.updateColorForPrimaryHintCandidates();
 		this.updateColorForSecondaryHintCandidates();
@@ -67,55 +57,23 @@ public class ShowSpecificHintState extends ApplicationModelState {
 	}
 
 	/**
-	 * This is mostly a direct port from HoDoKu. I seriously can't figure out what
-	 * is going on here, so I left it untouched. If there are any bugs with it, a
-	 * re-port with fewer tweaks might help.
+	 * Colors the candidates of the chain(s) in the hint: strong link ends as
+	 * primary candidates, and weak link ends as secondary candidates.
 	 */
-	private void updateChainHintCandidates() {
-		final int activeChainIndex = this.displayedHint.getChains().isEmpty() ? -1 : 0;
-		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
-			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
-				for (int candidate = 1; candidate <= SudokuPuzzleValues.CELLS_PER_HOUSE; candidate++) {
-					ColorState colorStateToApply = ColorState.NONE;
-					if (this.sudokuPuzzleValues.getCandidateDigitsForCell(row, col).contains(candidate)) {
-						final int linearCellIndex = row * SudokuPuzzleValues.CELLS_PER_HOUSE + col;
-						for (int k = 0; k < this.displayedHint.getChains().size(); k++) {
-							if ((!this.displayedHint.getType().isKrakenFish() || activeChainIndex != -1)
-									&& (activeChainIndex == -1 || k == activeChainIndex)) {
-								final Chain chain = this.displayedHint.getChains().get(k);
-								for (int chainSegmentIndex = chain.getStart(); chainSegmentIndex <= chain
-										.getEnd(); chainSegmentIndex++) {
-									if (chain.getChain()[chainSegmentIndex] != Integer.MIN_VALUE) {
-										final int chainEntry = Math.abs(chain.getChain()[chainSegmentIndex]);
-										int index1 = -1, index2 = -1, index3 = -1;
-										if (Chain.getSNodeType(chainEntry) == Chain.NORMAL_NODE) {
-											index1 = Chain.getSCellIndex(chainEntry);
-										}
-										if (Chain.getSNodeType(chainEntry) == Chain.GROUP_NODE) {
-											index1 = Chain.getSCellIndex(chainEntry);
-											index2 = Chain.getSCellIndex2(chainEntry);
-											index3 = Chain.getSCellIndex3(chainEntry);
-										}
-										if ((linearCellIndex == index1 || linearCellIndex == index2 || linearCellIndex == index3)
-												&& Chain.getSCandidate(chainEntry) == candidate) {
-											if (Chain.isSStrong(chainEntry)) {
-												// strong link
-												colorStateToApply = ColorState.PRIMARY_HINT_CANDIDATE;
-											} else {
-												colorStateToApply = ColorState.SECONDARY_HINT_CANDIDATE;
-											}
-										}
-									}
-								}
-							}
-						}
-					}
-					final SudokuPuzzleCell cell = ViewController.getInstance().getSudokuPuzzleCell(row, col);
-					if (ColorState.NONE != colorStateToApply) {
-						this.setCandidateColorForCell(cell.getRow(), cell.getCol(), colorStateToApply, candidate);
-					}
-				}
-			}
+	private void updateChainHintCandidates(final HintChainIndex hintChainIndex) {
+		hintChainIndex.getWeakLinkCandidates().stream().forEach(
+				candidateIndex -> this.setChainCandidateColor(candidateIndex, ColorState.SECONDARY_HINT_CANDIDATE));
+		hintChainIndex.getStrongLinkCandidates().stream().forEach(
+				candidateIndex -> this.setChainCandidateColor(candidateIndex, ColorState.PRIMARY_HINT_CANDIDATE));
+	}
+
+	private void setChainCandidateColor(final int candidateIndex, final ColorState colorStateToApply) {
+		final int linearCellIndex = candidateIndex / SudokuPuzzleValues.CELLS_PER_HOUSE;
+		final int row = SudokuPeers.getRow(linearCellIndex);
+		final int col = SudokuPeers.getCol(linearCellIndex);
+		final int candidate = candidateIndex % SudokuPuzzleValues.CELLS_PER_HOUSE + 1;
+		if (this.sudokuPuzzleValues.getCandidateDigitsForCell(row, col).contains(candidate)) {
+			this.setCandidateColorForCell(row, col, colorStateToApply, candidate);
 		}
 	}
 
@@ -204,119 +162,18 @@ public class ShowSpecificHintState extends ApplicationModelState {
 	}
 
 	/**
-	 * Creates the links (arrows) for a link, if applicable. As with a few other
-	 * methods, this code has been ported / modernized somewhat from HoDoKu to use a
-	 * more modular OOP approach.
+	 * Creates the links (arrows) for a link, if applicable. Links which pass over
+	 * other candidates in the hint are drawn with a slight curve to clean up
+	 * possible confusion, unless the hint has too many links to keep that cheap.
 	 */
-	private void showLinksForHint() {
-		final int activeChainIndex = this.displayedHint.getChains().isEmpty() ? -1 : 0;
-		for (int chainIndex = 0; chainIndex < this.displayedHint.getChainAnz(); chainIndex++) {
-			if ((activeChainIndex == -1 || activeChainIndex == chainIndex)
-					&& (!this.displayedHint.getType().isKrakenFish() || activeChainIndex != -1)) {
-				final Chain chain = this.displayedHint.getChains().get(chainIndex);
-				final int[] nodeData = chain.getChain();
-				int oldNodeData = 0;
-				for (int i = chain.getStart(); i < chain.getEnd(); i++) {
-					int startNodeData = Math.abs(nodeData[i]);
-					final int endNodeData = Math.abs(nodeData[i + 1]);
-					// TODO - what purpose does this code serve? Something to do with forcing chains
-					// and nets maybe?
-					if (nodeData[i] > 0 && nodeData[i + 1] < 0) {
-						oldNodeData = startNodeData;
-					}
-					if (nodeData[i] == Integer.MIN_VALUE && nodeData[i + 1] < 0) {
-						startNodeData = oldNodeData;
-					}
-					if (nodeData[i] < 0 && nodeData[i + 1] > 0) {
-						startNodeData = oldNodeData;
-					}
-
-					this.createAnnotation(startNodeData, endNodeData);
-				}
-			}
-		}
-		this.checkForAnnotationsToRedraw();
-	}
-
-	private void createAnnotation(final int startNodeData, final int endNodeData) {
-		final HintAnnotation annotation;
-		annotation = LayoutFactory.getInstance().createLinearHintAnnotation(startNodeData, endNodeData);
-		if (annotation.isValid()) {
-			ViewController.getInstance().getRootPane().addAnnotation(annotation);
+	private void showLinksForHint(final HintChainIndex hintChainIndex) {
+		final boolean isCurvingLinks = hintChainIndex.getNumLinks() <= ApplicationSettings.getInstance()
+				.getMaxCurvedHintLinks();
+		for (int linkIndex = 0; linkIndex < hintChainIndex.getNumLinks(); linkIndex++) {
+			this.viewPort.addHintLink(hintChainIndex.getLinkStartNodeData(linkIndex),
+					hintChainIndex.getLinkEndNodeData(linkIndex),
+					isCurvingLinks && hintChainIndex.isLinkObstructed(linkIndex));
 		}
 	}
 
-	/**
-	 * Checks for annotations which need to be redrawn because they overlap with
-	 * other candidates in the hint. In this case, the link is redrawn with a slight
-	 * curve to clean up possible confusion.
-	 */
-	private void checkForAnnotationsToRedraw() {
-		final List<HintAnnotation> hintAnnotations = ViewController.getInstance().getHintAnnotations();
-		final List<Integer> hintNodes = this.getAllHintNodes(hintAnnotations);
-
-		final ApplicationRootPane annotationPane = ViewController.getInstance().getRootPane();
-		final List<HintAnnotation> invalidAnnotations = this.getInvalidAnnotations(hintAnnotations, hintNodes);
-		this.redrawInvalidAnnotations(annotationPane, invalidAnnotations);
-
-	}
-
-	/**
-	 * Gets a list of all nodes in a chain from the given list of
-	 * {@link HintAnnotation}s.
-	 */
-	private List<Integer> getAllHintNodes(final List<HintAnnotation> hintAnnotations) {
-		final List<Integer> chainNodes = new ArrayList<>();
-		hintAnnotations.forEach(annotation -> {
-			Arrays.asList(annotation.getStartNodeData(), annotation.getEndNodeData()).forEach(chainNode -> {
-				chainNodes.add(chainNode);
-				// If node is a group node, the additional cells must be considered for possible
-				// collisions as well.
-				if (Chain.GROUP_NODE == Chain.getSNodeType(chainNode)) {
-					this.addGroupNodes(chainNodes, chainNode);
-				}
-			});
-
-			chainNodes.add(annotation.getEndNodeData());
-		});
-		return chainNodes;
-	}
-
-	/** Adds the group node(s) to the given list of chain nodes. */
-	private void addGroupNodes(final List<Integer> chainNodes, final Integer chainNode) {
-		final int candidate = Chain.getSCandidate(chainNode);
-		final int cellIndex2 = Chain.getSCellIndex2(chainNode);
-		if (cellIndex2 > 0) {
-			chainNodes.add(Chain.makeSEntry(cellIndex2, candidate, false));
-		}
-		final int cellIndex3 = Chain.getSCellIndex3(chainNode);
-		if (cellIndex3 > 0) {
-			chainNodes.add(Chain.makeSEntry(cellIndex3, candidate, false));
-		}
-	}
-
-	private List<HintAnnotation> getInvalidAnnotations(final List<HintAnnotation> hintAnnotations,
-			final List<Integer> hintNodes) {
-		final List<HintAnnotation> invalidAnnotations = new ArrayList<>();
-		hintAnnotations.forEach(annotation -> {
-			hintNodes.forEach(hintNode -> {
-				if (annotation.intersectsWith(hintNode)) {
-					invalidAnnotations.add(annotation);
-				}
-			});
-		});
-		return invalidAnnotations;
-	}
-
-	private void redrawInvalidAnnotations(final ApplicationRootPane annotationPane,
-			final List<HintAnnotation> invalidAnnotations) {
-		invalidAnnotations.forEach(invalidAnnotation -> {
-			annotationPane.removeAnnotation(invalidAnnotation);
-			final CurvedHintAnnotation curvedHintAnnotation = LayoutFactory.getInstance()
-					.createCurvedHintAnnotation(invalidAnnotation.getStartNodeData(), invalidAnnotation.getEndNodeData());
-			ViewController.getInstance().registerHintAnnotation(curvedHintAnnotation);
-			annotationPane.addAnnotation(curvedHintAnnotation);
-		});
-	}
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package sudoku.state.model.puzzle;
+
+import org.apache.logging.log4j.util.Strings;
+
+import sudoku.core.HodokuFacade;
+import sudoku.core.ModelController;
+import sudoku.core.SolverTaskExecutor;
+import sudoku.factories.ModelFactory;
+import sudoku.model.ApplicationSettings;
+import sudoku.model.PuzzleCollection;
+import sudoku.model.PuzzleRating;
+import sudoku.model.SolverConfigSnapshot;
+import sudoku.state.model.ApplicationModelState;
+import sudoku.state.model.ResetFromModelState;
+import sudoku.view.util.LabelConstants;
+
+/**
+ * This class updates the state of the application when the user moves to a
+ * puzzle in an opened collection (see PuzzleCollectionService). This is like a
+ * new random puzzle, except the rating is kept by the collection, so each
+ * puzzle is only rated once. Until then, it is rated in the background (see
+ * SolverTaskExecutor). Ratings queued for puzzles the user has paged past are
+ * dropped when their turn comes.
+ */
+public class CollectionPuzzleState extends ResetFromModelState {
+
+	private final PuzzleCollection puzzleCollection;
+
+	private final int puzzleIndex;
+
+	private final String puzzleString;
+
+	public CollectionPuzzleState(final PuzzleCollection puzzleCollection, final int puzzleIndex,
+			final String puzzleString, final ApplicationModelState lastState) {
+		super(lastState, false);
+		this.puzzleCollection = puzzleCollection;
+		this.puzzleIndex = puzzleIndex;
+		this.puzzleString = puzzleString;
+	}
+
+	@Override
+	public void onEnter() {
+		this.viewPort.removeAllHintAnnotations();
+		this.applicationStateHistory.clearRedoStack();
+		this.applicationStateHistory.clearUndoStack();
+		this.updateUndoRedoButtons();
+		this.sudokuPuzzleStyle.setActiveCellFilter(Strings.EMPTY);
+		this.resetAllFilters();
+		this.updateFilterButtonStates(Strings.EMPTY);
+		this.resetAllColorStates();
+		this.puzzleCollection.setShownIndex(this.puzzleIndex);
+		this.sudokuPuzzleValues = ModelFactory.getInstance().createSudokuPuzzleValues(this.puzzleString);
+		this.computeSolutionForPuzzle();
+		this.resetApplicationFromPuzzleState();
+		final PuzzleRating rating = this.puzzleCollection.getRating(this.puzzleIndex);
+		if (rating == null) {
+			this.viewPort.setDifficultyText(Strings.EMPTY);
+			this.viewPort.setRatingText(Strings.EMPTY);
+			this.viewPort.setRemainingRatingText(Strings.EMPTY);
+			this.computeRatingForPuzzle();
+		} else {
+			this.updatePuzzleStatsFromRating(rating, true);
+		}
+		this.viewPort.setHintText(String.format(LabelConstants.COLLECTION_PUZZLE_FORMAT, this.puzzleIndex + 1,
+				this.puzzleCollection.getNumPuzzles(),
+				this.puzzleCollection.isIndexComplete() ? Strings.EMPTY : LabelConstants.COLLECTION_STILL_INDEXING));
+	}
+
+	private void computeRatingForPuzzle() {
+		if (!this.puzzleCollection.startRating(this.puzzleIndex)) {
+			// The rating is shown once the queued one is done.
+			return;
+		}
+		final String givens = this.sudokuPuzzleValues.toString(true);
+		final String ratedPuzzleString = this.sudokuPuzzleValues.toString(false);
+		final SolverConfigSnapshot solverConfig = ApplicationSettings.getInstance().getSolverConfigSnapshot();
+		SolverTaskExecutor.getInstance().submit(() -> {
+			if (!this.puzzleCollection.continueRating(this.puzzleIndex)) {
+				return;
+			}
+			final PuzzleRating rating = HodokuFacade.getInstance().getRatingForPuzzle(this.puzzleString, solverConfig);
+			this.puzzleCollection.setRating(this.puzzleIndex, rating);
+			this.viewPort.runLater(() -> ModelController.getInstance().transitionToCollectionRatingComputedState(givens,
+					ratedPuzzleString, rating));
+		});
+	}
+
+}
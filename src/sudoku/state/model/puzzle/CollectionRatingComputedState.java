@@ -0,0 +1,39 @@
+package sudoku.state.model.puzzle;
+
+import sudoku.model.PuzzleRating;
+import sudoku.state.model.ApplicationModelState;
+
+/**
+ * This class updates the state of the application when the rating of a puzzle
+ * from a collection has been computed in the background. This is not directly
+ * triggered by the user.
+ */
+public class CollectionRatingComputedState extends ApplicationModelState {
+
+	private final String givens;
+
+	private final String puzzleString;
+
+	private final PuzzleRating rating;
+
+	public CollectionRatingComputedState(final String givens, final String puzzleString,
+			final PuzzleRating rating, final ApplicationModelState lastState) {
+		super(lastState, false);
+		this.givens = givens;
+		this.puzzleString = puzzleString;
+		this.rating = rating;
+	}
+
+	@Override
+	public void onEnter() {
+		// The user may have moved to another puzzle while the rating was computed. If
+		// they came back, the rating still applies, since it only depends on the
+		// givens.
+		if (this.givens.equals(this.sudokuPuzzleValues.toString(true))) {
+			// A move made in the meantime has already updated the remaining rating.
+			this.updatePuzzleStatsFromRating(this.rating,
+					this.puzzleString.equals(this.sudokuPuzzleValues.toString(false)));
+		}
+	}
+
+}
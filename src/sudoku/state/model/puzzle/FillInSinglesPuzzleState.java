@@ -1,16 +1,16 @@
 package sudoku.state.model.puzzle;
 
+import java.util.List;
 import java.util.stream.IntStream;
 
 import org.apache.logging.log4j.util.Strings;
 
-import sudoku.core.HodokuFacade;
-import sudoku.core.ViewController;
+import sudoku.model.ApplicationSettings;
+import sudoku.model.CellPlacement;
+import sudoku.model.SinglesPropagator;
 import sudoku.model.SudokuPuzzleValues;
 import sudoku.state.model.ApplicationModelState;
-import sudoku.view.hint.HintButtonPane;
-import sudoku.view.hint.HintTextArea;
-import sudoku.view.puzzle.SudokuPuzzleCell;
+import sudoku.view.port.PuzzleCellPort;
 import sudoku.view.util.ColorUtils;
 
 /**
@@ -25,23 +25,16 @@ public class FillInSinglesPuzzleState extends ApplicationModelState {
 
 	@Override
 	public void onEnter() {
-		final boolean isPuzzleValid = HodokuFacade.getInstance().isPuzzleValid(this.sudokuPuzzleValues);
-		if (isPuzzleValid && !this.sudokuPuzzleValues.containsContradictingCells()) {
-			this.fillAllSingles();
-			this.updateView();
-		}
-
-	}
-
-	private void fillAllSingles() {
-		ViewController.getInstance().getRootPane().removeAllAnnotations();
-		final String updatedPuzzleString = HodokuFacade.getInstance().solveAllSingles(this.sudokuPuzzleValues);
-		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
-			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
-				final int fixedCellDigit = this.sudokuPuzzleValues.getFixedCellDigit(row, col);
-				if (fixedCellDigit == 0) {
-					this.applyChangesForCell(updatedPuzzleString, row, col);
-				}
+		// There is no point in filling in singles for a puzzle that already has
+		// mistakes, or has no unique solution (checked by the solver when the
+		// solution is not known yet).
+		if (this.isPuzzleValid() && !this.sudokuPuzzleValues.containsContradictingCells()) {
+			final List<CellPlacement> placements = SinglesPropagator.findAllSingles(this.sudokuPuzzleValues,
+					ApplicationSettings.getInstance().isAutoManageCandidates());
+			if (!placements.isEmpty()) {
+				this.viewPort.removeAllHintAnnotations();
+				placements.forEach(this::applyPlacement);
+				this.updateView();
 			}
 		}
 	}
@@ -50,28 +43,22 @@ public class FillInSinglesPuzzleState extends ApplicationModelState {
 		IntStream.range(1, SudokuPuzzleValues.CELLS_PER_HOUSE + 1).forEach(this::updateFilterButtonEnabled);
 		this.resetColorStates(false, true, ColorUtils.getHintColorStates());
 		this.reapplyActiveFilter();
+		this.updateAllMistakeHighlights();
 		this.updateRemainingScoreForPuzzle();
-		final HintTextArea hintTextArea = ViewController.getInstance().getHintTextArea();
-		hintTextArea.getHintTextArea().setText(Strings.EMPTY);
-
-		final HintButtonPane hintButtonPane = ViewController.getInstance().getHintButtonPane();
-		hintButtonPane.getApplyHintButton().setDisable(true);
-		hintButtonPane.getHideHintButton().setDisable(true);
+		this.viewPort.setHintText(Strings.EMPTY);
+		this.viewPort.setHintButtonsDisabled(true);
 	}
 
-	/** Updates the cell's view component if its value is set now. */
-	private void applyChangesForCell(final String updatedPuzzleString, final int row, final int col) {
-		final int linearIndex = row * SudokuPuzzleValues.CELLS_PER_HOUSE + col;
-		final String valueForCell = updatedPuzzleString.substring(linearIndex, linearIndex + 1);
-		if (!".".equals(valueForCell) && !"0".equals(valueForCell)) {
-			final int newFixedDigit = Integer.parseInt(valueForCell);
-			this.sudokuPuzzleValues.setCellFixedDigit(row, col, newFixedDigit);
-			final SudokuPuzzleCell sudokuPuzzleCell = ViewController.getInstance().getSudokuPuzzleCell(row, col);
-			sudokuPuzzleCell.setCandidatesVisible(false);
-			sudokuPuzzleCell.setFixedDigit(String.valueOf(newFixedDigit));
-			this.updateFixedCellTypeCssClass(sudokuPuzzleCell, FIXED_CELL_CSS_CLASS);
-			this.removeImpermissibleCandidates(sudokuPuzzleCell);
-		}
+	/** Sets the digit of the placement in the model and the cell's view component. */
+	private void applyPlacement(final CellPlacement placement) {
+		final int row = placement.getRow();
+		final int col = placement.getCol();
+		this.sudokuPuzzleValues.setCellFixedDigit(row, col, placement.getDigit());
+		final PuzzleCellPort sudokuPuzzleCell = this.viewPort.getCell(row, col);
+		sudokuPuzzleCell.setCandidatesVisible(false);
+		sudokuPuzzleCell.setFixedDigit(String.valueOf(placement.getDigit()));
+		this.updateFixedCellTypePseudoClass(sudokuPuzzleCell, FIXED_CELL_PSEUDO_CLASS);
+		this.removeImpermissibleCandidates(sudokuPuzzleCell);
 	}
 
 }
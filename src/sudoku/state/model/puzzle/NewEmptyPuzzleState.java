@@ -2,13 +2,11 @@ package sudoku.state.model.puzzle;
 
 import org.apache.logging.log4j.util.Strings;
 
-import sudoku.core.ViewController;
 import sudoku.factories.ModelFactory;
 import sudoku.model.ApplicationSettings;
 import sudoku.model.SudokuPuzzleValues;
 import sudoku.state.model.ApplicationModelState;
-import sudoku.view.hint.HintTextArea;
-import sudoku.view.puzzle.SudokuPuzzleCell;
+import sudoku.view.port.PuzzleCellPort;
 
 /**
  * This class updates the state of the application when the user presses the
@@ -22,7 +20,7 @@ public class NewEmptyPuzzleState extends ApplicationModelState {
 
 	@Override
 	public void onEnter() {
-		ViewController.getInstance().getRootPane().removeAllAnnotations();
+		this.viewPort.removeAllHintAnnotations();
 		this.applicationStateHistory.clearRedoStack();
 		this.applicationStateHistory.clearUndoStack();
 		this.updateUndoRedoButtons();
@@ -32,21 +30,21 @@ public class NewEmptyPuzzleState extends ApplicationModelState {
 		this.resetAllColorStates();
 		this.sudokuPuzzleValues = ModelFactory.getInstance().createSudokuPuzzleValues();
 		this.updateCellsForEmptyPuzzle();
+		this.updateAllMistakeHighlights();
 
-		ViewController.getInstance().getPuzzleStatsPane().getDifficultyTextField().setText(Strings.EMPTY);
-		ViewController.getInstance().getPuzzleStatsPane().getRatingTextField().setText(Strings.EMPTY);
-		ViewController.getInstance().getPuzzleStatsPane().getRemainingRatingTextField().setText(Strings.EMPTY);
-		final HintTextArea hintTextArea = ViewController.getInstance().getHintTextArea();
-		hintTextArea.getHintTextArea().setText(Strings.EMPTY);
+		this.viewPort.setDifficultyText(Strings.EMPTY);
+		this.viewPort.setRatingText(Strings.EMPTY);
+		this.viewPort.setRemainingRatingText(Strings.EMPTY);
+		this.viewPort.setHintText(Strings.EMPTY);
 	}
 
 	private void updateCellsForEmptyPuzzle() {
 		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
 			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
-				final SudokuPuzzleCell sudokuPuzzleCell = ViewController.getInstance().getSudokuPuzzleCell(row, col);
+				final PuzzleCellPort sudokuPuzzleCell = this.viewPort.getCell(row, col);
 				sudokuPuzzleCell.setFixedDigit(Strings.EMPTY);
 				sudokuPuzzleCell.setCandidatesVisible(true);
-				this.updateFixedCellTypeCssClass(sudokuPuzzleCell, UNFIXED_CELL_CSS_CLASS);
+				this.updateFixedCellTypePseudoClass(sudokuPuzzleCell, UNFIXED_CELL_PSEUDO_CLASS);
 				for (int candidate = 1; candidate <= SudokuPuzzleValues.CELLS_PER_HOUSE; candidate++) {
 					sudokuPuzzleCell.setCandidateVisible(candidate, ApplicationSettings.getInstance().isAutoManageCandidates());
 				}
@@ -2,11 +2,9 @@ package sudoku.state.model.puzzle;
 
 import org.apache.logging.log4j.util.Strings;
 
-import sudoku.core.ViewController;
 import sudoku.factories.ModelFactory;
 import sudoku.state.model.ApplicationModelState;
 import sudoku.state.model.ResetFromModelState;
-import sudoku.view.hint.HintTextArea;
 
 /**
  * This class updates the state of the application when the user presses the
@@ -24,7 +22,7 @@ public class NewRandomPuzzleState extends ResetFromModelState {
 
 	@Override
 	public void onEnter() {
-		ViewController.getInstance().getRootPane().removeAllAnnotations();
+		this.viewPort.removeAllHintAnnotations();
 		this.applicationStateHistory.clearRedoStack();
 		this.applicationStateHistory.clearUndoStack();
 		this.updateUndoRedoButtons();
@@ -33,10 +31,10 @@ public class NewRandomPuzzleState extends ResetFromModelState {
 		this.updateFilterButtonStates(Strings.EMPTY);
 		this.resetAllColorStates();
 		this.sudokuPuzzleValues = ModelFactory.getInstance().createSudokuPuzzleValues(this.puzzleString);
+		this.computeSolutionForPuzzle();
 		this.resetApplicationFromPuzzleState();
 		this.updateAllPuzzleStatsForNewPuzzle();
-		final HintTextArea hintTextArea = ViewController.getInstance().getHintTextArea();
-		hintTextArea.getHintTextArea().setText(Strings.EMPTY);
+		this.viewPort.setHintText(Strings.EMPTY);
 	}
 
 }
@@ -1,97 +1,111 @@
 package sudoku.state.model.puzzle;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
+import java.util.List;
 import java.util.Set;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.util.Strings;
 
 import sudoku.core.HodokuFacade;
-import sudoku.core.ViewController;
+import sudoku.core.ModelController;
+import sudoku.core.SolverTaskExecutor;
 import sudoku.factories.ModelFactory;
 import sudoku.model.ApplicationSettings;
+import sudoku.model.ColorState;
+import sudoku.model.SudokuPeers;
+import sudoku.model.SudokuPuzzleFile;
+import sudoku.model.SudokuPuzzleSolution;
 import sudoku.model.SudokuPuzzleValues;
 import sudoku.state.model.ApplicationModelState;
-import sudoku.view.puzzle.SudokuPuzzleCell;
+import sudoku.view.port.PuzzleCellPort;
+import sudoku.view.util.ColorUtils;
 
 /**
  * This class updates the state of the application when the user opens an
- * existing puzzle file.
+ * existing puzzle file (see SudokuPuzzleFile). The file is read beforehand (see
+ * PuzzleFileService), so the grid is shown right away. The solution and rating
+ * are taken from the file when it has them, and are otherwise computed in the
+ * background, like the remaining rating.
  */
 public class OpenedFileState extends ApplicationModelState {
 
-	private static final Logger LOG = LogManager.getLogger(OpenedFileState.class);
+	private final SudokuPuzzleFile puzzleFile;
 
-	private String puzzleString;
-
-	private String[][] candidatesForCellsFromFile;
-
-	private String givens;
-
-	public OpenedFileState(final File selectedFile, final ApplicationModelState lastState) {
+	public OpenedFileState(final SudokuPuzzleFile puzzleFile, final ApplicationModelState lastState) {
 		super(lastState, false);
-		this.parseSelectedFile(selectedFile);
-	}
-
-	private void parseSelectedFile(final File selectedFile) {
+		this.puzzleFile = puzzleFile;
 		this.applicationStateHistory.clearRedoStack();
 		this.applicationStateHistory.clearUndoStack();
 		this.updateUndoRedoButtons();
-		try {
-			final FileReader fileReader = new FileReader(selectedFile);
-			final BufferedReader bufferedReader = new BufferedReader(fileReader);
-			// .SPF files should have exactly 1 line of givens, 1 line of set values, then
-			// 81 for the candidates.
-			this.givens = bufferedReader.readLine();
-			this.puzzleString = bufferedReader.readLine();
-			this.candidatesForCellsFromFile = new String[SudokuPuzzleValues.CELLS_PER_HOUSE][SudokuPuzzleValues.CELLS_PER_HOUSE];
-			for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
-				for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
-					this.candidatesForCellsFromFile[col][row] = bufferedReader.readLine();
-				}
-			}
-			bufferedReader.close();
-		} catch (final IOException ioe) {
-			LOG.error("{}", ioe);
-		}
 	}
 
 	@Override
 	public void onEnter() {
-		ViewController.getInstance().getRootPane().removeAllAnnotations();
+		this.viewPort.removeAllHintAnnotations();
 		this.sudokuPuzzleStyle.setActiveCellFilter(Strings.EMPTY);
 		this.resetAllFilters();
 		this.updateFilterButtonStates(Strings.EMPTY);
 		this.resetAllColorStates();
-		this.sudokuPuzzleValues = ModelFactory.getInstance().createSudokuPuzzleValues(this.givens);
+		this.sudokuPuzzleValues = ModelFactory.getInstance().createSudokuPuzzleValues(this.puzzleFile.getGivens());
+		this.updateSolution();
 		this.updateGivenCells();
 		this.updateOtherSetCells();
+		this.updateCandidatesFromFile();
 		this.updateCandidates();
+		this.updateColorStates();
+		this.updateAllMistakeHighlights();
 
-		final int scoreForPuzzle = HodokuFacade.getInstance().getScoreForPuzzle(this.sudokuPuzzleValues, true);
-		final int remainingScoreForPuzzle = HodokuFacade.getInstance().getScoreForPuzzle(this.sudokuPuzzleValues, false);
-		ViewController.getInstance().getPuzzleStatsPane().getDifficultyTextField()
-				.setText(ApplicationSettings.getInstance().getDifficulty().getLabel());
-		ViewController.getInstance().getPuzzleStatsPane().getRatingTextField().setText(String.valueOf(scoreForPuzzle));
-		ViewController.getInstance().getPuzzleStatsPane().getRemainingRatingTextField()
-				.setText(String.valueOf(remainingScoreForPuzzle));
+		final int scoreForPuzzle = this.puzzleFile.getDifficultyScore();
+		this.sudokuPuzzleValues.setDifficultyScore(scoreForPuzzle);
+		this.viewPort.setDifficultyText(ApplicationSettings.getInstance().getDifficulty().getLabel());
+		this.viewPort.setRatingText(scoreForPuzzle == 0 ? Strings.EMPTY : String.valueOf(scoreForPuzzle));
+		this.viewPort.setRemainingRatingText(Strings.EMPTY);
+		this.computePuzzleStatsForPuzzle();
+	}
+
+	/**
+	 * Rates the puzzle (unless the file had the rating) and its remaining cells in
+	 * the background (see SolverTaskExecutor), since this runs the solver twice.
+	 */
+	private void computePuzzleStatsForPuzzle() {
+		final SudokuPuzzleValues sudokuPuzzleValues = this.sudokuPuzzleValues.clone();
+		final SudokuPuzzleSolution solution = this.sudokuPuzzleValues.getSolution();
+		final String puzzleString = sudokuPuzzleValues.toString(false);
+		SolverTaskExecutor.getInstance().submit(() -> {
+			final int scoreForPuzzle = sudokuPuzzleValues.getDifficultyScore() != 0
+					? sudokuPuzzleValues.getDifficultyScore()
+					: HodokuFacade.getInstance().getScoreForPuzzle(sudokuPuzzleValues, true);
+			final int remainingScoreForPuzzle = HodokuFacade.getInstance().getScoreForPuzzle(sudokuPuzzleValues, false);
+			this.viewPort.runLater(() -> ModelController.getInstance().transitionToPuzzleStatsComputedState(solution,
+					puzzleString, scoreForPuzzle, remainingScoreForPuzzle));
+		});
 	}
 
 	@Override
-	protected void setCandidateVisibility(final int row, final int col, final SudokuPuzzleCell sudokuPuzzleCell,
+	protected void setCandidateVisibility(final int row, final int col, final PuzzleCellPort sudokuPuzzleCell,
 			final boolean isCellGiven) {
 		if (!isCellGiven) {
 			final Set<Integer> candidateDigitsForCell = this.sudokuPuzzleValues.getCandidateDigitsForCell(row, col);
 			for (int candidate = 1; candidate <= SudokuPuzzleValues.CELLS_PER_HOUSE; candidate++) {
-				final String candidatesFromFile = this.candidatesForCellsFromFile[col][row];
-				final boolean shouldShowCandidate = candidatesFromFile.contains(String.valueOf(candidate));
-				sudokuPuzzleCell.setCandidateVisible(candidate, shouldShowCandidate);
-				if (!shouldShowCandidate) {
-					candidateDigitsForCell.remove(candidate);
+				sudokuPuzzleCell.setCandidateVisible(candidate, candidateDigitsForCell.contains(candidate));
+			}
+		}
+	}
+
+	/**
+	 * Sets the candidates of the non-given cells in the model to the ones saved in
+	 * the file, which may not be all the possible candidates.
+	 */
+	private void updateCandidatesFromFile() {
+		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
+			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
+				if (this.sudokuPuzzleValues.getGivenCellDigit(row, col) == 0) {
+					for (int candidate = 1; candidate <= SudokuPuzzleValues.CELLS_PER_HOUSE; candidate++) {
+						if (this.puzzleFile.hasCandidate(row, col, candidate)) {
+							this.sudokuPuzzleValues.addCellCandidateDigit(row, col, candidate);
+						} else {
+							this.sudokuPuzzleValues.removeCellCandidateDigit(row, col, candidate);
+						}
+					}
 				}
 			}
 		}
@@ -100,13 +114,13 @@ public class OpenedFileState extends ApplicationModelState {
 	private void updateGivenCells() {
 		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
 			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
-				final SudokuPuzzleCell sudokuPuzzleCell = ViewController.getInstance().getSudokuPuzzleCell(row, col);
+				final PuzzleCellPort sudokuPuzzleCell = this.viewPort.getCell(row, col);
 				final int givenCellDigit = this.sudokuPuzzleValues.getGivenCellDigit(row, col);
 				final boolean isCellGiven = givenCellDigit != 0;
 				sudokuPuzzleCell.setFixedDigit(isCellGiven ? String.valueOf(givenCellDigit) : Strings.EMPTY);
 				sudokuPuzzleCell.setCandidatesVisible(!isCellGiven);
 				if (isCellGiven) {
-					this.updateFixedCellTypeCssClass(sudokuPuzzleCell, GIVEN_CELL_CSS_CLASS);
+					this.updateFixedCellTypePseudoClass(sudokuPuzzleCell, GIVEN_CELL_PSEUDO_CLASS);
 				}
 			}
 		}
@@ -115,15 +129,69 @@ public class OpenedFileState extends ApplicationModelState {
 	private void updateOtherSetCells() {
 		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
 			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
-				final char givenDigit = this.givens.charAt(row * SudokuPuzzleValues.CELLS_PER_HOUSE + col);
-				final char setDigit = this.puzzleString.charAt(row * SudokuPuzzleValues.CELLS_PER_HOUSE + col);
+				final int givenDigit = this.puzzleFile.getGivenDigit(row, col);
+				final int setDigit = this.puzzleFile.getFixedDigit(row, col);
 				if (givenDigit != setDigit) {
-					final boolean isFixed = '0' != setDigit;
-					this.sudokuPuzzleValues.setCellFixedDigit(row, col, setDigit - '0');
-					final SudokuPuzzleCell sudokuPuzzleCell = ViewController.getInstance().getSudokuPuzzleCell(row, col);
+					final boolean isFixed = 0 != setDigit;
+					this.sudokuPuzzleValues.setCellFixedDigit(row, col, setDigit);
+					final PuzzleCellPort sudokuPuzzleCell = this.viewPort.getCell(row, col);
 					sudokuPuzzleCell.setFixedDigit(isFixed ? String.valueOf(setDigit) : Strings.EMPTY);
 					sudokuPuzzleCell.setCandidatesVisible(!isFixed);
-					this.updateFixedCellTypeCssClass(sudokuPuzzleCell, isFixed ? FIXED_CELL_CSS_CLASS : UNFIXED_CELL_CSS_CLASS);
+					this.updateFixedCellTypePseudoClass(sudokuPuzzleCell,
+							isFixed ? FIXED_CELL_PSEUDO_CLASS : UNFIXED_CELL_PSEUDO_CLASS);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Uses the solution from the file if it has one which fits the givens,
+	 * otherwise computes it in the background.
+	 */
+	private void updateSolution() {
+		final int[] solutionDigits = this.puzzleFile.getSolutionDigits();
+		if (solutionDigits == null || !this.isSolutionForGivens(solutionDigits)) {
+			this.computeSolutionForPuzzle();
+		} else {
+			final SudokuPuzzleSolution solution = ModelFactory.getInstance().createSudokuPuzzleSolution();
+			solution.setSolutionDigits(solutionDigits);
+			this.sudokuPuzzleValues.setSolution(solution);
+		}
+	}
+
+	/**
+	 * Returns true iff the given digits are a full grid without contradictions
+	 * which keeps every given of the file, so a damaged or edited file can not
+	 * cause wrong mistake highlights.
+	 */
+	private boolean isSolutionForGivens(final int[] solutionDigits) {
+		final StringBuilder solutionString = new StringBuilder(SudokuPeers.NUM_CELLS);
+		for (int cellIndex = 0; cellIndex < SudokuPeers.NUM_CELLS; cellIndex++) {
+			final int solutionDigit = solutionDigits[cellIndex];
+			final int givenDigit = this.puzzleFile.getGivenDigit(SudokuPeers.getRow(cellIndex),
+					SudokuPeers.getCol(cellIndex));
+			if (solutionDigit == 0 || givenDigit != 0 && givenDigit != solutionDigit) {
+				return false;
+			}
+			solutionString.append(solutionDigit);
+		}
+		return !new SudokuPuzzleValues(solutionString.toString()).containsContradictingCells();
+	}
+
+	private void updateColorStates() {
+		final List<ColorState> coloringColorStates = ColorUtils.getColoringColorStates();
+		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
+			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
+				final int cellColorIndex = this.puzzleFile.getCellColorIndex(row, col);
+				if (cellColorIndex < coloringColorStates.size() && cellColorIndex != SudokuPuzzleFile.NO_COLOR) {
+					this.setColorStateForCell(row, col, coloringColorStates.get(cellColorIndex));
+				}
+				for (int candidate = 1; candidate <= SudokuPuzzleValues.CELLS_PER_HOUSE; candidate++) {
+					final int candidateColorIndex = this.puzzleFile.getCandidateColorIndex(row, col, candidate);
+					if (candidateColorIndex < coloringColorStates.size()
+							&& candidateColorIndex != SudokuPuzzleFile.NO_COLOR) {
+						this.setCandidateColorForCell(row, col, coloringColorStates.get(candidateColorIndex), candidate);
+					}
 				}
 			}
 		}
@@ -10,49 +10,61 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.util.Strings;
 
-import sudoku.core.ViewController;
 import sudoku.factories.ModelFactory;
+import sudoku.model.ParsedSudokuPuzzle;
+import sudoku.model.SudokuPuzzleParser;
 import sudoku.state.model.ApplicationModelState;
 import sudoku.state.model.ResetFromModelState;
-import sudoku.view.hint.HintTextArea;
 
 /**
- * This class updates the state of the application when the user copies the
- * puzzle to the clipboard
+ * This class updates the state of the application when the user pastes a
+ * puzzle from the clipboard, in any format SudokuPuzzleParser understands.
  */
 public class PastePuzzleState extends ResetFromModelState {
 
 	private static final Logger LOG = LogManager.getLogger(PastePuzzleState.class);
 
-	private static final String SUDOKU_PUZZLE_REGEX = "([0-9]|\\.){81}";
+	private final String pastedText;
 
-	public PastePuzzleState(final ApplicationModelState lastState) {
+	public PastePuzzleState(final String pastedText, final ApplicationModelState lastState) {
 		super(lastState, false);
+		this.pastedText = pastedText;
 	}
 
-	@Override
-	public void onEnter() {
+	/**
+	 * Returns the text in the clipboard, or an empty string if the clipboard does
+	 * not contain text. This is read before the state is created, so the pasted
+	 * text can be recorded.
+	 */
+	public static String getClipboardText() {
 		final Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
 		try {
-			final String puzzleString = (String) clipboard.getData(DataFlavor.stringFlavor);
-			if (puzzleString.matches(SUDOKU_PUZZLE_REGEX)) {
-				ViewController.getInstance().getRootPane().removeAllAnnotations();
-				this.sudokuPuzzleValues = ModelFactory.getInstance().createSudokuPuzzleValues();
-				this.sudokuPuzzleValues.updateCellAndCandidateValues(puzzleString, true);
-
-				this.resetApplicationFromPuzzleState();
-				this.resetAllColorStates();
-				this.updateAllPuzzleStatsForNewPuzzle();
-				this.reapplyActiveFilter();
-
-				this.applicationStateHistory.clearRedoStack();
-				this.applicationStateHistory.clearUndoStack();
-				this.updateUndoRedoButtons();
-				final HintTextArea hintTextArea = ViewController.getInstance().getHintTextArea();
-				hintTextArea.getHintTextArea().setText(Strings.EMPTY);
-			}
+			return (String) clipboard.getData(DataFlavor.stringFlavor);
 		} catch (UnsupportedFlavorException | IOException e) {
 			LOG.error("{}", e);
+			return Strings.EMPTY;
+		}
+	}
+
+	@Override
+	public void onEnter() {
+		// Anything which is not a puzzle in a known format is ignored.
+		final ParsedSudokuPuzzle parsedSudokuPuzzle = SudokuPuzzleParser.parse(this.pastedText);
+		if (parsedSudokuPuzzle != null) {
+			this.viewPort.removeAllHintAnnotations();
+			this.sudokuPuzzleValues = ModelFactory.getInstance().createSudokuPuzzleValues();
+			this.sudokuPuzzleValues.updateCellAndCandidateValues(parsedSudokuPuzzle, true);
+			this.computeSolutionForPuzzle();
+
+			this.resetApplicationFromPuzzleState();
+			this.resetAllColorStates();
+			this.updateAllPuzzleStatsForNewPuzzle();
+			this.reapplyActiveFilter();
+
+			this.applicationStateHistory.clearRedoStack();
+			this.applicationStateHistory.clearUndoStack();
+			this.updateUndoRedoButtons();
+			this.viewPort.setHintText(Strings.EMPTY);
 		}
 	}
 
@@ -0,0 +1,47 @@
+package sudoku.state.model.puzzle;
+
+import sudoku.model.SudokuPuzzleSolution;
+import sudoku.state.model.ApplicationModelState;
+
+/**
+ * This class updates the state of the application when the rating of an opened
+ * puzzle has been computed in the background. This is not directly triggered by
+ * the user.
+ */
+public class PuzzleStatsComputedState extends ApplicationModelState {
+
+	private final SudokuPuzzleSolution solution;
+
+	private final String puzzleString;
+
+	private final int scoreForPuzzle;
+
+	private final int remainingScoreForPuzzle;
+
+	/**
+	 * The solution identifies the puzzle the stats are for, and the puzzle string
+	 * (see SudokuPuzzleValues::toString) the cells the remaining rating is for.
+	 */
+	public PuzzleStatsComputedState(final SudokuPuzzleSolution solution, final String puzzleString,
+			final int scoreForPuzzle, final int remainingScoreForPuzzle, final ApplicationModelState lastState) {
+		super(lastState, false);
+		this.solution = solution;
+		this.puzzleString = puzzleString;
+		this.scoreForPuzzle = scoreForPuzzle;
+		this.remainingScoreForPuzzle = remainingScoreForPuzzle;
+	}
+
+	@Override
+	public void onEnter() {
+		// The user may have loaded another puzzle while the stats were computed.
+		if (this.solution == this.sudokuPuzzleValues.getSolution()) {
+			this.sudokuPuzzleValues.setDifficultyScore(this.scoreForPuzzle);
+			this.viewPort.setRatingText(String.valueOf(this.scoreForPuzzle));
+			// A move made in the meantime has already updated the remaining rating.
+			if (this.puzzleString.equals(this.sudokuPuzzleValues.toString(false))) {
+				this.viewPort.setRemainingRatingText(String.valueOf(this.remainingScoreForPuzzle));
+			}
+		}
+	}
+
+}
@@ -1,27 +1,19 @@
 package sudoku.state.model.puzzle;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.util.Set;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
-import sudoku.model.SudokuPuzzleValues;
+import sudoku.core.PuzzleFileService;
+import sudoku.model.SudokuPuzzleFile;
 import sudoku.state.model.ApplicationModelState;
 
 /**
  * This class updates the state of the application when the user saves an
- * existing puzzle file.
+ * existing puzzle file. The puzzle is copied here, and written in the
+ * background (see PuzzleFileService), in the binary format (see
+ * SudokuPuzzleFile).
  */
 public class SavedFileState extends ApplicationModelState {
 
-	private static final Logger LOG = LogManager.getLogger(SavedFileState.class);
-
-	private static final String NEW_LINE = "\n";
-
 	private final File selectedFile;
 
 	public SavedFileState(final File selectedFile, final ApplicationModelState lastState) {
@@ -31,40 +23,8 @@ public class SavedFileState extends ApplicationModelState {
 
 	@Override
 	public void onEnter() {
-		try {
-			final BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(this.selectedFile));
-			this.writeGivensAndSetValues(bufferedWriter);
-			this.writeCandidates(bufferedWriter);
-			bufferedWriter.close();
-		} catch (final IOException ioe) {
-			LOG.error("{}", ioe);
-		}
-	}
-
-	private void writeGivensAndSetValues(final BufferedWriter bufferedWriter) throws IOException {
-		final StringBuilder givens = new StringBuilder();
-		final StringBuilder setValues = new StringBuilder();
-		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
-			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
-				givens.append(this.sudokuPuzzleValues.getGivenCellDigit(row, col));
-				setValues.append(this.sudokuPuzzleValues.getFixedCellDigit(row, col));
-			}
-		}
-		bufferedWriter.write(givens.toString() + NEW_LINE);
-		bufferedWriter.write(setValues.toString() + NEW_LINE);
-	}
-
-	private void writeCandidates(final BufferedWriter bufferedWriter) throws IOException {
-		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
-			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
-				final Set<Integer> candidateDigitsForCell = this.sudokuPuzzleValues.getCandidateDigitsForCell(row, col);
-				for (final int candidate : candidateDigitsForCell) {
-					bufferedWriter.write(String.valueOf(candidate));
-				}
-				bufferedWriter.write(NEW_LINE);
-			}
-		}
-
+		PuzzleFileService.getInstance()
+				.save(SudokuPuzzleFile.fromPuzzle(this.sudokuPuzzleValues, this.sudokuPuzzleStyle), this.selectedFile);
 	}
 
 }
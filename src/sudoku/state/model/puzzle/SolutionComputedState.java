@@ -0,0 +1,30 @@
+package sudoku.state.model.puzzle;
+
+import sudoku.model.SudokuPuzzleSolution;
+import sudoku.state.model.ApplicationModelState;
+
+/**
+ * This class updates the state of the application when the solution for a
+ * puzzle has been computed in the background. This is not directly triggered by
+ * the user.
+ */
+public class SolutionComputedState extends ApplicationModelState {
+
+	private final SudokuPuzzleSolution solution;
+
+	public SolutionComputedState(final SudokuPuzzleSolution solution, final ApplicationModelState lastState) {
+		super(lastState, false);
+		this.solution = solution;
+	}
+
+	@Override
+	public void onEnter() {
+		// The user may have loaded another puzzle while the solution was computed.
+		if (this.solution == this.sudokuPuzzleValues.getSolution()) {
+			this.updateAllMistakeHighlights();
+			// Whether the remaining cells are valid is now checked against the solution.
+			this.updateRemainingScoreForPuzzle();
+		}
+	}
+
+}
@@ -5,7 +5,6 @@ import sudoku.core.ViewController;
 import sudoku.model.ApplicationSettings;
 import sudoku.state.model.ApplicationModelState;
 import sudoku.view.settings.ColorSettingsView;
-import sudoku.view.util.ColorUtils;
 
 /**
  * This class updates the state of the application when the user clicks save and
@@ -34,8 +33,7 @@ public class SaveColorSettingsState extends AbstractSaveSettingsState {
 		this.saveHintColorSettings(colorSettingsView);
 
 		// Update the view in case the old colors were visible somewhere.
-		final Color newColor = ColorUtils.getColors().get(0);
-		this.sudokuPuzzleStyle.setActiveColor(newColor);
+		this.sudokuPuzzleStyle.setActiveColorIndex(0);
 		// TODO - anything needed for color combo buttons?
 
 		ViewController.getInstance().getRootPane().updateColorSettings();
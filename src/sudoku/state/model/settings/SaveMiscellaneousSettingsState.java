@@ -23,6 +23,7 @@ public class SaveMiscellaneousSettingsState extends AbstractSaveSettingsState {
 	public void onEnter() {
 		final boolean isShowPuzzleProgress = this.updateSettings();
 		this.updateRemainingScoreTextField(isShowPuzzleProgress);
+		this.updateAllMistakeHighlights();
 		super.onEnter();
 	}
 
@@ -36,6 +37,11 @@ public class SaveMiscellaneousSettingsState extends AbstractSaveSettingsState {
 		final boolean useDigitButtonsForMouseCheckBox = miscellaneousSettingsView.getUseDigitButtonsForMouseCheckBox()
 				.isSelected();
 		ApplicationSettings.getInstance().setUseDigitButtonsForMouseActions(useDigitButtonsForMouseCheckBox);
+		final boolean isHighlightMistakes = miscellaneousSettingsView.getHighlightMistakesCheckBox().isSelected();
+		ApplicationSettings.getInstance().setHighlightMistakes(isHighlightMistakes);
+		final boolean isUseCanvasRenderer = miscellaneousSettingsView.getUseCanvasRendererCheckBox().isSelected();
+		ApplicationSettings.getInstance().setUseCanvasRenderer(isUseCanvasRenderer);
+		ViewController.getInstance().getSudokuPuzzleView().setCanvasRendererEnabled(isUseCanvasRenderer);
 		return isShowPuzzleProgress;
 	}
 
@@ -1,7 +1,11 @@
 package sudoku.state.window;
 
 import javafx.application.Platform;
+import sudoku.core.PuzzleFileService;
+import sudoku.metrics.StateTransitionMetrics;
 import sudoku.model.PuzzleGenerationCache;
+import sudoku.model.SettingsWriter;
+import sudoku.session.AutosaveJournal;
 
 /**
  * This class contains code to run when the user closes the application.
@@ -17,6 +21,10 @@ public class ClosedState extends ApplicationWindowState {
 		// There are various other threads that need to be stopped; this configuration
 		// seems to do that.
 		Platform.runLater(() -> {
+			StateTransitionMetrics.getInstance().logSummaries();
+			AutosaveJournal.getInstance().close();
+			SettingsWriter.getInstance().close();
+			PuzzleFileService.getInstance().close();
 			PuzzleGenerationCache.getInstance().onCloseApplication();
 			Platform.exit();
 			System.exit(0);
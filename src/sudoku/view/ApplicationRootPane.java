@@ -1,11 +1,7 @@
 package sudoku.view;
 
-import javafx.collections.ObservableList;
-import javafx.scene.Node;
 import javafx.scene.layout.BorderPane;
-import sudoku.core.ViewController;
 import sudoku.model.ApplicationSettings;
-import sudoku.view.hint.HintAnnotation;
 
 /**
  * This class represents the root element of the application.
@@ -69,27 +65,4 @@ public class ApplicationRootPane extends BorderPane {
 		this.setStyle(style.toString());
 		this.getStyleClass().remove(ROOT_CSS_CLASS);
 	}
-
-	/**
-	 * Adds a hint annotation to the sudoku grid. This is generally an arrow
-	 * representing a link as part of a solution step.
-	 */
-	public void addAnnotation(final HintAnnotation annotation) {
-		this.getChildren().addAll(annotation.getAnnotationBody(), annotation.getArrowHead());
-	}
-
-	public void removeAnnotation(final HintAnnotation annotation) {
-		this.getChildren().removeAll(annotation.getAnnotationBody(), annotation.getArrowHead());
-		// Don't clear from the ViewController so the annotations get cleaned up next
-		// time.
-	}
-
-	public void removeAllAnnotations() {
-		final ObservableList<Node> children = this.getChildren();
-		ViewController.getInstance().getHintAnnotations().forEach(annotation -> {
-			children.remove(annotation.getAnnotationBody());
-			children.remove(annotation.getArrowHead());
-		});
-		ViewController.getInstance().getHintAnnotations().clear();
-	}
 }
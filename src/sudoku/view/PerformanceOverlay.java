@@ -0,0 +1,248 @@
+package sudoku.view;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.util.Duration;
+import sudoku.metrics.LatencyHistogram;
+import sudoku.model.ApplicationSettings;
+import sudoku.view.util.ResourceConstants;
+
+/**
+ * This class is a developer overlay over the puzzle grid, for finding out where
+ * time goes (HoDoKu, the model, or JavaFX CSS + layout). It shows the time of
+ * each pulse, the time of the last state transition and the number of nodes it
+ * restyled, and GC pauses. Nothing is measured while the overlay is hidden.
+ *
+ * Pulse times only cover the work on the JavaFX thread (the pulse listeners,
+ * CSS and layout). Rendering happens on a separate thread; use
+ * -Djavafx.pulseLogger=true for that.
+ */
+public class PerformanceOverlay extends Label {
+
+	private static final Logger LOG = LogManager.getLogger(PerformanceOverlay.class);
+
+	private static final String CSS_CLASS = "sudoku-performance-overlay";
+
+	private static final String GC_NOTIFICATION_TYPE = "com.sun.management.gc.notification";
+
+	private static final int WINDOW_SIZE = 1000;
+
+	private static final Duration REFRESH_INTERVAL = Duration.millis(500);
+
+	private static final long NANOS_PER_MILLI = 1_000_000L;
+
+	private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+	private final LatencyHistogram pulseHistogram;
+
+	private final LatencyHistogram stateTransitionHistogram;
+
+	private final LatencyHistogram gcPauseHistogram;
+
+	private final Runnable prePulseListener;
+
+	private final Runnable postPulseListener;
+
+	private final NotificationListener gcListener;
+
+	private final Timeline refreshTimeline;
+
+	private Scene scene;
+
+	private long pulseStartNanos;
+
+	private String lastStateName;
+
+	private int lastNumMutations;
+
+	public PerformanceOverlay() {
+		this.pulseHistogram = new LatencyHistogram(WINDOW_SIZE);
+		this.stateTransitionHistogram = new LatencyHistogram(WINDOW_SIZE);
+		this.gcPauseHistogram = new LatencyHistogram(WINDOW_SIZE);
+		this.prePulseListener = this::onPulseStarted;
+		this.postPulseListener = this::onPulseFinished;
+		this.gcListener = this::onGarbageCollection;
+		this.refreshTimeline = new Timeline(new KeyFrame(REFRESH_INTERVAL, event -> this.refresh()));
+		this.refreshTimeline.setCycleCount(Timeline.INDEFINITE);
+		this.scene = null;
+		this.pulseStartNanos = 0;
+		this.lastStateName = "-";
+		this.lastNumMutations = 0;
+		this.configure();
+	}
+
+	private void configure() {
+		this.getStyleClass().add(CSS_CLASS);
+		this.setMouseTransparent(true);
+		this.setFocusTraversable(false);
+		this.setMaxSize(USE_PREF_SIZE, USE_PREF_SIZE);
+		this.setVisible(false);
+	}
+
+	/**
+	 * Records the start of each pulse of the given scene. This must be called
+	 * before any other pre-layout pulse listener is added to the scene, so the
+	 * pulse times include them (queued keys, batched restyles and the canvas
+	 * draw).
+	 */
+	public void registerScene(final Scene scene) {
+		if (this.scene != null) {
+			this.scene.removePreLayoutPulseListener(this.prePulseListener);
+		}
+		this.scene = scene;
+		this.scene.addPreLayoutPulseListener(this.prePulseListener);
+	}
+
+	/** Shows the overlay and starts measuring, or hides it and stops. */
+	public void toggle() {
+		if (this.isVisible()) {
+			this.stop();
+		} else {
+			this.start();
+		}
+	}
+
+	/**
+	 * Records a state transition. This is called for every transition, but is
+	 * ignored while the overlay is hidden.
+	 */
+	public void recordStateEntered(final String stateName, final long durationNanos, final int numMutations) {
+		if (this.isVisible()) {
+			this.lastStateName = stateName;
+			this.lastNumMutations = numMutations;
+			this.stateTransitionHistogram.record(durationNanos);
+		}
+	}
+
+	/**
+	 * Writes the histograms to a new file in the log folder, to attach to bug
+	 * reports. Returns the path of the file, or null if it could not be written.
+	 */
+	public Path exportReport() {
+		final String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+		final Path reportPath = Paths.get(ResourceConstants.LOG_FOLDER, "PerformanceReport" + timestamp + ".txt");
+		final StringBuilder report = new StringBuilder();
+		report.append("Performance report ").append(timestamp).append(System.lineSeparator());
+		report.append("Java ").append(System.getProperty("java.version")).append(", JavaFX ")
+				.append(System.getProperty("javafx.runtime.version")).append(", canvas renderer: ")
+				.append(ApplicationSettings.getInstance().isUseCanvasRenderer()).append(System.lineSeparator());
+		report.append(this.getHeapSummary()).append(System.lineSeparator()).append(System.lineSeparator());
+		this.appendHistogram(report, "Pulses (pulse listeners, CSS + layout)", this.pulseHistogram);
+		this.appendHistogram(report, "State transitions (onEnter)", this.stateTransitionHistogram);
+		this.appendHistogram(report, "GC pauses", this.gcPauseHistogram);
+		try {
+			Files.createDirectories(reportPath.getParent());
+			Files.write(reportPath, report.toString().getBytes(StandardCharsets.UTF_8));
+			LOG.info("Wrote performance report to {}", reportPath);
+			return reportPath;
+		} catch (final IOException e) {
+			LOG.error("Could not write performance report to {}: {}", reportPath, e);
+			return null;
+		}
+	}
+
+	private void start() {
+		if (this.scene != null) {
+			this.scene.addPostLayoutPulseListener(this.postPulseListener);
+		}
+		for (final GarbageCollectorMXBean garbageCollector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			if (garbageCollector instanceof NotificationEmitter) {
+				((NotificationEmitter) garbageCollector).addNotificationListener(this.gcListener, null, null);
+			}
+		}
+		this.setVisible(true);
+		this.refresh();
+		this.refreshTimeline.play();
+	}
+
+	private void stop() {
+		this.refreshTimeline.stop();
+		this.setVisible(false);
+		if (this.scene != null) {
+			this.scene.removePostLayoutPulseListener(this.postPulseListener);
+		}
+		for (final GarbageCollectorMXBean garbageCollector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			if (garbageCollector instanceof NotificationEmitter) {
+				try {
+					((NotificationEmitter) garbageCollector).removeNotificationListener(this.gcListener);
+				} catch (final ListenerNotFoundException e) {
+					// Nothing to remove.
+				}
+			}
+		}
+	}
+
+	private void onPulseStarted() {
+		if (this.isVisible()) {
+			this.pulseStartNanos = System.nanoTime();
+		}
+	}
+
+	private void onPulseFinished() {
+		if (this.pulseStartNanos != 0) {
+			this.pulseHistogram.record(System.nanoTime() - this.pulseStartNanos);
+			this.pulseStartNanos = 0;
+		}
+	}
+
+	/**
+	 * Records the duration of a collection. This is called on a JMX thread.
+	 * Concurrent collector cycles are skipped, since they do not pause the
+	 * application.
+	 */
+	private void onGarbageCollection(final Notification notification, final Object handback) {
+		if (!GC_NOTIFICATION_TYPE.equals(notification.getType())) {
+			return;
+		}
+		final CompositeData notificationData = (CompositeData) notification.getUserData();
+		final String gcAction = String.valueOf(notificationData.get("gcAction"));
+		if (gcAction.contains("concurrent")) {
+			return;
+		}
+		final CompositeData gcInfo = (CompositeData) notificationData.get("gcInfo");
+		final long durationMillis = (Long) gcInfo.get("duration");
+		Platform.runLater(() -> this.gcPauseHistogram.record(durationMillis * NANOS_PER_MILLI));
+	}
+
+	private void refresh() {
+		this.setText(String.format(
+				"Pulses:  %s%nLast:    %s, %.2fms, %d nodes restyled%nStates:  %s%nGC:      %s%n%s%nCTRL+SHIFT+E exports a report",
+				this.pulseHistogram.getSummary(), this.lastStateName, this.stateTransitionHistogram.getLastMillis(),
+				this.lastNumMutations, this.stateTransitionHistogram.getSummary(), this.gcPauseHistogram.getSummary(),
+				this.getHeapSummary()));
+	}
+
+	private String getHeapSummary() {
+		final Runtime runtime = Runtime.getRuntime();
+		return String.format("Heap:    %.0f / %.0f MB", (runtime.totalMemory() - runtime.freeMemory()) / BYTES_PER_MEGABYTE,
+				runtime.maxMemory() / BYTES_PER_MEGABYTE);
+	}
+
+	private void appendHistogram(final StringBuilder report, final String title, final LatencyHistogram histogram) {
+		report.append(title).append(": ").append(histogram.getSummary()).append(String.format(", mean=%.2fms%n",
+				histogram.getMeanMillis()));
+		report.append(histogram.toHistogramString()).append(System.lineSeparator());
+	}
+}
@@ -0,0 +1,51 @@
+package sudoku.view.dialog;
+
+import javafx.geometry.Insets;
+import javafx.scene.control.Button;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.stage.Stage;
+import sudoku.core.PuzzleCollectionService;
+import sudoku.view.util.LabelConstants;
+
+/**
+ * This class is a dialog to move to a puzzle in the opened collection by its
+ * number (see PuzzleCollectionService). The dialog stays open if the number is
+ * not valid.
+ */
+public class GoToPuzzleDialog extends MessageDialog {
+
+	private static final int BUTTON_PANE_PADDING = 5;
+
+	private TextField puzzleNumberField;
+
+	public GoToPuzzleDialog(final Stage stage) {
+		super(stage);
+	}
+
+	@Override
+	protected void createButtonPane() {
+		this.puzzleNumberField = new TextField();
+		this.puzzleNumberField.setOnAction(event -> this.onGo());
+		final Button goButton = new Button(LabelConstants.GO);
+		goButton.setOnAction(event -> this.onGo());
+		final HBox buttonPane = new HBox(BUTTON_PANE_PADDING);
+		buttonPane.setPadding(new Insets(0, 0, BUTTON_PANE_PADDING, BUTTON_PANE_PADDING));
+		buttonPane.getChildren().addAll(this.puzzleNumberField, goButton);
+		this.setBottom(buttonPane);
+	}
+
+	private void onGo() {
+		try {
+			final int puzzleNumber = Integer.parseInt(this.puzzleNumberField.getText().trim().replace(",", ""));
+			if (PuzzleCollectionService.getInstance().showPuzzle(puzzleNumber - 1)) {
+				this.getStage().close();
+				return;
+			}
+		} catch (final NumberFormatException e) {
+			// Falls through to selecting the text, so it can be typed again.
+		}
+		this.puzzleNumberField.selectAll();
+	}
+
+}
@@ -27,5 +27,9 @@ public interface HintAnnotation {
 
 	public int getEndNodeData();
 
-	public boolean intersectsWith(int nodeData);
+	/**
+	 * Recomputes the shape of the annotation from the current position of its
+	 * candidates (e.g. after the layout of the grid changed).
+	 */
+	public void updateGeometry();
 }
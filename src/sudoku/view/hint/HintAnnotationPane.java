@@ -0,0 +1,101 @@
+package sudoku.view.hint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.CacheHint;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+import sudoku.core.ViewController;
+import sudoku.model.SudokuPeers;
+import sudoku.model.SudokuPuzzleValues;
+import sudoku.view.puzzle.SudokuPuzzleCanvas;
+import sudoku.view.puzzle.SudokuPuzzleView;
+
+/**
+ * This class is a transparent layer over the puzzle grid which holds the hint
+ * annotations. Annotation geometry is in the coordinates of this pane, so it
+ * moves with the grid when the window is dragged or resized; it only has to be
+ * recomputed when the layout of the grid itself changes.
+ *
+ * The pane is cached as a bitmap, since its content only changes with the hint.
+ */
+public class HintAnnotationPane extends Pane {
+
+	private static final int NUM_CANDIDATES = SudokuPeers.NUM_CELLS * SudokuPuzzleValues.CELLS_PER_HOUSE;
+
+	private final List<HintAnnotation> hintAnnotations;
+
+	// The center of each candidate label in this pane, by cellIndex * 9 + digit -
+	// 1. Entries are computed as needed and cleared on layout changes.
+	private final Point2D[] candidateCenters;
+
+	public HintAnnotationPane() {
+		this.hintAnnotations = new ArrayList<>();
+		this.candidateCenters = new Point2D[NUM_CANDIDATES];
+		this.configure();
+	}
+
+	private void configure() {
+		this.setMouseTransparent(true);
+		this.setPickOnBounds(false);
+		this.setCache(true);
+		this.setCacheHint(CacheHint.SPEED);
+		this.layoutBoundsProperty().addListener((observable, oldValue, newValue) -> this.updateGeometry());
+	}
+
+	/**
+	 * Adds a hint annotation to the sudoku grid. This is generally an arrow
+	 * representing a link as part of a solution step.
+	 */
+	public void addAnnotation(final HintAnnotation annotation) {
+		annotation.getAnnotationBody().setManaged(false);
+		annotation.getArrowHead().setManaged(false);
+		this.getChildren().addAll(annotation.getAnnotationBody(), annotation.getArrowHead());
+		this.hintAnnotations.add(annotation);
+	}
+
+	public void removeAllAnnotations() {
+		this.getChildren().clear();
+		this.hintAnnotations.clear();
+	}
+
+	/**
+	 * Returns the center of the given candidate (1 - 9) label in this pane. With
+	 * the canvas renderer, there are no labels, so it is where the canvas draws
+	 * the candidate.
+	 */
+	public Point2D getCandidateCenter(final int cellIndex, final int candidate) {
+		final int candidateIndex = cellIndex * SudokuPuzzleValues.CELLS_PER_HOUSE + candidate - 1;
+		if (this.candidateCenters[candidateIndex] == null) {
+			final int row = SudokuPeers.getRow(cellIndex);
+			final int col = SudokuPeers.getCol(cellIndex);
+			final SudokuPuzzleView sudokuPuzzleView = ViewController.getInstance().getSudokuPuzzleView();
+			if (sudokuPuzzleView.isCanvasRendererEnabled()) {
+				final SudokuPuzzleCanvas sudokuPuzzleCanvas = sudokuPuzzleView.getSudokuPuzzleCanvas();
+				this.candidateCenters[candidateIndex] = this.sceneToLocal(
+						sudokuPuzzleCanvas.localToScene(sudokuPuzzleCanvas.getCandidateCenter(row, col, candidate)));
+			} else {
+				final Label candidateLabel = ViewController.getInstance().getSudokuPuzzleCell(row, col)
+						.getCandidateLabelForDigit(candidate);
+				final Bounds bounds = candidateLabel.getBoundsInLocal();
+				this.candidateCenters[candidateIndex] = this.sceneToLocal(candidateLabel.localToScene(
+						(bounds.getMinX() + bounds.getMaxX()) / 2.0, (bounds.getMinY() + bounds.getMaxY()) / 2.0));
+			}
+		}
+		return this.candidateCenters[candidateIndex];
+	}
+
+	/**
+	 * Clears the cached candidate positions, and moves the shown annotations to
+	 * match. Called when the layout of the grid changes, or its renderer.
+	 */
+	public void updateGeometry() {
+		for (int candidateIndex = 0; candidateIndex < NUM_CANDIDATES; candidateIndex++) {
+			this.candidateCenters[candidateIndex] = null;
+		}
+		this.hintAnnotations.forEach(HintAnnotation::updateGeometry);
+	}
+}
@@ -1,16 +1,12 @@
 package sudoku.view.hint;
 
-import javafx.geometry.Bounds;
-import javafx.scene.control.Label;
+import javafx.geometry.Point2D;
 import javafx.scene.shape.Line;
 import javafx.scene.shape.Polygon;
 import javafx.scene.shape.Shape;
 import javafx.scene.shape.StrokeLineCap;
 import javafx.scene.shape.StrokeLineJoin;
 import sudoku.Chain;
-import sudoku.core.ViewController;
-import sudoku.model.SudokuPuzzleValues;
-import sudoku.view.puzzle.SudokuPuzzleCell;
 import sudoku.view.util.ColorUtils;
 
 /**
@@ -49,43 +45,32 @@ public class LinearHintAnnotation extends AbstractHintAnnotation {
 		final int startCellIndex = Chain.getSCellIndex(this.getStartNodeData());
 		final int endCellIndex = Chain.getSCellIndex(this.getEndNodeData());
 		if (this.getEndNodeData() != Integer.MIN_VALUE && startCellIndex != endCellIndex) {
-			this.setInitialCoordinates(startCellIndex, endCellIndex);
-			this.adjustPoints();
-			this.drawArrowPointer();
+			this.updateGeometry();
 		} else {
 			this.valid = false;
 		}
 	}
 
+	@Override
+	public void updateGeometry() {
+		this.arrowHead.getPoints().clear();
+		this.setInitialCoordinates();
+		this.adjustPoints();
+		this.drawArrowPointer();
+	}
+
 	/**
-	 * Sets the initial start / end points of the line. These points will be used as
-	 * the starting point for a few additional calculations.
+	 * Sets the initial start / end points of the line (the centers of the two
+	 * candidates). These points will be used as the starting point for a few
+	 * additional calculations.
 	 */
-	protected void setInitialCoordinates(final int startCellIndex, final int endCellIndex) {
-		final int startRow = startCellIndex / SudokuPuzzleValues.CELLS_PER_HOUSE;
-		final int startCol = startCellIndex % SudokuPuzzleValues.CELLS_PER_HOUSE;
-		final int endRow = endCellIndex / SudokuPuzzleValues.CELLS_PER_HOUSE;
-		final int endCol = endCellIndex % SudokuPuzzleValues.CELLS_PER_HOUSE;
-		final int startCandidate = Chain.getSCandidate(this.getStartNodeData());
-		final int endCandidate = Chain.getSCandidate(this.getEndNodeData());
-		final SudokuPuzzleCell startCell = ViewController.getInstance().getSudokuPuzzleCell(startRow, startCol);
-		final SudokuPuzzleCell endCell = ViewController.getInstance().getSudokuPuzzleCell(endRow, endCol);
-		final Label startCandidateLabel = startCell.getCandidateLabelForDigit(startCandidate);
-		final Label endCandidateLabel = endCell.getCandidateLabelForDigit(endCandidate);
-		final Bounds startBounds = startCandidateLabel.localToScreen(startCandidateLabel.getBoundsInLocal());
-		final Bounds endBounds = endCandidateLabel.localToScreen(endCandidateLabel.getBoundsInLocal());
-		final double startX = (startBounds.getMinX() + startBounds.getMaxX()) / 2.0;
-		final double startY = (startBounds.getMinY() + startBounds.getMaxY()) / 2.0;
-		final double endX = (endBounds.getMinX() + endBounds.getMaxX()) / 2.0;
-		final double endY = (endBounds.getMinY() + endBounds.getMaxY()) / 2.0;
-		// This math was just off by a little bit each time. After awhile of trying to
-		// figure out why, I instead adjusted the end result to line up with the center
-		// of the label. It most likely has something to do with padding or borders.
-		this.line.setStartX(startX - COORDINATE_ERROR_X_OFFSET);
-		this.line.setStartY(startY - COORDINATE_ERROR_Y_OFFSET);
-		this.line.setEndX(endX - COORDINATE_ERROR_X_OFFSET);
-		this.line.setEndY(endY - COORDINATE_ERROR_Y_OFFSET);
-
+	protected void setInitialCoordinates() {
+		final Point2D startCenter = this.getCandidateCenter(this.getStartNodeData());
+		final Point2D endCenter = this.getCandidateCenter(this.getEndNodeData());
+		this.line.setStartX(startCenter.getX());
+		this.line.setStartY(startCenter.getY());
+		this.line.setEndX(endCenter.getX());
+		this.line.setEndY(endCenter.getY());
 	}
 
 	/**
@@ -17,6 +17,8 @@ import sudoku.Options;
 import sudoku.SolutionType;
 import sudoku.StepConfig;
 import sudoku.core.ModelController;
+import sudoku.core.PuzzleCollectionService;
+import sudoku.core.PuzzleFileService;
 import sudoku.core.ViewController;
 import sudoku.factories.LayoutFactory;
 import sudoku.model.ApplicationSettings;
@@ -46,6 +48,31 @@ public class FileMenu extends Menu {
 		openPuzzleMenuItem.setOnAction(event -> {
 			this.onOpenPuzzle();
 		});
+		final MenuItem openCollectionMenuItem = new MenuItem(LabelConstants.OPEN_COLLECTION);
+		openCollectionMenuItem.setAccelerator(
+				new KeyCodeCombination(KeyCode.O, KeyCombination.CONTROL_DOWN, KeyCombination.SHIFT_DOWN));
+		openCollectionMenuItem.setOnAction(event -> {
+			this.onOpenCollection();
+		});
+		final MenuItem nextCollectionPuzzleMenuItem = new MenuItem(LabelConstants.NEXT_COLLECTION_PUZZLE);
+		nextCollectionPuzzleMenuItem.setAccelerator(new KeyCodeCombination(KeyCode.PAGE_DOWN, KeyCombination.CONTROL_DOWN));
+		nextCollectionPuzzleMenuItem.setOnAction(event -> PuzzleCollectionService.getInstance().showNextPuzzle());
+		final MenuItem previousCollectionPuzzleMenuItem = new MenuItem(LabelConstants.PREVIOUS_COLLECTION_PUZZLE);
+		previousCollectionPuzzleMenuItem
+				.setAccelerator(new KeyCodeCombination(KeyCode.PAGE_UP, KeyCombination.CONTROL_DOWN));
+		previousCollectionPuzzleMenuItem
+				.setOnAction(event -> PuzzleCollectionService.getInstance().showPreviousPuzzle());
+		final MenuItem goToCollectionPuzzleMenuItem = new MenuItem(LabelConstants.GO_TO_COLLECTION_PUZZLE);
+		goToCollectionPuzzleMenuItem.setAccelerator(new KeyCodeCombination(KeyCode.J, KeyCombination.CONTROL_DOWN));
+		goToCollectionPuzzleMenuItem.setOnAction(event -> LayoutFactory.getInstance()
+				.showGoToPuzzleDialog(LabelConstants.GO_TO_PUZZLE, LabelConstants.GO_TO_PUZZLE_MESSAGE));
+		// Paging only makes sense once a collection is open.
+		this.setOnShowing(event -> {
+			final boolean hasCollection = PuzzleCollectionService.getInstance().hasCollection();
+			nextCollectionPuzzleMenuItem.setDisable(!hasCollection);
+			previousCollectionPuzzleMenuItem.setDisable(!hasCollection);
+			goToCollectionPuzzleMenuItem.setDisable(!hasCollection);
+		});
 		final MenuItem savePuzzleMenuItem = new MenuItem(LabelConstants.SAVE);
 		savePuzzleMenuItem.setOnAction(event -> {
 			this.onSavePuzzle();
@@ -54,7 +81,8 @@ public class FileMenu extends Menu {
 		closeMenuItem.setAccelerator(new KeyCodeCombination(KeyCode.F4, KeyCombination.ALT_DOWN));
 		closeMenuItem.setOnAction(event -> ModelController.getInstance().transitionToClosedState());
 		this.getItems().addAll(newPuzzleMenuItem, newBlankPuzzleMenuItem, new SeparatorMenuItem(), openPuzzleMenuItem,
-				savePuzzleMenuItem, new SeparatorMenuItem(), closeMenuItem);
+				savePuzzleMenuItem, new SeparatorMenuItem(), openCollectionMenuItem, nextCollectionPuzzleMenuItem,
+				previousCollectionPuzzleMenuItem, goToCollectionPuzzleMenuItem, new SeparatorMenuItem(), closeMenuItem);
 	}
 
 	private MenuItem createNewBlankPuzzleMenuItem() {
@@ -149,7 +177,19 @@ public class FileMenu extends Menu {
 		fileChooser.getExtensionFilters().add(new ExtensionFilter("Sudoku puzzle file", "*.spf"));
 		final File selectedFile = fileChooser.showOpenDialog(modalStage);
 		if (selectedFile != null) {
-			ModelController.getInstance().transitionToOpenedFileState(selectedFile);
+			PuzzleFileService.getInstance().open(selectedFile);
+		}
+	}
+
+	private void onOpenCollection() {
+		final ModalStage modalStage = new ModalStage();
+		final FileChooser fileChooser = new FileChooser();
+		fileChooser.setTitle(LabelConstants.OPEN_COLLECTION_FILE);
+		fileChooser.getExtensionFilters().addAll(new ExtensionFilter("Puzzle collection", "*.txt", "*.sdm", "*.hsol"),
+				new ExtensionFilter("All files", "*.*"));
+		final File selectedFile = fileChooser.showOpenDialog(modalStage);
+		if (selectedFile != null) {
+			PuzzleCollectionService.getInstance().open(selectedFile);
 		}
 	}
 
@@ -158,6 +198,9 @@ public class FileMenu extends Menu {
 		fileChooser.setTitle(LabelConstants.SAVE_FILE);
 		fileChooser.getExtensionFilters().add(new ExtensionFilter("Sudoku puzzle file", "*.spf"));
 		final File selectedFile = fileChooser.showSaveDialog(ViewController.getInstance().getStage());
-		ModelController.getInstance().transitionToSavedFileState(selectedFile);
+		// The dialog returns null if it was cancelled.
+		if (selectedFile != null) {
+			ModelController.getInstance().transitionToSavedFileState(selectedFile);
+		}
 	}
 }
@@ -0,0 +1,151 @@
+package sudoku.view.port;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.logging.log4j.util.Strings;
+
+import javafx.css.PseudoClass;
+import sudoku.model.SudokuPuzzleValues;
+import sudoku.view.util.ViewMutationCounter;
+
+/**
+ * This class is a cell without any JavaFX nodes, which only remembers what would
+ * be shown. Changes are counted like they are for SudokuPuzzleCell, so the
+ * number of view mutations of a transition is the same with or without a view.
+ */
+public class HeadlessPuzzleCell implements PuzzleCellPort {
+
+	private static final String DIGIT_REPLACE_TEXT = "DIGIT";
+
+	private static final String NUMPAD_REPLACE_TEXT = "NUMPAD";
+
+	private final int row;
+
+	private final int col;
+
+	private String fixedDigit;
+
+	private boolean isSelected;
+
+	private boolean isShowingCandidates;
+
+	private final boolean[] visibleCandidates;
+
+	private final Set<PseudoClass> pseudoClasses;
+
+	private final List<Set<PseudoClass>> candidatePseudoClasses;
+
+	public HeadlessPuzzleCell(final int row, final int col) {
+		this.row = row;
+		this.col = col;
+		this.fixedDigit = Strings.EMPTY;
+		this.isSelected = false;
+		this.isShowingCandidates = true;
+		this.visibleCandidates = new boolean[SudokuPuzzleValues.CELLS_PER_HOUSE];
+		this.pseudoClasses = new HashSet<>();
+		this.candidatePseudoClasses = new ArrayList<>(SudokuPuzzleValues.CELLS_PER_HOUSE);
+		for (int index = 0; index < SudokuPuzzleValues.CELLS_PER_HOUSE; index++) {
+			this.candidatePseudoClasses.add(new HashSet<>());
+		}
+	}
+
+	@Override
+	public int getRow() {
+		return this.row;
+	}
+
+	@Override
+	public int getCol() {
+		return this.col;
+	}
+
+	@Override
+	public int getFixedDigit() {
+		return this.fixedDigit.isEmpty() ? -1 : Integer.parseInt(this.fixedDigit);
+	}
+
+	@Override
+	public void setFixedDigit(final String digit) {
+		final String text = digit.replace(DIGIT_REPLACE_TEXT, Strings.EMPTY).replace(NUMPAD_REPLACE_TEXT, Strings.EMPTY);
+		if (!text.equals(this.fixedDigit)) {
+			this.fixedDigit = text;
+			ViewMutationCounter.getInstance().increment();
+		}
+	}
+
+	public boolean isSelected() {
+		return this.isSelected;
+	}
+
+	@Override
+	public void setIsSelected(final boolean isSelected) {
+		if (this.isSelected != isSelected) {
+			this.isSelected = isSelected;
+			ViewMutationCounter.getInstance().increment();
+		}
+	}
+
+	@Override
+	public void setCandidatesVisible(final boolean showCandidates) {
+		if (this.isShowingCandidates != showCandidates) {
+			this.isShowingCandidates = showCandidates;
+			ViewMutationCounter.getInstance().increment();
+		}
+	}
+
+	public boolean isCandidateVisible(final int digit) {
+		return this.visibleCandidates[digit - 1];
+	}
+
+	@Override
+	public void setCandidateVisible(final int digit, final boolean visible) {
+		if (this.visibleCandidates[digit - 1] != visible) {
+			this.visibleCandidates[digit - 1] = visible;
+			ViewMutationCounter.getInstance().increment();
+		}
+	}
+
+	@Override
+	public void setCellPseudoClassState(final PseudoClass pseudoClass, final boolean active) {
+		HeadlessPuzzleCell.setPseudoClassState(this.pseudoClasses, pseudoClass, active);
+	}
+
+	@Override
+	public void setCandidatePseudoClassState(final int digit, final PseudoClass pseudoClass, final boolean active) {
+		HeadlessPuzzleCell.setPseudoClassState(this.candidatePseudoClasses.get(digit - 1), pseudoClass, active);
+	}
+
+	@Override
+	public boolean isCandidatePseudoClassActive(final int digit, final PseudoClass pseudoClass) {
+		return this.candidatePseudoClasses.get(digit - 1).contains(pseudoClass);
+	}
+
+	public boolean isCellPseudoClassActive(final PseudoClass pseudoClass) {
+		return this.pseudoClasses.contains(pseudoClass);
+	}
+
+	@Override
+	public void copyTo(final PuzzleCellPort target) {
+		target.setFixedDigit(this.fixedDigit);
+		target.setIsSelected(this.isSelected);
+		target.setCandidatesVisible(this.isShowingCandidates);
+		for (int digit = 1; digit <= SudokuPuzzleValues.CELLS_PER_HOUSE; digit++) {
+			target.setCandidateVisible(digit, this.visibleCandidates[digit - 1]);
+			for (final PseudoClass pseudoClass : this.candidatePseudoClasses.get(digit - 1)) {
+				target.setCandidatePseudoClassState(digit, pseudoClass, true);
+			}
+		}
+		this.pseudoClasses.forEach(pseudoClass -> target.setCellPseudoClassState(pseudoClass, true));
+	}
+
+	private static void setPseudoClassState(final Set<PseudoClass> pseudoClasses, final PseudoClass pseudoClass,
+			final boolean active) {
+		final boolean isChanged = active ? pseudoClasses.add(pseudoClass) : pseudoClasses.remove(pseudoClass);
+		if (isChanged) {
+			ViewMutationCounter.getInstance().increment();
+		}
+	}
+}
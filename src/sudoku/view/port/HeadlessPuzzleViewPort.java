@@ -0,0 +1,227 @@
+package sudoku.view.port;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.logging.log4j.util.Strings;
+
+import sudoku.model.SudokuPuzzleStyle;
+import sudoku.model.SudokuPuzzleValues;
+import sudoku.view.util.LabelConstants;
+
+/**
+ * This class is a view port without a window. It remembers what the view would
+ * show (so states which read the view back still work, and a benchmark can check
+ * the result), and counts the calls which would have changed a JavaFX node.
+ *
+ * Tasks passed to runLater are queued, and only run when runPendingTasks is
+ * called, on the caller's thread. This stands in for the JavaFX thread.
+ */
+public class HeadlessPuzzleViewPort implements PuzzleViewPort {
+
+	private static final List<String> FILTER_BUTTON_TEXTS = Arrays.asList("1", "2", "3", "4", "5", "6", "7", "8", "9",
+			LabelConstants.BIVALUE_CELL);
+
+	private final HeadlessPuzzleCell[][] cells;
+
+	private final boolean[] disabledFilterButtons;
+
+	private final Queue<Runnable> pendingTasks;
+
+	private String hintText;
+
+	private String difficultyText;
+
+	private String ratingText;
+
+	private String remainingRatingText;
+
+	private String filterQueryError;
+
+	private int numHintLinks;
+
+	private long numViewCalls;
+
+	public HeadlessPuzzleViewPort() {
+		this.cells = new HeadlessPuzzleCell[SudokuPuzzleValues.CELLS_PER_HOUSE][SudokuPuzzleValues.CELLS_PER_HOUSE];
+		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
+			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
+				this.cells[col][row] = new HeadlessPuzzleCell(row, col);
+			}
+		}
+		this.disabledFilterButtons = new boolean[FILTER_BUTTON_TEXTS.size()];
+		this.pendingTasks = new ConcurrentLinkedQueue<>();
+		this.hintText = Strings.EMPTY;
+		this.difficultyText = Strings.EMPTY;
+		this.ratingText = Strings.EMPTY;
+		this.remainingRatingText = Strings.EMPTY;
+		this.filterQueryError = null;
+		this.numHintLinks = 0;
+		this.numViewCalls = 0;
+	}
+
+	/** Runs the tasks passed to runLater so far. Returns the number of tasks run. */
+	public int runPendingTasks() {
+		int numTasks = 0;
+		Runnable task;
+		while ((task = this.pendingTasks.poll()) != null) {
+			task.run();
+			numTasks++;
+		}
+		return numTasks;
+	}
+
+	/**
+	 * Returns the number of calls made to this port, other than getting cells or
+	 * filter buttons.
+	 */
+	public long getNumViewCalls() {
+		return this.numViewCalls;
+	}
+
+	public String getHintText() {
+		return this.hintText;
+	}
+
+	public String getDifficultyText() {
+		return this.difficultyText;
+	}
+
+	public String getRatingText() {
+		return this.ratingText;
+	}
+
+	public String getRemainingRatingText() {
+		return this.remainingRatingText;
+	}
+
+	/** Returns the error shown on the filter query, or null if there is none. */
+	public String getFilterQueryError() {
+		return this.filterQueryError;
+	}
+
+	public int getNumHintLinks() {
+		return this.numHintLinks;
+	}
+
+	@Override
+	public HeadlessPuzzleCell getCell(final int row, final int col) {
+		return this.cells[col][row];
+	}
+
+	@Override
+	public void requestFocus() {
+		this.numViewCalls++;
+	}
+
+	@Override
+	public void updatePuzzleCanvas(final SudokuPuzzleValues sudokuPuzzleValues,
+			final SudokuPuzzleStyle sudokuPuzzleStyle) {
+		this.numViewCalls++;
+	}
+
+	@Override
+	public void recordStateEntered(final String stateName, final long durationNanos, final int numMutations) {
+		// There is no performance overlay; StateTransitionMetrics has the times.
+	}
+
+	@Override
+	public void setDifficultyText(final String text) {
+		this.numViewCalls++;
+		this.difficultyText = text;
+	}
+
+	@Override
+	public void setRatingText(final String text) {
+		this.numViewCalls++;
+		this.ratingText = text;
+	}
+
+	@Override
+	public void setRemainingRatingText(final String text) {
+		this.numViewCalls++;
+		this.remainingRatingText = text;
+	}
+
+	@Override
+	public void setHintText(final String text) {
+		this.numViewCalls++;
+		this.hintText = text;
+	}
+
+	@Override
+	public void setHintButtonsDisabled(final boolean isDisabled) {
+		this.numViewCalls++;
+	}
+
+	@Override
+	public void removeAllHintAnnotations() {
+		this.numViewCalls++;
+		this.numHintLinks = 0;
+	}
+
+	@Override
+	public void addHintLink(final int startNodeData, final int endNodeData, final boolean isCurved) {
+		this.numViewCalls++;
+		this.numHintLinks++;
+	}
+
+	@Override
+	public int getNumFilterButtons() {
+		return FILTER_BUTTON_TEXTS.size();
+	}
+
+	@Override
+	public String getFilterButtonText(final int index) {
+		return FILTER_BUTTON_TEXTS.get(index);
+	}
+
+	@Override
+	public int getFilterButtonIndex(final String cellFilter) {
+		return FILTER_BUTTON_TEXTS.indexOf(cellFilter);
+	}
+
+	@Override
+	public boolean isFilterButtonDisabled(final int index) {
+		return this.disabledFilterButtons[index];
+	}
+
+	@Override
+	public void setFilterButtonDisabled(final int index, final boolean isDisabled) {
+		this.numViewCalls++;
+		this.disabledFilterButtons[index] = isDisabled;
+	}
+
+	@Override
+	public void setFilterButtonSelected(final int index, final boolean isSelected) {
+		this.numViewCalls++;
+	}
+
+	@Override
+	public void setFilterQueryError(final String message) {
+		this.numViewCalls++;
+		this.filterQueryError = message;
+	}
+
+	@Override
+	public void setUndoRedoDisabled(final boolean isUndoDisabled, final boolean isRedoDisabled) {
+		this.numViewCalls++;
+	}
+
+	@Override
+	public void setDigitButtonSelected(final int digit, final boolean isSelected) {
+		this.numViewCalls++;
+	}
+
+	@Override
+	public void setColorButtonSelected(final int colorIndex, final boolean isSelected) {
+		this.numViewCalls++;
+	}
+
+	@Override
+	public void runLater(final Runnable task) {
+		this.pendingTasks.add(task);
+	}
+}
@@ -0,0 +1,186 @@
+package sudoku.view.port;
+
+import java.util.List;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.scene.control.Button;
+import sudoku.core.ViewController;
+import sudoku.factories.LayoutFactory;
+import sudoku.model.SudokuPuzzleStyle;
+import sudoku.model.SudokuPuzzleValues;
+import sudoku.view.PerformanceOverlay;
+import sudoku.view.hint.HintAnnotation;
+import sudoku.view.hint.HintButtonPane;
+import sudoku.view.puzzle.SudokuPuzzleView;
+import sudoku.view.sidebar.FilterButtonPane;
+
+/**
+ * This class is the view port of the application, which passes each change on
+ * to the views registered in the ViewController.
+ */
+public class JavaFxPuzzleViewPort implements PuzzleViewPort {
+
+	private static final String SELECTED_COLOR_BUTTON_CSS_CLASS = "sudoku-color-button-selected";
+
+	private static final String SUDOKU_COMBO_BUTTON_SELECTED_CSS_CLASS = "sudoku-combo-button-selected";
+
+	private static final String SUDOKU_COMBO_BUTTON_UNSELECTED_CSS_CLASS = "sudoku-combo-button-unselected";
+
+	@Override
+	public PuzzleCellPort getCell(final int row, final int col) {
+		return ViewController.getInstance().getSudokuPuzzleView().getCellPort(row, col);
+	}
+
+	@Override
+	public void requestFocus() {
+		ViewController.getInstance().getSudokuPuzzleView().requestFocus();
+	}
+
+	@Override
+	public void updatePuzzleCanvas(final SudokuPuzzleValues sudokuPuzzleValues,
+			final SudokuPuzzleStyle sudokuPuzzleStyle) {
+		final SudokuPuzzleView sudokuPuzzleView = ViewController.getInstance().getSudokuPuzzleView();
+		if (sudokuPuzzleView.isCanvasRendererEnabled()) {
+			sudokuPuzzleView.getSudokuPuzzleCanvas().requestDraw(sudokuPuzzleValues, sudokuPuzzleStyle);
+		}
+	}
+
+	@Override
+	public void recordStateEntered(final String stateName, final long durationNanos, final int numMutations) {
+		final PerformanceOverlay performanceOverlay = ViewController.getInstance().getPerformanceOverlay();
+		if (performanceOverlay != null) {
+			performanceOverlay.recordStateEntered(stateName, durationNanos, numMutations);
+		}
+	}
+
+	@Override
+	public void setDifficultyText(final String text) {
+		ViewController.getInstance().getPuzzleStatsPane().getDifficultyTextField().setText(text);
+	}
+
+	@Override
+	public void setRatingText(final String text) {
+		ViewController.getInstance().getPuzzleStatsPane().getRatingTextField().setText(text);
+	}
+
+	@Override
+	public void setRemainingRatingText(final String text) {
+		ViewController.getInstance().getPuzzleStatsPane().getRemainingRatingTextField().setText(text);
+	}
+
+	@Override
+	public void setHintText(final String text) {
+		ViewController.getInstance().getHintTextArea().getHintTextArea().setText(text);
+	}
+
+	@Override
+	public void setHintButtonsDisabled(final boolean isDisabled) {
+		final HintButtonPane hintButtonPane = ViewController.getInstance().getHintButtonPane();
+		hintButtonPane.getApplyHintButton().setDisable(isDisabled);
+		hintButtonPane.getHideHintButton().setDisable(isDisabled);
+	}
+
+	@Override
+	public void removeAllHintAnnotations() {
+		ViewController.getInstance().getHintAnnotationPane().removeAllAnnotations();
+	}
+
+	@Override
+	public void addHintLink(final int startNodeData, final int endNodeData, final boolean isCurved) {
+		final HintAnnotation annotation;
+		if (isCurved) {
+			annotation = LayoutFactory.getInstance().createCurvedHintAnnotation(startNodeData, endNodeData);
+		} else {
+			annotation = LayoutFactory.getInstance().createLinearHintAnnotation(startNodeData, endNodeData);
+		}
+		if (annotation.isValid()) {
+			ViewController.getInstance().getHintAnnotationPane().addAnnotation(annotation);
+		}
+	}
+
+	@Override
+	public int getNumFilterButtons() {
+		return this.getFilterButtons().size();
+	}
+
+	@Override
+	public String getFilterButtonText(final int index) {
+		return this.getFilterButtons().get(index).getText();
+	}
+
+	@Override
+	public int getFilterButtonIndex(final String cellFilter) {
+		final List<Button> filterButtons = this.getFilterButtons();
+		for (int index = 0; index < filterButtons.size(); index++) {
+			if (filterButtons.get(index).getText().equals(cellFilter)) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean isFilterButtonDisabled(final int index) {
+		return this.getFilterButtons().get(index).isDisabled();
+	}
+
+	@Override
+	public void setFilterButtonDisabled(final int index, final boolean isDisabled) {
+		this.getFilterButtons().get(index).setDisable(isDisabled);
+	}
+
+	@Override
+	public void setFilterButtonSelected(final int index, final boolean isSelected) {
+		final ObservableList<String> styleClass = this.getFilterButtons().get(index).getStyleClass();
+		// Both classes are removed first, to avoid duplicate classes.
+		styleClass.remove(SUDOKU_COMBO_BUTTON_SELECTED_CSS_CLASS);
+		styleClass.remove(SUDOKU_COMBO_BUTTON_UNSELECTED_CSS_CLASS);
+		styleClass.add(isSelected ? SUDOKU_COMBO_BUTTON_SELECTED_CSS_CLASS : SUDOKU_COMBO_BUTTON_UNSELECTED_CSS_CLASS);
+	}
+
+	@Override
+	public void setFilterQueryError(final String message) {
+		ViewController.getInstance().getFilterButtonPane().setFilterQueryError(message);
+	}
+
+	@Override
+	public void setUndoRedoDisabled(final boolean isUndoDisabled, final boolean isRedoDisabled) {
+		final FilterButtonPane filterButtonPane = ViewController.getInstance().getFilterButtonPane();
+		filterButtonPane.getUndoButton().setDisable(isUndoDisabled);
+		filterButtonPane.getRedoButton().setDisable(isRedoDisabled);
+		ViewController.getInstance().getUndoMenuItem().setDisable(isUndoDisabled);
+		ViewController.getInstance().getRedoMenuItem().setDisable(isRedoDisabled);
+	}
+
+	@Override
+	public void setDigitButtonSelected(final int digit, final boolean isSelected) {
+		final ObservableList<String> styleClass = ViewController.getInstance().getControlHelperPane()
+				.getDigitButton(digit - 1).getStyleClass();
+		if (isSelected) {
+			styleClass.add(SUDOKU_COMBO_BUTTON_SELECTED_CSS_CLASS);
+		} else {
+			styleClass.remove(SUDOKU_COMBO_BUTTON_SELECTED_CSS_CLASS);
+		}
+	}
+
+	@Override
+	public void setColorButtonSelected(final int colorIndex, final boolean isSelected) {
+		final ObservableList<String> styleClass = ViewController.getInstance().getControlHelperPane()
+				.getColorButton(colorIndex).getStyleClass();
+		if (isSelected) {
+			styleClass.add(SELECTED_COLOR_BUTTON_CSS_CLASS);
+		} else {
+			styleClass.remove(SELECTED_COLOR_BUTTON_CSS_CLASS);
+		}
+	}
+
+	@Override
+	public void runLater(final Runnable task) {
+		Platform.runLater(task);
+	}
+
+	private List<Button> getFilterButtons() {
+		return ViewController.getInstance().getFilterButtonPane().getFilterButtons();
+	}
+}
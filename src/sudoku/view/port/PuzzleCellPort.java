@@ -0,0 +1,43 @@
+package sudoku.view.port;
+
+import javafx.css.PseudoClass;
+
+/**
+ * This interface is the view of a single cell, as seen by the model states (see
+ * PuzzleViewPort). SudokuPuzzleCell implements it for the application, and
+ * HeadlessPuzzleCell implements it without JavaFX nodes.
+ */
+public interface PuzzleCellPort {
+
+	int getRow();
+
+	int getCol();
+
+	/** Returns the set value for the cell, or -1 if there isn't one. */
+	int getFixedDigit();
+
+	/** Sets the fixed digit's value. A KeyCode name (e.g. DIGIT5) is accepted. */
+	void setFixedDigit(String digit);
+
+	void setIsSelected(boolean isSelected);
+
+	/**
+	 * Shows the candidates if showCandidates is true, shows the fixed digit
+	 * otherwise.
+	 */
+	void setCandidatesVisible(boolean showCandidates);
+
+	void setCandidateVisible(int digit, boolean visible);
+
+	void setCellPseudoClassState(PseudoClass pseudoClass, boolean active);
+
+	void setCandidatePseudoClassState(int digit, PseudoClass pseudoClass, boolean active);
+
+	boolean isCandidatePseudoClassActive(int digit, PseudoClass pseudoClass);
+
+	/**
+	 * Shows everything this cell shows on the given cell, which was just created.
+	 * Used when the puzzle is switched to another renderer.
+	 */
+	void copyTo(PuzzleCellPort target);
+}
@@ -0,0 +1,87 @@
+package sudoku.view.port;
+
+import sudoku.model.SudokuPuzzleStyle;
+import sudoku.model.SudokuPuzzleValues;
+
+/**
+ * This interface is every part of the view which the model states change while
+ * the user plays (cells, hints, filter buttons, puzzle stats, etc.). The states
+ * only talk to the view through it, so the state machine can run without a
+ * Stage, e.g. to benchmark transitions separately from rendering (see
+ * HeadlessPuzzleViewPort).
+ *
+ * States which only make sense with a window (settings, the context menu, and
+ * finding the candidate under the mouse) still use the ViewController.
+ */
+public interface PuzzleViewPort {
+
+	PuzzleCellPort getCell(int row, int col);
+
+	/** Gives keyboard focus back to the puzzle. */
+	void requestFocus();
+
+	/** Redraws the puzzle from the model, if it is drawn on a canvas. */
+	void updatePuzzleCanvas(SudokuPuzzleValues sudokuPuzzleValues, SudokuPuzzleStyle sudokuPuzzleStyle);
+
+	/** Shows the time of a state transition on the performance overlay, if any. */
+	void recordStateEntered(String stateName, long durationNanos, int numMutations);
+
+	// Puzzle stats.
+
+	void setDifficultyText(String text);
+
+	void setRatingText(String text);
+
+	void setRemainingRatingText(String text);
+
+	// Hints.
+
+	void setHintText(String text);
+
+	/** Enables or disables the apply hint and hide hint buttons. */
+	void setHintButtonsDisabled(boolean isDisabled);
+
+	void removeAllHintAnnotations();
+
+	/**
+	 * Draws a link of the displayed hint between two candidates (see
+	 * HintChainIndex for the node data).
+	 */
+	void addHintLink(int startNodeData, int endNodeData, boolean isCurved);
+
+	// Filter buttons, in order (F1 - F10).
+
+	int getNumFilterButtons();
+
+	String getFilterButtonText(int index);
+
+	/** Returns the index of the button for the filter, or -1 if there is none. */
+	int getFilterButtonIndex(String cellFilter);
+
+	boolean isFilterButtonDisabled(int index);
+
+	void setFilterButtonDisabled(int index, boolean isDisabled);
+
+	void setFilterButtonSelected(int index, boolean isSelected);
+
+	/**
+	 * Shows the given error on the filter query typed by the user, or clears it if
+	 * the message is null.
+	 */
+	void setFilterQueryError(String message);
+
+	// Other controls.
+
+	void setUndoRedoDisabled(boolean isUndoDisabled, boolean isRedoDisabled);
+
+	/** Marks the button of the digit (1 - 9) as the active candidate, or not. */
+	void setDigitButtonSelected(int digit, boolean isSelected);
+
+	void setColorButtonSelected(int colorIndex, boolean isSelected);
+
+	/**
+	 * Runs the task later on the thread the states run on. This is how background
+	 * work (e.g. computing the solution) reports back to the model.
+	 */
+	void runLater(Runnable task);
+}
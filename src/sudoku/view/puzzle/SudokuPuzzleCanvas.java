@@ -0,0 +1,313 @@
+package sudoku.view.puzzle;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javafx.application.Platform;
+import javafx.geometry.Point2D;
+import javafx.geometry.VPos;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import sudoku.core.ModelController;
+import sudoku.model.ApplicationSettings;
+import sudoku.model.ColorState;
+import sudoku.model.SudokuPuzzleStyle;
+import sudoku.model.SudokuPuzzleValues;
+import sudoku.view.util.ColorUtils;
+
+/**
+ * This class is an alternative renderer for the puzzle grid. Instead of
+ * restyling the 81 cells (and their labels) through CSS, the whole grid is
+ * drawn on one canvas straight from the model. The canvas covers the cell grid
+ * exactly, so clicks are mapped to the same cells and candidates.
+ *
+ * Drawing is deferred to the next pulse, so any number of state transitions in
+ * one pulse cost a single redraw.
+ */
+public class SudokuPuzzleCanvas extends Canvas {
+
+	private static final int BOX_SIZE = 3;
+
+	private static final double THIN_BORDER_WIDTH = 1;
+
+	private static final double THICK_BORDER_WIDTH = 2;
+
+	private static final double SELECTED_BORDER_WIDTH = 3;
+
+	private static final double CANDIDATE_GRID_WIDTH = BOX_SIZE * SudokuPuzzleCell.CANDIDATE_LABEL_WIDTH
+			+ (BOX_SIZE - 1) * SudokuPuzzleCell.CANDIDATE_LABEL_HGAP;
+
+	private static final double CANDIDATE_GRID_HEIGHT = BOX_SIZE * SudokuPuzzleCell.CANDIDATE_LABEL_HEIGHT
+			+ (BOX_SIZE - 1) * SudokuPuzzleCell.CANDIDATE_LABEL_VGAP;
+
+	// The fonts match the application's stylesheet, which sizes them in points.
+	// Like the stylesheet, they fall back to the default font if Quicksand is not
+	// installed (see the README).
+	private static final String FONT_FAMILY = "Quicksand";
+
+	private static final double PIXELS_PER_POINT = 96.0 / 72.0;
+
+	private static final Font DIGIT_FONT = Font.font(FONT_FAMILY, FontWeight.BOLD, 30 * PIXELS_PER_POINT);
+
+	private static final Font CANDIDATE_FONT = Font.font(FONT_FAMILY, FontWeight.BOLD, 11 * PIXELS_PER_POINT);
+
+	// These match the colors in the application's stylesheet.
+	private static final Color BARK = Color.web("#2a2922");
+
+	private static final Color OFF_WHITE = Color.web("#eeeeee");
+
+	private static final Color STONE_BLUE = Color.web("#336b87");
+
+	private static final Color AUTUMN_FOLIAGE = Color.web("#e7472e");
+
+	private static final Color CANDIDATE_TEXT = BARK.deriveColor(0, 1, 1.3, 1);
+
+	private static final Color SELECTED_OVERLAY = Color.rgb(0, 0, 0, .1);
+
+	private final Runnable drawListener;
+
+	// Parsed colors from the settings, by web color. Keyed by the web color, so a
+	// color changed in the settings is simply parsed again.
+	private final Map<String, Color> parsedColors;
+
+	private SudokuPuzzleValues sudokuPuzzleValues;
+
+	private SudokuPuzzleStyle sudokuPuzzleStyle;
+
+	private boolean isDrawRequested;
+
+	public SudokuPuzzleCanvas() {
+		super(SudokuPuzzleCell.CELL_WIDTH * SudokuPuzzleValues.CELLS_PER_HOUSE,
+				SudokuPuzzleCell.CELL_HEIGHT * SudokuPuzzleValues.CELLS_PER_HOUSE);
+		this.drawListener = this::onPulse;
+		this.parsedColors = new HashMap<>();
+		this.sudokuPuzzleValues = null;
+		this.sudokuPuzzleStyle = null;
+		this.isDrawRequested = false;
+		this.configure();
+	}
+
+	/**
+	 * Redraws the grid from the given model on the next pulse. Only the latest
+	 * model requested before the pulse is drawn.
+	 */
+	public void requestDraw(final SudokuPuzzleValues sudokuPuzzleValues, final SudokuPuzzleStyle sudokuPuzzleStyle) {
+		this.sudokuPuzzleValues = sudokuPuzzleValues;
+		this.sudokuPuzzleStyle = sudokuPuzzleStyle;
+		if (!this.isDrawRequested) {
+			this.isDrawRequested = true;
+			Platform.requestNextPulse();
+		}
+	}
+
+	/** Returns the row at the given y coordinate (local), or -1 if there is none. */
+	public int getRowAt(final double y) {
+		return y < 0 || y >= this.getHeight() ? -1 : (int) (y / SudokuPuzzleCell.CELL_HEIGHT);
+	}
+
+	/** Returns the column at the given x coordinate (local), or -1 if there is none. */
+	public int getColAt(final double x) {
+		return x < 0 || x >= this.getWidth() ? -1 : (int) (x / SudokuPuzzleCell.CELL_WIDTH);
+	}
+
+	/**
+	 * Returns the candidate whose label area contains the given point (local), or
+	 * -1 if the point is between candidates.
+	 */
+	public int getCandidateAt(final double x, final double y) {
+		final int row = this.getRowAt(y);
+		final int col = this.getColAt(x);
+		if (row == -1 || col == -1) {
+			return -1;
+		}
+		for (int candidate = 1; candidate <= SudokuPuzzleValues.CELLS_PER_HOUSE; candidate++) {
+			final double minX = this.getCandidateMinX(col, candidate);
+			final double minY = this.getCandidateMinY(row, candidate);
+			if (minX < x && x < minX + SudokuPuzzleCell.CANDIDATE_LABEL_WIDTH && minY < y
+					&& y < minY + SudokuPuzzleCell.CANDIDATE_LABEL_HEIGHT) {
+				return candidate;
+			}
+		}
+		return -1;
+	}
+
+	/** Returns the center of the given candidate (local). */
+	public Point2D getCandidateCenter(final int row, final int col, final int candidate) {
+		return new Point2D(this.getCandidateMinX(col, candidate) + SudokuPuzzleCell.CANDIDATE_LABEL_WIDTH / 2.0,
+				this.getCandidateMinY(row, candidate) + SudokuPuzzleCell.CANDIDATE_LABEL_HEIGHT / 2.0);
+	}
+
+	private void configure() {
+		this.sceneProperty().addListener((observable, oldScene, newScene) -> this.moveDrawListener(oldScene, newScene));
+		this.setOnMouseClicked(event -> {
+			final int row = this.getRowAt(event.getY());
+			final int col = this.getColAt(event.getX());
+			if (MouseButton.PRIMARY == event.getButton() && row != -1 && col != -1) {
+				ModelController.getInstance().transitionToClickedCellState(row, col, event);
+			}
+		});
+	}
+
+	private void moveDrawListener(final Scene oldScene, final Scene newScene) {
+		if (oldScene != null) {
+			oldScene.removePreLayoutPulseListener(this.drawListener);
+		}
+		if (newScene != null) {
+			newScene.addPreLayoutPulseListener(this.drawListener);
+		}
+	}
+
+	private void onPulse() {
+		if (this.isDrawRequested) {
+			this.isDrawRequested = false;
+			if (this.sudokuPuzzleValues != null && this.isVisible()) {
+				this.draw();
+			}
+		}
+	}
+
+	private void draw() {
+		final GraphicsContext graphics = this.getGraphicsContext2D();
+		graphics.setFill(OFF_WHITE);
+		graphics.fillRect(0, 0, this.getWidth(), this.getHeight());
+		graphics.setTextAlign(TextAlignment.CENTER);
+		graphics.setTextBaseline(VPos.CENTER);
+		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
+			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
+				this.drawCell(graphics, row, col);
+			}
+		}
+		this.drawSelectedCell(graphics);
+	}
+
+	private void drawCell(final GraphicsContext graphics, final int row, final int col) {
+		final double x = col * SudokuPuzzleCell.CELL_WIDTH;
+		final double y = row * SudokuPuzzleCell.CELL_HEIGHT;
+		final Color backgroundColor = this.getCellBackgroundColor(row, col);
+		if (backgroundColor != null) {
+			graphics.setFill(backgroundColor);
+			graphics.fillRect(x, y, SudokuPuzzleCell.CELL_WIDTH, SudokuPuzzleCell.CELL_HEIGHT);
+		}
+		final int fixedDigit = this.sudokuPuzzleValues.getFixedCellDigit(row, col);
+		if (fixedDigit != 0) {
+			graphics.setFont(DIGIT_FONT);
+			graphics.setFill(this.getDigitColor(row, col));
+			graphics.fillText(String.valueOf(fixedDigit), x + SudokuPuzzleCell.CELL_WIDTH / 2.0,
+					y + SudokuPuzzleCell.CELL_HEIGHT / 2.0);
+		} else {
+			this.drawCandidates(graphics, row, col);
+		}
+		this.drawCellBorder(graphics, row, col, x, y);
+	}
+
+	private void drawCandidates(final GraphicsContext graphics, final int row, final int col) {
+		final Set<Integer> candidates = this.sudokuPuzzleValues.getCandidateDigitsForCell(row, col);
+		final boolean isAutoManageCandidates = ApplicationSettings.getInstance().isAutoManageCandidates();
+		final boolean checkMistakes = isAutoManageCandidates && ApplicationSettings.getInstance().isHighlightMistakes();
+		graphics.setFont(CANDIDATE_FONT);
+		for (int candidate = 1; candidate <= SudokuPuzzleValues.CELLS_PER_HOUSE; candidate++) {
+			final boolean isMistake = checkMistakes && this.sudokuPuzzleValues.isCandidateMistake(row, col, candidate);
+			if (!isMistake && !candidates.contains(candidate)) {
+				continue;
+			}
+			final double minX = this.getCandidateMinX(col, candidate);
+			final double minY = this.getCandidateMinY(row, candidate);
+			final ColorState colorState = this.sudokuPuzzleStyle.getCandidateColorState(row, col, candidate);
+			if (colorState != null && colorState != ColorState.NONE) {
+				graphics.setFill(this.getColor(ColorUtils.getWebColorForColorState(colorState)));
+				graphics.fillRect(minX, minY, SudokuPuzzleCell.CANDIDATE_LABEL_WIDTH,
+						SudokuPuzzleCell.CANDIDATE_LABEL_HEIGHT);
+			}
+			final double centerX = minX + SudokuPuzzleCell.CANDIDATE_LABEL_WIDTH / 2.0;
+			final double centerY = minY + SudokuPuzzleCell.CANDIDATE_LABEL_HEIGHT / 2.0;
+			graphics.setFill(isMistake ? AUTUMN_FOLIAGE : CANDIDATE_TEXT);
+			graphics.fillText(String.valueOf(candidate), centerX, centerY);
+			if (isMistake) {
+				graphics.setStroke(AUTUMN_FOLIAGE);
+				graphics.setLineWidth(THIN_BORDER_WIDTH);
+				graphics.strokeLine(minX + 2, minY + SudokuPuzzleCell.CANDIDATE_LABEL_HEIGHT - 1,
+						minX + SudokuPuzzleCell.CANDIDATE_LABEL_WIDTH - 2, minY + SudokuPuzzleCell.CANDIDATE_LABEL_HEIGHT - 1);
+			}
+		}
+	}
+
+	/**
+	 * Draws the border of the cell. Like the CSS of the cells, cells on the edge of
+	 * a box have a thicker border on that side.
+	 */
+	private void drawCellBorder(final GraphicsContext graphics, final int row, final int col, final double x,
+			final double y) {
+		final double top = row % BOX_SIZE == 0 ? THICK_BORDER_WIDTH : THIN_BORDER_WIDTH;
+		final double bottom = row % BOX_SIZE == BOX_SIZE - 1 ? THICK_BORDER_WIDTH : THIN_BORDER_WIDTH;
+		final double left = col % BOX_SIZE == 0 ? THICK_BORDER_WIDTH : THIN_BORDER_WIDTH;
+		final double right = col % BOX_SIZE == BOX_SIZE - 1 ? THICK_BORDER_WIDTH : THIN_BORDER_WIDTH;
+		graphics.setFill(BARK);
+		graphics.fillRect(x, y, SudokuPuzzleCell.CELL_WIDTH, top);
+		graphics.fillRect(x, y + SudokuPuzzleCell.CELL_HEIGHT - bottom, SudokuPuzzleCell.CELL_WIDTH, bottom);
+		graphics.fillRect(x, y, left, SudokuPuzzleCell.CELL_HEIGHT);
+		graphics.fillRect(x + SudokuPuzzleCell.CELL_WIDTH - right, y, right, SudokuPuzzleCell.CELL_HEIGHT);
+	}
+
+	private void drawSelectedCell(final GraphicsContext graphics) {
+		final int row = this.sudokuPuzzleStyle.getSelectedCellRow();
+		final int col = this.sudokuPuzzleStyle.getSelectedCellCol();
+		if (row < 0 || col < 0) {
+			return;
+		}
+		final double x = col * SudokuPuzzleCell.CELL_WIDTH;
+		final double y = row * SudokuPuzzleCell.CELL_HEIGHT;
+		graphics.setFill(SELECTED_OVERLAY);
+		graphics.fillRect(x, y, SudokuPuzzleCell.CELL_WIDTH, SudokuPuzzleCell.CELL_HEIGHT);
+		graphics.setStroke(BARK);
+		graphics.setLineWidth(SELECTED_BORDER_WIDTH);
+		final double inset = SELECTED_BORDER_WIDTH / 2;
+		graphics.strokeRect(x + inset, y + inset, SudokuPuzzleCell.CELL_WIDTH - SELECTED_BORDER_WIDTH,
+				SudokuPuzzleCell.CELL_HEIGHT - SELECTED_BORDER_WIDTH);
+	}
+
+	/**
+	 * Returns the background of the cell, or null to keep the default. As in the
+	 * stylesheet, a cell color is drawn over the filter shading.
+	 */
+	private Color getCellBackgroundColor(final int row, final int col) {
+		final ColorState colorState = this.sudokuPuzzleStyle.getCellColorState(row, col);
+		if (colorState != null && colorState != ColorState.NONE) {
+			return this.getColor(ColorUtils.getWebColorForColorState(colorState));
+		} else if (this.sudokuPuzzleStyle.isCellFiltered(row, col)) {
+			return this.getColor(ApplicationSettings.getInstance().getColorForFiltering());
+		}
+		return null;
+	}
+
+	private Color getColor(final String webColor) {
+		return this.parsedColors.computeIfAbsent(webColor, Color::web);
+	}
+
+	private Color getDigitColor(final int row, final int col) {
+		if (ApplicationSettings.getInstance().isHighlightMistakes()
+				&& this.sudokuPuzzleValues.isFixedDigitMistake(row, col)) {
+			return AUTUMN_FOLIAGE;
+		}
+		return this.sudokuPuzzleValues.getGivenCellDigit(row, col) != 0 ? BARK : STONE_BLUE;
+	}
+
+	private double getCandidateMinX(final int col, final int candidate) {
+		final double offset = (SudokuPuzzleCell.CELL_WIDTH - CANDIDATE_GRID_WIDTH) / 2;
+		return col * SudokuPuzzleCell.CELL_WIDTH + offset + ((candidate - 1) % BOX_SIZE)
+				* (SudokuPuzzleCell.CANDIDATE_LABEL_WIDTH + SudokuPuzzleCell.CANDIDATE_LABEL_HGAP);
+	}
+
+	private double getCandidateMinY(final int row, final int candidate) {
+		final double offset = (SudokuPuzzleCell.CELL_HEIGHT - CANDIDATE_GRID_HEIGHT) / 2;
+		// Integer division intentional!
+		return row * SudokuPuzzleCell.CELL_HEIGHT + offset + ((candidate - 1) / BOX_SIZE)
+				* (SudokuPuzzleCell.CANDIDATE_LABEL_HEIGHT + SudokuPuzzleCell.CANDIDATE_LABEL_VGAP);
+	}
+}
@@ -1,8 +1,13 @@
 package sudoku.view.puzzle;
 
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import org.apache.logging.log4j.util.Strings;
 
 import javafx.collections.ObservableList;
+import javafx.css.PseudoClass;
 import javafx.event.EventHandler;
 import javafx.geometry.HPos;
 import javafx.geometry.Pos;
@@ -18,18 +23,32 @@ import javafx.scene.layout.StackPane;
 import sudoku.core.ModelController;
 import sudoku.model.ApplicationSettings;
 import sudoku.model.SudokuPuzzleValues;
+import sudoku.view.port.PuzzleCellPort;
+import sudoku.view.util.ViewMutationCounter;
 
 /** This class corresponds to a single cell of a sudoku puzzle. */
-public class SudokuPuzzleCell extends StackPane {
+public class SudokuPuzzleCell extends StackPane implements PuzzleCellPort {
 
 	private static final String CANDIDATE_LABEL_CSS_CLASS = "sudoku-cell-candidate-label";
 
-	protected static final String SELECTED_CELL_CSS_CLASS = "sudoku-selected-cell";
+	private static final String SELECTION_INDICATOR_CSS_CLASS = "sudoku-cell-selection-indicator";
+
+	private static final PseudoClass SELECTED_PSEUDO_CLASS = PseudoClass.getPseudoClass("selected");
+
+	// These are set by JavaFX itself (e.g. while the mouse is over the cell), not
+	// by the states, so they are not copied to another cell.
+	private static final Set<PseudoClass> NODE_PSEUDO_CLASSES = Stream
+			.of("hover", "pressed", "focused", "disabled", "focus-visible", "focus-within")
+			.map(PseudoClass::getPseudoClass).collect(Collectors.toSet());
 
 	public static final int CANDIDATE_LABEL_HEIGHT = 16;
 
 	public static final int CANDIDATE_LABEL_WIDTH = 14;
 
+	public static final int CANDIDATE_LABEL_HGAP = 5;
+
+	public static final int CANDIDATE_LABEL_VGAP = 3;
+
 	private static final String DIGIT_REPLACE_TEXT = "DIGIT";
 
 	private static final String NUMPAD_REPLACE_TEXT = "NUMPAD";
@@ -40,7 +59,7 @@ public class SudokuPuzzleCell extends StackPane {
 
 	private static final String CSS_CLASS = "sudoku-puzzle-cell";
 
-	private static final int CELL_HEIGHT = 62;
+	public static final int CELL_HEIGHT = 62;
 
 	public static final int CELL_WIDTH = 62;
 
@@ -69,55 +88,109 @@ public class SudokuPuzzleCell extends StackPane {
 		this.configure();
 	}
 
+	@Override
 	public int getRow() {
 		return this.row;
 	}
 
+	@Override
 	public int getCol() {
 		return this.col;
 	}
 
 	/** Returns the set value for the cell, or -1 if there isn't one. */
+	@Override
 	public int getFixedDigit() {
 		return this.isCellFixed() ? Integer.parseInt(this.fixedDigitLabel.getText()) : -1;
 	}
 
 	/**
-	 * Sets a pane on top of all other elements to have or not have a special CSS
-	 * class that denotes the cell as selected by the user.
+	 * Sets a pane on top of all other elements to have or not have a special
+	 * pseudo class that denotes the cell as selected by the user.
 	 */
+	@Override
 	public void setIsSelected(final boolean isSelected) {
-		if (isSelected) {
-			this.cellIsSelectedIndicator.getStyleClass().add(SELECTED_CELL_CSS_CLASS);
-		} else {
-			this.cellIsSelectedIndicator.getStyleClass().remove(SELECTED_CELL_CSS_CLASS);
-		}
+		SudokuPuzzleStyleBatcher.getInstance().setPseudoClassState(this.cellIsSelectedIndicator, SELECTED_PSEUDO_CLASS,
+				isSelected);
 	}
 
 	/**
 	 * Shows the candidates pane if showCandidates is true, shows the fixed digit
 	 * pane otherwise.
 	 */
+	@Override
 	public void setCandidatesVisible(final boolean showCandidates) {
 		final ObservableList<Node> children = this.getChildren();
-		children.get(0).setVisible(showCandidates);
-		children.get(1).setVisible(!showCandidates);
+		if (children.get(0).isVisible() != showCandidates || children.get(1).isVisible() == showCandidates) {
+			children.get(0).setVisible(showCandidates);
+			children.get(1).setVisible(!showCandidates);
+			ViewMutationCounter.getInstance().increment();
+		}
 	}
 
 	/**
 	 * Sets the candidate at the given index visible based on the passed boolean.
 	 * Note that pressedDigit is one less than the digit (i.e. index of 1 is 0).
 	 */
+	@Override
 	public void setCandidateVisible(final int pressedDigit, final boolean visible) {
-		this.candidateLabels[pressedDigit - 1].setVisible(visible);
+		final Label candidateLabel = this.candidateLabels[pressedDigit - 1];
+		if (candidateLabel.isVisible() != visible) {
+			candidateLabel.setVisible(visible);
+			ViewMutationCounter.getInstance().increment();
+		}
 	}
 
 	/** Sets the fixed digit's value. */
+	@Override
 	public void setFixedDigit(final String digit) {
 		// KeyCode.toString() is passed to this; replacing the keyCode's name is
 		// easier than 9 if statements.
-		this.fixedDigitLabel
-				.setText(digit.replace(DIGIT_REPLACE_TEXT, Strings.EMPTY).replace(NUMPAD_REPLACE_TEXT, Strings.EMPTY));
+		final String text = digit.replace(DIGIT_REPLACE_TEXT, Strings.EMPTY).replace(NUMPAD_REPLACE_TEXT, Strings.EMPTY);
+		if (!text.equals(this.fixedDigitLabel.getText())) {
+			this.fixedDigitLabel.setText(text);
+			ViewMutationCounter.getInstance().increment();
+		}
+	}
+
+	@Override
+	public void setCellPseudoClassState(final PseudoClass pseudoClass, final boolean active) {
+		SudokuPuzzleStyleBatcher.getInstance().setPseudoClassState(this, pseudoClass, active);
+	}
+
+	@Override
+	public void setCandidatePseudoClassState(final int digit, final PseudoClass pseudoClass, final boolean active) {
+		SudokuPuzzleStyleBatcher.getInstance().setPseudoClassState(this.getCandidateLabelForDigit(digit), pseudoClass,
+				active);
+	}
+
+	@Override
+	public boolean isCandidatePseudoClassActive(final int digit, final PseudoClass pseudoClass) {
+		return SudokuPuzzleStyleBatcher.getInstance().isPseudoClassActive(this.getCandidateLabelForDigit(digit),
+				pseudoClass);
+	}
+
+	@Override
+	public void copyTo(final PuzzleCellPort target) {
+		// Pending pseudo class states are applied first, so they are copied too.
+		SudokuPuzzleStyleBatcher.getInstance().flush();
+		target.setFixedDigit(this.fixedDigitLabel.getText());
+		target.setIsSelected(this.cellIsSelectedIndicator.getPseudoClassStates().contains(SELECTED_PSEUDO_CLASS));
+		target.setCandidatesVisible(this.candidatesGridPane.isVisible());
+		for (int digit = 1; digit <= SudokuPuzzleValues.CELLS_PER_HOUSE; digit++) {
+			final Label candidateLabel = this.candidateLabels[digit - 1];
+			target.setCandidateVisible(digit, candidateLabel.isVisible());
+			for (final PseudoClass pseudoClass : candidateLabel.getPseudoClassStates()) {
+				if (!NODE_PSEUDO_CLASSES.contains(pseudoClass)) {
+					target.setCandidatePseudoClassState(digit, pseudoClass, true);
+				}
+			}
+		}
+		for (final PseudoClass pseudoClass : this.getPseudoClassStates()) {
+			if (!NODE_PSEUDO_CLASSES.contains(pseudoClass)) {
+				target.setCellPseudoClassState(pseudoClass, true);
+			}
+		}
 	}
 
 	public Label getCandidateLabelForDigit(final int digit) {
@@ -146,6 +219,7 @@ public class SudokuPuzzleCell extends StackPane {
 		children.add(this.candidatesGridPane);
 		children.add(fixedDigitPane);
 		this.cellIsSelectedIndicator = new Pane();
+		this.cellIsSelectedIndicator.getStyleClass().add(SELECTION_INDICATOR_CSS_CLASS);
 		children.add(this.cellIsSelectedIndicator);
 	}
 
@@ -158,8 +232,8 @@ public class SudokuPuzzleCell extends StackPane {
 		GridPane.setHalignment(this.candidatesGridPane, HPos.CENTER);
 		GridPane.setValignment(this.candidatesGridPane, VPos.CENTER);
 		this.candidatesGridPane.setAlignment(Pos.CENTER);
-		this.candidatesGridPane.setHgap(5);
-		this.candidatesGridPane.setVgap(3);
+		this.candidatesGridPane.setHgap(CANDIDATE_LABEL_HGAP);
+		this.candidatesGridPane.setVgap(CANDIDATE_LABEL_VGAP);
 	}
 
 	private Pane createFixedDigitPane() {
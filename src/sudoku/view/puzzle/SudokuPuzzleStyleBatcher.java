@@ -0,0 +1,118 @@
+package sudoku.view.puzzle;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javafx.application.Platform;
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import sudoku.view.util.ViewMutationCounter;
+
+/**
+ * This class sits between the state machine and the nodes of the puzzle grid.
+ * States request the pseudo class state each node should have, and only the
+ * differences from what is shown are applied, once per pulse, right before the
+ * CSS pass. A color reset followed by re-applying the same colors (e.g. when a
+ * filter or hint is refreshed) then costs nothing.
+ *
+ * Nodes which are not in a scene (or if no scene was registered) are updated
+ * immediately, since there is no pulse to wait for.
+ */
+public class SudokuPuzzleStyleBatcher {
+
+	private static SudokuPuzzleStyleBatcher instance;
+
+	public static SudokuPuzzleStyleBatcher getInstance() {
+		if (SudokuPuzzleStyleBatcher.instance == null) {
+			SudokuPuzzleStyleBatcher.instance = new SudokuPuzzleStyleBatcher();
+		}
+		return SudokuPuzzleStyleBatcher.instance;
+	}
+
+	// The requested states which differ from what is shown, by node.
+	private final Map<Node, Map<PseudoClass, Boolean>> pendingStates;
+
+	private final Runnable flushListener;
+
+	private Scene scene;
+
+	private boolean isFlushRequested;
+
+	private SudokuPuzzleStyleBatcher() {
+		this.pendingStates = new LinkedHashMap<>();
+		this.flushListener = this::flush;
+		this.scene = null;
+		this.isFlushRequested = false;
+	}
+
+	/**
+	 * Flushes the pending states on each pulse of the given scene. This must be
+	 * the scene the puzzle grid is shown in.
+	 */
+	public void registerScene(final Scene scene) {
+		if (this.scene != null) {
+			this.scene.removePreLayoutPulseListener(this.flushListener);
+		}
+		this.scene = scene;
+		this.scene.addPreLayoutPulseListener(this.flushListener);
+	}
+
+	/**
+	 * Requests the given pseudo class to be active or not on the node. Requesting
+	 * the state which is already shown cancels any pending change.
+	 */
+	public void setPseudoClassState(final Node node, final PseudoClass pseudoClass, final boolean active) {
+		if (this.scene == null || node.getScene() != this.scene) {
+			if (node.getPseudoClassStates().contains(pseudoClass) != active) {
+				node.pseudoClassStateChanged(pseudoClass, active);
+				ViewMutationCounter.getInstance().increment();
+			}
+			return;
+		}
+		final Map<PseudoClass, Boolean> pendingStatesForNode = this.pendingStates.computeIfAbsent(node,
+				key -> new HashMap<>());
+		if (node.getPseudoClassStates().contains(pseudoClass) == active) {
+			pendingStatesForNode.remove(pseudoClass);
+			if (pendingStatesForNode.isEmpty()) {
+				this.pendingStates.remove(node);
+			}
+		} else if (pendingStatesForNode.put(pseudoClass, active) == null) {
+			ViewMutationCounter.getInstance().increment();
+			this.requestFlush();
+		}
+	}
+
+	/**
+	 * Returns true iff the pseudo class will be active on the node once pending
+	 * states are flushed.
+	 */
+	public boolean isPseudoClassActive(final Node node, final PseudoClass pseudoClass) {
+		final Map<PseudoClass, Boolean> pendingStatesForNode = this.pendingStates.get(node);
+		if (pendingStatesForNode != null && pendingStatesForNode.containsKey(pseudoClass)) {
+			return pendingStatesForNode.get(pseudoClass);
+		}
+		return node.getPseudoClassStates().contains(pseudoClass);
+	}
+
+	/** Applies all pending states to their nodes. */
+	public void flush() {
+		this.isFlushRequested = false;
+		if (this.pendingStates.isEmpty()) {
+			return;
+		}
+		this.pendingStates.forEach((node, pendingStatesForNode) -> pendingStatesForNode
+				.forEach((pseudoClass, active) -> node.pseudoClassStateChanged(pseudoClass, active)));
+		this.pendingStates.clear();
+	}
+
+	private void requestFlush() {
+		if (!this.isFlushRequested) {
+			this.isFlushRequested = true;
+			// Nothing else may have changed in the scene, so a pulse is not always
+			// scheduled on its own.
+			Platform.requestNextPulse();
+		}
+	}
+}
@@ -1,15 +1,35 @@
 package sudoku.view.puzzle;
 
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import javafx.collections.ObservableList;
 import javafx.event.EventHandler;
+import javafx.geometry.HPos;
 import javafx.geometry.Insets;
+import javafx.geometry.VPos;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.GridPane;
+import javafx.stage.FileChooser;
+import sudoku.core.KeyboardInputQueue;
 import sudoku.core.ModelController;
+import sudoku.core.ViewController;
 import sudoku.factories.LayoutFactory;
+import sudoku.model.ApplicationSettings;
 import sudoku.model.SudokuPuzzleValues;
+import sudoku.session.SessionRecorder;
+import sudoku.session.SessionReplayer;
+import sudoku.view.PerformanceOverlay;
+import sudoku.view.hint.HintAnnotationPane;
+import sudoku.view.port.HeadlessPuzzleCell;
+import sudoku.view.port.PuzzleCellPort;
 import sudoku.view.util.ColorUtils;
+import sudoku.view.util.LabelConstants;
+import sudoku.view.util.ResourceConstants;
 
 /**
  * This class corresponds to the view in the center of the screen. It contains
@@ -17,6 +37,8 @@ import sudoku.view.util.ColorUtils;
  */
 public class SudokuPuzzleView extends GridPane {
 
+	private static final Logger LOG = LogManager.getLogger(SudokuPuzzleView.class);
+
 	private static final String CSS_CLASS = "sudoku-transparent-pane";
 
 	private static final String BOTTOM_CELL_CSS_CLASS = "sudoku-puzzle-cell-extra-bottom-border";
@@ -37,12 +59,63 @@ public class SudokuPuzzleView extends GridPane {
 
 	private static final int DEFAULT_WIDTH = SudokuPuzzleCell.CELL_WIDTH * SudokuPuzzleValues.CELLS_PER_HOUSE + 20;
 
-	private static final int NUM_CELLS_TOTAL = SudokuPuzzleValues.CELLS_PER_HOUSE * SudokuPuzzleValues.CELLS_PER_HOUSE;
+	private SudokuPuzzleCanvas sudokuPuzzleCanvas;
+
+	// The cells the states update, by [col][row]. These are SudokuPuzzleCells when
+	// the cells are shown. With the canvas, no cell nodes are built; the states
+	// update HeadlessPuzzleCells, which only remember what the cells would show.
+	private final PuzzleCellPort[][] cellPorts;
 
 	public SudokuPuzzleView() {
+		this.cellPorts = new PuzzleCellPort[SudokuPuzzleValues.CELLS_PER_HOUSE][SudokuPuzzleValues.CELLS_PER_HOUSE];
 		this.configure();
 	}
 
+	/** Returns the cell the states should update at the given indices. */
+	public PuzzleCellPort getCellPort(final int row, final int col) {
+		return this.cellPorts[col][row];
+	}
+
+	public SudokuPuzzleCanvas getSudokuPuzzleCanvas() {
+		return this.sudokuPuzzleCanvas;
+	}
+
+	public boolean isCanvasRendererEnabled() {
+		return this.sudokuPuzzleCanvas.isVisible();
+	}
+
+	/**
+	 * Switches between drawing the grid on the canvas, and showing the cells. The
+	 * cells of the other renderer are dropped, after copying what they show to
+	 * the new ones.
+	 */
+	public void setCanvasRendererEnabled(final boolean isCanvasRendererEnabled) {
+		final boolean isCreated = this.cellPorts[0][0] != null;
+		if (isCreated && isCanvasRendererEnabled == this.isCanvasRendererEnabled()) {
+			return;
+		}
+		this.sudokuPuzzleCanvas.setVisible(isCanvasRendererEnabled);
+		for (int row = 0; row < SudokuPuzzleValues.CELLS_PER_HOUSE; row++) {
+			for (int col = 0; col < SudokuPuzzleValues.CELLS_PER_HOUSE; col++) {
+				final PuzzleCellPort oldCell = this.cellPorts[col][row];
+				final PuzzleCellPort newCell = isCanvasRendererEnabled ? this.createHeadlessCell(row, col, isCreated)
+						: this.createCell(row, col);
+				if (oldCell instanceof SudokuPuzzleCell) {
+					oldCell.copyTo(newCell);
+					this.getChildren().remove(oldCell);
+					ViewController.getInstance().registerSudokuPuzzleCell(null, col, row);
+				} else if (oldCell != null) {
+					oldCell.copyTo(newCell);
+				}
+				this.cellPorts[col][row] = newCell;
+			}
+		}
+		final HintAnnotationPane hintAnnotationPane = ViewController.getInstance().getHintAnnotationPane();
+		if (hintAnnotationPane != null) {
+			hintAnnotationPane.updateGeometry();
+		}
+	}
+
 	private void configure() {
 		this.getStyleClass().add(CSS_CLASS);
 		this.setPadding(new Insets(15));
@@ -53,18 +126,43 @@ public class SudokuPuzzleView extends GridPane {
 	}
 
 	private void createChildElements() {
-		this.createCellGridPane();
+		this.sudokuPuzzleCanvas = LayoutFactory.getInstance().createSudokuPuzzleCanvas();
+		this.add(this.sudokuPuzzleCanvas, 0, 0, SudokuPuzzleValues.CELLS_PER_HOUSE, SudokuPuzzleValues.CELLS_PER_HOUSE);
+		this.setCanvasRendererEnabled(ApplicationSettings.getInstance().isUseCanvasRenderer());
+		// Added last, so the hint annotations are drawn over either renderer.
+		this.add(LayoutFactory.getInstance().createHintAnnotationPane(), 0, 0, SudokuPuzzleValues.CELLS_PER_HOUSE,
+				SudokuPuzzleValues.CELLS_PER_HOUSE);
+		final PerformanceOverlay performanceOverlay = LayoutFactory.getInstance().createPerformanceOverlay();
+		this.add(performanceOverlay, 0, 0, SudokuPuzzleValues.CELLS_PER_HOUSE, SudokuPuzzleValues.CELLS_PER_HOUSE);
+		GridPane.setHalignment(performanceOverlay, HPos.LEFT);
+		GridPane.setValignment(performanceOverlay, VPos.TOP);
 	}
 
-	private void createCellGridPane() {
-		for (int index = 1; index <= NUM_CELLS_TOTAL; index++) {
-			// Integer division intentional!
-			final int rowIndex = (index - 1) / 9;
-			final int colIndex = (index - 1) % 9;
-			final SudokuPuzzleCell sudokuPuzzleCell = LayoutFactory.getInstance().createSudokuPuzzleCell(colIndex, rowIndex);
-			this.setBorderBasedOnBoxBoundaries(rowIndex, colIndex, sudokuPuzzleCell);
-			this.add(sudokuPuzzleCell, colIndex, rowIndex);
+	/**
+	 * Creates a cell, and adds it under the canvas and the hint annotations (which
+	 * are drawn over it).
+	 */
+	private SudokuPuzzleCell createCell(final int rowIndex, final int colIndex) {
+		final SudokuPuzzleCell sudokuPuzzleCell = LayoutFactory.getInstance().createSudokuPuzzleCell(colIndex, rowIndex);
+		this.setBorderBasedOnBoxBoundaries(rowIndex, colIndex, sudokuPuzzleCell);
+		GridPane.setConstraints(sudokuPuzzleCell, colIndex, rowIndex);
+		this.getChildren().add(0, sudokuPuzzleCell);
+		return sudokuPuzzleCell;
+	}
+
+	/**
+	 * Creates a cell without nodes. When it is not replacing another cell, its
+	 * candidates start out like those of a new SudokuPuzzleCell.
+	 */
+	private HeadlessPuzzleCell createHeadlessCell(final int row, final int col, final boolean isReplacingCell) {
+		final HeadlessPuzzleCell headlessPuzzleCell = new HeadlessPuzzleCell(row, col);
+		if (!isReplacingCell) {
+			final boolean isCandidateVisible = ApplicationSettings.getInstance().isAutoManageCandidates();
+			for (int digit = 1; digit <= SudokuPuzzleValues.CELLS_PER_HOUSE; digit++) {
+				headlessPuzzleCell.setCandidateVisible(digit, isCandidateVisible);
+			}
 		}
+		return headlessPuzzleCell;
 	}
 
 	/**
@@ -108,11 +206,11 @@ public class SudokuPuzzleView extends GridPane {
 			} else if (keyCode.isLetterKey()) {
 				this.onPressLetter(event, keyCode);
 			} else if (keyCode.isArrowKey()) {
-				ModelController.getInstance().transitionToArrowKeyboardInputState(keyCode);
+				KeyboardInputQueue.getInstance().offerArrowKey(keyCode);
 			} else if (KeyCode.DELETE == keyCode) {
 				ModelController.getInstance().transitionToRemoveDigitState(keyCode);
 			} else if (KeyCode.MINUS == keyCode || KeyCode.EQUALS == keyCode) {
-				ModelController.getInstance().transitionToActiveCandidateChangedState(keyCode);
+				KeyboardInputQueue.getInstance().offerActiveCandidateKey(keyCode);
 			} else if (KeyCode.PERIOD == keyCode || KeyCode.COMMA == keyCode) {
 				ModelController.getInstance().transitionToCycleActiveFilterState(keyCode.getName());
 			} else if (KeyCode.ENTER == keyCode) {
@@ -145,13 +243,52 @@ public class SudokuPuzzleView extends GridPane {
 	}
 
 	private void onPressLetter(final KeyEvent event, final KeyCode keyCode) {
-		if (KeyCode.R == keyCode) {
+		if (KeyCode.R == keyCode && event.isControlDown() && event.isShiftDown()) {
+			this.onToggleSessionRecording();
+		} else if (KeyCode.L == keyCode && event.isControlDown() && event.isShiftDown()) {
+			this.onReplaySession(event.isAltDown());
+		} else if (KeyCode.R == keyCode) {
 			ModelController.getInstance().transitionToResetAllColorsState();
 		} else if (KeyCode.M == keyCode && event.isControlDown()) {
 			ModelController.getInstance().transitionToShowContextMenuState();
+		} else if (KeyCode.I == keyCode && event.isControlDown() && event.isShiftDown()) {
+			// The performance overlay is for development only, so it is not a state.
+			ViewController.getInstance().getPerformanceOverlay().toggle();
+		} else if (KeyCode.E == keyCode && event.isControlDown() && event.isShiftDown()) {
+			ViewController.getInstance().getPerformanceOverlay().exportReport();
 		} else if (ColorUtils.getApplyColorKeyCodes().contains(keyCode)) {
 			this.onPressColoringKey(event, keyCode);
 		}
 	}
 
+	/** Starts recording a session, or stops and saves the current one. */
+	private void onToggleSessionRecording() {
+		if (SessionRecorder.getInstance().isRecording()) {
+			SessionRecorder.getInstance().stop();
+		} else {
+			SessionRecorder.getInstance().start();
+		}
+	}
+
+	/**
+	 * Asks for a recorded session, and replays it as fast as possible, or in real
+	 * time.
+	 */
+	private void onReplaySession(final boolean isRealTime) {
+		final FileChooser fileChooser = new FileChooser();
+		fileChooser.setTitle(LabelConstants.OPEN_FILE);
+		final File logFolder = new File(ResourceConstants.LOG_FOLDER);
+		if (logFolder.isDirectory()) {
+			fileChooser.setInitialDirectory(logFolder);
+		}
+		final File sessionFile = fileChooser.showOpenDialog(ViewController.getInstance().getStage());
+		if (sessionFile != null) {
+			try {
+				SessionReplayer.load(sessionFile.toPath()).replay(isRealTime);
+			} catch (final IOException | IllegalArgumentException e) {
+				LOG.error("Could not replay {}: {}", sessionFile, e);
+			}
+		}
+	}
+
 }
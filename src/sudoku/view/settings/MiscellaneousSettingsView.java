@@ -31,6 +31,10 @@ public class MiscellaneousSettingsView extends ModalDialog {
 
 	private CheckBox useDigitButtonsForMouseCheckBox;
 
+	private CheckBox highlightMistakesCheckBox;
+
+	private CheckBox useCanvasRendererCheckBox;
+
 	public MiscellaneousSettingsView(final Stage stage) {
 		super(stage);
 		this.configure();
@@ -51,8 +55,10 @@ public class MiscellaneousSettingsView extends ModalDialog {
 		this.createAutoManageCandidatesCheckBox();
 		this.createShowPuzzleProgressCheckBox();
 		this.createUseDigitButtonsForMouseCheckBox();
+		this.createHighlightMistakesCheckBox();
+		this.createUseCanvasRendererCheckBox();
 		contentPane.getChildren().addAll(this.autoManageCandidatesCheckBox, this.showPuzzleProgressCheckBox,
-				this.useDigitButtonsForMouseCheckBox);
+				this.useDigitButtonsForMouseCheckBox, this.highlightMistakesCheckBox, this.useCanvasRendererCheckBox);
 		this.setCenter(contentPane);
 		this.createButtonPane();
 	}
@@ -79,6 +85,20 @@ public class MiscellaneousSettingsView extends ModalDialog {
 		VBox.setMargin(this.useDigitButtonsForMouseCheckBox, new Insets(SMALL_PADDING, 0, 0, 0));
 	}
 
+	private void createHighlightMistakesCheckBox() {
+		this.highlightMistakesCheckBox = new CheckBox(LabelConstants.HIGHLIGHT_MISTAKES);
+		this.highlightMistakesCheckBox.setTooltip(new Tooltip(TooltipConstants.HIGHLIGHT_MISTAKES));
+		this.highlightMistakesCheckBox.setSelected(ApplicationSettings.getInstance().isHighlightMistakes());
+		VBox.setMargin(this.highlightMistakesCheckBox, new Insets(SMALL_PADDING, 0, 0, 0));
+	}
+
+	private void createUseCanvasRendererCheckBox() {
+		this.useCanvasRendererCheckBox = new CheckBox(LabelConstants.USE_CANVAS_RENDERER);
+		this.useCanvasRendererCheckBox.setTooltip(new Tooltip(TooltipConstants.USE_CANVAS_RENDERER));
+		this.useCanvasRendererCheckBox.setSelected(ApplicationSettings.getInstance().isUseCanvasRenderer());
+		VBox.setMargin(this.useCanvasRendererCheckBox, new Insets(SMALL_PADDING, 0, 0, 0));
+	}
+
 	private void createButtonPane() {
 		final Button confirmButton = new Button(LabelConstants.SAVE_AND_APPLY);
 		confirmButton.setOnAction(event -> {
@@ -101,6 +121,10 @@ public class MiscellaneousSettingsView extends ModalDialog {
 		this.showPuzzleProgressCheckBox.setSelected(isShowPuzzleProgress);
 		final boolean useDigitButtonsForMouse = DefaultApplicationSettings.getInstance().isUseDigitButtonsForMouseActions();
 		this.useDigitButtonsForMouseCheckBox.setSelected(useDigitButtonsForMouse);
+		final boolean isHighlightMistakes = DefaultApplicationSettings.getInstance().isHighlightMistakes();
+		this.highlightMistakesCheckBox.setSelected(isHighlightMistakes);
+		final boolean isUseCanvasRenderer = DefaultApplicationSettings.getInstance().isUseCanvasRenderer();
+		this.useCanvasRendererCheckBox.setSelected(isUseCanvasRenderer);
 	}
 
 	public CheckBox getAutoManageCandidatesCheckBox() {
@@ -115,4 +139,12 @@ public class MiscellaneousSettingsView extends ModalDialog {
 		return this.useDigitButtonsForMouseCheckBox;
 	}
 
+	public CheckBox getHighlightMistakesCheckBox() {
+		return this.highlightMistakesCheckBox;
+	}
+
+	public CheckBox getUseCanvasRendererCheckBox() {
+		return this.useCanvasRendererCheckBox;
+	}
+
 }
@@ -3,8 +3,10 @@ package sudoku.view.sidebar;
 import java.util.ArrayList;
 import java.util.List;
 
+import javafx.css.PseudoClass;
 import javafx.geometry.Insets;
 import javafx.scene.control.Button;
+import javafx.scene.control.TextField;
 import javafx.scene.control.Tooltip;
 import javafx.scene.layout.GridPane;
 import sudoku.core.ModelController;
@@ -16,8 +18,9 @@ import sudoku.view.util.TooltipConstants;
  * This class corresponds to the 4 x 3 button grid on the top left of the
  * screen. It contains numeric buttons 1 - 9 , which highlight cells where those
  * digits could go. It also contains X|Y, which highlights bivalue cells.
- * Lastly, this class creates buttons labeled "<" and ">", which are undo and
- * redo, respectively.
+ * This class also creates buttons labeled "<" and ">", which are undo and
+ * redo, respectively. Lastly, a text field below the buttons applies a filter
+ * query typed by the user.
  */
 public class FilterButtonPane extends GridPane {
 
@@ -25,6 +28,10 @@ public class FilterButtonPane extends GridPane {
 
 	private static final String CSS_CLASS = "sudoku-transparent-pane";
 
+	private static final String FILTER_QUERY_CSS_CLASS = "sudoku-filter-query-text-field";
+
+	private static final PseudoClass INVALID_PSEUDO_CLASS = PseudoClass.getPseudoClass("invalid");
+
 	private static final int DEFAULT_WIDTH = 320;
 
 	private static final int NUM_DIGIT_BUTTONS = 9;
@@ -39,6 +46,8 @@ public class FilterButtonPane extends GridPane {
 
 	private Button redoButton;
 
+	private TextField filterQueryTextField;
+
 	public FilterButtonPane() {
 		this.filterButtons = new ArrayList<>(10);
 		this.configure();
@@ -56,6 +65,19 @@ public class FilterButtonPane extends GridPane {
 		return this.redoButton;
 	}
 
+	public TextField getFilterQueryTextField() {
+		return this.filterQueryTextField;
+	}
+
+	/**
+	 * Marks the filter query field as invalid and shows the given message in its
+	 * tooltip, or clears the error if the message is null.
+	 */
+	public void setFilterQueryError(final String message) {
+		this.filterQueryTextField.pseudoClassStateChanged(INVALID_PSEUDO_CLASS, message != null);
+		this.filterQueryTextField.getTooltip().setText(message == null ? TooltipConstants.FILTER_QUERY : message);
+	}
+
 	private void configure() {
 		this.getStyleClass().add(CSS_CLASS);
 		this.setPadding(new Insets(PADDING_FOR_PANE));
@@ -81,6 +103,7 @@ public class FilterButtonPane extends GridPane {
 		this.add(bivalueCellFilterButton, 1, 3);
 		this.createUndoButton();
 		this.createRedoButton();
+		this.createFilterQueryTextField();
 	}
 
 	private void createUndoButton() {
@@ -105,4 +128,18 @@ public class FilterButtonPane extends GridPane {
 		this.add(this.redoButton, 2, 3);
 	}
 
+	private void createFilterQueryTextField() {
+		this.filterQueryTextField = new TextField();
+		this.filterQueryTextField.getStyleClass().add(FILTER_QUERY_CSS_CLASS);
+		this.filterQueryTextField.setFocusTraversable(false);
+		this.filterQueryTextField.setPromptText(LabelConstants.FILTER_QUERY_PROMPT);
+		this.filterQueryTextField.setTooltip(new Tooltip(TooltipConstants.FILTER_QUERY));
+		// The error is cleared once the user changes the query.
+		this.filterQueryTextField.textProperty()
+				.addListener((observable, oldText, newText) -> this.setFilterQueryError(null));
+		this.filterQueryTextField.setOnAction(event -> ModelController.getInstance()
+				.transitionToApplyFilterState(this.filterQueryTextField.getText().trim()));
+		this.add(this.filterQueryTextField, 0, 4, 3, 1);
+	}
+
 }
@@ -6,11 +6,11 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
-import org.apache.logging.log4j.util.Strings;
-
+import javafx.css.PseudoClass;
 import javafx.scene.input.KeyCode;
 import javafx.scene.paint.Color;
 import sudoku.model.ApplicationSettings;
+import sudoku.model.ColorState;
 
 /**
  * This class contains various utilities for coloring cells or candidate.
@@ -20,47 +20,11 @@ public class ColorUtils {
 	private static final List<KeyCode> APPLY_COLOR_KEY_CODES = Arrays.asList(KeyCode.A, KeyCode.S, KeyCode.D, KeyCode.F,
 			KeyCode.G);
 
-	private static final String COLOR1A_ENTITY_CSS_CLASS = "sudoku-puzzle-color1a-entity";
-
-	private static final String COLOR1B_ENTITY_CSS_CLASS = "sudoku-puzzle-color1b-entity";
-
-	private static final String COLOR2A_ENTITY_CSS_CLASS = "sudoku-puzzle-color2a-entity";
-
-	private static final String COLOR2B_ENTITY_CSS_CLASS = "sudoku-puzzle-color2b-entity";
-
-	private static final String COLOR3A_ENTITY_CSS_CLASS = "sudoku-puzzle-color3a-entity";
-
-	private static final String COLOR3B_ENTITY_CSS_CLASS = "sudoku-puzzle-color3b-entity";
-
-	private static final String COLOR4A_ENTITY_CSS_CLASS = "sudoku-puzzle-color4a-entity";
-
-	private static final String COLOR4B_ENTITY_CSS_CLASS = "sudoku-puzzle-color4b-entity";
-
-	private static final String COLOR5A_ENTITY_CSS_CLASS = "sudoku-puzzle-color5a-entity";
-
-	private static final String COLOR5B_ENTITY_CSS_CLASS = "sudoku-puzzle-color5b-entity";
-
-	public static final String HINT_COLOR_1_CSS_CLASS = "sudoku-puzzle-color-hint1";
-
-	public static final String HINT_COLOR_2_CSS_CLASS = "sudoku-puzzle-color-hint2";
-
-	public static final String HINT_COLOR_3_CSS_CLASS = "sudoku-puzzle-color-hint3";
-
-	public static final String HINT_COLOR_4_CSS_CLASS = "sudoku-puzzle-color-hint4";
+	public static final String HINT_COLOR_4_CSS_CLASS = ColorState.QUATERNARY_HINT_CANDIDATE.getCssClass();
 
 	public static final String HINT_COLOR_4_CSS_CLASS_ARROW = "sudoku-puzzle-color-hint4-arrow";
 
-	public static final String HINT_COLOR_5_CSS_CLASS = "sudoku-puzzle-color-hint5";
-
-	public static final String DELETABLE_HINT_CANDIDATE_CSS_CLASS = "sudoku-puzzle-color-deletable-hint-candidate";
-
-	public static final String ALS1_HINT_CANDIDATE_CSS_CLASS = "-sudoku-puzzle-color-hint-als1";
-
-	public static final String ALS2_HINT_CANDIDATE_CSS_CLASS = "-sudoku-puzzle-color-hint-als2";
-
-	public static final String ALS3_HINT_CANDIDATE_CSS_CLASS = "-sudoku-puzzle-color-hint-als3";
-
-	public static final String ALS4_HINT_CANDIDATE_CSS_CLASS = "-sudoku-puzzle-color-hint-als4";
+	private static final String TRANSPARENT_WEB_COLOR = "transparent";
 
 	/**
 	 * Returns the "base" colors used for coloring in the application. Note that by
@@ -76,85 +40,77 @@ public class ColorUtils {
 		return hexCodes.stream().map(Color::valueOf).collect(Collectors.toList());
 	}
 
+	/**
+	 * Returns the color the user configured for the given color state, as a web
+	 * color. This is the same color the stylesheet uses for the state's CSS class.
+	 */
+	public static String getWebColorForColorState(final ColorState colorState) {
+		final ApplicationSettings settings = ApplicationSettings.getInstance();
+		switch (colorState) {
+		case PRIMARY_HINT_CANDIDATE:
+			return settings.getHintColors()[0];
+		case SECONDARY_HINT_CANDIDATE:
+			return settings.getHintColors()[1];
+		case TERTIARY_HINT_CANDIDATE:
+			return settings.getHintColors()[2];
+		case QUATERNARY_HINT_CANDIDATE:
+			return settings.getHintColors()[3];
+		case QUINARY_HINT_CANDIDATE:
+			return settings.getHintColors()[4];
+		case DELETABLE_HINT_CANDIDATE:
+			return settings.getHintDeleteColor();
+		case ALS1_HINT_CANDIDATE:
+			return settings.getAlsColors()[0];
+		case ALS2_HINT_CANDIDATE:
+			return settings.getAlsColors()[1];
+		case ALS3_HINT_CANDIDATE:
+			return settings.getAlsColors()[2];
+		case ALS4_HINT_CANDIDATE:
+			return settings.getAlsColors()[3];
+		case NONE:
+			return TRANSPARENT_WEB_COLOR;
+		default:
+			// Each coloring color is followed by its alternate (with shift) color.
+			return settings.getColorsUsedInColoring()[colorState.getColoringIndex()];
+		}
+	}
+
 	public static List<KeyCode> getApplyColorKeyCodes() {
 		return APPLY_COLOR_KEY_CODES;
 	}
 
-	public enum ColorState {
-		COLORSTATE1A(0, false, COLOR1A_ENTITY_CSS_CLASS), COLORSTATE1B(0, true, COLOR1B_ENTITY_CSS_CLASS),
-		COLORSTATE2A(1, false, COLOR2A_ENTITY_CSS_CLASS), COLORSTATE2B(1, true, COLOR2B_ENTITY_CSS_CLASS),
-		COLORSTATE3A(2, false, COLOR3A_ENTITY_CSS_CLASS), COLORSTATE3B(2, true, COLOR3B_ENTITY_CSS_CLASS),
-		COLORSTATE4A(3, false, COLOR4A_ENTITY_CSS_CLASS), COLORSTATE4B(3, true, COLOR4B_ENTITY_CSS_CLASS),
-		COLORSTATE5A(4, false, COLOR5A_ENTITY_CSS_CLASS), COLORSTATE5B(4, true, COLOR5B_ENTITY_CSS_CLASS),
-		PRIMARY_HINT_CANDIDATE(-1, false, HINT_COLOR_1_CSS_CLASS),
-		SECONDARY_HINT_CANDIDATE(-1, false, HINT_COLOR_2_CSS_CLASS),
-		TERTIARY_HINT_CANDIDATE(-1, false, HINT_COLOR_3_CSS_CLASS),
-		QUATERNARY_HINT_CANDIDATE(-1, false, HINT_COLOR_4_CSS_CLASS),
-		QUINARY_HINT_CANDIDATE(-1, false, HINT_COLOR_5_CSS_CLASS),
-		DELETABLE_HINT_CANDIDATE(-1, false, DELETABLE_HINT_CANDIDATE_CSS_CLASS),
-		ALS1_HINT_CANDIDATE(-1, false, ALS1_HINT_CANDIDATE_CSS_CLASS),
-		ALS2_HINT_CANDIDATE(-1, false, ALS2_HINT_CANDIDATE_CSS_CLASS),
-		ALS3_HINT_CANDIDATE(-1, false, ALS3_HINT_CANDIDATE_CSS_CLASS),
-		ALS4_HINT_CANDIDATE(-1, false, ALS4_HINT_CANDIDATE_CSS_CLASS), NONE;
-
-		private final int keyIndex;
-
-		private final boolean withShift;
-
-		private final String cssClass;
-
-		private ColorState() {
-			this.keyIndex = -2;
-			this.withShift = false;
-			this.cssClass = Strings.EMPTY;
-		}
-
-		private ColorState(final int keyIndex, final boolean withShift, final String cssClass) {
-			this.keyIndex = keyIndex;
-			this.withShift = withShift;
-			this.cssClass = cssClass;
-		}
-
-		public KeyCode getKey() {
-			return ColorUtils.getApplyColorKeyCodes().get(this.keyIndex);
-		}
-
-		public boolean isWithShift() {
-			return this.withShift;
-		}
-
-		public String getCssClass() {
-			return this.cssClass;
-		}
+	/** Gets the key which applies the given coloring color state. */
+	public static KeyCode getKey(final ColorState colorState) {
+		return APPLY_COLOR_KEY_CODES.get(colorState.getKeyIndex());
+	}
 
-		/**
-		 * Gets a color state based on the color passed. This only will retrieve the
-		 * base color state, not the alternative (with shift down). To do this, get the
-		 * base color state, then call getFromKeyCode(baseState.getKey(), true).
-		 */
-		public static ColorState getStateForBaseColor(final Color baseColor) {
-			return Arrays.asList(ColorState.values()).stream()
-					// The keys + color array list are in the same order, so we can use
-					// their indices interchangeably.
-					.filter(colorState -> ColorUtils.getColors().indexOf(baseColor) == colorState.keyIndex).findFirst()
-					.orElseThrow(NoSuchElementException::new);
+	/**
+	 * Gets the coloring color state applied by the given key, with or without
+	 * shift down.
+	 */
+	public static ColorState getColorStateForKey(final KeyCode keyCode, final boolean isWithShift) {
+		final int keyIndex = APPLY_COLOR_KEY_CODES.indexOf(keyCode);
+		if (keyIndex == -1) {
+			throw new NoSuchElementException(String.valueOf(keyCode));
 		}
+		return ColorState.getStateForKeyIndex(keyIndex, isWithShift);
+	}
 
-		public static ColorState getFromKeyCode(final KeyCode keyCode, final boolean isWithShift) {
-			return Arrays.asList(ColorState.values()).stream()
-					.filter(colorState -> ColorUtils.getApplyColorKeyCodes().get(colorState.keyIndex) == keyCode
-							&& colorState.withShift == isWithShift)
-					.findFirst().orElseThrow(NoSuchElementException::new);
-		}
+	/**
+	 * Gets the pseudo class used to show the given color state on a cell or
+	 * candidate. It has the same name as the CSS class.
+	 */
+	public static PseudoClass getPseudoClass(final ColorState colorState) {
+		return PseudoClass.getPseudoClass(colorState.getCssClass());
 	}
 
 	public static List<ColorState> getColoringColorStates() {
-		return Arrays.asList(ColorState.values()).stream().filter(colorState -> colorState.keyIndex > -1)
+		return Arrays.asList(ColorState.values()).stream().filter(ColorState::isColoringColor)
 				.collect(Collectors.toList());
 	}
 
 	public static List<ColorState> getHintColorStates() {
-		return Arrays.asList(ColorState.values()).stream().filter(colorState -> colorState.keyIndex == -1)
+		return Arrays.asList(ColorState.values()).stream().filter(ColorState::isHintColor)
 				.collect(Collectors.toList());
 	}
 
@@ -18,6 +18,14 @@ public class LabelConstants {
 
 	public static final String OPEN = "Open Puzzle...";
 
+	public static final String OPEN_COLLECTION = "Open Collection...";
+
+	public static final String NEXT_COLLECTION_PUZZLE = "Next Puzzle in Collection";
+
+	public static final String PREVIOUS_COLLECTION_PUZZLE = "Previous Puzzle in Collection";
+
+	public static final String GO_TO_COLLECTION_PUZZLE = "Go to Puzzle in Collection...";
+
 	public static final String SAVE = "Save";
 
 	public static final String SAVE_AS = "Save As...";
@@ -48,6 +56,8 @@ public class LabelConstants {
 
 	public static final String BIVALUE_CELL = "X|Y";
 
+	public static final String FILTER_QUERY_PROMPT = "Filter query, e.g. 3 & #2";
+
 	public static final String UNDO = "<";
 
 	public static final String REDO = ">";
@@ -78,6 +88,27 @@ public class LabelConstants {
 
 	public static final String SAVE_FILE = "Save Puzzle File";
 
+	public static final String COULD_NOT_OPEN_FILE = "The file could not be opened. It may not be a puzzle file, "
+			+ "or it may be damaged.";
+
+	public static final String COULD_NOT_SAVE_FILE = "The puzzle could not be saved to the selected file.";
+
+	public static final String OPEN_COLLECTION_FILE = "Open Puzzle Collection";
+
+	public static final String NO_PUZZLES_IN_COLLECTION = "The file does not contain any puzzles. Each puzzle must be "
+			+ "on its own line, as 81 digits (or dots for empty cells).";
+
+	public static final String GO_TO_PUZZLE = "Go to Puzzle";
+
+	public static final String GO_TO_PUZZLE_MESSAGE = "Enter the number of the puzzle to show.";
+
+	public static final String GO = "Go";
+
+	/** Shown as the hint text, with the puzzle number and the number of puzzles. */
+	public static final String COLLECTION_PUZZLE_FORMAT = "Puzzle %,d of %,d%s";
+
+	public static final String COLLECTION_STILL_INDEXING = "+ (still reading the file)";
+
 	public static final String NO_MOVES = "No possible moves found! Please double check the currently"
 			+ " set cells for contradictions. Otherwise, there might not be enough givens to solve the puzzle.";
 
@@ -192,6 +223,10 @@ public class LabelConstants {
 
 	public static final String USE_DIGIT_BUTTONS_FOR_MOUSE = "Use Digit Buttons for Mouse Actions";
 
+	public static final String HIGHLIGHT_MISTAKES = "Highlight Mistakes Instantly";
+
+	public static final String USE_CANVAS_RENDERER = "Draw Puzzle on a Single Canvas";
+
 	public static final String PUZZLE = "Puzzle";
 
 	public static final String PARTIAL_HINT = "Partial";
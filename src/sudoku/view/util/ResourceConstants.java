@@ -22,10 +22,16 @@ public class ResourceConstants {
 
 	public static final String SAVED_SETTINGS = "./data/settings.txt";
 
+	public static final String SAVED_SETTINGS_BACKUP = "./data/settings.txt.bak";
+
 	public static final String DEFAULT_SETTINGS = "./data/defaults.txt";
 
 	public static final String HOTKEYS = "./data/hotkeys.txt";
 
+	public static final String LOG_FOLDER = "./data/logs";
+
+	public static final String AUTOSAVE_FOLDER = "./data/autosave";
+
 	private ResourceConstants() {
 		// Private constructor to prevent instantiation.
 	}
@@ -33,6 +33,10 @@ public class TooltipConstants {
 
 	public static final String APPLY_BIVALUE_FILTER = "Highlight all bi-value cells.";
 
+	public static final String FILTER_QUERY = "Highlight all cells matching a query. Use 1 - 9 for candidates, "
+			+ "{137} for cells with only those candidates, #2 for cells with that many candidates, h5 for hidden "
+			+ "singles, and combine them with !, & and |. Press ENTER to apply.";
+
 	public static final String HIDE_HINT = "Hide the hint display and annotations.";
 
 	public static final String AUTO_MANAGE_CANDIDATES = "Check this to have the application automatically add"
@@ -52,6 +56,12 @@ public class TooltipConstants {
 	public static final String USE_DIGIT_BUTTONS_FOR_MOUSE = "Check this if you want the digit buttons in the lower left corner\n"
 			+ "(not the filter buttons!) to determine the candidate affected instead of the exact click location.";
 
+	public static final String HIGHLIGHT_MISTAKES = "Check this to highlight digits which do not match the solution, and\n"
+			+ "eliminated candidates which belonged in the cell, as soon as you make them.";
+
+	public static final String USE_CANVAS_RENDERER = "Check this to draw the puzzle grid on one canvas instead of styling\n"
+			+ "each cell and candidate. This may be faster on slower machines.";
+
 	private TooltipConstants() {
 		// Private constructor to prevent instantiation.
 	}
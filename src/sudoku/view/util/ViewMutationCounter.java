@@ -0,0 +1,38 @@
+package sudoku.view.util;
+
+/**
+ * This class counts the changes made to the nodes of the puzzle grid. The count
+ * is reset at the start of each state transition, so it shows how much of the
+ * view a single action touched (e.g. entering a digit should only touch the
+ * cell and the 20 cells it sees). Only changes which actually differ from what
+ * is shown are counted.
+ */
+public class ViewMutationCounter {
+
+	private static ViewMutationCounter instance;
+
+	public static ViewMutationCounter getInstance() {
+		if (ViewMutationCounter.instance == null) {
+			ViewMutationCounter.instance = new ViewMutationCounter();
+		}
+		return ViewMutationCounter.instance;
+	}
+
+	private int numMutations;
+
+	private ViewMutationCounter() {
+		this.numMutations = 0;
+	}
+
+	public void increment() {
+		this.numMutations++;
+	}
+
+	public int getNumMutations() {
+		return this.numMutations;
+	}
+
+	public void reset() {
+		this.numMutations = 0;
+	}
+}